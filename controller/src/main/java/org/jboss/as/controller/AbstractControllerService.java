@@ -51,6 +51,7 @@ public abstract class AbstractControllerService implements Service<ModelControll
     private final ControlledProcessState processState;
     private final OperationStepHandler prepareStep;
     private volatile ModelControllerImpl controller;
+    private volatile SubsystemBootTimes bootTimes;
 
     /**
      * Construct a new instance.
@@ -72,7 +73,8 @@ public abstract class AbstractControllerService implements Service<ModelControll
     public void start(final StartContext context) throws StartException {
         final ServiceController<?> serviceController = context.getController();
         final ServiceContainer container = serviceController.getServiceContainer();
-        final ModelControllerImpl controller = new ModelControllerImpl(container, context.getChildTarget(), ManagementResourceRegistration.Factory.create(rootDescriptionProvider), new ContainerStateMonitor(container, serviceController), configurationPersister, controllerType, prepareStep, processState);
+        bootTimes = new SubsystemBootTimes();
+        final ModelControllerImpl controller = new ModelControllerImpl(container, context.getChildTarget(), ManagementResourceRegistration.Factory.create(rootDescriptionProvider), new ContainerStateMonitor(container, serviceController), configurationPersister, controllerType, prepareStep, processState, bootTimes);
         initModel(controller.getRootResource(), controller.getRootRegistration());
         this.controller = controller;
 
@@ -114,6 +116,15 @@ public abstract class AbstractControllerService implements Service<ModelControll
         configurationPersister.successfulBoot();
     }
 
+    /**
+     * Get the boot times of the subsystems booted by the current controller.
+     *
+     * @return the subsystem boot times
+     */
+    protected SubsystemBootTimes getSubsystemBootTimes() {
+        return bootTimes;
+    }
+
     public void stop(final StopContext context) {
         controller = null;
     }
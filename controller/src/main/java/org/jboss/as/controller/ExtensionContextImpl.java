@@ -23,6 +23,7 @@
 package org.jboss.as.controller;
 
 import java.util.EnumSet;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -33,6 +34,7 @@ import org.jboss.as.controller.persistence.SubsystemXmlWriterRegistry;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLElementWriter;
 
 /**
@@ -191,6 +193,11 @@ public final class ExtensionContextImpl implements ExtensionContext {
             return deployments.getModelDescription(address);
         }
 
+        @Override
+        public ModelNode getCachedModelDescription(PathAddress address, Locale locale) {
+            return deployments.getCachedModelDescription(address, locale);
+        }
+
         @Override
         public Map<String, OperationEntry> getOperationDescriptions(PathAddress address, boolean inherited) {
             return deployments.getOperationDescriptions(address, inherited);
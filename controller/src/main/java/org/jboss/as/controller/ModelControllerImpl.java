@@ -49,6 +49,7 @@ import org.jboss.as.controller.operations.common.ExtensionAddHandler;
 import org.jboss.as.controller.persistence.ConfigurationPersistenceException;
 import org.jboss.as.controller.persistence.ConfigurationPersister;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.PersistentResource;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
@@ -84,17 +85,18 @@ class ModelControllerImpl implements ModelController {
     private final AtomicBoolean bootingFlag = new AtomicBoolean(true);
     private final OperationStepHandler prepareStep;
     private final ControlledProcessState processState;
+    private final SubsystemBootTimes bootTimes;
 
     @Deprecated
     ModelControllerImpl(final ModelNode model, final ServiceRegistry serviceRegistry, final ServiceTarget serviceTarget, final ManagementResourceRegistration rootRegistration,
                         final ContainerStateMonitor stateMonitor, final ConfigurationPersister persister, final OperationContext.Type controllerType,
                         final OperationStepHandler prepareStep, final ControlledProcessState processState) {
-        this(serviceRegistry, serviceTarget, rootRegistration, stateMonitor, persister, controllerType, prepareStep, processState);
+        this(serviceRegistry, serviceTarget, rootRegistration, stateMonitor, persister, controllerType, prepareStep, processState, null);
     }
 
     ModelControllerImpl(final ServiceRegistry serviceRegistry, final ServiceTarget serviceTarget, final ManagementResourceRegistration rootRegistration,
                         final ContainerStateMonitor stateMonitor, final ConfigurationPersister persister, final OperationContext.Type controllerType,
-                        final OperationStepHandler prepareStep, final ControlledProcessState processState) {
+                        final OperationStepHandler prepareStep, final ControlledProcessState processState, final SubsystemBootTimes bootTimes) {
         this.serviceRegistry = serviceRegistry;
         this.serviceTarget = serviceTarget;
         this.rootRegistration = rootRegistration;
@@ -103,6 +105,7 @@ class ModelControllerImpl implements ModelController {
         this.controllerType = controllerType;
         this.prepareStep = prepareStep == null ? new DefaultPrepareStepHandler() : prepareStep;
         this.processState = processState;
+        this.bootTimes = bootTimes;
         this.serviceTarget.addListener(ServiceListener.Inheritance.ALL, stateMonitor);
     }
 
@@ -151,6 +154,12 @@ class ModelControllerImpl implements ModelController {
         return model;
     }
 
+    void recordBootTime(final String subsystem, final long nanos) {
+        if (bootTimes != null) {
+            bootTimes.record(subsystem, nanos);
+        }
+    }
+
     ManagementResourceRegistration getRootRegistration() {
         return rootRegistration;
     }
@@ -257,6 +266,8 @@ class ModelControllerImpl implements ModelController {
     }
 
     ConfigurationPersister.PersistenceResource writeModel(final Resource resource, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+        // No more changes after this point, the updated model can be shared with the readers
+        PersistentResource.freeze(resource);
         final ModelNode newModel = Resource.Tools.readModel(resource);  // Get the model representation
         final ConfigurationPersister.PersistenceResource delegate = persister.store(newModel, affectedAddresses);
         return new ConfigurationPersister.PersistenceResource() {
@@ -353,7 +364,8 @@ class ModelControllerImpl implements ModelController {
 
     /**
      * The root resource, maintains a read-only reference to the current model. All write operations have to performed
-     * after acquiring the write lock on a clone of the underlying model.
+     * after acquiring the write lock on a clone of the underlying model. Since the model is a frozen
+     * {@link PersistentResource}, cloning it is cheap and only the resources modified by an operation get copied.
      */
     private class RootResource implements Resource {
 
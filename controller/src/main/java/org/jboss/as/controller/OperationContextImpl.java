@@ -127,6 +127,8 @@ final class OperationContextImpl implements OperationContext {
     private int containerMonitorDepth;
     /** Stamp to hand back to revert a reload/restartRequired call */
     private StampHolder restartStampHolder;
+    /** Time spent in the steps executed by the current step, tracked during boot */
+    private long nestedStepTime;
 
     enum ContextFlag {
         ROLLBACK_ON_FAIL,
@@ -342,6 +344,9 @@ final class OperationContextImpl implements OperationContext {
         StampHolder oldRestartStamp = restartStampHolder;
         Stage stepStage = null;
         ModelNode response = null;
+        final long stepStart = booting ? System.nanoTime() : 0L;
+        final long outerNestedStepTime = nestedStepTime;
+        nestedStepTime = 0L;
         try {
             // next step runs at the next depth level
             depth++;
@@ -415,6 +420,11 @@ final class OperationContextImpl implements OperationContext {
                 // Null out the current stage to disallow further access to the context
                 currentStage = null;
             }
+            if (booting) {
+                final long elapsed = System.nanoTime() - stepStart;
+                recordBootTime(step, elapsed - nestedStepTime);
+                nestedStepTime = outerNestedStepTime + elapsed;
+            }
         }
 
         if (stepStage != Stage.DONE) {
@@ -441,6 +451,13 @@ final class OperationContextImpl implements OperationContext {
         return resultAction;
     }
 
+    private void recordBootTime(final Step step, final long time) {
+        final String subsystem = SubsystemBootTimes.getSubsystem(PathAddress.pathAddress(step.operation.get(OP_ADDR)));
+        if (subsystem != null) {
+            modelController.recordBootTime(subsystem, time);
+        }
+    }
+
     /**
      * Decide whether failure should trigger a rollback.
      *
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Records the time spent executing the boot operation steps of each subsystem. The recorded time of a step
+ * excludes the time spent in the steps it triggers, so each step is only accounted once.
+ */
+public final class SubsystemBootTimes {
+
+    private final Map<String, Long> times = new LinkedHashMap<String, Long>();
+
+    /**
+     * Get the subsystem a boot operation belongs to.
+     *
+     * @param address the address of the operation
+     * @return the subsystem name, {@code null} if the operation doesn't target a subsystem
+     */
+    static String getSubsystem(final PathAddress address) {
+        for (final PathElement element : address) {
+            if (SUBSYSTEM.equals(element.getKey())) {
+                return element.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Record the execution time of a step.
+     *
+     * @param subsystem the subsystem name
+     * @param nanos the execution time in nanoseconds
+     */
+    void record(final String subsystem, final long nanos) {
+        synchronized (times) {
+            final Long current = times.get(subsystem);
+            times.put(subsystem, current == null ? nanos : current + nanos);
+        }
+    }
+
+    /**
+     * Get the recorded boot times, in milliseconds, per subsystem.
+     *
+     * @return the boot times
+     */
+    public ModelNode toModelNode() {
+        final ModelNode result = new ModelNode().setEmptyObject();
+        synchronized (times) {
+            for (final Map.Entry<String, Long> entry : times.entrySet()) {
+                result.get(entry.getKey()).set(TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+            }
+        }
+        return result;
+    }
+
+}
@@ -45,10 +45,12 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RES
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STORAGE;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -146,12 +148,14 @@ public class GlobalOperationHandlers {
             final Map<String, ModelNode> otherAttributes = new HashMap<String, ModelNode>();
             // Child resources recursively read
             final Map<PathElement, ModelNode> childResources = recursive ? new HashMap<PathElement, ModelNode>() : Collections.<PathElement, ModelNode>emptyMap();
+            // Steps reading parts of the children which could not be read directly, and where to store their results
+            final List<DeferredRead> deferredReads = recursive ? new ArrayList<DeferredRead>() : Collections.<DeferredRead>emptyList();
 
             // We're going to add a bunch of steps that should immediately follow this one. We are going to add them
             // in reverse order of how they should execute, as that is the way adding a Stage.IMMEDIATE step works
 
             // Last to execute is the handler that assembles the overall response from the pieces created by all the other steps
-            final ReadResourceAssemblyHandler assemblyHandler = new ReadResourceAssemblyHandler(directAttributes, metrics, otherAttributes, directChildren, childResources);
+            final ReadResourceAssemblyHandler assemblyHandler = new ReadResourceAssemblyHandler(directAttributes, metrics, otherAttributes, directChildren, childResources, deferredReads);
             context.addStep(assemblyHandler, queryRuntime ? OperationContext.Stage.VERIFY : OperationContext.Stage.IMMEDIATE);
             final ImmutableManagementResourceRegistration registry = context.getResourceRegistration();
             final Resource resource = context.readResource(PathAddress.EMPTY_ADDRESS);
@@ -170,21 +174,7 @@ public class GlobalOperationHandlers {
                     }
                 }
                 if (defaults) {
-                    //get the model description
-                    final DescriptionProvider descriptionProvider = registry.getModelDescription(PathAddress.EMPTY_ADDRESS);
-                    final Locale locale = getLocale(operation);
-                    final ModelNode nodeDescription = descriptionProvider.getModelDescription(locale);
-
-                    if (nodeDescription.isDefined() && nodeDescription.hasDefined(ATTRIBUTES)) {
-                        for (String key : nodeDescription.get(ATTRIBUTES).keys()) {
-                            if ((!childrenByType.containsKey(key)) &&
-                                    (!directAttributes.containsKey(key) || !directAttributes.get(key).isDefined()) &&
-                                    nodeDescription.get(ATTRIBUTES).hasDefined(key) &&
-                                    nodeDescription.get(ATTRIBUTES, key).hasDefined(DEFAULT)) {
-                                directAttributes.put(key, nodeDescription.get(ATTRIBUTES, key, DEFAULT));
-                            }
-                        }
-                    }
+                    addDefaultValues(registry, getLocale(operation), childrenByType, directAttributes);
                 }
             }
 
@@ -209,18 +199,18 @@ public class GlobalOperationHandlers {
                             if (childReg.isRuntimeOnly() && (!proxies || !childReg.isRemote())) {
                                 storeDirect = true;
                             } else {
-                                // Add a step to read the child resource
-                                ModelNode rrOp = new ModelNode();
-                                rrOp.get(OP).set(opName);
-                                rrOp.get(OP_ADDR).set(PathAddress.pathAddress(address, childPE).toModelNode());
-                                rrOp.get(RECURSIVE).set(true);
-                                rrOp.get(PROXIES).set(proxies);
-                                rrOp.get(INCLUDE_RUNTIME).set(queryRuntime);
                                 ModelNode rrRsp = new ModelNode();
                                 childResources.put(childPE, rrRsp);
 
-                                OperationStepHandler rrHandler = childReg.getOperationHandler(relativeAddr, opName);
-                                context.addStep(rrRsp, rrOp, rrHandler, OperationContext.Stage.IMMEDIATE);
+                                OperationStepHandler rrHandler = registry.getOperationHandler(relativeAddr, opName);
+                                Resource childResource = resource.getChild(childPE);
+                                if (isDirectlyReadable(rrHandler, childReg, childResource)) {
+                                    // Read the whole subtree in this step, only the parts which can't be read directly get a step of their own
+                                    readDirectly(context, opName, proxies, PathAddress.pathAddress(address, childPE), childReg, childResource, rrRsp.get(RESULT), deferredReads);
+                                } else {
+                                    // Add a step to read the child resource
+                                    addReadStep(context, opName, proxies, PathAddress.pathAddress(address, childPE), rrHandler, rrRsp);
+                                }
                             }
                         }
                         if (storeDirect) {
@@ -271,6 +261,112 @@ public class GlobalOperationHandlers {
             }
             context.completeStep();
         }
+
+        /**
+         * Whether a child resource can be read by walking the model, instead of executing its read-resource handler
+         * in a step of its own.
+         */
+        private static boolean isDirectlyReadable(final OperationStepHandler handler, final ImmutableManagementResourceRegistration registry, final Resource resource) {
+            if (handler != READ_RESOURCE || resource == null || resource.isProxy() || registry.isRemote() || registry.isRuntimeOnly()) {
+                return false;
+            }
+            // Attributes with a read handler have to be read by a step
+            for (final String attributeName : registry.getAttributeNames(PathAddress.EMPTY_ADDRESS)) {
+                final AttributeAccess access = registry.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeName);
+                if (access != null && access.getStorageType() == Storage.CONFIGURATION && access.getReadHandler() != null) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Recursively reads a resource into {@code result}, producing the same result as a recursive read-resource
+         * step for the resource. Children which can't be read directly get a step of their own, the result of which
+         * is copied into place by the {@link ReadResourceAssemblyHandler}.
+         */
+        private static void readDirectly(final OperationContext context, final String opName, final boolean proxies, final PathAddress address,
+                                  final ImmutableManagementResourceRegistration registry, final Resource resource, final ModelNode result,
+                                  final List<DeferredRead> deferredReads) throws OperationFailedException {
+
+            final Map<String, Set<String>> childrenByType = getChildAddresses(registry, resource, null);
+            final Map<String, ModelNode> attributes = new TreeMap<String, ModelNode>();
+            final ModelNode model = resource.getModel();
+            if (model.isDefined()) {
+                for (String key : model.keys()) {
+                    if (!childrenByType.containsKey(key)) {
+                        attributes.put(key, model.get(key));
+                    }
+                }
+                // A read-resource step for a child doesn't get the include-defaults and locale parameters either
+                addDefaultValues(registry, null, childrenByType, attributes);
+            }
+            final Set<String> childTypes = new TreeSet<String>();
+            for (Map.Entry<String, Set<String>> entry : childrenByType.entrySet()) {
+                if (entry.getValue().isEmpty()) {
+                    // Just treat it like an undefined attribute
+                    attributes.put(entry.getKey(), new ModelNode());
+                } else {
+                    childTypes.add(entry.getKey());
+                }
+            }
+
+            result.setEmptyObject();
+            for (Map.Entry<String, ModelNode> entry : attributes.entrySet()) {
+                result.get(entry.getKey()).set(entry.getValue());
+            }
+            for (String childType : childTypes) {
+                final ModelNode childTypeNode = result.get(childType);
+                for (String child : childrenByType.get(childType)) {
+                    final PathElement childPE = PathElement.pathElement(childType, child);
+                    final PathAddress relativeAddr = PathAddress.pathAddress(childPE);
+                    final ImmutableManagementResourceRegistration childReg = registry.getSubModel(relativeAddr);
+                    if (childReg == null) {
+                        throw new OperationFailedException(new ModelNode().set(String.format("no child registry for (%s, %s)", childType, child)));
+                    }
+                    // Add a "child" => undefined, which is filled in place unless the child is a runtime resource
+                    final ModelNode childNode = childTypeNode.get(child);
+                    // We only invoke runtime resources if they are remote proxies
+                    if (childReg.isRuntimeOnly() && (!proxies || !childReg.isRemote())) {
+                        continue;
+                    }
+                    final OperationStepHandler handler = registry.getOperationHandler(relativeAddr, opName);
+                    final Resource childResource = resource.getChild(childPE);
+                    if (isDirectlyReadable(handler, childReg, childResource)) {
+                        readDirectly(context, opName, proxies, address.append(childPE), childReg, childResource, childNode, deferredReads);
+                    } else {
+                        final ModelNode response = new ModelNode();
+                        deferredReads.add(new DeferredRead(childNode, response));
+                        addReadStep(context, opName, proxies, address.append(childPE), handler, response);
+                    }
+                }
+            }
+        }
+
+        private static void addReadStep(final OperationContext context, final String opName, final boolean proxies, final PathAddress address,
+                                        final OperationStepHandler handler, final ModelNode response) {
+            final ModelNode rrOp = new ModelNode();
+            rrOp.get(OP).set(opName);
+            rrOp.get(OP_ADDR).set(address.toModelNode());
+            rrOp.get(RECURSIVE).set(true);
+            rrOp.get(PROXIES).set(proxies);
+            rrOp.get(INCLUDE_RUNTIME).set(false);
+            context.addStep(response, rrOp, handler, OperationContext.Stage.IMMEDIATE);
+        }
+    }
+
+    /**
+     * The result of a read-resource step for a child, which has to be copied into the result of a resource read
+     * directly by its parent.
+     */
+    private static class DeferredRead {
+        private final ModelNode target;
+        private final ModelNode response;
+
+        private DeferredRead(final ModelNode target, final ModelNode response) {
+            this.target = target;
+            this.response = response;
+        }
     }
 
     ;
@@ -285,6 +381,7 @@ public class GlobalOperationHandlers {
         private final Map<String, ModelNode> metrics;
         private final Map<String, ModelNode> otherAttributes;
         private final Map<PathElement, ModelNode> childResources;
+        private final List<DeferredRead> deferredReads;
 
         /**
          * Creates a ReadResourceAssemblyHandler that will assemble the response using the contents
@@ -300,14 +397,18 @@ public class GlobalOperationHandlers {
          * @param childResources   read-resource response from child resources, where the key is the PathAddress
          *                         relative to the address of the operation this handler is handling and the
          *                         value is the full read-resource response. Will not be {@code null}
+         * @param deferredReads    read-resource responses of resources below the child resources, which have to be
+         *                         copied into the results of the child resources. Will not be {@code null}
          */
         private ReadResourceAssemblyHandler(final Map<String, ModelNode> directAttributes, final Map<String, ModelNode> metrics,
-                                            final Map<String, ModelNode> otherAttributes, Map<String, ModelNode> directChildren, final Map<PathElement, ModelNode> childResources) {
+                                            final Map<String, ModelNode> otherAttributes, Map<String, ModelNode> directChildren, final Map<PathElement, ModelNode> childResources,
+                                            final List<DeferredRead> deferredReads) {
             this.directAttributes = directAttributes;
             this.metrics = metrics;
             this.otherAttributes = otherAttributes;
             this.directChildren = directChildren;
             this.childResources = childResources;
+            this.deferredReads = deferredReads;
         }
 
         @Override
@@ -316,16 +417,28 @@ public class GlobalOperationHandlers {
             Map<String, ModelNode> sortedAttributes = new TreeMap<String, ModelNode>();
             Map<String, ModelNode> sortedChildren = new TreeMap<String, ModelNode>();
             boolean failed = false;
-            for (Map.Entry<String, ModelNode> entry : otherAttributes.entrySet()) {
-                ModelNode value = entry.getValue();
+            for (DeferredRead deferredRead : deferredReads) {
+                ModelNode value = deferredRead.response;
                 if (!value.has(FAILURE_DESCRIPTION)) {
-                    sortedAttributes.put(entry.getKey(), value.get(RESULT));
-                } else if (!failed && value.hasDefined(FAILURE_DESCRIPTION)) {
+                    deferredRead.target.set(value.get(RESULT));
+                } else if (value.hasDefined(FAILURE_DESCRIPTION)) {
                     context.getFailureDescription().set(value.get(FAILURE_DESCRIPTION));
                     failed = true;
                     break;
                 }
             }
+            if (!failed) {
+                for (Map.Entry<String, ModelNode> entry : otherAttributes.entrySet()) {
+                    ModelNode value = entry.getValue();
+                    if (!value.has(FAILURE_DESCRIPTION)) {
+                        sortedAttributes.put(entry.getKey(), value.get(RESULT));
+                    } else if (value.hasDefined(FAILURE_DESCRIPTION)) {
+                        context.getFailureDescription().set(value.get(FAILURE_DESCRIPTION));
+                        failed = true;
+                        break;
+                    }
+                }
+            }
             if (!failed) {
                 for (Map.Entry<PathElement, ModelNode> entry : childResources.entrySet()) {
                     PathElement path = entry.getKey();
@@ -407,12 +520,12 @@ public class GlobalOperationHandlers {
                 } else {
                     // No defined value in the model. See if we should reply with a default from the metadata,
                     // reply with undefined, or fail because it's a non-existent attribute name
-                    final ModelNode nodeDescription = getNodeDescription(registry, operation);
-                    if (defaults && nodeDescription.get(ATTRIBUTES).hasDefined(attributeName) &&
-                            nodeDescription.get(ATTRIBUTES, attributeName).hasDefined(DEFAULT)) {
-                        final ModelNode result = nodeDescription.get(ATTRIBUTES, attributeName, DEFAULT);
+                    final ModelNode attributeDescriptions = getAttributeDescriptions(registry, operation);
+                    if (defaults && attributeDescriptions.hasDefined(attributeName) &&
+                            attributeDescriptions.get(attributeName).hasDefined(DEFAULT)) {
+                        final ModelNode result = attributeDescriptions.get(attributeName, DEFAULT);
                         context.getResult().set(result);
-                    } else if (subModel.has(attributeName) || nodeDescription.get(ATTRIBUTES).has(attributeName)) {
+                    } else if (subModel.has(attributeName) || attributeDescriptions.has(attributeName)) {
                         // model had no defined value, but we treat its existence in the model or the metadata
                         // as proof that it's a legit attribute name
                         context.getResult(); // this initializes the "result" to ModelType.UNDEFINED
@@ -429,10 +542,10 @@ public class GlobalOperationHandlers {
                     context.getResult().set(result);
                 } else {
                     // It wasn't in the model, but user wants a default value from metadata if there is one
-                    final ModelNode nodeDescription = getNodeDescription(registry, operation);
-                    if (nodeDescription.get(ATTRIBUTES).hasDefined(attributeName) &&
-                            nodeDescription.get(ATTRIBUTES, attributeName).hasDefined(DEFAULT)) {
-                        final ModelNode result = nodeDescription.get(ATTRIBUTES, attributeName, DEFAULT);
+                    final ModelNode attributeDescriptions = getAttributeDescriptions(registry, operation);
+                    if (attributeDescriptions.hasDefined(attributeName) &&
+                            attributeDescriptions.get(attributeName).hasDefined(DEFAULT)) {
+                        final ModelNode result = attributeDescriptions.get(attributeName, DEFAULT);
                         context.getResult().set(result);
                     } else {
                         context.getResult(); // this initializes the "result" to ModelType.UNDEFINED
@@ -452,10 +565,14 @@ public class GlobalOperationHandlers {
             }
         }
 
-        private ModelNode getNodeDescription(ImmutableManagementResourceRegistration registry, ModelNode operation) {
-            final DescriptionProvider descriptionProvider = registry.getModelDescription(PathAddress.EMPTY_ADDRESS);
+        private ModelNode getAttributeDescriptions(ImmutableManagementResourceRegistration registry, ModelNode operation) {
             final Locale locale = getLocale(operation);
-            return descriptionProvider.getModelDescription(locale);
+            final ModelNode nodeDescription = registry.getCachedModelDescription(PathAddress.EMPTY_ADDRESS, locale);
+            // the cached description is protected, so don't create missing nodes
+            if (nodeDescription == null || !nodeDescription.has(ATTRIBUTES)) {
+                return new ModelNode();
+            }
+            return nodeDescription.get(ATTRIBUTES);
         }
     }
 
@@ -785,10 +902,10 @@ public class GlobalOperationHandlers {
             final boolean inheritedOps = operation.get(INHERITED).asBoolean(true);
 
             final ImmutableManagementResourceRegistration registry = context.getResourceRegistration();
-            final DescriptionProvider descriptionProvider = registry.getModelDescription(PathAddress.EMPTY_ADDRESS);
             final Locale locale = getLocale(operation);
 
-            final ModelNode nodeDescription = descriptionProvider.getModelDescription(locale);
+            // the description is completed with the operations and children below, so copy the cached one
+            final ModelNode nodeDescription = registry.getCachedModelDescription(PathAddress.EMPTY_ADDRESS, locale).clone();
             final Map<String, ModelNode> operations = new HashMap<String, ModelNode>();
             final Map<PathElement, ModelNode> childResources = recursive ? new HashMap<PathElement, ModelNode>() : Collections.<PathElement, ModelNode>emptyMap();
 
@@ -1155,6 +1272,23 @@ public class GlobalOperationHandlers {
         return result;
     }
 
+    private static void addDefaultValues(final ImmutableManagementResourceRegistration registry, final Locale locale,
+                                         final Map<String, Set<String>> childrenByType, final Map<String, ModelNode> attributes) {
+        //get the model description
+        final ModelNode nodeDescription = registry.getCachedModelDescription(PathAddress.EMPTY_ADDRESS, locale);
+
+        if (nodeDescription != null && nodeDescription.hasDefined(ATTRIBUTES)) {
+            for (String key : nodeDescription.get(ATTRIBUTES).keys()) {
+                if ((!childrenByType.containsKey(key)) &&
+                        (!attributes.containsKey(key) || !attributes.get(key).isDefined()) &&
+                        nodeDescription.get(ATTRIBUTES).hasDefined(key) &&
+                        nodeDescription.get(ATTRIBUTES, key).hasDefined(DEFAULT)) {
+                    attributes.put(key, nodeDescription.get(ATTRIBUTES, key, DEFAULT).clone());
+                }
+            }
+        }
+    }
+
     private static Locale getLocale(final ModelNode operation) {
         if (!operation.hasDefined(LOCALE)) {
             return null;
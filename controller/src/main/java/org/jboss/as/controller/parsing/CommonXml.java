@@ -106,13 +106,24 @@ import static org.jboss.as.controller.parsing.ParseUtils.unexpectedEndElement;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.security.AccessController;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
 
 import javax.xml.stream.XMLStreamException;
 
@@ -137,6 +148,7 @@ import org.jboss.staxmapper.XMLElementReader;
 import org.jboss.staxmapper.XMLElementWriter;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.jboss.threads.JBossThreadFactory;
 
 /**
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
@@ -149,6 +161,9 @@ public abstract class CommonXml implements XMLElementReader<List<ModelNode>>, XM
     /** The restricted path names. */
     protected static final Set<String> RESTRICTED_PATHS;
 
+    /** The maximum number of threads used to load extension modules. */
+    private static final int MAX_EXTENSION_LOADING_THREADS = 8;
+
     static {
 
         final HashSet<String> set = new HashSet<String>(10);
@@ -295,9 +310,7 @@ public abstract class CommonXml implements XMLElementReader<List<ModelNode>>, XM
             throws XMLStreamException {
         requireNoAttributes(reader);
 
-        final Set<String> found = new HashSet<String>();
-
-        final ExtensionParsingContextImpl context = new ExtensionParsingContextImpl(reader.getXMLMapper());
+        final Set<String> found = new LinkedHashSet<String>();
 
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
             // Attribute && require no content
@@ -307,33 +320,86 @@ public abstract class CommonXml implements XMLElementReader<List<ModelNode>>, XM
                 // duplicate module name
                 throw invalidAttributeValue(reader, 0);
             }
+        }
 
-            // Register element handlers for this extension
+        // Load the extension modules concurrently, but register the element handlers in document order
+        final Map<String, Future<List<Extension>>> extensions = loadExtensions(found);
+        final ExtensionParsingContextImpl context = new ExtensionParsingContextImpl(reader.getXMLMapper());
+        for (final String moduleName : found) {
+            final List<Extension> loaded;
             try {
-                final Module module = moduleLoader.loadModule(ModuleIdentifier.fromString(moduleName));
-                boolean initialized = false;
-                for (final Extension extension : module.loadService(Extension.class)) {
-                    ClassLoader oldTccl = SecurityActions.setThreadContextClassLoader(extension.getClass());
-                    try {
-                        extension.initializeParsers(context);
-                    } finally {
-                        SecurityActions.setThreadContextClassLoader(oldTccl);
-                    }
-                    if (!initialized) {
-                        initialized = true;
-                    }
-                }
-                if (!initialized) {
-                    throw new IllegalStateException("No META-INF/services/" + Extension.class.getName() + " found for "
-                            + module.getIdentifier());
+                loaded = extensions.get(moduleName).get();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new XMLStreamException("Interrupted while loading module " + moduleName, e);
+            } catch (final ExecutionException e) {
+                throw new XMLStreamException("Failed to load module", e.getCause());
+            }
+            if (loaded.isEmpty()) {
+                throw new IllegalStateException("No META-INF/services/" + Extension.class.getName() + " found for "
+                        + moduleName);
+            }
+            // Register element handlers for this extension
+            for (final Extension extension : loaded) {
+                ClassLoader oldTccl = SecurityActions.setThreadContextClassLoader(extension.getClass());
+                try {
+                    extension.initializeParsers(context);
+                } finally {
+                    SecurityActions.setThreadContextClassLoader(oldTccl);
                 }
-                final ModelNode add = new ModelNode();
-                add.get(OP_ADDR).set(address).add(EXTENSION, moduleName);
-                add.get(OP).set(ADD);
-                list.add(add);
-            } catch (final ModuleLoadException e) {
-                throw new XMLStreamException("Failed to load module", e);
             }
+            final ModelNode add = new ModelNode();
+            add.get(OP_ADDR).set(address).add(EXTENSION, moduleName);
+            add.get(OP).set(ADD);
+            list.add(add);
+        }
+    }
+
+    /**
+     * Load the modules of the given extensions and instantiate the {@link Extension} services. Independent modules
+     * are loaded on a bounded number of temporary threads.
+     *
+     * @param moduleNames the extension module names
+     * @return the loaded extensions, keyed by module name
+     */
+    private Map<String, Future<List<Extension>>> loadExtensions(final Set<String> moduleNames) {
+        final Map<String, Future<List<Extension>>> result = new LinkedHashMap<String, Future<List<Extension>>>();
+        final int threads = Math.min(moduleNames.size(), Math.min(MAX_EXTENSION_LOADING_THREADS, Runtime.getRuntime().availableProcessors()));
+        if (threads < 2) {
+            for (final String moduleName : moduleNames) {
+                final FutureTask<List<Extension>> task = new FutureTask<List<Extension>>(new ExtensionLoadTask(moduleName));
+                task.run();
+                result.put(moduleName, task);
+            }
+            return result;
+        }
+        final ThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("ExtensionLoading-threads"), Boolean.FALSE, null, "%G - %t", null, null, AccessController.getContext());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+        try {
+            for (final String moduleName : moduleNames) {
+                result.put(moduleName, executor.submit(new ExtensionLoadTask(moduleName)));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return result;
+    }
+
+    private class ExtensionLoadTask implements Callable<List<Extension>> {
+        private final String moduleName;
+
+        ExtensionLoadTask(final String moduleName) {
+            this.moduleName = moduleName;
+        }
+
+        @Override
+        public List<Extension> call() throws ModuleLoadException {
+            final Module module = moduleLoader.loadModule(ModuleIdentifier.fromString(moduleName));
+            final List<Extension> extensions = new ArrayList<Extension>();
+            for (final Extension extension : module.loadService(Extension.class)) {
+                extensions.add(extension);
+            }
+            return extensions;
         }
     }
 
@@ -42,6 +42,7 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
 
     ConfigurationFile configurationFile;
     private final AtomicBoolean successfulBoot = new AtomicBoolean();
+    private volatile BootOperationCache bootOperationCache;
     /**
      * Construct a new instance.
      *
@@ -59,13 +60,48 @@ public class BackupXmlConfigurationPersister extends XmlConfigurationPersister {
         super.registerAdditionalRootElement(anotherRoot, parser);
     }
 
+    /**
+     * Set the cache of the boot operations parsed from the configuration file.
+     *
+     * @param bootOperationCache the cache, or {@code null} to always parse the configuration file
+     */
+    public void setBootOperationCache(final BootOperationCache bootOperationCache) {
+        this.bootOperationCache = bootOperationCache;
+    }
+
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        final BootOperationCache cache = bootOperationCache;
+        if (cache == null) {
+            return super.load();
+        }
+        final List<ModelNode> cached = cache.load(configurationFile.getBootFile());
+        if (cached != null) {
+            return cached;
+        }
+        final List<ModelNode> updates = super.load();
+        cache.parsed(updates);
+        return updates;
+    }
+
     @Override
     public void successfulBoot() throws ConfigurationPersistenceException {
         if(successfulBoot.compareAndSet(false, true)) {
             configurationFile.successfulBoot();
+            final BootOperationCache cache = bootOperationCache;
+            if (cache != null) {
+                cache.store();
+            }
         }
     }
 
+    /**
+     * @return true once the server or host controller has booted, and changes to the model are persisted
+     */
+    protected boolean isSuccessfulBoot() {
+        return successfulBoot.get();
+    }
+
     @Override
     public PersistenceResource store(final ModelNode model, Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
         if(!successfulBoot.get()) {
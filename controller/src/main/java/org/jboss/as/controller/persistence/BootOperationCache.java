@@ -0,0 +1,307 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.jboss.as.controller.Extension;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.modules.Module;
+import org.jboss.modules.ModuleIdentifier;
+import org.jboss.modules.ModuleLoadException;
+import org.jboss.modules.ModuleLoader;
+
+/**
+ * Caches the boot operations parsed from a configuration file in the compact binary DMR format, so an unchanged
+ * configuration doesn't need to be parsed again on the next boot.
+ * <p>
+ * The cache is keyed by a hash of the configuration file and of the system properties, as some parsers resolve
+ * expressions while parsing, and by the resource roots of the extension modules providing the parsers. It is only
+ * written once the boot operations have been executed successfully. Any mismatch or unreadable cache falls back to
+ * parsing the configuration file.
+ * </p>
+ */
+public class BootOperationCache {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    /**
+     * The system property which enables the boot operation cache.
+     */
+    public static final String BOOT_CACHE = "jboss.config.boot-cache";
+
+    private static final int MAGIC = 0x4a424f43;
+    private static final int VERSION = 1;
+    private static final String EXTENSION_SERVICE = "META-INF/services/" + Extension.class.getName();
+
+    private final ConfigurationFile configurationFile;
+    private final ModuleLoader moduleLoader;
+    /**
+     * The key of the last loaded configuration, and the operations parsed from it if they have not been cached yet
+     */
+    private String key;
+    private ModelNode parsed;
+
+    public BootOperationCache(final ConfigurationFile configurationFile, final ModuleLoader moduleLoader) {
+        this.configurationFile = configurationFile;
+        this.moduleLoader = moduleLoader;
+    }
+
+    /**
+     * @return true if the boot operation cache has been enabled by the {@link #BOOT_CACHE} system property
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(BOOT_CACHE);
+    }
+
+    /**
+     * Load the cached boot operations for a configuration file.
+     *
+     * @param file the configuration file which is about to be parsed
+     * @return the cached operations, or {@code null} if the file has to be parsed
+     */
+    synchronized List<ModelNode> load(final File file) {
+        parsed = null;
+        try {
+            key = computeKey(file);
+        } catch (IOException e) {
+            key = null;
+            log.debugf(e, "Could not compute the boot operation cache key for %s", file);
+            return null;
+        }
+        final File cacheFile = configurationFile.getBootOperationCacheFile();
+        if (!cacheFile.exists()) {
+            return null;
+        }
+        DataInputStream input = null;
+        try {
+            input = new DataInputStream(new BufferedInputStream(new FileInputStream(cacheFile)));
+            if (input.readInt() != MAGIC || input.readInt() != VERSION || !key.equals(input.readUTF())) {
+                log.debugf("Boot operation cache %s does not match %s", cacheFile, file);
+                return null;
+            }
+            final int count = input.readInt();
+            for (int i = 0; i < count; i++) {
+                final String moduleName = input.readUTF();
+                final String fingerprint = input.readUTF();
+                if (!fingerprint.equals(getFingerprint(moduleName))) {
+                    log.debugf("Boot operation cache %s does not match extension module %s", cacheFile, moduleName);
+                    return null;
+                }
+            }
+            final ModelNode operations = new ModelNode();
+            operations.readExternal(input);
+            log.debugf("Loaded boot operations from %s", cacheFile);
+            return operations.asList();
+        } catch (Exception e) {
+            log.debugf(e, "Failed to read boot operation cache %s", cacheFile);
+            return null;
+        } finally {
+            safeClose(input);
+        }
+    }
+
+    /**
+     * Remember the operations parsed after {@link #load(File)} did not find a matching cache.
+     *
+     * @param operations the parsed operations
+     */
+    synchronized void parsed(final List<ModelNode> operations) {
+        if (key == null) {
+            return;
+        }
+        // the operations might be modified while they are executed
+        parsed = new ModelNode().setEmptyList();
+        for (final ModelNode operation : operations) {
+            parsed.add(operation);
+        }
+    }
+
+    /**
+     * Write the remembered operations to the cache, once they have been executed successfully.
+     */
+    synchronized void store() {
+        if (parsed == null) {
+            return;
+        }
+        final ModelNode operations = parsed;
+        parsed = null;
+        final File cacheFile = configurationFile.getBootOperationCacheFile();
+        final File temp = new File(cacheFile.getParentFile(), cacheFile.getName() + ".tmp");
+        try {
+            final Map<String, String> fingerprints = new LinkedHashMap<String, String>();
+            for (final String moduleName : getExtensionModules(operations)) {
+                final String fingerprint = getFingerprint(moduleName);
+                if (fingerprint == null) {
+                    return;
+                }
+                fingerprints.put(moduleName, fingerprint);
+            }
+            final FileOutputStream fos = new FileOutputStream(temp);
+            try {
+                final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(fos));
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeUTF(key);
+                output.writeInt(fingerprints.size());
+                for (final Map.Entry<String, String> entry : fingerprints.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    output.writeUTF(entry.getValue());
+                }
+                operations.writeExternal(output);
+                output.flush();
+            } finally {
+                safeClose(fos);
+            }
+            cacheFile.delete();
+            if (!temp.renameTo(cacheFile)) {
+                throw new IOException("Could not rename " + temp + " to " + cacheFile);
+            }
+        } catch (IOException e) {
+            temp.delete();
+            log.warnf(e, "Failed to write boot operation cache %s", cacheFile);
+        }
+    }
+
+    private static String computeKey(final File file) throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final InputStream input = new FileInputStream(file);
+        try {
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            safeClose(input);
+        }
+        final Properties properties = System.getProperties();
+        final Map<String, String> sorted = new TreeMap<String, String>();
+        for (final String name : properties.stringPropertyNames()) {
+            sorted.put(name, properties.getProperty(name));
+        }
+        for (final Map.Entry<String, String> entry : sorted.entrySet()) {
+            digest.update((entry.getKey() + '=' + entry.getValue() + '\n').getBytes("UTF-8"));
+        }
+        final StringBuilder builder = new StringBuilder();
+        for (final byte b : digest.digest()) {
+            builder.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return builder.toString();
+    }
+
+    private static List<String> getExtensionModules(final ModelNode operations) {
+        final List<String> result = new ArrayList<String>();
+        for (final ModelNode operation : operations.asList()) {
+            if (ADD.equals(operation.get(OP).asString())) {
+                final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+                final PathElement last = address.getLastElement();
+                if (last != null && EXTENSION.equals(last.getKey())) {
+                    result.add(last.getValue());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Identify the resource roots of an extension module, by the location, size and modification time of the
+     * archives providing the {@link Extension} service.
+     *
+     * @param moduleName the extension module name
+     * @return the fingerprint, or {@code null} if the module can't be loaded
+     */
+    private String getFingerprint(final String moduleName) throws IOException {
+        final Module module;
+        try {
+            module = moduleLoader.loadModule(ModuleIdentifier.fromString(moduleName));
+        } catch (ModuleLoadException e) {
+            log.debugf(e, "Could not load extension module %s", moduleName);
+            return null;
+        }
+        final StringBuilder builder = new StringBuilder();
+        final Enumeration<URL> urls = module.getExportedResources(EXTENSION_SERVICE);
+        while (urls.hasMoreElements()) {
+            URL url = urls.nextElement();
+            final URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                url = ((JarURLConnection) connection).getJarFileURL();
+            }
+            builder.append(url).append(';');
+            if ("file".equals(url.getProtocol())) {
+                try {
+                    final File root = new File(url.toURI());
+                    builder.append(root.length()).append(';').append(root.lastModified()).append(';');
+                } catch (URISyntaxException e) {
+                    builder.append(connection.getLastModified()).append(';');
+                }
+            } else {
+                builder.append(connection.getLastModified()).append(';');
+            }
+        }
+        return builder.toString();
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        if (closeable != null) try {
+            closeable.close();
+        } catch (Throwable t) {
+            log.errorf(t, "Failed to close resource %s", closeable);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.namespace.QName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.logging.Logger;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLElementWriter;
+
+/**
+ * A {@link BackupXmlConfigurationPersister} which writes the configuration file in the background.
+ * <p>
+ * Committing a change only hands the new model over to a writer thread, so the model is not marshalled while the
+ * controller lock is held. The writer waits until no change has been committed for a short quiet period, or until
+ * a maximum delay has passed since the first pending change, and then writes only the latest model. A burst of
+ * changes, like a CLI batch, therefore results in a single write.
+ * </p>
+ * <p>
+ * The file is written to a temporary file, synced to disk and renamed over the configuration file, so a crash never
+ * leaves a truncated configuration behind. Pending changes are written before a snapshot is taken, before the
+ * configuration is loaded again on reload, and when the JVM shuts down.
+ * </p>
+ * <p>
+ * As the write happens after the operation has completed, a failure can't be reported to the operation which caused
+ * it. It is logged, and reported by {@link #flush()}, and so by {@link #snapshot()} and {@link #load()}, until a later
+ * change has been written successfully.
+ * </p>
+ */
+public class CoalescingXmlConfigurationPersister extends BackupXmlConfigurationPersister {
+
+    private static final Logger log = Logger.getLogger("org.jboss.as.controller");
+
+    /**
+     * The system property which enables coalescing writes of the configuration file.
+     */
+    public static final String COALESCE_WRITES = "jboss.config.coalesce-writes";
+
+    /**
+     * The default time in milliseconds without further changes after which pending changes are written.
+     */
+    public static final long DEFAULT_QUIET_PERIOD = 100;
+
+    /**
+     * The default maximum time in milliseconds a change may stay pending.
+     */
+    public static final long DEFAULT_MAX_DELAY = 1000;
+
+    private final long quietPeriod;
+    private final long maxDelay;
+
+    /**
+     * Guards the fields below
+     */
+    private final Object lock = new Object();
+    private ModelNode pending;
+    private long firstPending;
+    private long lastPending;
+    /**
+     * The number of committed changes, and the number of changes which have been written
+     */
+    private long committed;
+    private long written;
+    private boolean flushRequested;
+    private Thread writer;
+    /**
+     * The failure of the last write, cleared once a write succeeds
+     */
+    private ConfigurationPersistenceException failure;
+
+    public CoalescingXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser) {
+        this(file, rootElement, rootParser, rootDeparser, DEFAULT_QUIET_PERIOD, DEFAULT_MAX_DELAY);
+    }
+
+    public CoalescingXmlConfigurationPersister(final ConfigurationFile file, final QName rootElement, final XMLElementReader<List<ModelNode>> rootParser, final XMLElementWriter<ModelMarshallingContext> rootDeparser,
+                                               final long quietPeriod, final long maxDelay) {
+        super(file, rootElement, rootParser, rootDeparser);
+        this.quietPeriod = quietPeriod;
+        this.maxDelay = maxDelay;
+    }
+
+    /**
+     * @return true if coalescing writes of the configuration file have been enabled by the {@link #COALESCE_WRITES}
+     *         system property
+     */
+    public static boolean isEnabled() {
+        return Boolean.getBoolean(COALESCE_WRITES);
+    }
+
+    @Override
+    public PersistenceResource store(final ModelNode model, final Set<PathAddress> affectedAddresses) throws ConfigurationPersistenceException {
+        if (!isSuccessfulBoot()) {
+            return super.store(model, affectedAddresses);
+        }
+        return new PersistenceResource() {
+            public void commit() {
+                schedule(model);
+            }
+
+            public void rollback() {
+            }
+        };
+    }
+
+    @Override
+    public List<ModelNode> load() throws ConfigurationPersistenceException {
+        // a reload must see all changes made before it
+        flush();
+        return super.load();
+    }
+
+    @Override
+    public String snapshot() throws ConfigurationPersistenceException {
+        flush();
+        return super.snapshot();
+    }
+
+    /**
+     * Blocks until all committed changes have been written.
+     *
+     * @throws ConfigurationPersistenceException if the last write failed
+     */
+    public void flush() throws ConfigurationPersistenceException {
+        boolean interrupted = false;
+        final ConfigurationPersistenceException failure;
+        synchronized (lock) {
+            final long target = committed;
+            if (written < target) {
+                flushRequested = true;
+                lock.notifyAll();
+                while (written < target) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            failure = this.failure;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new ConfigurationPersistenceException(failure.getMessage(), failure);
+        }
+    }
+
+    private void schedule(final ModelNode model) {
+        synchronized (lock) {
+            final long now = System.nanoTime();
+            if (pending == null) {
+                firstPending = now;
+            }
+            pending = model;
+            lastPending = now;
+            committed++;
+            if (writer == null) {
+                writer = new Thread(new Writer(), "Configuration persister " + configurationFile.getMainFile().getName());
+                writer.setDaemon(true);
+                writer.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+                    public void run() {
+                        try {
+                            flush();
+                        } catch (ConfigurationPersistenceException e) {
+                            // already logged by the writer
+                        }
+                    }
+                }));
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private void write(final ModelNode model) throws ConfigurationPersistenceException {
+        final File mainFile = configurationFile.getMainFile();
+        final File temp = new File(mainFile.getParentFile(), mainFile.getName() + ".tmp");
+        boolean replaced = false;
+        try {
+            final FileOutputStream fos = new FileOutputStream(temp);
+            try {
+                final BufferedOutputStream output = new BufferedOutputStream(fos);
+                marshallAsXml(model, output);
+                output.flush();
+                fos.getFD().sync();
+            } finally {
+                fos.close();
+            }
+            configurationFile.replaceMainFile(temp);
+            replaced = true;
+        } catch (IOException e) {
+            throw new ConfigurationPersistenceException("Failed to write " + temp, e);
+        } finally {
+            if (!replaced) {
+                temp.delete();
+            }
+        }
+    }
+
+    private class Writer implements Runnable {
+
+        public void run() {
+            while (true) {
+                final ModelNode model;
+                final long target;
+                synchronized (lock) {
+                    try {
+                        while (pending == null) {
+                            lock.wait();
+                        }
+                        // wait for the burst of changes to end
+                        while (!flushRequested) {
+                            final long now = System.nanoTime();
+                            final long due = Math.min(lastPending + TimeUnit.MILLISECONDS.toNanos(quietPeriod), firstPending + TimeUnit.MILLISECONDS.toNanos(maxDelay));
+                            if (now - due >= 0) {
+                                break;
+                            }
+                            TimeUnit.NANOSECONDS.timedWait(lock, due - now);
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    model = pending;
+                    target = committed;
+                    pending = null;
+                    flushRequested = false;
+                }
+                ConfigurationPersistenceException failure = null;
+                try {
+                    write(model);
+                } catch (ConfigurationPersistenceException e) {
+                    failure = e;
+                } catch (Throwable t) {
+                    failure = new ConfigurationPersistenceException("Failed to store configuration to " + configurationFile.getMainFile(), t);
+                }
+                if (failure != null) {
+                    log.errorf(failure, "Failed to store configuration to %s", configurationFile.getMainFile().getName());
+                }
+                synchronized (lock) {
+                    written = target;
+                    CoalescingXmlConfigurationPersister.this.failure = failure;
+                    if (written == committed) {
+                        flushRequested = false;
+                    }
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -266,6 +266,16 @@ public class ConfigurationFile {
         return mainFile;
     }
 
+    /**
+     * Gets the file in the history directory which caches the boot operations parsed from the configuration file.
+     * The history directory only exists once the server or host controller has booted successfully.
+     *
+     * @return the boot operation cache file
+     */
+    File getBootOperationCacheFile() {
+        return new File(historyRoot, mainFileName + ".boot-ops");
+    }
+
     void successfulBoot() throws ConfigurationPersistenceException {
         synchronized (this) {
             if (doneBootup.get()) {
@@ -304,15 +314,59 @@ public class ConfigurationFile {
         }
         try {
             moveFile(mainFile, getVersionedFile(mainFile));
-            int seq = sequence.get();
-            if (seq > CURRENT_HISTORY_LENGTH) {
-                File delete = getVersionedFile(mainFile, seq - CURRENT_HISTORY_LENGTH);
-                if (delete.exists()) {
-                    delete.delete();
+            deleteOldestVersion();
+        } catch (IOException e) {
+            throw new ConfigurationPersistenceException("Failed to back up " + mainFile, e);
+        }
+    }
+
+    /**
+     * Replaces the main file with a fully written temporary file from the same directory. Unlike
+     * {@link #backup()}, the previous version is copied to the history, so the main file is never missing,
+     * and it is replaced by a rename, which is atomic on file systems that support it.
+     * <p>
+     * On platforms which can't rename over an existing file the main file is first renamed to
+     * {@code <name>.old}, which is only deleted once the new file is in place. A crash between the two renames
+     * therefore leaves the previous configuration in that file rather than losing it. The directory itself is not
+     * synced, which is not possible from Java, so after a power loss the rename may not have reached the disk and the
+     * previous configuration may be found in place of the new one.
+     * </p>
+     *
+     * @param temp the temporary file
+     * @throws ConfigurationPersistenceException if the main file could not be replaced
+     */
+    void replaceMainFile(final File temp) throws ConfigurationPersistenceException {
+        try {
+            if (doneBootup.get()) {
+                copyFile(mainFile, getVersionedFile(mainFile));
+                deleteOldestVersion();
+            }
+            if (!temp.renameTo(mainFile)) {
+                // some platforms can't rename over an existing file, keep the previous one until the new one is in place
+                final File old = new File(mainFile.getParentFile(), mainFile.getName() + ".old");
+                old.delete();
+                if (!mainFile.renameTo(old)) {
+                    throw new IOException("Could not rename " + mainFile + " to " + old);
+                }
+                if (!temp.renameTo(mainFile)) {
+                    old.renameTo(mainFile);
+                    throw new IOException("Could not rename " + temp + " to " + mainFile);
                 }
+                old.delete();
             }
         } catch (IOException e) {
-            throw new ConfigurationPersistenceException("Failed to back up " + mainFile, e);
+            throw new ConfigurationPersistenceException("Failed to replace " + mainFile, e);
+        }
+        fileWritten();
+    }
+
+    private void deleteOldestVersion() {
+        int seq = sequence.get();
+        if (seq > CURRENT_HISTORY_LENGTH) {
+            File delete = getVersionedFile(mainFile, seq - CURRENT_HISTORY_LENGTH);
+            if (delete.exists()) {
+                delete.delete();
+            }
         }
     }
 
@@ -26,6 +26,7 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
@@ -38,6 +39,7 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.registry.OperationEntry.EntryType;
+import org.jboss.dmr.ModelNode;
 
 /**
  * A registry of model node information.  This registry is thread-safe.
@@ -167,6 +169,14 @@ abstract class AbstractResourceRegistration implements ManagementResourceRegistr
 
     abstract DescriptionProvider getModelDescription(Iterator<PathElement> iterator);
 
+    /** {@inheritDoc} */
+    @Override
+    public ModelNode getCachedModelDescription(final PathAddress address, final Locale locale) {
+        return getCachedModelDescription(address.iterator(), locale);
+    }
+
+    abstract ModelNode getCachedModelDescription(Iterator<PathElement> iterator, Locale locale);
+
     @Override
     public Set<String> getAttributeNames(final PathAddress address) {
         return getAttributeNames(address.iterator());
@@ -29,6 +29,7 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -60,6 +61,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
 
     private final boolean runtimeOnly;
 
+    private final ModelDescriptionCache descriptionCache = new ModelDescriptionCache();
+
     private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, NodeSubregistry> childrenUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "children"));
     private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, OperationEntry> operationsUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "operations"));
     private static final AtomicMapFieldUpdater<ConcreteResourceRegistration, String, AttributeAccess> attributesUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ConcreteResourceRegistration.class, Map.class, "attributes"));
@@ -180,6 +183,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -187,6 +191,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (operationsUpdater.putIfAbsent(this, operationName, new OperationEntry(handler, descriptionProvider, inherited, entryType, flags)) != null) {
             throw alreadyRegistered("operation handler", operationName);
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -195,6 +200,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -204,6 +210,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -215,6 +222,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -223,6 +231,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -232,6 +241,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -243,6 +253,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -256,6 +267,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, attributeName, aa) != null) {
             throw alreadyRegistered("attribute", attributeName);
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -264,6 +276,7 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         if (attributesUpdater.putIfAbsent(this, definition.getName(), aa) != null) {
             throw alreadyRegistered("attribute", definition.getName());
         }
+        descriptionCache.invalidate();
     }
 
     @Override
@@ -314,6 +327,27 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
         }
     }
 
+    @Override
+    ModelNode getCachedModelDescription(final Iterator<PathElement> iterator, final Locale locale) {
+        if (iterator.hasNext()) {
+            final PathElement next = iterator.next();
+            final NodeSubregistry subregistry = children.get(next.getKey());
+            if (subregistry == null) {
+                return null;
+            }
+            return subregistry.getCachedModelDescription(iterator, next.getValue(), locale);
+        } else {
+            return descriptionCache.getModelDescription(resourceDefinition.getDescriptionProvider(this), locale);
+        }
+    }
+
+    /**
+     * Discard the cached descriptions, as a change of the registration might affect them.
+     */
+    void invalidateModelDescriptions() {
+        descriptionCache.invalidate();
+    }
+
     @Override
     Set<String> getAttributeNames(final Iterator<PathElement> iterator) {
         if (iterator.hasNext()) {
@@ -349,8 +383,8 @@ final class ConcreteResourceRegistration extends AbstractResourceRegistration {
                 // an unexpected undefined value returned. But it removes the possibility of a
                 // dev forgetting to call registry.registerReadOnlyAttribute("foo", null) resulting
                 // in the valid attribute "foo" not being readable
-                final ModelNode desc = resourceDefinition.getDescriptionProvider(this).getModelDescription(null);
-                if (desc.has(ATTRIBUTES) && desc.get(ATTRIBUTES).keys().contains(attributeName)) {
+                final ModelNode desc = descriptionCache.getModelDescription(resourceDefinition.getDescriptionProvider(this), null);
+                if (desc != null && desc.has(ATTRIBUTES) && desc.get(ATTRIBUTES).keys().contains(attributeName)) {
                     access = new AttributeAccess(AccessType.READ_ONLY, Storage.CONFIGURATION, null, null, null, null);
                 }
             }
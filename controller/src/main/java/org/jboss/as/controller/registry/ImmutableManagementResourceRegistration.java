@@ -22,6 +22,7 @@
 
 package org.jboss.as.controller.registry;
 
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -30,6 +31,7 @@ import org.jboss.as.controller.OperationStepHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.dmr.ModelNode;
 
 /**
  * Read-only view of a {@link ManagementResourceRegistration}.
@@ -134,6 +136,17 @@ public interface ImmutableManagementResourceRegistration {
      */
     DescriptionProvider getModelDescription(PathAddress address);
 
+    /**
+     * Get the model description at the given address for the given locale. The description is cached until the
+     * registration at the address changes, the returned node is therefore protected and has to be cloned before
+     * it is modified.
+     *
+     * @param address the address, relative to this node
+     * @param locale the locale, or {@code null} for the default locale
+     * @return the protected model description, or {@code null} if none exists
+     */
+    ModelNode getCachedModelDescription(PathAddress address, Locale locale);
+
     /**
      * Get a map of descriptions of all operations available at an address.
      *
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Caches the model descriptions of a resource registration by locale. Building a description from resource bundles is
+ * expensive, so the cached descriptions are kept until the registration changes in a way that might affect its
+ * description, e.g. when an attribute or a child is registered.
+ * <p>
+ * The cached descriptions are protected, so callers have to copy them before making any modification.
+ * </p>
+ */
+final class ModelDescriptionCache {
+
+    /** The key for the {@code null} locale, which isn't necessarily equal to any particular locale. */
+    private static final Object DEFAULT_LOCALE = new Object();
+
+    private volatile ConcurrentMap<Object, ModelNode> descriptions = new ConcurrentHashMap<Object, ModelNode>();
+
+    /**
+     * Get the cached description for a locale, building it if necessary.
+     *
+     * @param provider the description provider of the registration
+     * @param locale the locale, may be {@code null}
+     * @return the protected description, or {@code null} if the provider doesn't provide any
+     */
+    ModelNode getModelDescription(final DescriptionProvider provider, final Locale locale) {
+        // A description built while the registration changes ends up in the discarded map
+        final ConcurrentMap<Object, ModelNode> descriptions = this.descriptions;
+        final Object key = locale == null ? DEFAULT_LOCALE : locale;
+        ModelNode description = descriptions.get(key);
+        if (description == null) {
+            final ModelNode provided = provider.getModelDescription(locale);
+            if (provided == null) {
+                return null;
+            }
+            // the provider might hand out and modify a node of its own
+            description = provided.clone();
+            description.protect();
+            final ModelNode existing = descriptions.putIfAbsent(key, description);
+            if (existing != null) {
+                description = existing;
+            }
+        }
+        return description;
+    }
+
+    /**
+     * Discard all cached descriptions.
+     */
+    void invalidate() {
+        descriptions = new ConcurrentHashMap<Object, ModelNode>();
+    }
+}
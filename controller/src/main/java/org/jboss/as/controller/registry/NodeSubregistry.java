@@ -26,6 +26,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -34,6 +35,7 @@ import org.jboss.as.controller.ProxyController;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.dmr.ModelNode;
 
 /**
  * A registry of values within a specific key type.
@@ -83,6 +85,7 @@ final class NodeSubregistry {
         if (appearingRegistry != null) {
             throw new IllegalArgumentException("A node is already registered at '" + getLocationString() + elementValue + ")'");
         }
+        parent.invalidateModelDescriptions();
     }
 
     ProxyControllerRegistration registerProxyController(final String elementValue, final ProxyController proxyController) {
@@ -92,11 +95,13 @@ final class NodeSubregistry {
             throw new IllegalArgumentException("A node is already registered at '" + getLocationString() + elementValue + ")'");
         }
         //register(elementValue, newRegistry);
+        parent.invalidateModelDescriptions();
         return newRegistry;
     }
 
     void unregisterProxyController(final String elementValue) {
         childRegistriesUpdater.remove(this, elementValue);
+        parent.invalidateModelDescriptions();
     }
 
     OperationEntry getOperationEntry(final ListIterator<PathElement> iterator, final String child, final String operationName, OperationEntry inherited) {
@@ -148,6 +153,18 @@ final class NodeSubregistry {
         return childRegistry.getModelDescription(iterator);
     }
 
+    ModelNode getCachedModelDescription(final Iterator<PathElement> iterator, final String child, final Locale locale) {
+        final Map<String, AbstractResourceRegistration> snapshot = childRegistries;
+        AbstractResourceRegistration childRegistry = snapshot.get(child);
+        if (childRegistry == null) {
+            childRegistry = snapshot.get("*");
+            if (childRegistry == null) {
+                return null;
+            }
+        }
+        return childRegistry.getCachedModelDescription(iterator, locale);
+    }
+
     Set<String> getChildNames(final Iterator<PathElement> iterator, final String child){
         final Map<String, AbstractResourceRegistration> snapshot = childRegistries;
         AbstractResourceRegistration childRegistry = snapshot.get(child);
@@ -0,0 +1,396 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * A persistent {@link Resource} implementation using path copying.
+ *
+ * <p>Every resource is either <em>frozen</em>, meaning it is part of a published snapshot which must not change
+ * anymore, or <em>owned</em> by an update, which is identified by an opaque owner token. Cloning a frozen resource
+ * is a constant time operation, creating an owned shallow copy that shares the local model and the children with
+ * the frozen original. Navigating from an owned resource to one of its children lazily creates an owned copy of
+ * that child, so a write only copies the resources on the path from the root down to the changed resource. All
+ * untouched subtrees remain shared between the published snapshot and the updated model.</p>
+ *
+ * <p>Once an update is complete, {@link #freeze(Resource)} has to be called before the model is published to
+ * other threads. Frozen resources are immutable, readers can therefore navigate them without holding any lock.
+ * {@link #getModel()} of a frozen resource returns a copy of its model, so a reader can't change the published
+ * snapshot by accident, and all other modifications of a frozen resource fail with an
+ * {@link IllegalStateException}. Updates have to work on a {@link #clone()}.</p>
+ *
+ * <p>Children of other {@code Resource} types don't support path copying. An update which navigates to such a child
+ * gets a full {@link Resource#clone() clone} of it on first access, which is kept for the rest of the update, so
+ * each update pays for one copy of every foreign subtree it reads or writes.</p>
+ *
+ * <p>Concurrency note: an owned resource may only be accessed by the thread performing the update.</p>
+ */
+public final class PersistentResource implements Resource {
+
+    /** The owner token of resources which are part of a published snapshot. */
+    private static final Object FROZEN = new Object();
+
+    /** The owner token. */
+    private Object owner;
+    /** The local model, possibly shared with the resource this one was copied from. */
+    private ModelNode model;
+    private boolean modelOwned;
+    /** The children, possibly shared with the resource this one was copied from. */
+    private Map<String, Map<String, Resource>> children;
+    private boolean childrenOwned;
+    /** The child types which have been copied by this resource. */
+    private Set<String> ownedTypes;
+    /** Children of a foreign {@code Resource} type, which are already private to the owner. */
+    private Set<Resource> privateChildren;
+
+    PersistentResource() {
+        this.owner = new Object();
+        this.model = new ModelNode();
+        this.modelOwned = true;
+        this.children = new LinkedHashMap<String, Map<String, Resource>>();
+        this.childrenOwned = true;
+    }
+
+    private PersistentResource(final Object owner, final PersistentResource source) {
+        assert source.owner == FROZEN;
+        this.owner = owner;
+        this.model = source.model;
+        this.children = source.children;
+    }
+
+    /**
+     * Freeze a resource which was created or updated by the current thread. After this call the resource
+     * can be safely published to other threads, any further modification has to be done on a clone.
+     *
+     * @param resource the resource
+     */
+    public static void freeze(final Resource resource) {
+        if (resource instanceof PersistentResource) {
+            ((PersistentResource) resource).freeze();
+        }
+    }
+
+    @Override
+    public ModelNode getModel() {
+        if (owner == FROZEN) {
+            return model.clone();
+        }
+        if (!modelOwned) {
+            model = model.clone();
+            modelOwned = true;
+        }
+        return model;
+    }
+
+    /**
+     * Get a copy of the local model, without copying it first to make it private to the owner.
+     *
+     * @return the copy
+     */
+    ModelNode copyModel() {
+        return model.clone();
+    }
+
+    @Override
+    public void writeModel(final ModelNode newModel) {
+        checkNotFrozen();
+        if (modelOwned) {
+            model.set(newModel);
+        } else {
+            model = newModel.clone();
+            modelOwned = true;
+        }
+    }
+
+    @Override
+    public boolean isModelDefined() {
+        return model.isDefined();
+    }
+
+    @Override
+    public boolean hasChild(final PathElement element) {
+        final Map<String, Resource> typeChildren = children.get(element.getKey());
+        if (typeChildren == null) {
+            return false;
+        }
+        if (element.isWildcard()) {
+            return !typeChildren.isEmpty();
+        }
+        return typeChildren.containsKey(element.getValue());
+    }
+
+    @Override
+    public Resource getChild(final PathElement element) {
+        final Map<String, Resource> typeChildren = children.get(element.getKey());
+        if (typeChildren == null) {
+            return null;
+        }
+        final Resource child = typeChildren.get(element.getValue());
+        if (child == null || owner == FROZEN) {
+            return child;
+        }
+        return prepareChild(element.getKey(), element.getValue(), child);
+    }
+
+    @Override
+    public Resource requireChild(final PathElement element) {
+        final Resource resource = getChild(element);
+        if (resource == null) {
+            throw new NoSuchElementException(element.toString());
+        }
+        return resource;
+    }
+
+    @Override
+    public boolean hasChildren(final String childType) {
+        final Map<String, Resource> typeChildren = children.get(childType);
+        return typeChildren != null && !typeChildren.isEmpty();
+    }
+
+    @Override
+    public Resource navigate(final PathAddress address) {
+        return Resource.Tools.navigate(this, address);
+    }
+
+    @Override
+    public Set<String> getChildTypes() {
+        return new LinkedHashSet<String>(children.keySet());
+    }
+
+    @Override
+    public Set<String> getChildrenNames(final String childType) {
+        final Map<String, Resource> typeChildren = children.get(childType);
+        if (typeChildren == null) {
+            return Collections.emptySet();
+        }
+        return new LinkedHashSet<String>(typeChildren.keySet());
+    }
+
+    @Override
+    public Set<ResourceEntry> getChildren(final String childType) {
+        final Map<String, Resource> typeChildren = children.get(childType);
+        if (typeChildren == null) {
+            return Collections.emptySet();
+        }
+        final Set<ResourceEntry> entries = new LinkedHashSet<ResourceEntry>();
+        for (final String name : new LinkedHashSet<String>(typeChildren.keySet())) {
+            final PathElement element = PathElement.pathElement(childType, name);
+            entries.add(new BasicResource.DelegateResource(getChild(element)) {
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public PathElement getPathElement() {
+                    return element;
+                }
+            });
+        }
+        return entries;
+    }
+
+    @Override
+    public void registerChild(final PathElement address, final Resource resource) {
+        if (address.isMultiTarget()) {
+            throw new IllegalArgumentException();
+        }
+        checkNotFrozen();
+        final Map<String, Resource> typeChildren = writableChildren(address.getKey(), true);
+        if (typeChildren.containsKey(address.getValue())) {
+            throw new IllegalStateException("duplicate resource" + address.getValue());
+        }
+        adopt(resource);
+        typeChildren.put(address.getValue(), resource);
+    }
+
+    @Override
+    public Resource removeChild(final PathElement address) {
+        checkNotFrozen();
+        if (!hasChild(address) || address.isWildcard()) {
+            return null;
+        }
+        // don't hand out a frozen resource, which might still be referenced by a published snapshot
+        final Resource removed = getChild(address);
+        writableChildren(address.getKey(), false).remove(address.getValue());
+        if (privateChildren != null) {
+            privateChildren.remove(removed);
+        }
+        return removed;
+    }
+
+    @Override
+    public boolean isRuntime() {
+        return false;
+    }
+
+    @Override
+    public boolean isProxy() {
+        return false;
+    }
+
+    @Override
+    public Resource clone() {
+        if (owner == FROZEN) {
+            return new PersistentResource(new Object(), this);
+        }
+        // Only the owned parts need to be copied, frozen children are cloned in constant time
+        final PersistentResource clone = new PersistentResource();
+        clone.model.set(model);
+        for (final Map.Entry<String, Map<String, Resource>> entry : children.entrySet()) {
+            final Map<String, Resource> typeChildren = clone.writableChildren(entry.getKey(), true);
+            for (final Map.Entry<String, Resource> child : entry.getValue().entrySet()) {
+                final Resource childClone = child.getValue().clone();
+                clone.adopt(childClone);
+                typeChildren.put(child.getKey(), childClone);
+            }
+        }
+        return clone;
+    }
+
+    /**
+     * Make sure a child is owned by the same owner as this resource, copying it if necessary.
+     *
+     * @param type the child type
+     * @param name the child name
+     * @param child the current child
+     * @return the owned child
+     */
+    private Resource prepareChild(final String type, final String name, final Resource child) {
+        final Resource copy;
+        if (child instanceof PersistentResource) {
+            final PersistentResource resource = (PersistentResource) child;
+            if (resource.owner == owner) {
+                return child;
+            }
+            copy = resource.owner == FROZEN ? new PersistentResource(owner, resource) : resource.clone();
+        } else {
+            if (privateChildren != null && privateChildren.contains(child)) {
+                return child;
+            }
+            copy = child.clone();
+        }
+        adopt(copy);
+        writableChildren(type, false).put(name, copy);
+        return copy;
+    }
+
+    /**
+     * Take ownership of a resource registered or copied by the current owner.
+     *
+     * @param resource the resource
+     */
+    private void adopt(final Resource resource) {
+        if (resource instanceof PersistentResource) {
+            ((PersistentResource) resource).setOwner(owner);
+        } else {
+            if (privateChildren == null) {
+                privateChildren = Collections.newSetFromMap(new IdentityHashMap<Resource, Boolean>());
+            }
+            privateChildren.add(resource);
+        }
+    }
+
+    private void setOwner(final Object newOwner) {
+        if (owner == FROZEN || owner == newOwner) {
+            return;
+        }
+        owner = newOwner;
+        for (final Map<String, Resource> typeChildren : children.values()) {
+            for (final Resource child : typeChildren.values()) {
+                if (child instanceof PersistentResource) {
+                    ((PersistentResource) child).setOwner(newOwner);
+                }
+            }
+        }
+    }
+
+    private void checkNotFrozen() {
+        if (owner == FROZEN) {
+            throw new IllegalStateException("Resource is part of a published snapshot and can't be modified, update a clone instead");
+        }
+    }
+
+    private void freeze() {
+        if (owner == FROZEN) {
+            return;
+        }
+        owner = FROZEN;
+        ownedTypes = null;
+        privateChildren = null;
+        for (final Map<String, Resource> typeChildren : children.values()) {
+            for (final Resource child : typeChildren.values()) {
+                if (child instanceof PersistentResource) {
+                    ((PersistentResource) child).freeze();
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the children of a given type for modification, copying the maps shared with the frozen original if
+     * necessary. Must only be called on an owned resource.
+     *
+     * @param type the child type
+     * @param create whether to create the map if it doesn't exist
+     * @return the children map
+     */
+    private Map<String, Resource> writableChildren(final String type, final boolean create) {
+        assert owner != FROZEN;
+        if (!childrenOwned) {
+            children = new LinkedHashMap<String, Map<String, Resource>>(children);
+            childrenOwned = true;
+            ownedTypes = null;
+        }
+        Map<String, Resource> typeChildren = children.get(type);
+        if (typeChildren == null) {
+            if (!create) {
+                return null;
+            }
+            typeChildren = new LinkedHashMap<String, Resource>();
+        } else if (ownedTypes == null || !ownedTypes.contains(type)) {
+            typeChildren = new LinkedHashMap<String, Resource>(typeChildren);
+        } else {
+            return typeChildren;
+        }
+        children.put(type, typeChildren);
+        if (ownedTypes == null) {
+            ownedTypes = new HashSet<String>();
+        }
+        ownedTypes.add(type);
+        return typeChildren;
+    }
+
+}
@@ -163,6 +163,11 @@ final class ProxyControllerRegistration extends AbstractResourceRegistration imp
         return null;
     }
 
+    @Override
+    ModelNode getCachedModelDescription(final Iterator<PathElement> iterator, final Locale locale) {
+        return null;
+    }
+
     @Override
     Set<String> getAttributeNames(final Iterator<PathElement> iterator) {
         return Collections.emptySet();
@@ -172,7 +172,7 @@ public interface Resource extends Cloneable {
          * @return the resource
          */
         public static Resource create() {
-            return new BasicResource();
+            return new PersistentResource();
         }
     }
 
@@ -228,7 +228,7 @@ public interface Resource extends Cloneable {
         }
 
         static ModelNode readModel(final PathAddress address, final Resource resource, final int level, final ResourceFilter filter) {
-            final ModelNode model = resource.getModel().clone();
+            final ModelNode model = copyModel(resource);
             final boolean recursive = level == -1 ? true : level > 0;
             if(recursive) {
                 final int newLevel = level == -1 ? -1 : level - 1;
@@ -244,6 +244,18 @@ public interface Resource extends Cloneable {
             return model;
         }
 
+        private static ModelNode copyModel(final Resource resource) {
+            Resource target = resource;
+            while (target instanceof BasicResource.DelegateResource) {
+                target = ((BasicResource.DelegateResource) target).delegate;
+            }
+            if (target instanceof PersistentResource) {
+                // getModel() would already copy a frozen model, don't copy it twice
+                return ((PersistentResource) target).copyModel();
+            }
+            return resource.getModel().clone();
+        }
+
         /**
          * Navigate.
          *
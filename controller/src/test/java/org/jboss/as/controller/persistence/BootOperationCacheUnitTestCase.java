@@ -0,0 +1,132 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the key handling of the {@link BootOperationCache}.
+ */
+public class BootOperationCacheUnitTestCase {
+
+    private static final String PROPERTY = "org.jboss.as.controller.persistence.test";
+
+    private File dir;
+    private ConfigurationFile configurationFile;
+    private List<ModelNode> operations;
+
+    @Before
+    public void setup() throws Exception {
+        dir = File.createTempFile("boot-cache", "");
+        dir.delete();
+        dir.mkdir();
+        write("<server/>");
+        configurationFile = new ConfigurationFile(dir, "test.xml", null);
+        configurationFile.getBootFile();
+        operations = new ArrayList<ModelNode>();
+        for (int i = 0; i < 3; i++) {
+            final ModelNode operation = new ModelNode();
+            operation.get("operation").set("write-attribute");
+            operation.get("address").setEmptyList().add("subsystem", "test" + i);
+            operation.get("value").set(i);
+            operations.add(operation);
+        }
+    }
+
+    @After
+    public void cleanup() {
+        System.clearProperty(PROPERTY);
+        delete(dir);
+    }
+
+    @Test
+    public void testUnchangedConfiguration() throws Exception {
+        storeCache();
+        assertEquals(operations, new BootOperationCache(configurationFile, null).load(configurationFile.getBootFile()));
+    }
+
+    @Test
+    public void testChangedConfiguration() throws Exception {
+        storeCache();
+        write("<server></server>");
+        assertNull(new BootOperationCache(configurationFile, null).load(configurationFile.getBootFile()));
+    }
+
+    @Test
+    public void testChangedSystemProperties() throws Exception {
+        storeCache();
+        System.setProperty(PROPERTY, "changed");
+        assertNull(new BootOperationCache(configurationFile, null).load(configurationFile.getBootFile()));
+    }
+
+    @Test
+    public void testNotStoredBeforeBoot() throws Exception {
+        final BootOperationCache cache = new BootOperationCache(configurationFile, null);
+        assertNull(cache.load(configurationFile.getBootFile()));
+        cache.parsed(operations);
+        configurationFile.successfulBoot();
+        assertNull(new BootOperationCache(configurationFile, null).load(configurationFile.getBootFile()));
+    }
+
+    private void storeCache() throws Exception {
+        final BootOperationCache cache = new BootOperationCache(configurationFile, null);
+        assertNull(cache.load(configurationFile.getBootFile()));
+        cache.parsed(operations);
+        // the operations may be modified while they are executed
+        operations.get(0).get("value").set("modified");
+        configurationFile.successfulBoot();
+        cache.store();
+        operations.get(0).get("value").set(0);
+    }
+
+    private void write(final String content) throws IOException {
+        final FileWriter writer = new FileWriter(new File(dir, "test.xml"));
+        try {
+            writer.write(content);
+        } finally {
+            writer.close();
+        }
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.persistence;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.dmr.ModelNode;
+import org.jboss.staxmapper.XMLElementReader;
+import org.jboss.staxmapper.XMLElementWriter;
+import org.jboss.staxmapper.XMLExtendedStreamReader;
+import org.jboss.staxmapper.XMLExtendedStreamWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the background writer of the {@link CoalescingXmlConfigurationPersister}.
+ */
+public class CoalescingXmlConfigurationPersisterUnitTestCase {
+
+    private static final QName ROOT = new QName("test");
+
+    private File dir;
+    private ConfigurationFile configurationFile;
+    /**
+     * The values of the models which have been marshalled
+     */
+    private final List<Integer> writes = new CopyOnWriteArrayList<Integer>();
+
+    private final XMLElementReader<List<ModelNode>> parser = new XMLElementReader<List<ModelNode>>() {
+        public void readElement(final XMLExtendedStreamReader reader, final List<ModelNode> value) throws XMLStreamException {
+            reader.discardRemainder();
+        }
+    };
+
+    private final XMLElementWriter<ModelMarshallingContext> deparser = new XMLElementWriter<ModelMarshallingContext>() {
+        public void writeContent(final XMLExtendedStreamWriter writer, final ModelMarshallingContext context) throws XMLStreamException {
+            final ModelNode model = context.getModelNode();
+            if (model.hasDefined("fail")) {
+                throw new XMLStreamException("Failing as requested");
+            }
+            writes.add(model.get("value").asInt());
+            writer.writeStartDocument();
+            writer.writeStartElement(ROOT.getLocalPart());
+            writer.writeAttribute("value", model.get("value").asString());
+            writer.writeEndElement();
+            writer.writeEndDocument();
+        }
+    };
+
+    @Before
+    public void setup() throws Exception {
+        dir = File.createTempFile("coalescing-persister", "");
+        dir.delete();
+        dir.mkdir();
+        final FileWriter writer = new FileWriter(new File(dir, "test.xml"));
+        try {
+            writer.write("<test value=\"-1\"/>");
+        } finally {
+            writer.close();
+        }
+        configurationFile = new ConfigurationFile(dir, "test.xml", null);
+    }
+
+    @After
+    public void cleanup() {
+        delete(dir);
+    }
+
+    @Test
+    public void testChangeIsWrittenInBackground() throws Exception {
+        final CoalescingXmlConfigurationPersister persister = createPersister(10, 100);
+        commit(persister, 1);
+        final long end = System.currentTimeMillis() + 5000;
+        while (writes.isEmpty()) {
+            if (System.currentTimeMillis() > end) {
+                fail("Change was not written within 5000ms");
+            }
+            Thread.sleep(10);
+        }
+        persister.flush();
+        assertEquals(1, writes.size());
+        assertWritten(1);
+    }
+
+    @Test
+    public void testBurstIsCoalesced() throws Exception {
+        final CoalescingXmlConfigurationPersister persister = createPersister(500, 60000);
+        for (int i = 0; i < 10; i++) {
+            commit(persister, i);
+        }
+        persister.flush();
+        assertEquals(1, writes.size());
+        assertWritten(9);
+    }
+
+    @Test
+    public void testMaxDelay() throws Exception {
+        final CoalescingXmlConfigurationPersister persister = createPersister(200, 300);
+        // never quiet for long enough, but the first change must not wait for the end of the burst
+        final long end = System.currentTimeMillis() + 2000;
+        int value = 0;
+        while (System.currentTimeMillis() < end) {
+            commit(persister, value++);
+            Thread.sleep(20);
+        }
+        assertTrue("Nothing was written during the burst", !writes.isEmpty());
+        persister.flush();
+        assertWritten(value - 1);
+    }
+
+    @Test
+    public void testFlushWritesPendingChange() throws Exception {
+        final CoalescingXmlConfigurationPersister persister = createPersister(60000, 60000);
+        commit(persister, 1);
+        persister.flush();
+        assertEquals(1, writes.size());
+        assertWritten(1);
+        // nothing is pending anymore
+        persister.flush();
+        assertEquals(1, writes.size());
+    }
+
+    @Test
+    public void testFailureIsReported() throws Exception {
+        final CoalescingXmlConfigurationPersister persister = createPersister(60000, 60000);
+        final ModelNode failing = new ModelNode();
+        failing.get("fail").set(true);
+        persister.store(failing, Collections.<PathAddress>emptySet()).commit();
+        try {
+            persister.flush();
+            fail("Failed write was not reported");
+        } catch (ConfigurationPersistenceException expected) {
+            // expected
+        }
+        // the failure is reported until a later write succeeds
+        try {
+            persister.flush();
+            fail("Failed write was not reported");
+        } catch (ConfigurationPersistenceException expected) {
+            // expected
+        }
+        try {
+            persister.snapshot();
+            fail("Snapshot was taken of an outdated configuration");
+        } catch (ConfigurationPersistenceException expected) {
+            // expected
+        }
+        assertWritten(-1);
+
+        commit(persister, 2);
+        persister.flush();
+        assertWritten(2);
+        persister.snapshot();
+    }
+
+    private CoalescingXmlConfigurationPersister createPersister(final long quietPeriod, final long maxDelay) throws ConfigurationPersistenceException {
+        final CoalescingXmlConfigurationPersister persister = new CoalescingXmlConfigurationPersister(configurationFile, ROOT, parser, deparser, quietPeriod, maxDelay);
+        persister.successfulBoot();
+        return persister;
+    }
+
+    private static void commit(final CoalescingXmlConfigurationPersister persister, final int value) throws ConfigurationPersistenceException {
+        final ModelNode model = new ModelNode();
+        model.get("value").set(value);
+        persister.store(model, Collections.<PathAddress>emptySet()).commit();
+    }
+
+    private void assertWritten(final int value) throws IOException {
+        final StringBuilder content = new StringBuilder();
+        final FileReader reader = new FileReader(new File(dir, "test.xml"));
+        try {
+            final char[] buffer = new char[256];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                content.append(buffer, 0, read);
+            }
+        } finally {
+            reader.close();
+        }
+        assertTrue(content.toString(), content.toString().contains("value=\"" + value + "\""));
+        assertTrue(!new File(dir, "test.xml.tmp").exists());
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
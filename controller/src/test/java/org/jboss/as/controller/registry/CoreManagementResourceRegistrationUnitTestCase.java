@@ -333,6 +333,40 @@ public class CoreManagementResourceRegistrationUnitTestCase {
         assertTrue(threeFlags.contains(OperationEntry.Flag.READ_ONLY));
     }
 
+    @Test
+    public void testCachedModelDescription() throws Exception {
+
+        final CountingDescriptionProvider provider = new CountingDescriptionProvider("child");
+        ManagementResourceRegistration child = rootRegistration.registerSubModel(childElement, provider);
+
+        ModelNode description = rootRegistration.getCachedModelDescription(fullChildAddress, null);
+        assertEquals("child", description.asString());
+        assertSame(description, child.getCachedModelDescription(PathAddress.EMPTY_ADDRESS, null));
+        assertEquals(1, provider.count);
+
+        try {
+            description.set("modified");
+            fail("cached description is not protected");
+        } catch (UnsupportedOperationException expected) {
+            // expected
+        }
+
+        assertNotSame(description, rootRegistration.getCachedModelDescription(childAddress, Locale.ENGLISH));
+        assertSame(rootRegistration.getCachedModelDescription(childAddress, Locale.ENGLISH), child.getCachedModelDescription(PathAddress.EMPTY_ADDRESS, Locale.ENGLISH));
+        assertEquals(2, provider.count);
+
+        child.registerReadOnlyAttribute("attr", null, AttributeAccess.Storage.CONFIGURATION);
+        description = child.getCachedModelDescription(PathAddress.EMPTY_ADDRESS, null);
+        assertEquals(3, provider.count);
+
+        child.registerSubModel(grandchildElement, new TestDescriptionProvider("grandchild"));
+        assertNotSame(description, child.getCachedModelDescription(PathAddress.EMPTY_ADDRESS, null));
+        assertEquals(4, provider.count);
+
+        assertEquals("grandchild", rootRegistration.getCachedModelDescription(fullGrandchildAddress, null).asString());
+        assertNull(rootRegistration.getCachedModelDescription(PathAddress.pathAddress(PathElement.pathElement("unknown")), null));
+    }
+
     private static class TestHandler implements OperationStepHandler {
 
         private static TestHandler INSTANCE = new TestHandler();
@@ -364,4 +398,18 @@ public class CoreManagementResourceRegistrationUnitTestCase {
             return new ModelNode().set(description);
         }
     }
+
+    private static class CountingDescriptionProvider extends TestDescriptionProvider {
+        private int count;
+
+        public CountingDescriptionProvider(String description) {
+            super(description);
+        }
+
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            count++;
+            return super.getModelDescription(locale);
+        }
+    }
 }
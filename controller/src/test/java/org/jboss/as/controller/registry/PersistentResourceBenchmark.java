@@ -0,0 +1,110 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import java.lang.management.ManagementFactory;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+
+/**
+ * Micro benchmark comparing the allocation per {@code write-attribute} like update of a
+ * {@link PersistentResource} model with the whole tree clone of a {@link BasicResource} model.
+ * <p>
+ * Not run as part of the test suite, execute the {@code main} method on a HotSpot VM.
+ */
+public class PersistentResourceBenchmark {
+
+    private static final int SUBSYSTEMS = 40;
+    private static final int CHILDREN = 100;
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 2000;
+
+    public static void main(final String[] args) {
+        final PathAddress address = PathAddress.pathAddress(PathElement.pathElement("subsystem", "subsystem-7"),
+                PathElement.pathElement("child", "child-42"));
+
+        Resource basic = populate(new BasicResource());
+        Resource persistent = populate(new PersistentResource());
+        PersistentResource.freeze(persistent);
+
+        for (int i = 0; i < WARMUP; i++) {
+            basic = cloneAndWrite(basic, address, i);
+            persistent = copyAndWrite(persistent, address, i);
+        }
+
+        long start = allocatedBytes();
+        long time = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            basic = cloneAndWrite(basic, address, i);
+        }
+        report("BasicResource clone", start, time);
+
+        start = allocatedBytes();
+        time = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            persistent = copyAndWrite(persistent, address, i);
+        }
+        report("PersistentResource path copy", start, time);
+    }
+
+    static Resource cloneAndWrite(final Resource root, final PathAddress address, final int value) {
+        final Resource update = root.clone();
+        update.navigate(address).getModel().get("value").set(value);
+        return update;
+    }
+
+    static Resource copyAndWrite(final Resource root, final PathAddress address, final int value) {
+        final Resource update = root.clone();
+        update.navigate(address).getModel().get("value").set(value);
+        PersistentResource.freeze(update);
+        return update;
+    }
+
+    static Resource populate(final Resource root) {
+        for (int i = 0; i < SUBSYSTEMS; i++) {
+            final Resource subsystem = root instanceof BasicResource ? new BasicResource() : new PersistentResource();
+            subsystem.getModel().get("name").set("subsystem-" + i);
+            root.registerChild(PathElement.pathElement("subsystem", "subsystem-" + i), subsystem);
+            for (int j = 0; j < CHILDREN; j++) {
+                final Resource child = root instanceof BasicResource ? new BasicResource() : new PersistentResource();
+                child.getModel().get("name").set("child-" + j);
+                child.getModel().get("value").set(j);
+                child.getModel().get("enabled").set(true);
+                subsystem.registerChild(PathElement.pathElement("child", "child-" + j), child);
+            }
+        }
+        return root;
+    }
+
+    static void report(final String name, final long startBytes, final long startTime) {
+        final long bytes = allocatedBytes() - startBytes;
+        final long time = System.nanoTime() - startTime;
+        System.out.printf("%-30s %,12d bytes/op %,10d ns/op%n", name, bytes / ITERATIONS, time / ITERATIONS);
+    }
+
+    static long allocatedBytes() {
+        final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
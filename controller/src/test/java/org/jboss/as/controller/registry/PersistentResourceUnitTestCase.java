@@ -0,0 +1,224 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.registry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.ArrayList;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.dmr.ModelNode;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the snapshot semantics of {@link PersistentResource}.
+ */
+public class PersistentResourceUnitTestCase {
+
+    private static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "test");
+    private static final PathElement CHILD_A = PathElement.pathElement("child", "a");
+    private static final PathElement CHILD_B = PathElement.pathElement("child", "b");
+    private static final PathElement FOREIGN = PathElement.pathElement("foreign", "f");
+
+    private Resource root;
+
+    @Before
+    public void setup() {
+        root = Resource.Factory.create();
+        final Resource subsystem = Resource.Factory.create();
+        root.registerChild(SUBSYSTEM, subsystem);
+        final Resource a = Resource.Factory.create();
+        a.getModel().get("attr").set("a");
+        subsystem.registerChild(CHILD_A, a);
+        final Resource b = Resource.Factory.create();
+        b.getModel().get("attr").set("b");
+        subsystem.registerChild(CHILD_B, b);
+        final Resource foreign = new CountingResource();
+        foreign.getModel().get("attr").set("f");
+        subsystem.registerChild(FOREIGN, foreign);
+        PersistentResource.freeze(root);
+    }
+
+    @Test
+    public void testWriteDoesNotAffectSnapshot() {
+        final Resource update = root.clone();
+        update.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)).getModel().get("attr").set("changed");
+        assertEquals("changed", update.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)).getModel().get("attr").asString());
+        assertEquals("a", root.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)).getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testUntouchedSubtreesAreShared() {
+        final Resource update = root.clone();
+        final Resource a = update.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A));
+        assertNotSame(root.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)), a);
+        PersistentResource.freeze(update);
+        assertSame(root.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_B)), update.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_B)));
+        assertNotSame(root.getChild(SUBSYSTEM), update.getChild(SUBSYSTEM));
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        final Resource update = root.clone();
+        final Resource subsystem = update.requireChild(SUBSYSTEM);
+        final Resource c = Resource.Factory.create();
+        subsystem.registerChild(PathElement.pathElement("child", "c"), c);
+        c.getModel().get("attr").set("c");
+        assertNotNull(subsystem.removeChild(CHILD_A));
+
+        assertEquals(Arrays.asList("b", "c"), new ArrayList<String>(subsystem.getChildrenNames("child")));
+        assertSame(c, subsystem.getChild(PathElement.pathElement("child", "c")));
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<String>(root.requireChild(SUBSYSTEM).getChildrenNames("child")));
+
+        PersistentResource.freeze(update);
+        assertEquals("c", update.navigate(PathAddress.pathAddress(SUBSYSTEM, PathElement.pathElement("child", "c"))).getModel().get("attr").asString());
+        assertFalse(update.requireChild(SUBSYSTEM).hasChild(CHILD_A));
+        assertTrue(root.requireChild(SUBSYSTEM).hasChild(CHILD_A));
+    }
+
+    @Test
+    public void testCloneOfUpdateIsIsolated() {
+        final Resource update = root.clone();
+        update.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)).getModel().get("attr").set("first");
+        final Resource snapshot = update.clone();
+        update.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)).getModel().get("attr").set("second");
+        update.requireChild(SUBSYSTEM).removeChild(CHILD_B);
+
+        assertEquals("first", snapshot.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)).getModel().get("attr").asString());
+        assertTrue(snapshot.requireChild(SUBSYSTEM).hasChild(CHILD_B));
+    }
+
+    @Test
+    public void testFrozenModelIsNotShared() {
+        final Resource a = root.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A));
+        a.getModel().get("attr").set("changed");
+        assertEquals("a", a.getModel().get("attr").asString());
+        assertEquals("a", root.clone().navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)).getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testFrozenResourceCannotBeModified() {
+        final Resource subsystem = root.requireChild(SUBSYSTEM);
+        assertFrozen(subsystem, new Runnable() {
+            public void run() {
+                subsystem.writeModel(new ModelNode().set("changed"));
+            }
+        });
+        assertFrozen(subsystem, new Runnable() {
+            public void run() {
+                subsystem.registerChild(PathElement.pathElement("child", "c"), Resource.Factory.create());
+            }
+        });
+        assertFrozen(subsystem, new Runnable() {
+            public void run() {
+                subsystem.removeChild(CHILD_A);
+            }
+        });
+        assertFrozen(root, new Runnable() {
+            public void run() {
+                root.removeChild(SUBSYSTEM);
+            }
+        });
+
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<String>(subsystem.getChildrenNames("child")));
+        assertSame(subsystem, root.requireChild(SUBSYSTEM));
+        assertFalse(subsystem.getModel().isDefined());
+
+        // the same modifications work on a clone
+        final Resource update = root.clone();
+        update.requireChild(SUBSYSTEM).writeModel(new ModelNode().set("changed"));
+        update.requireChild(SUBSYSTEM).registerChild(PathElement.pathElement("child", "c"), Resource.Factory.create());
+        assertNotNull(update.requireChild(SUBSYSTEM).removeChild(CHILD_A));
+        assertEquals(Arrays.asList("b", "c"), new ArrayList<String>(update.requireChild(SUBSYSTEM).getChildrenNames("child")));
+    }
+
+    @Test
+    public void testReadModelOfSnapshot() {
+        final ModelNode model = Resource.Tools.readModel(root);
+        assertEquals("a", model.get(SUBSYSTEM.getKey(), SUBSYSTEM.getValue(), "child", "a", "attr").asString());
+        assertEquals("f", model.get(SUBSYSTEM.getKey(), SUBSYSTEM.getValue(), "foreign", "f", "attr").asString());
+        model.get(SUBSYSTEM.getKey(), SUBSYSTEM.getValue(), "child", "a", "attr").set("changed");
+        assertEquals("a", root.navigate(PathAddress.pathAddress(SUBSYSTEM, CHILD_A)).getModel().get("attr").asString());
+    }
+
+    @Test
+    public void testForeignChildIsCopiedOncePerUpdate() {
+        final CountingResource original = (CountingResource) root.navigate(PathAddress.pathAddress(SUBSYSTEM, FOREIGN));
+        final Resource update = root.clone();
+        final Resource copy = update.navigate(PathAddress.pathAddress(SUBSYSTEM, FOREIGN));
+        assertNotSame(original, copy);
+        assertSame(copy, update.navigate(PathAddress.pathAddress(SUBSYSTEM, FOREIGN)));
+        update.requireChild(SUBSYSTEM).getChildren(FOREIGN.getKey());
+        assertEquals(1, original.clones);
+
+        copy.getModel().get("attr").set("changed");
+        assertEquals("f", original.getModel().get("attr").asString());
+
+        // every update gets its own copy, the published snapshot is read without copying
+        root.clone().navigate(PathAddress.pathAddress(SUBSYSTEM, FOREIGN));
+        assertEquals(2, original.clones);
+        PersistentResource.freeze(update);
+        update.navigate(PathAddress.pathAddress(SUBSYSTEM, FOREIGN));
+        assertEquals(2, original.clones);
+    }
+
+    @Test
+    public void testReadModel() {
+        final Resource update = root.clone();
+        update.requireChild(SUBSYSTEM).getModel().get("value").set(true);
+        final ModelNode model = Resource.Tools.readModel(update);
+        assertTrue(model.get(SUBSYSTEM.getKey(), SUBSYSTEM.getValue(), "value").asBoolean());
+        assertEquals("b", model.get(SUBSYSTEM.getKey(), SUBSYSTEM.getValue(), "child", "b", "attr").asString());
+        assertFalse(root.requireChild(SUBSYSTEM).getModel().has("value"));
+    }
+
+    private static void assertFrozen(final Resource resource, final Runnable modification) {
+        try {
+            modification.run();
+            fail("modified frozen resource " + resource);
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    /**
+     * A resource which doesn't support path copying
+     */
+    private static class CountingResource extends BasicResource {
+        private int clones;
+
+        @Override
+        public Resource clone() {
+            clones++;
+            return super.clone();
+        }
+    }
+}
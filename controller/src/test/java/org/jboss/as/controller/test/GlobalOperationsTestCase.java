@@ -122,6 +122,14 @@ public class GlobalOperationsTestCase extends AbstractControllerTestBase {
         ModelNode result = executeForResult(operation);
         assertTrue(result.hasDefined("profile"));
         assertTrue(result.get("profile").hasDefined("profileA"));
+        checkRecursiveSubsystem1(result.get("profile", "profileA", "subsystem", "subsystem1"));
+        checkRecursiveSubsystem2(result.get("profile", "profileA", "subsystem", "subsystem2"));
+        // read by a step of its own, as it has an attribute with a read handler
+        assertEquals("Overridden by special read handler", result.get("profile", "profileC", "subsystem", "subsystem5", "name").asString());
+
+        operation = createOperation(READ_RESOURCE_OPERATION, "profile", "profileC");
+        operation.get(RECURSIVE).set(true);
+        assertEquals(result.get("profile", "profileC"), executeForResult(operation));
     }
 
     @Test
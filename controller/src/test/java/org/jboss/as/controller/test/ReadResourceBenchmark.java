@@ -0,0 +1,180 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.test;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DEFAULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RECURSIVE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.descriptions.common.CommonProviders;
+import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Benchmark of a recursive {@code read-resource} of a synthetic model of about 50k resources, comparing the
+ * direct walk of {@link GlobalOperationHandlers#READ_RESOURCE} with a step per child resource, which is what
+ * any other read-resource handler instance gets.
+ * <p>
+ * Not run as part of the test suite, execute the {@code main} method on a HotSpot VM. The benchmark runs on a thread
+ * with a large stack, as the nested step execution overflows the default stack for a model of this size.
+ */
+public class ReadResourceBenchmark extends AbstractControllerTestBase {
+
+    private static final int HOSTS = 50;
+    private static final int SERVERS = 10;
+    private static final int DEPLOYMENTS = 100;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 10;
+
+    private static final DescriptionProvider DESCRIPTION_PROVIDER = new DescriptionProvider() {
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            final ModelNode node = new ModelNode();
+            node.get(DESCRIPTION).set("A resource");
+            node.get(ATTRIBUTES, "name", DESCRIPTION).set("The name");
+            node.get(ATTRIBUTES, "name", DEFAULT).set("none");
+            node.get(ATTRIBUTES, "enabled", DESCRIPTION).set("Whether it is enabled");
+            node.get(ATTRIBUTES, "enabled", DEFAULT).set(true);
+            return node;
+        }
+    };
+
+    private final OperationStepHandler readResourceHandler;
+
+    ReadResourceBenchmark(final OperationStepHandler readResourceHandler) {
+        this.readResourceHandler = readResourceHandler;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Thread thread = new Thread(null, new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    final ModelNode direct = ReadResourceBenchmark.run("Direct tree walk", GlobalOperationHandlers.READ_RESOURCE);
+                    final ModelNode steps = ReadResourceBenchmark.run("Step per resource", new GlobalOperationHandlers.ReadResourceHandler());
+                    if (!direct.equals(steps)) {
+                        throw new IllegalStateException("Results differ");
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }, "benchmark", 1L << 30);
+        thread.start();
+        thread.join();
+    }
+
+    private static ModelNode run(final String name, final OperationStepHandler handler) throws Exception {
+        final ReadResourceBenchmark benchmark = new ReadResourceBenchmark(handler);
+        benchmark.setupController();
+        try {
+            final ModelNode operation = new ModelNode();
+            operation.get(OP).set(READ_RESOURCE_OPERATION);
+            operation.get(OP_ADDR).setEmptyList();
+            operation.get(RECURSIVE).set(true);
+
+            ModelNode result = null;
+            for (int i = 0; i < WARMUP; i++) {
+                result = benchmark.execute(operation);
+            }
+            final long bytes = allocatedBytes();
+            final long time = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                result = benchmark.execute(operation);
+            }
+            System.out.printf("%-20s %,14d bytes/op %,8d ms/op%n", name, (allocatedBytes() - bytes) / ITERATIONS,
+                    (System.nanoTime() - time) / ITERATIONS / 1000000);
+            return result;
+        } finally {
+            benchmark.shutdownServiceContainer();
+        }
+    }
+
+    private ModelNode execute(final ModelNode operation) {
+        final ModelNode response = getController().execute(operation, null, null, null);
+        if (!SUCCESS.equals(response.get(OUTCOME).asString())) {
+            throw new IllegalStateException(response.toString());
+        }
+        return response.get(RESULT);
+    }
+
+    @Override
+    DescriptionProvider getRootDescriptionProvider() {
+        return DESCRIPTION_PROVIDER;
+    }
+
+    @Override
+    void initModel(final ManagementResourceRegistration rootRegistration) {
+        rootRegistration.registerOperationHandler(READ_RESOURCE_OPERATION, readResourceHandler, CommonProviders.READ_RESOURCE_PROVIDER, true);
+        rootRegistration.registerOperationHandler("setup", new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                final ModelNode model = new ModelNode();
+                for (int i = 0; i < HOSTS; i++) {
+                    final ModelNode host = model.get("host", "host-" + i);
+                    host.get("name").set("host-" + i);
+                    for (int j = 0; j < SERVERS; j++) {
+                        final ModelNode server = host.get("server", "server-" + j);
+                        server.get("name").set("server-" + j);
+                        server.get("port-offset").set(j * 100);
+                        for (int k = 0; k < DEPLOYMENTS; k++) {
+                            final ModelNode deployment = server.get("deployment", "deployment-" + k + ".war");
+                            deployment.get("runtime-name").set("deployment-" + k + ".war");
+                            deployment.get("hash").set(new byte[20]);
+                            if (k % 2 == 0) {
+                                deployment.get("enabled").set(false);
+                            }
+                        }
+                    }
+                }
+                createModel(context, model);
+                context.completeStep();
+            }
+        }, DESCRIPTION_PROVIDER, false);
+
+        final ManagementResourceRegistration host = rootRegistration.registerSubModel(PathElement.pathElement("host"), DESCRIPTION_PROVIDER);
+        final ManagementResourceRegistration server = host.registerSubModel(PathElement.pathElement("server"), DESCRIPTION_PROVIDER);
+        server.registerSubModel(PathElement.pathElement("deployment"), DESCRIPTION_PROVIDER);
+    }
+
+    static long allocatedBytes() {
+        final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
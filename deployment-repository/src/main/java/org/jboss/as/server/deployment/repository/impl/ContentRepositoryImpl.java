@@ -22,6 +22,7 @@
 
 package org.jboss.as.server.deployment.repository.impl;
 
+import org.jboss.as.server.deployment.repository.api.ContentRemovalListener;
 import org.jboss.as.server.deployment.repository.api.ContentRepository;
 import org.jboss.logging.Logger;
 import org.jboss.msc.service.Service;
@@ -40,9 +41,16 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Default implementation of {@link org.jboss.as.server.deployment.repository.api.ContentRepository}.
@@ -52,8 +60,12 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
     private static final Logger log = Logger.getLogger("org.jboss.as.server.deployment");
 
     protected static final String CONTENT = "content";
+    /** The maximum number of bytes to transfer from a file channel at once */
+    private static final long TRANSFER_SIZE = 8 * 1024 * 1024;
     private final File repoRoot;
-    protected final MessageDigest messageDigest;
+    /** Serializes the addition of the content with a given hash, see {@link #getContentLock(byte[])} */
+    private final Object[] contentLocks = new Object[16];
+    private final List<ContentRemovalListener> removalListeners = new CopyOnWriteArrayList<ContentRemovalListener>();
 
     // TODO: return void
     public static ContentRepositoryImpl addService(final ServiceTarget serviceTarget, final File repoRoot) {
@@ -77,50 +89,132 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
             throw new IllegalStateException("Failed to create a directory at " + repoRoot.getAbsolutePath());
         }
         this.repoRoot = repoRoot;
+        for (int i = 0; i < contentLocks.length; i++) {
+            contentLocks[i] = new Object();
+        }
+    }
 
-        try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+    /**
+     * Opens the content at a URL. Content in the file system is returned as a {@link FileInputStream}, which lets
+     * {@link #addContent(InputStream)} copy it without passing it through the heap.
+     *
+     * @param url the URL of the content
+     * @return the stream
+     * @throws IOException if the stream cannot be opened
+     */
+    public static InputStream openContentStream(final URL url) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return new FileInputStream(new File(url.toURI()));
+            } catch (URISyntaxException e) {
+                // not a valid file URI, let the URL handle it
+            } catch (IllegalArgumentException e) {
+                // e.g. a URL with an authority
+            }
         }
+        return url.openStream();
     }
 
     @Override
     public byte[] addContent(InputStream stream) throws IOException {
-        byte[] sha1Bytes = null;
-        File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
-        FileOutputStream fos = new FileOutputStream(tmp);
-        synchronized (messageDigest) {
-            messageDigest.reset();
-            try {
-                DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                BufferedInputStream bis = new BufferedInputStream(stream);
-                byte[] bytes = new byte[8192];
-                int read;
-                while ((read = bis.read(bytes)) > -1) {
-                    dos.write(bytes, 0, read);
-                }
-            }
-            finally {
-                safeClose(fos);
+        // Every call uses its own temp file and digest, only the move into the repository is serialized per hash
+        final File tmp = File.createTempFile(CONTENT, "tmp", repoRoot);
+        final byte[] sha1Bytes;
+        try {
+            if (stream instanceof FileInputStream) {
+                sha1Bytes = copyFile(((FileInputStream) stream).getChannel(), tmp);
+            } else {
+                sha1Bytes = copyStream(stream, tmp);
             }
-            sha1Bytes = messageDigest.digest();
+        } catch (IOException e) {
+            deleteTemp(tmp);
+            throw e;
+        } catch (RuntimeException e) {
+            deleteTemp(tmp);
+            throw e;
         }
-        final File realFile = getDeploymentContentFile(sha1Bytes, true);
-        if(hasContent(sha1Bytes)) {
-            // we've already got this content
-            if (!tmp.delete()) {
-                tmp.deleteOnExit();
+        synchronized (getContentLock(sha1Bytes)) {
+            final File realFile = getDeploymentContentFile(sha1Bytes, true);
+            if(hasContent(sha1Bytes)) {
+                // we've already got this content
+                deleteTemp(tmp);
+                log.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
+            } else {
+                moveTempToPermanent(tmp, realFile);
+                log.infof("Content added at location %s",realFile.getAbsolutePath());
             }
-            log.debugf("Content was already present in repository at location %s", realFile.getAbsolutePath());
-        } else {
-            moveTempToPermanent(tmp, realFile);
-            log.infof("Content added at location %s",realFile.getAbsolutePath());
         }
 
         return sha1Bytes;
     }
 
+    private static byte[] copyStream(final InputStream stream, final File tmp) throws IOException {
+        final MessageDigest messageDigest = createMessageDigest();
+        final FileOutputStream fos = new FileOutputStream(tmp);
+        try {
+            DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
+            BufferedInputStream bis = new BufferedInputStream(stream);
+            byte[] bytes = new byte[8192];
+            int read;
+            while ((read = bis.read(bytes)) > -1) {
+                dos.write(bytes, 0, read);
+            }
+        }
+        finally {
+            safeClose(fos);
+        }
+        return messageDigest.digest();
+    }
+
+    /**
+     * Copies file content with {@link FileChannel#transferFrom(java.nio.channels.ReadableByteChannel, long, long)}, which
+     * lets the operating system copy the data. The hash is computed from the copy, as the source might still change.
+     */
+    private static byte[] copyFile(final FileChannel source, final File tmp) throws IOException {
+        final MessageDigest messageDigest = createMessageDigest();
+        final RandomAccessFile file = new RandomAccessFile(tmp, "rw");
+        try {
+            final FileChannel target = file.getChannel();
+            long position = 0;
+            long transferred;
+            while ((transferred = target.transferFrom(source, position, TRANSFER_SIZE)) > 0) {
+                position += transferred;
+            }
+            target.position(0);
+            final ByteBuffer buffer = ByteBuffer.allocate(65536);
+            while (target.read(buffer) != -1) {
+                buffer.flip();
+                messageDigest.update(buffer);
+                buffer.clear();
+            }
+        } finally {
+            safeClose(file);
+        }
+        return messageDigest.digest();
+    }
+
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot obtain SHA-1 " + MessageDigest.class.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Gets the lock for adding the content with the given hash, so that content uploaded concurrently is only stored
+     * once.
+     */
+    private Object getContentLock(final byte[] hash) {
+        return contentLocks[hash[0] & (contentLocks.length - 1)];
+    }
+
+    private static void deleteTemp(final File tmp) {
+        if (!tmp.delete()) {
+            tmp.deleteOnExit();
+        }
+    }
+
     @Override
     public VirtualFile getContent(byte[] hash) {
         if (hash == null)
@@ -205,6 +299,33 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
         File file = getDeploymentContentFile(hash, true);
         if(!file.delete())
             file.deleteOnExit();
+        for (ContentRemovalListener listener : removalListeners) {
+            try {
+                listener.contentRemoved(hash);
+            } catch (RuntimeException e) {
+                log.debugf(e, "Content removal listener %s failed", listener);
+            }
+        }
+    }
+
+    /**
+     * Adds a listener which is notified when content is removed from this repository.
+     *
+     * @param listener the listener. Cannot be {@code null}
+     */
+    public void addContentRemovalListener(final ContentRemovalListener listener) {
+        if (listener == null)
+            throw new IllegalArgumentException("listener is null");
+        removalListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addContentRemovalListener(ContentRemovalListener)}.
+     *
+     * @param listener the listener
+     */
+    public void removeContentRemovalListener(final ContentRemovalListener listener) {
+        removalListeners.remove(listener);
     }
 
     protected static void safeClose(final Closeable closeable) {
@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.repository.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of adding content to the {@link ContentRepositoryImpl}.
+ */
+public class ContentRepositoryImplTestCase {
+
+    private File repoRoot;
+    private ContentRepositoryImpl repository;
+    private byte[] content;
+
+    @Before
+    public void setup() throws IOException {
+        repoRoot = File.createTempFile("content-repository", "");
+        repoRoot.delete();
+        repository = new ContentRepositoryImpl(repoRoot);
+        // larger than the copy buffers, so the content is copied in several chunks
+        content = new byte[100000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+    }
+
+    @After
+    public void cleanup() {
+        deleteRecursively(repoRoot);
+    }
+
+    @Test
+    public void testFileAndStreamContentHaveTheSameHash() throws Exception {
+        final File source = File.createTempFile("content-source", ".jar");
+        try {
+            final FileOutputStream out = new FileOutputStream(source);
+            try {
+                out.write(content);
+            } finally {
+                out.close();
+            }
+            final byte[] fileHash;
+            final FileInputStream in = new FileInputStream(source);
+            try {
+                fileHash = repository.addContent(in);
+            } finally {
+                in.close();
+            }
+            final byte[] streamHash = repository.addContent(new ByteArrayInputStream(content));
+
+            assertArrayEquals(MessageDigest.getInstance("SHA-1").digest(content), fileHash);
+            assertArrayEquals(fileHash, streamHash);
+            assertTrue(repository.hasContent(fileHash));
+            assertEquals(1, countContentFiles(repoRoot));
+        } finally {
+            source.delete();
+        }
+    }
+
+    @Test
+    public void testConcurrentAddOfIdenticalContent() throws Exception {
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<byte[]>> hashes = new ArrayList<Future<byte[]>>();
+            for (int i = 0; i < threads; i++) {
+                hashes.add(executor.submit(new Callable<byte[]>() {
+                    @Override
+                    public byte[] call() throws Exception {
+                        start.await();
+                        return repository.addContent(new ByteArrayInputStream(content));
+                    }
+                }));
+            }
+            start.countDown();
+            final byte[] hash = hashes.get(0).get();
+            for (final Future<byte[]> other : hashes) {
+                assertArrayEquals(hash, other.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, countContentFiles(repoRoot));
+        assertEquals(0, countTempFiles());
+    }
+
+    @Test
+    public void testFailingStreamDeletesTempFile() throws Exception {
+        final InputStream failing = new InputStream() {
+            private int read;
+
+            @Override
+            public int read() throws IOException {
+                if (read++ >= 20000) {
+                    throw new IOException("Connection reset");
+                }
+                return read & 0xff;
+            }
+        };
+        try {
+            repository.addContent(failing);
+            fail("The failure of the source stream was not reported");
+        } catch (IOException expected) {
+        }
+        assertEquals(0, countTempFiles());
+        assertEquals(0, countContentFiles(repoRoot));
+    }
+
+    private int countTempFiles() {
+        int count = 0;
+        for (final String name : repoRoot.list()) {
+            if (name.startsWith(ContentRepositoryImpl.CONTENT) && name.endsWith("tmp")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int countContentFiles(final File dir) {
+        int count = 0;
+        final File[] children = dir.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                if (child.isDirectory()) {
+                    count += countContentFiles(child);
+                } else if (child.getName().equals(ContentRepositoryImpl.CONTENT)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.scanner;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Snapshot of the size and last modification time of every file in an exploded deployment, used to tell
+ * whether a change to the deployment's content requires it to be redeployed.
+ */
+final class ExplodedContentManifest {
+
+    /**
+     * Extensions of resources served as is from an exploded web application's directory. Pages which are compiled
+     * or cached by the container, such as JSPs or Facelets, are not included: with the default JSP configuration
+     * an edited page is only picked up by a redeploy.
+     */
+    private static final String[] STATIC_EXTENSIONS = {
+        ".html", ".htm", ".css", ".js", ".txt", ".gif", ".jpg", ".jpeg", ".png", ".ico", ".svg"
+    };
+
+    private final Map<String, FileState> files;
+
+    private ExplodedContentManifest(final Map<String, FileState> files) {
+        this.files = files;
+    }
+
+    /**
+     * Records the current state of the files under the given directory.
+     *
+     * @param root the root directory of the exploded deployment
+     * @return the manifest
+     */
+    static ExplodedContentManifest create(final File root) {
+        final Map<String, FileState> files = new HashMap<String, FileState>();
+        addFiles(root, "", files);
+        return new ExplodedContentManifest(files);
+    }
+
+    /**
+     * Gets whether the given exploded deployment can pick up the changes between this manifest and a newer
+     * one without being redeployed. That is the case if the deployment is a web application and every added,
+     * removed or modified file is a static resource outside of {@code WEB-INF} and {@code META-INF}.
+     *
+     * @param deploymentName the name of the deployment
+     * @param current the manifest of the current content
+     * @return {@code true} if no redeploy is required
+     */
+    boolean isStaticChange(final String deploymentName, final ExplodedContentManifest current) {
+        if (!deploymentName.toLowerCase(Locale.ENGLISH).endsWith(".war")) {
+            return false;
+        }
+        for (Map.Entry<String, FileState> entry : current.files.entrySet()) {
+            final String path = entry.getKey();
+            if (!entry.getValue().equals(files.get(path)) && !isStaticResource(path)) {
+                return false;
+            }
+        }
+        for (String path : files.keySet()) {
+            if (!current.files.containsKey(path) && !isStaticResource(path)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isStaticResource(final String path) {
+        final String upper = path.toUpperCase(Locale.ENGLISH);
+        if (upper.startsWith(FileSystemDeploymentService.WEB_INF + "/") || upper.startsWith(FileSystemDeploymentService.META_INF + "/")) {
+            return false;
+        }
+        final String lower = path.toLowerCase(Locale.ENGLISH);
+        for (String extension : STATIC_EXTENSIONS) {
+            if (lower.endsWith(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addFiles(final File dir, final String prefix, final Map<String, FileState> files) {
+        final File[] children = dir.listFiles();
+        if (children == null) {
+            return;
+        }
+        for (File child : children) {
+            final String path = prefix + child.getName();
+            if (child.isDirectory()) {
+                addFiles(child, path + "/", files);
+            } else {
+                files.put(path, new FileState(child.length(), child.lastModified()));
+            }
+        }
+    }
+
+    private static final class FileState {
+        private final long size;
+        private final long lastModified;
+
+        private FileState(final long size, final long lastModified) {
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (!(obj instanceof FileState)) {
+                return false;
+            }
+            final FileState other = (FileState) obj;
+            return size == other.size && lastModified == other.lastModified;
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (size ^ lastModified);
+        }
+    }
+}
@@ -46,6 +46,7 @@ import java.io.FileFilter;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -277,6 +278,11 @@ class FileSystemDeploymentService implements DeploymentScanner {
         this.maxNoProgress = max;
     }
 
+    /** Hook solely for unit test to check whether the need for a deployment marker was logged for a file */
+    boolean isMarkerNoticeLogged(String fileName) {
+        return noticeLogged.contains(fileName);
+    }
+
     private void establishDeployedContentList(File dir) throws OperationFailedException {
         final Set<String> deploymentNames = getDeploymentNames();
         final File[] children = dir.listFiles();
@@ -476,13 +482,19 @@ class FileSystemDeploymentService implements DeploymentScanner {
      * @param scanContext context of the scan
      */
     private void scanDirectory(final File directory, final String relativePath, final ScanContext scanContext) {
-        final File[] children = directory.listFiles(filter);
-        if (children == null) {
+        // List the directory once and answer the marker and content lookups below from the listed names,
+        // instead of stat'ing every possible sibling of every entry
+        final String[] names = directory.list();
+        if (names == null) {
             return;
         }
+        final Set<String> siblings = new HashSet<String>(Arrays.asList(names));
 
-        for (File child : children) {
-            final String fileName = child.getName();
+        for (String fileName : names) {
+            final File child = new File(directory, fileName);
+            if (!filter.accept(child)) {
+                continue;
+            }
             if (fileName.endsWith(DEPLOYED)) {
                 final String deploymentName = fileName.substring(0, fileName.length() - DEPLOYED.length());
                 DeploymentMarker deploymentMarker = deployed.get(deploymentName);
@@ -491,11 +503,11 @@ class FileSystemDeploymentService implements DeploymentScanner {
                     removeExtraneousMarker(child, fileName);
                 }
                 else {
-                    final File deploymentFile = new File(directory, deploymentName);
-                    if (deploymentFile.exists()) {
+                    if (siblings.contains(deploymentName)) {
                         scanContext.toRemove.remove(deploymentName);
-                        if (deployed.get(deploymentName).lastModified != child.lastModified()) {
-                            scanContext.scannerTasks.add(new RedeployTask(deploymentName, child.lastModified(), directory, !child.isDirectory()));
+                        final long markerTimestamp = child.lastModified();
+                        if (deploymentMarker.lastModified != markerTimestamp) {
+                            scanContext.scannerTasks.add(new RedeployTask(deploymentName, markerTimestamp, directory, !child.isDirectory()));
                         }
                     } else {
                         boolean autoDeployable = deploymentMarker.archive ? autoDeployZip : autoDeployExploded;
@@ -512,44 +524,54 @@ class FileSystemDeploymentService implements DeploymentScanner {
             }
             else if (fileName.endsWith(DO_DEPLOY)) {
                 final String deploymentName = fileName.substring(0, fileName.length() - DO_DEPLOY.length());
-                final File deploymentFile = new File(directory, deploymentName);
-                if (!deploymentFile.exists()) {
+                if (!siblings.contains(deploymentName)) {
                     scanContext.ignoredMissingDeployments.add(deploymentName);
                     continue;
                 }
+                final File deploymentFile = new File(directory, deploymentName);
                 long timestamp = getDeploymentTimestamp(deploymentFile);
                 final String path = relativeTo == null ? deploymentFile.getAbsolutePath() : relativePath + deploymentName; // TODO: sub-directories in the deploymentDir
                 final boolean archive = deploymentFile.isFile();
-                addContentAddingTask(path, archive, deploymentName, deploymentFile, timestamp, scanContext);
+                addContentAddingTask(path, archive, deploymentName, deploymentFile, timestamp, null, scanContext);
             }
             else if (fileName.endsWith(FAILED_DEPLOY)) {
                 final String deploymentName = fileName.substring(0, fileName.length() - FAILED_DEPLOY.length());
                 scanContext.toRemove.remove(deploymentName);
-                if (!deployed.containsKey(deploymentName) && !(new File(child.getParent(), deploymentName).exists())) {
+                if (!deployed.containsKey(deploymentName) && !siblings.contains(deploymentName)) {
                     removeExtraneousMarker(child, fileName);
                 }
             }
             else if (isEEArchive(fileName)) {
                 boolean autoDeployable = child.isDirectory() ? autoDeployExploded : autoDeployZip;
                 if (autoDeployable) {
-                    if (!isAutoDeployDisabled(child)) {
+                    if (!siblings.contains(fileName + SKIP_DEPLOY) && !siblings.contains(fileName + DO_DEPLOY)) {
                         long timestamp = getDeploymentTimestamp(child);
-                        final File failedMarker = new File(directory, fileName + FAILED_DEPLOY);
-                        if(failedMarker.exists() && timestamp <= failedMarker.lastModified()) {
+                        if (siblings.contains(fileName + FAILED_DEPLOY)
+                                && timestamp <= new File(directory, fileName + FAILED_DEPLOY).lastModified()) {
                             continue;
                         }
-                        final File undeployedMarker = new File(directory, fileName + UNDEPLOYED);
-                        if(undeployedMarker.exists()  && timestamp <= undeployedMarker.lastModified()) {
+                        if (siblings.contains(fileName + UNDEPLOYED)
+                                && timestamp <= new File(directory, fileName + UNDEPLOYED).lastModified()) {
                             continue;
                         }
 
                         DeploymentMarker marker = deployed.get(fileName);
                         if (marker == null || marker.lastModified != timestamp) {
+                            ExplodedContentManifest manifest = null;
+                            if (child.isDirectory()) {
+                                manifest = ExplodedContentManifest.create(child);
+                                if (marker != null && marker.manifest != null && marker.manifest.isStaticChange(fileName, manifest)) {
+                                    // The changed resources are served from the deployment directory, no need to redeploy
+                                    log.debugf("Only static resources of %s changed, not redeploying it", fileName);
+                                    recordStaticChange(directory, fileName, timestamp, manifest);
+                                    continue;
+                                }
+                            }
                             try {
                                 if (isZipComplete(child)) {
                                     final String path =  relativeTo == null ? child.getAbsolutePath() : relativePath + fileName;
                                     final boolean archive = child.isFile();
-                                    addContentAddingTask(path, archive, fileName, child, timestamp, scanContext);
+                                    addContentAddingTask(path, archive, fileName, child, timestamp, manifest, scanContext);
                                 }
                                 else {
                                     scanContext.incompleteFiles.put(child, new IncompleteDeploymentStatus(child, timestamp));
@@ -562,7 +584,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
                     }
                 }
                 else if (!deployed.containsKey(fileName)
-                        && !new File(fileName + DO_DEPLOY).exists() && !new File(fileName + FAILED_DEPLOY).exists()) {
+                        && !siblings.contains(fileName + DO_DEPLOY) && !siblings.contains(fileName + FAILED_DEPLOY)) {
                     // Track for possible INFO logging of the need for a marker
                     scanContext.nonDeployable.add(fileName);
                 }
@@ -574,8 +596,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
             else if (fileName.endsWith(PENDING)) {
                 // Do some housekeeping if the referenced deployment is gone
                 final String deploymentName = fileName.substring(0, fileName.length() - PENDING.length());
-                File deployment = new File(child.getParent(), deploymentName);
-                if (!deployment.exists()) {
+                if (!siblings.contains(deploymentName)) {
                     removeExtraneousMarker(child, fileName);
                 }
             }
@@ -593,16 +614,28 @@ class FileSystemDeploymentService implements DeploymentScanner {
     }
 
     private long addContentAddingTask(final String path, final boolean archive, final String deploymentName, final File deploymentFile, final long timestamp,
-            final ScanContext scanContext) {
+            final ExplodedContentManifest manifest, final ScanContext scanContext) {
         if (scanContext.registeredDeployments.contains(deploymentName)) {
-            scanContext.scannerTasks.add(new ReplaceTask(path, archive, deploymentName, deploymentFile, timestamp));
+            scanContext.scannerTasks.add(new ReplaceTask(path, archive, deploymentName, deploymentFile, timestamp, manifest));
         } else {
-            scanContext.scannerTasks.add(new DeployTask(path, archive, deploymentName, deploymentFile, timestamp));
+            scanContext.scannerTasks.add(new DeployTask(path, archive, deploymentName, deploymentFile, timestamp, manifest));
         }
         scanContext.toRemove.remove(deploymentName);
         return timestamp;
     }
 
+    /**
+     * Records a change of an exploded deployment's content which doesn't require it to be redeployed. The
+     * {@code .deployed} marker gets the new timestamp as well, so that it isn't taken for a redeploy request.
+     */
+    private void recordStaticChange(final File directory, final String deploymentName, final long timestamp, final ExplodedContentManifest manifest) {
+        final File deployedMarker = new File(directory, deploymentName + DEPLOYED);
+        if (!deployedMarker.setLastModified(timestamp)) {
+            log.warnf("Cannot update the timestamp of deployment marker file %s", deployedMarker);
+        }
+        deployed.put(deploymentName, new DeploymentMarker(timestamp, false, manifest));
+    }
+
     private boolean isZipComplete(File file) throws NonScannableZipException {
         if (file.isDirectory()) {
             for (File child : file.listFiles()) {
@@ -626,12 +659,6 @@ class FileSystemDeploymentService implements DeploymentScanner {
         }
     }
 
-    private boolean isAutoDeployDisabled(File file) {
-        final File parent = file.getParentFile();
-        final String name = file.getName();
-        return new File(parent, name + SKIP_DEPLOY).exists() || new File(parent, name + DO_DEPLOY).exists();
-    }
-
     private long getDeploymentTimestamp(File deploymentFile) {
         if (deploymentFile.isDirectory()) {
             // Scan for most recent file
@@ -948,13 +975,16 @@ class FileSystemDeploymentService implements DeploymentScanner {
         private final boolean archive;
         protected final File deploymentFile;
         protected final long doDeployTimestamp;
+        private final ExplodedContentManifest manifest;
 
-        protected ContentAddingTask(final String path, final boolean archive, final String deploymentName, final File deploymentFile, long markerTimestamp) {
+        protected ContentAddingTask(final String path, final boolean archive, final String deploymentName, final File deploymentFile, long markerTimestamp,
+                final ExplodedContentManifest manifest) {
             super(deploymentName, deploymentFile.getParentFile(), DEPLOYING);
             this.path = path;
             this.archive = archive;
             this.deploymentFile = deploymentFile;
             this.doDeployTimestamp = markerTimestamp;
+            this.manifest = manifest;
         }
 
         protected ModelNode createContent() {
@@ -986,7 +1016,7 @@ class FileSystemDeploymentService implements DeploymentScanner {
             if (deployed.containsKey(deploymentName)) {
                 deployed.remove(deploymentName);
             }
-            deployed.put(deploymentName, new DeploymentMarker(doDeployTimestamp, archive));
+            deployed.put(deploymentName, new DeploymentMarker(doDeployTimestamp, archive, manifest));
 
             // Remove the in-progress marker - save this until the deployment is really complete.
             removeInProgressMarker();
@@ -994,8 +1024,9 @@ class FileSystemDeploymentService implements DeploymentScanner {
     }
 
     private final class DeployTask extends ContentAddingTask {
-        private DeployTask(final String path, final boolean archive, final String deploymentName, final File deploymentFile, long markerTimestamp) {
-            super(path, archive, deploymentName, deploymentFile, markerTimestamp);
+        private DeployTask(final String path, final boolean archive, final String deploymentName, final File deploymentFile, long markerTimestamp,
+                final ExplodedContentManifest manifest) {
+            super(path, archive, deploymentName, deploymentFile, markerTimestamp, manifest);
         }
 
         @Override
@@ -1020,8 +1051,9 @@ class FileSystemDeploymentService implements DeploymentScanner {
     }
 
     private final class ReplaceTask extends ContentAddingTask {
-        private ReplaceTask(final String path, final boolean archive, String deploymentName, File deploymentFile, long markerTimestamp) {
-            super(path, archive, deploymentName, deploymentFile, markerTimestamp);
+        private ReplaceTask(final String path, final boolean archive, String deploymentName, File deploymentFile, long markerTimestamp,
+                final ExplodedContentManifest manifest) {
+            super(path, archive, deploymentName, deploymentFile, markerTimestamp, manifest);
         }
 
         @Override
@@ -1123,10 +1155,17 @@ class FileSystemDeploymentService implements DeploymentScanner {
     private class DeploymentMarker {
         private final long lastModified;
         private boolean archive;
+        /** The content of an auto-deployed exploded deployment, null if unknown */
+        private final ExplodedContentManifest manifest;
 
         private DeploymentMarker(final long lastModified, boolean archive) {
+            this(lastModified, archive, null);
+        }
+
+        private DeploymentMarker(final long lastModified, boolean archive, final ExplodedContentManifest manifest) {
             this.lastModified = lastModified;
             this.archive = archive;
+            this.manifest = manifest;
         }
     }
 
@@ -1026,6 +1026,22 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertFalse(deployed.exists());
     }
 
+    /**
+     * Tests that the need for a marker is only logged for content without a .dodeploy or .failed marker
+     * in the deployment directory
+     */
+    @Test
+    public void testMarkerNotice() throws Exception {
+        createFile("foo.war");
+        createFile("bar.war");
+        createFile("bar.war" + FileSystemDeploymentService.FAILED_DEPLOY);
+        TesteeSet ts = createTestee();
+        ts.testee.scan();
+
+        assertTrue(ts.testee.isMarkerNoticeLogged("foo.war"));
+        assertFalse(ts.testee.isMarkerNoticeLogged("bar.war"));
+    }
+
     /**
      * Tests that non-archive files nested in an exploded deployment are ignored
      */
@@ -1224,6 +1240,59 @@ public class FileSystemDeploymentServiceUnitTestCase {
         assertTrue(deployed.exists());
     }
 
+    /**
+     * Tests that changing only static resources of an auto-deployed exploded war doesn't redeploy it,
+     * while changing one of its classes does.
+     */
+    @Test
+    public void testExplodedStaticResourceChange() throws Exception {
+        final File war = createDirectory("foo.war", "index.html");
+        final File classes = createDirectory(war, "WEB-INF/classes", "Foo.class");
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        TesteeSet ts = createTestee();
+        ts.testee.setAutoDeployExplodedContent(true);
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+        assertTrue(deployed.exists());
+        byte[] bytes = ts.controller.deployed.get("foo.war");
+
+        File index = new File(war, "index.html");
+        assertTrue(index.setLastModified(deployed.lastModified() + 10000));
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+        assertTrue(Arrays.equals(bytes, ts.controller.deployed.get("foo.war")));
+        assertEquals(index.lastModified(), deployed.lastModified());
+
+        File clazz = new File(classes, "Foo.class");
+        assertTrue(clazz.setLastModified(index.lastModified() + 10000));
+        ts.testee.scan();
+        assertFalse(Arrays.equals(bytes, ts.controller.deployed.get("foo.war")));
+        assertEquals(clazz.lastModified(), deployed.lastModified());
+    }
+
+    /**
+     * Tests that changing a JSP of an auto-deployed exploded war redeploys it, as the container doesn't
+     * recompile edited JSPs by default.
+     */
+    @Test
+    public void testExplodedJspChange() throws Exception {
+        final File war = createDirectory("foo.war", "index.html", "index.jsp");
+        File deployed = new File(tmpDir, "foo.war" + FileSystemDeploymentService.DEPLOYED);
+        TesteeSet ts = createTestee();
+        ts.testee.setAutoDeployExplodedContent(true);
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+        assertTrue(deployed.exists());
+        byte[] bytes = ts.controller.deployed.get("foo.war");
+
+        File jsp = new File(war, "index.jsp");
+        assertTrue(jsp.setLastModified(deployed.lastModified() + 10000));
+        ts.controller.addCompositeSuccessResponse(1);
+        ts.testee.scan();
+        assertFalse(Arrays.equals(bytes, ts.controller.deployed.get("foo.war")));
+        assertEquals(jsp.lastModified(), deployed.lastModified());
+    }
+
     /**
      * Tests that a deployment which had failed earlier, is redeployed (i.e. picked for deployment) when the deployment
      * file is updated (i.e. timestamp changes).
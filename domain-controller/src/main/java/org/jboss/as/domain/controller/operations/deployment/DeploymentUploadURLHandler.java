@@ -25,6 +25,7 @@ import org.jboss.as.controller.descriptions.common.DeploymentDescription;
 import org.jboss.as.controller.operations.validation.ParametersValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.server.deployment.repository.api.ContentRepository;
+import org.jboss.as.server.deployment.repository.impl.ContentRepositoryImpl;
 import org.jboss.dmr.ModelNode;
 
 import java.io.IOException;
@@ -69,7 +70,7 @@ implements DescriptionProvider {
         String urlSpec = operation.get(URL).asString();
         try {
             URL url = new URL(urlSpec);
-            return url.openStream();
+            return ContentRepositoryImpl.openContentStream(url);
         } catch (MalformedURLException e) {
             throw new OperationFailedException(new ModelNode().set(String.format("%s is not a valid URL -- %s", urlSpec, e.toString())));
         } catch (IOException e) {
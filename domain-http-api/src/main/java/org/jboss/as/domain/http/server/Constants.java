@@ -41,11 +41,14 @@ public interface Constants {
      */
 
     String ACCEPT = "Accept";
+    String ACCEPT_ENCODING = "Accept-Encoding";
     String ACCESS_CONTROL_ALLOW_ORIGIN = "Access-Control-Allow-Origin";
     String AUTHORIZATION_HEADER = "Authorization";
     String CONTENT_DISPOSITION = "Content-Disposition";
+    String CONTENT_ENCODING = "Content-Encoding";
     String CONTENT_TYPE = "Content-Type";
     String LOCATION = "Location";
+    String VARY = "Vary";
     String VIA = "Via";
     String WWW_AUTHENTICATE_HEADER = "WWW-Authenticate";
 
@@ -53,6 +56,7 @@ public interface Constants {
      * Content Types
      */
 
+    String APPLICATION_DMR = "application/dmr";
     String APPLICATION_DMR_ENCODED = "application/dmr-encoded";
     String APPLICATION_JAVASCRIPT = "application/javascript";
     String APPLICATION_JSON = "application/json";
@@ -63,6 +67,12 @@ public interface Constants {
     String TEXT_CSS = "text/css";
     String TEXT_HTML = "text/html";
 
+    /*
+     * Content Encodings
+     */
+
+    String GZIP = "gzip";
+
     /*
      * Charsets
      */
@@ -25,12 +25,16 @@ package org.jboss.as.domain.http.server;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
 import static org.jboss.as.domain.http.server.Constants.ACCEPT;
+import static org.jboss.as.domain.http.server.Constants.ACCEPT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.ACCESS_CONTROL_ALLOW_ORIGIN;
+import static org.jboss.as.domain.http.server.Constants.APPLICATION_DMR;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_DMR_ENCODED;
 import static org.jboss.as.domain.http.server.Constants.APPLICATION_JSON;
 import static org.jboss.as.domain.http.server.Constants.CONTENT_DISPOSITION;
+import static org.jboss.as.domain.http.server.Constants.CONTENT_ENCODING;
 import static org.jboss.as.domain.http.server.Constants.CONTENT_TYPE;
 import static org.jboss.as.domain.http.server.Constants.GET;
+import static org.jboss.as.domain.http.server.Constants.GZIP;
 import static org.jboss.as.domain.http.server.Constants.INTERNAL_SERVER_ERROR;
 import static org.jboss.as.domain.http.server.Constants.METHOD_NOT_ALLOWED;
 import static org.jboss.as.domain.http.server.Constants.OK;
@@ -38,8 +42,11 @@ import static org.jboss.as.domain.http.server.Constants.POST;
 import static org.jboss.as.domain.http.server.Constants.TEXT_HTML;
 import static org.jboss.as.domain.http.server.Constants.US_ASCII;
 import static org.jboss.as.domain.http.server.Constants.UTF_8;
+import static org.jboss.as.domain.http.server.Constants.VARY;
 
+import java.io.BufferedOutputStream;
 import java.io.Closeable;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -50,10 +57,13 @@ import java.net.URLDecoder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
 
 import org.jboss.as.controller.client.ModelControllerClient;
 import org.jboss.as.controller.client.OperationBuilder;
@@ -158,7 +168,7 @@ class DomainApiHandler implements ManagementHttpHandler {
         }
 
         // TODO Determine what format the response should be in for a deployment upload request.
-        writeResponse(http, false, false, response, OK, false, TEXT_HTML);
+        writeResponse(http, false, false, response, OK, TEXT_HTML);
     }
 
     /**
@@ -183,11 +193,11 @@ class DomainApiHandler implements ManagementHttpHandler {
         int status = OK;
 
         Headers requestHeaders = http.getRequestHeaders();
-        boolean encode = APPLICATION_DMR_ENCODED.equals(requestHeaders.getFirst(ACCEPT))
-                || APPLICATION_DMR_ENCODED.equals(requestHeaders.getFirst(CONTENT_TYPE));
+        final String requestType = isGet ? null : getMediaType(requestHeaders.getFirst(CONTENT_TYPE));
+        final String responseType = negotiateContentType(requestHeaders.get(ACCEPT), requestType);
 
         try {
-            dmr = isGet ? convertGetRequest(request) : convertPostRequest(http.getRequestBody(), encode);
+            dmr = isGet ? convertGetRequest(request) : convertPostRequest(http.getRequestBody(), requestType, requestHeaders.getFirst(ACCEPT));
         } catch (IllegalArgumentException iae) {
             log.debugf("Unable to construct ModelNode '%s'", iae.getMessage());
             http.sendResponseHeaders(INTERNAL_SERVER_ERROR, -1);
@@ -209,14 +219,80 @@ class DomainApiHandler implements ManagementHttpHandler {
         }
 
         boolean pretty = dmr.hasDefined("json.pretty") && dmr.get("json.pretty").asBoolean();
-        writeResponse(http, isGet, pretty, response, status, encode);
+        writeResponse(http, isGet, pretty, response, status, responseType);
     }
 
-     private void writeResponse(final HttpExchange http, boolean isGet, boolean pretty, ModelNode response, int status,
-            boolean encode) throws IOException {
-         String contentType = encode ? APPLICATION_DMR_ENCODED : APPLICATION_JSON;
-         writeResponse(http, isGet, pretty, response, status, encode, contentType);
-     }
+    /**
+     * Selects the response format from the Accept headers.
+     *
+     * @param accept the values of the Accept headers, may be {@code null}
+     * @param requestType the media type of the request, {@code null} for a GET request
+     * @return the binary or Base64 DMR content type with the highest quality, otherwise the format of the request if
+     *         the client neither listed JSON nor excluded that format, otherwise JSON
+     */
+    private static String negotiateContentType(final List<String> accept, final String requestType) {
+        final float json = getQuality(accept, APPLICATION_JSON);
+        final float binary = getQuality(accept, APPLICATION_DMR);
+        final float encoded = getQuality(accept, APPLICATION_DMR_ENCODED);
+        if (binary > 0 && binary >= encoded && binary >= json) {
+            return APPLICATION_DMR;
+        }
+        if (encoded > 0 && encoded >= json) {
+            return APPLICATION_DMR_ENCODED;
+        }
+        if (json < 0) {
+            // Reply in the format of the request unless the client asked for something else
+            if (APPLICATION_DMR.equals(requestType) && binary < 0) {
+                return APPLICATION_DMR;
+            }
+            if (APPLICATION_DMR_ENCODED.equals(requestType) && encoded < 0) {
+                return APPLICATION_DMR_ENCODED;
+            }
+        }
+        return APPLICATION_JSON;
+    }
+
+    /**
+     * Gets the quality a client assigned to a content type or content encoding. Wildcards are not taken into account,
+     * as they only matter for the default JSON format.
+     *
+     * @param values the values of the header, may be {@code null}
+     * @param token the content type or encoding
+     * @return the quality, {@code 0} if the client excluded the token, or {@code -1} if the token was not listed
+     */
+    private static float getQuality(final List<String> values, final String token) {
+        if (values == null) {
+            return -1;
+        }
+        for (String value : values) {
+            for (String element : value.split(",")) {
+                final String[] parts = element.split(";");
+                if (!token.equalsIgnoreCase(parts[0].trim())) {
+                    continue;
+                }
+                for (int i = 1; i < parts.length; i++) {
+                    final String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=")) {
+                        try {
+                            return Float.parseFloat(parameter.substring(2));
+                        } catch (NumberFormatException e) {
+                            return 0;
+                        }
+                    }
+                }
+                return 1;
+            }
+        }
+        return -1;
+    }
+
+    private static String getMediaType(final String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        final int index = contentType.indexOf(';');
+        return (index == -1 ? contentType : contentType.substring(0, index)).trim().toLowerCase(Locale.ENGLISH);
+    }
 
     /**
      * Writes the HTTP response to the output stream.
@@ -226,17 +302,26 @@ class DomainApiHandler implements ManagementHttpHandler {
      * @param pretty Flag indicating whether or not the output, if JSON, should be pretty printed or not.
      * @param response The DMR response from the operation.
      * @param status The HTTP status code to be included in the response.
-     * @param encode Flag indicating whether or not to Base64 encode the response payload.
+     * @param contentType The content type of the response, binary or Base64 encoded DMR, otherwise JSON is written.
      * @throws IOException if an error occurs while attempting to generate the HTTP response.
      */
     private void writeResponse(final HttpExchange http, boolean isGet, boolean pretty, ModelNode response, int status,
-            boolean encode, String contentType) throws IOException {
+            String contentType) throws IOException {
         final Headers responseHeaders = http.getResponseHeaders();
         responseHeaders.add(CONTENT_TYPE, contentType);
         responseHeaders.add(ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        responseHeaders.add(VARY, ACCEPT + ", " + ACCEPT_ENCODING);
+        final boolean gzip = getQuality(http.getRequestHeaders().get(ACCEPT_ENCODING), GZIP) > 0;
+        if (gzip) {
+            responseHeaders.add(CONTENT_ENCODING, GZIP);
+        }
+        // Chunked encoding, the response is streamed rather than serialized up front
         http.sendResponseHeaders(status, 0);
 
-        final OutputStream out = http.getResponseBody();
+        OutputStream out = new BufferedOutputStream(http.getResponseBody());
+        if (gzip) {
+            out = new GZIPOutputStream(out);
+        }
         final PrintWriter print = new PrintWriter(out);
 
         // GET (read) operations will never have a compensating update, and the status is already
@@ -245,7 +330,11 @@ class DomainApiHandler implements ManagementHttpHandler {
             response = response.get("result");
 
         try {
-            if (encode) {
+            if (APPLICATION_DMR.equals(contentType)) {
+                final DataOutputStream data = new DataOutputStream(out);
+                response.writeExternal(data);
+                data.flush();
+            } else if (APPLICATION_DMR_ENCODED.equals(contentType)) {
                 response.writeBase64(out);
             } else {
                 response.writeJSONString(print, !pretty);
@@ -329,8 +418,18 @@ class DomainApiHandler implements ManagementHttpHandler {
         }
     }
 
-    private ModelNode convertPostRequest(InputStream stream, boolean encode) throws IOException {
-        return encode ? ModelNode.fromBase64(stream) : ModelNode.fromJSONStream(stream);
+    private ModelNode convertPostRequest(InputStream stream, String requestType, String accept) throws IOException {
+        if (APPLICATION_DMR.equals(requestType)) {
+            // the binary format written by ModelNode.writeExternal, not the DMR string format
+            final ModelNode dmr = new ModelNode();
+            dmr.readExternal(stream);
+            return dmr;
+        }
+        // A Base64 request used to be recognized by the Accept header as well
+        if (APPLICATION_DMR_ENCODED.equals(requestType) || APPLICATION_DMR_ENCODED.equals(accept)) {
+            return ModelNode.fromBase64(stream);
+        }
+        return ModelNode.fromJSONStream(stream);
     }
 
     private ModelNode convertGetRequest(URI request) {
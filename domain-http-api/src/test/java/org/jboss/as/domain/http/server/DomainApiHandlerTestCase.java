@@ -0,0 +1,295 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.http.server;
+
+import static org.jboss.as.domain.http.server.Constants.ACCEPT;
+import static org.jboss.as.domain.http.server.Constants.ACCEPT_ENCODING;
+import static org.jboss.as.domain.http.server.Constants.APPLICATION_DMR;
+import static org.jboss.as.domain.http.server.Constants.APPLICATION_DMR_ENCODED;
+import static org.jboss.as.domain.http.server.Constants.APPLICATION_JSON;
+import static org.jboss.as.domain.http.server.Constants.CONTENT_ENCODING;
+import static org.jboss.as.domain.http.server.Constants.CONTENT_TYPE;
+import static org.jboss.as.domain.http.server.Constants.GZIP;
+import static org.jboss.as.domain.http.server.Constants.OK;
+import static org.jboss.as.domain.http.server.Constants.POST;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.Operation;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.com.sun.net.httpserver.HttpServer;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the content negotiation of the {@link DomainApiHandler}.
+ */
+public class DomainApiHandlerTestCase {
+
+    private static final String READ_ATTRIBUTE = "/management?operation=attribute&name=release-version";
+
+    private final Client client = new Client();
+    private ExecutorService executor;
+    private HttpServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        new DomainApiHandler(client).start(server, null);
+        server.start();
+    }
+
+    @After
+    public void stopServer() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testDefaultIsJson() throws Exception {
+        final Response response = get(null, null);
+        assertEquals(APPLICATION_JSON, response.contentType);
+        assertEquals(client.result, ModelNode.fromJSONStream(response.getBody()));
+    }
+
+    @Test
+    public void testQualityOrdering() throws Exception {
+        Response response = get("application/json;q=0.5, application/dmr-encoded;q=0.8", null);
+        assertEquals(APPLICATION_DMR_ENCODED, response.contentType);
+        assertEquals(client.result, ModelNode.fromBase64(response.getBody()));
+
+        response = get("application/dmr;q=0.5, application/json", null);
+        assertEquals(APPLICATION_JSON, response.contentType);
+
+        response = get("application/dmr-encoded;q=0.9, application/dmr", null);
+        assertEquals(APPLICATION_DMR, response.contentType);
+        assertEquals(client.result, fromBinary(response.getBody()));
+    }
+
+    @Test
+    public void testExcludedType() throws Exception {
+        Response response = get("application/dmr;q=0, application/dmr-encoded;q=0", null);
+        assertEquals(APPLICATION_JSON, response.contentType);
+
+        // a client may exclude the format of its own request
+        response = post(APPLICATION_DMR, binary(operation()), "application/dmr;q=0");
+        assertEquals(APPLICATION_JSON, response.contentType);
+        assertEquals(client.response(), ModelNode.fromJSONStream(response.getBody()));
+    }
+
+    @Test
+    public void testReplyInRequestFormat() throws Exception {
+        Response response = post(APPLICATION_DMR, binary(operation()), null);
+        assertEquals(APPLICATION_DMR, response.contentType);
+        assertEquals(client.response(), fromBinary(response.getBody()));
+        assertEquals(operation(), client.operation);
+
+        response = post(APPLICATION_DMR_ENCODED + "; charset=US-ASCII", base64(operation()), "*/*");
+        assertEquals(APPLICATION_DMR_ENCODED, response.contentType);
+        assertEquals(client.response(), ModelNode.fromBase64(response.getBody()));
+
+        // unless JSON is asked for
+        response = post(APPLICATION_DMR, binary(operation()), APPLICATION_JSON);
+        assertEquals(APPLICATION_JSON, response.contentType);
+    }
+
+    @Test
+    public void testLegacyEncodedRequest() throws Exception {
+        // older clients sent a Base64 request without a matching content type, only the Accept header told it apart
+        final Response response = post("application/x-www-form-urlencoded", base64(operation()), APPLICATION_DMR_ENCODED);
+        assertEquals(operation(), client.operation);
+        assertEquals(APPLICATION_DMR_ENCODED, response.contentType);
+        assertEquals(client.response(), ModelNode.fromBase64(response.getBody()));
+    }
+
+    @Test
+    public void testGzip() throws Exception {
+        Response response = get(null, "deflate, gzip");
+        assertEquals(GZIP, response.contentEncoding);
+        assertEquals(client.result, ModelNode.fromJSONStream(new GZIPInputStream(response.getBody())));
+
+        response = get(null, "gzip;q=0, identity");
+        assertNull(response.contentEncoding);
+        assertEquals(client.result, ModelNode.fromJSONStream(response.getBody()));
+    }
+
+    private Response get(final String accept, final String acceptEncoding) throws IOException {
+        final HttpURLConnection connection = open(READ_ATTRIBUTE);
+        if (accept != null) {
+            connection.setRequestProperty(ACCEPT, accept);
+        }
+        if (acceptEncoding != null) {
+            connection.setRequestProperty(ACCEPT_ENCODING, acceptEncoding);
+        }
+        return new Response(connection);
+    }
+
+    private Response post(final String contentType, final byte[] body, final String accept) throws IOException {
+        final HttpURLConnection connection = open("/management");
+        connection.setRequestMethod(POST);
+        connection.setDoOutput(true);
+        connection.setRequestProperty(CONTENT_TYPE, contentType);
+        if (accept != null) {
+            connection.setRequestProperty(ACCEPT, accept);
+        }
+        final OutputStream out = connection.getOutputStream();
+        try {
+            out.write(body);
+        } finally {
+            out.close();
+        }
+        return new Response(connection);
+    }
+
+    private HttpURLConnection open(final String path) throws IOException {
+        final URL url = new URL("http", "localhost", server.getAddress().getPort(), path);
+        return (HttpURLConnection) url.openConnection();
+    }
+
+    private static ModelNode operation() {
+        final ModelNode operation = new ModelNode();
+        operation.get("operation").set("read-attribute");
+        operation.get("address").setEmptyList();
+        operation.get("name").set("release-version");
+        return operation;
+    }
+
+    private static byte[] binary(final ModelNode node) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        node.writeExternal(out);
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static ModelNode fromBinary(final InputStream in) throws IOException {
+        final ModelNode node = new ModelNode();
+        node.readExternal(in);
+        return node;
+    }
+
+    private static byte[] base64(final ModelNode node) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        node.writeBase64(bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * The response of a successful request, read into memory
+     */
+    private static class Response {
+        private final String contentType;
+        private final String contentEncoding;
+        private final byte[] body;
+
+        Response(final HttpURLConnection connection) throws IOException {
+            assertEquals(OK, connection.getResponseCode());
+            contentType = connection.getContentType();
+            contentEncoding = connection.getContentEncoding();
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            final InputStream in = connection.getInputStream();
+            try {
+                final byte[] buffer = new byte[1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    bytes.write(buffer, 0, read);
+                }
+            } finally {
+                in.close();
+            }
+            body = bytes.toByteArray();
+        }
+
+        InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+    }
+
+    /**
+     * A client which returns the same successful result for every operation
+     */
+    private static class Client implements ModelControllerClient {
+        private final ModelNode result = new ModelNode().set("7.1.0");
+        private volatile ModelNode operation;
+
+        ModelNode response() {
+            final ModelNode response = new ModelNode();
+            response.get("outcome").set("success");
+            response.get("result").set(result);
+            return response;
+        }
+
+        @Override
+        public ModelNode execute(final ModelNode operation) throws IOException {
+            this.operation = operation;
+            return response();
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation) throws IOException {
+            return execute(operation.getOperation());
+        }
+
+        @Override
+        public ModelNode execute(final ModelNode operation, final OperationMessageHandler messageHandler) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ModelNode execute(final Operation operation, final OperationMessageHandler messageHandler) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final ModelNode operation, final OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public AsyncFuture<ModelNode> executeAsync(final Operation operation, final OperationMessageHandler messageHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+}
@@ -92,4 +92,13 @@ public interface ComponentView {
      * @throws IllegalArgumentException If the method cannot be found
      */
     Method getMethod(final String name, final String descriptor);
+
+    /**
+     * Gets the view method which is equal to the given method, falling back to a lookup by name and descriptor
+     * if the method was loaded by a different class loader
+     * @param method the method, e.g. as invoked on a client proxy
+     * @return The view method that corresponds to the given method
+     * @throws IllegalArgumentException If the method cannot be found
+     */
+    Method getMethod(final Method method);
 }
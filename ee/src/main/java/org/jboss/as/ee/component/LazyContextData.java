@@ -0,0 +1,106 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ee.component;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The context data map of an invocation, which only allocates its backing map once the first entry is added.
+ * Most invocations never use their context data, so this saves allocating a hash table per invocation.
+ * <p/>
+ * This class is not thread safe, just like the context data of an invocation.
+ */
+public final class LazyContextData extends AbstractMap<String, Object> {
+
+    private Map<String, Object> data;
+
+    @Override
+    public int size() {
+        return data == null ? 0 : data.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return data == null || data.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return data != null && data.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(final Object value) {
+        return data != null && data.containsValue(value);
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return data == null ? null : data.get(key);
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        if (data == null) {
+            data = new HashMap<String, Object>();
+        }
+        return data.put(key, value);
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        return data == null ? null : data.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        if (data != null) {
+            data.clear();
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        // a view which follows the backing map, even if it is only allocated later on
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                if (data == null) {
+                    return Collections.<Entry<String, Object>>emptySet().iterator();
+                }
+                return data.entrySet().iterator();
+            }
+
+            @Override
+            public int size() {
+                return LazyContextData.this.size();
+            }
+        };
+    }
+}
@@ -27,7 +27,6 @@ import org.jboss.invocation.InterceptorContext;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -72,7 +71,7 @@ public final class ProxyInvocationHandler implements InvocationHandler {
         context.setParameters(args);
         context.setMethod(method);
         // setup the public context data
-        context.setContextData(new HashMap());
+        context.setContextData(new LazyContextData());
         return interceptor.processInvocation(context);
     }
 }
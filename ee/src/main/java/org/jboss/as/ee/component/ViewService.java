@@ -120,12 +120,14 @@ public final class ViewService implements Service<ComponentView> {
         private final Component component;
         private final Map<Method, Interceptor> viewInterceptors;
         private final Map<MethodDescription, Method> methods;
+        private final Map<Method, Method> equalMethods;
 
         View() {
             component = componentInjector.getValue();
             //we need to build the view interceptor chain
             this.viewInterceptors = new IdentityHashMap<Method, Interceptor>();
             this.methods = new HashMap<MethodDescription, Method>();
+            this.equalMethods = new HashMap<Method, Method>();
         }
 
         void initializeInterceptors() {
@@ -140,6 +142,7 @@ public final class ViewService implements Service<ComponentView> {
             for (Method method : viewInterceptorFactories.keySet()) {
                 viewEntryPoints.put(method, viewInterceptorFactories.get(method).create(factoryContext));
                 methods.put(new MethodDescription(method.getName(), DescriptorUtils.methodDescriptor(method)), method);
+                equalMethods.put(method, method);
             }
 
         }
@@ -212,6 +215,15 @@ public final class ViewService implements Service<ComponentView> {
             return method;
         }
 
+        @Override
+        public Method getMethod(final Method method) {
+            final Method viewMethod = this.equalMethods.get(method);
+            if (viewMethod != null) {
+                return viewMethod;
+            }
+            return getMethod(method.getName(), DescriptorUtils.methodDescriptor(method));
+        }
+
         class ViewInstance implements ComponentViewInstance {
 
             private final Map<Method, Interceptor> viewEntryPoints;
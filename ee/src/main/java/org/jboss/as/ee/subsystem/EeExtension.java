@@ -129,6 +129,7 @@ public class EeExtension implements Extension {
             ModelNode eeSubSystem = context.getModelNode();
             EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED.marshallAsElement(eeSubSystem, writer);
             GlobalModulesDefinition.INSTANCE.marshallAsElement(eeSubSystem, writer);
+            EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.marshallAsElement(eeSubSystem, writer);
 
             writer.writeEndElement();
 
@@ -168,6 +169,12 @@ public class EeExtension implements Extension {
                                 EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED.parseAndSetParameter(earSubDeploymentsIsolated, eeSubSystem, location);
                                 break;
                             }
+                            case ANNOTATION_INDEX_THREADS: {
+                                Location location = reader.getLocation();
+                                final String annotationIndexThreads = parseElementText(reader, element);
+                                EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.parseAndSetParameter(annotationIndexThreads, eeSubSystem, location);
+                                break;
+                            }
                             default: {
                                 throw unexpectedElement(reader);
                             }
@@ -236,13 +243,17 @@ public class EeExtension implements Extension {
         }
 
         static String parseEarSubDeploymentsIsolatedElement(XMLExtendedStreamReader reader) throws XMLStreamException {
+            return parseElementText(reader, Element.EAR_SUBDEPLOYMENTS_ISOLATED);
+        }
+
+        static String parseElementText(XMLExtendedStreamReader reader, Element element) throws XMLStreamException {
 
             // we don't expect any attributes for this element.
             requireNoAttributes(reader);
 
             final String value = reader.getElementText();
             if (value == null || value.trim().isEmpty()) {
-                throw new XMLStreamException("Invalid value: " + value + " for '" + Element.EAR_SUBDEPLOYMENTS_ISOLATED + "' element", reader.getLocation());
+                throw new XMLStreamException("Invalid value: " + value + " for '" + element + "' element", reader.getLocation());
             }
             return value.trim();
         }
@@ -261,6 +272,9 @@ public class EeExtension implements Extension {
             if (model.hasDefined(Element.EAR_SUBDEPLOYMENTS_ISOLATED.getLocalName())) {
                 op.get(Element.EAR_SUBDEPLOYMENTS_ISOLATED.getLocalName()).set(model.get(Element.EAR_SUBDEPLOYMENTS_ISOLATED.getLocalName()));
             }
+            if (model.hasDefined(EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName())) {
+                op.get(EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName()).set(model.get(EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName()));
+            }
             context.getResult().add(op);
             context.completeStep();
         }
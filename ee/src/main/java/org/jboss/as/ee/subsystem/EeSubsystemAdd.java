@@ -61,6 +61,7 @@ import org.jboss.as.ee.structure.JBossAppMetaDataParsingProcessor;
 import org.jboss.as.naming.management.JndiViewExtensionRegistry;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexExecutorService;
 import org.jboss.as.server.deployment.Phase;
 import org.jboss.dmr.ModelNode;
 import org.jboss.logging.Logger;
@@ -80,18 +81,22 @@ public class EeSubsystemAdd extends AbstractBoottimeAddStepHandler {
 
     private final DefaultEarSubDeploymentsIsolationProcessor isolationProcessor;
     private final GlobalModuleDependencyProcessor moduleDependencyProcessor;
+    private final AnnotationIndexExecutorService indexExecutorService;
 
 
     public EeSubsystemAdd(final DefaultEarSubDeploymentsIsolationProcessor isolationProcessor,
-                          final GlobalModuleDependencyProcessor moduleDependencyProcessor) {
+                          final GlobalModuleDependencyProcessor moduleDependencyProcessor,
+                          final AnnotationIndexExecutorService indexExecutorService) {
         this.isolationProcessor = isolationProcessor;
         this.moduleDependencyProcessor = moduleDependencyProcessor;
+        this.indexExecutorService = indexExecutorService;
     }
 
     protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
 
         GlobalModulesDefinition.INSTANCE.validateAndSet(operation, model);
         EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED.validateAndSet(operation,  model);
+        EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.validateAndSet(operation, model);
     }
 
     protected void performBoottime(OperationContext context, final ModelNode operation, final ModelNode model,
@@ -102,6 +107,13 @@ public class EeSubsystemAdd extends AbstractBoottimeAddStepHandler {
                 .addListener(verificationHandler)
                 .install();
 
+        // the resource roots of deployments are indexed in parallel on this pool
+        final ModelNode indexThreads = EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.validateResolvedOperation(model);
+        indexExecutorService.setMaxThreads(indexThreads.isDefined() ? indexThreads.asInt() : 0);
+        newControllers.add(context.getServiceTarget().addService(AnnotationIndexExecutorService.SERVICE_NAME, indexExecutorService)
+                .addListener(verificationHandler)
+                .install());
+
         final ModelNode globalModules = GlobalModulesDefinition.INSTANCE.validateResolvedOperation(model);
         // see if the ear subdeployment isolation flag is set. By default, we don't isolate subdeployments, so that
         // they can see each other's classes.
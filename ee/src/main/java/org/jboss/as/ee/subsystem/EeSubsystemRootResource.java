@@ -35,10 +35,12 @@ import org.jboss.as.controller.descriptions.DefaultResourceRemoveDescriptionProv
 import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.ee.component.deployers.DefaultEarSubDeploymentsIsolationProcessor;
 import org.jboss.as.ee.structure.GlobalModuleDependencyProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexExecutorService;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -53,11 +55,20 @@ public class EeSubsystemRootResource extends SimpleResourceDefinition {
             new SimpleAttributeDefinition("ear-subdeployments-isolated", "ear-subdeployments-isolated",
                     new ModelNode().set(false), ModelType.BOOLEAN, true, true, null);
 
+    /**
+     * The maximum number of threads used to index the classes of deployments, undefined meaning the number of
+     * available processors.
+     */
+    public static final SimpleAttributeDefinition ANNOTATION_INDEX_THREADS =
+            new SimpleAttributeDefinition("annotation-index-threads", "annotation-index-threads",
+                    null, ModelType.INT, true, true, null, new IntRangeValidator(1, Integer.MAX_VALUE, true, true));
+
     public static final EeSubsystemRootResource INSTANCE = new EeSubsystemRootResource();
 
     // Our different operation handlers manipulate the state of the subsystem's DUPs, so they need to share a ref
     private final DefaultEarSubDeploymentsIsolationProcessor isolationProcessor = new DefaultEarSubDeploymentsIsolationProcessor();
     private final GlobalModuleDependencyProcessor moduleDependencyProcessor = new GlobalModuleDependencyProcessor();
+    private final AnnotationIndexExecutorService indexExecutorService = new AnnotationIndexExecutorService(0);
 
     private EeSubsystemRootResource() {
         super(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, EeExtension.SUBSYSTEM_NAME),
@@ -70,7 +81,7 @@ public class EeSubsystemRootResource extends SimpleResourceDefinition {
         final ResourceDescriptionResolver rootResolver = getResourceDescriptionResolver();
 
         // Ops to add and remove the root resource
-        final EeSubsystemAdd subsystemAdd = new EeSubsystemAdd(isolationProcessor, moduleDependencyProcessor);
+        final EeSubsystemAdd subsystemAdd = new EeSubsystemAdd(isolationProcessor, moduleDependencyProcessor, indexExecutorService);
         final DescriptionProvider subsystemAddDescription = new DefaultResourceAddDescriptionProvider(rootResourceRegistration, rootResolver);
         rootResourceRegistration.registerOperationHandler(ADD, subsystemAdd, subsystemAddDescription, EnumSet.of(OperationEntry.Flag.RESTART_ALL_SERVICES));
         final DescriptionProvider subsystemRemoveDescription = new DefaultResourceRemoveDescriptionProvider(rootResolver);
@@ -80,7 +91,7 @@ public class EeSubsystemRootResource extends SimpleResourceDefinition {
 
     @Override
     public void registerAttributes(final ManagementResourceRegistration rootResourceRegistration) {
-        EeWriteAttributeHandler writeHandler = new EeWriteAttributeHandler(isolationProcessor, moduleDependencyProcessor);
+        EeWriteAttributeHandler writeHandler = new EeWriteAttributeHandler(isolationProcessor, moduleDependencyProcessor, indexExecutorService);
         writeHandler.registerAttributes(rootResourceRegistration);
     }
 }
@@ -28,6 +28,7 @@ import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ee.component.deployers.DefaultEarSubDeploymentsIsolationProcessor;
 import org.jboss.as.ee.structure.GlobalModuleDependencyProcessor;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexExecutorService;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -39,16 +40,20 @@ public class EeWriteAttributeHandler extends AbstractWriteAttributeHandler<Void>
 
     private final DefaultEarSubDeploymentsIsolationProcessor isolationProcessor;
     private final GlobalModuleDependencyProcessor moduleDependencyProcessor;
+    private final AnnotationIndexExecutorService indexExecutorService;
 
     public EeWriteAttributeHandler(final DefaultEarSubDeploymentsIsolationProcessor isolationProcessor,
-                          final GlobalModuleDependencyProcessor moduleDependencyProcessor) {
+                          final GlobalModuleDependencyProcessor moduleDependencyProcessor,
+                          final AnnotationIndexExecutorService indexExecutorService) {
         this.isolationProcessor = isolationProcessor;
         this.moduleDependencyProcessor = moduleDependencyProcessor;
+        this.indexExecutorService = indexExecutorService;
     }
 
     public void registerAttributes(final ManagementResourceRegistration registry) {
         registry.registerReadWriteAttribute(GlobalModulesDefinition.INSTANCE, null, this);
         registry.registerReadWriteAttribute(EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED, null, this);
+        registry.registerReadWriteAttribute(EeSubsystemRootResource.ANNOTATION_INDEX_THREADS, null, this);
     }
 
     @Override
@@ -57,6 +62,8 @@ public class EeWriteAttributeHandler extends AbstractWriteAttributeHandler<Void>
             GlobalModulesDefinition.INSTANCE.getValidator().validateParameter(name, value);
         } else if (EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED.getName().equals(name)) {
             EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED.getValidator().validateParameter(name, value);
+        } else if (EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName().equals(name)) {
+            EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getValidator().validateParameter(name, value);
         }
     }
 
@@ -66,6 +73,8 @@ public class EeWriteAttributeHandler extends AbstractWriteAttributeHandler<Void>
             GlobalModulesDefinition.INSTANCE.getValidator().validateResolvedParameter(name, value);
         } else if (EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED.getName().equals(name)) {
             EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED.getValidator().validateResolvedParameter(name, value);
+        } else if (EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName().equals(name)) {
+            EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getValidator().validateResolvedParameter(name, value);
         }
     }
 
@@ -73,7 +82,11 @@ public class EeWriteAttributeHandler extends AbstractWriteAttributeHandler<Void>
     protected boolean applyUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName,
                                            ModelNode newValue, ModelNode currentValue, HandbackHolder<Void> handbackHolder) throws OperationFailedException {
 
-        applyUpdateToDeploymentUnitProcessor(operation, attributeName);
+        if (EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName().equals(attributeName)) {
+            applyUpdateToIndexExecutor(newValue);
+        } else {
+            applyUpdateToDeploymentUnitProcessor(operation, attributeName);
+        }
 
         return false;
     }
@@ -82,6 +95,10 @@ public class EeWriteAttributeHandler extends AbstractWriteAttributeHandler<Void>
     protected void revertUpdateToRuntime(OperationContext context, ModelNode operation, String attributeName,
                                          ModelNode valueToRestore, ModelNode valueToRevert, Void handback) throws OperationFailedException {
 
+        if (EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName().equals(attributeName)) {
+            applyUpdateToIndexExecutor(valueToRestore);
+            return;
+        }
         final ModelNode revertOp = operation.clone();
         revertOp.get(attributeName).set(valueToRestore);
         applyUpdateToDeploymentUnitProcessor(revertOp, attributeName);
@@ -96,4 +113,8 @@ public class EeWriteAttributeHandler extends AbstractWriteAttributeHandler<Void>
             isolationProcessor.setEarSubDeploymentsIsolated(isolate);
         }
     }
+
+    private void applyUpdateToIndexExecutor(ModelNode threads) {
+        indexExecutorService.setMaxThreads(threads.isDefined() ? threads.asInt() : 0);
+    }
 }
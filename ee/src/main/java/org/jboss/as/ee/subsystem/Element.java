@@ -34,6 +34,7 @@ enum Element {
     GLOBAL_MODULES(GlobalModulesDefinition.GLOBAL_MODULES),
     MODULE("module"),
     EAR_SUBDEPLOYMENTS_ISOLATED(EeSubsystemRootResource.EAR_SUBDEPLOYMENTS_ISOLATED.getXmlName()),
+    ANNOTATION_INDEX_THREADS(EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getXmlName()),
     UNKNOWN(null);
 
     private final String name;
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests that {@link LazyContextData} behaves like any other map, before and after its backing map is allocated.
+ */
+public class LazyContextDataTestCase {
+
+    @Test
+    public void testEmpty() {
+        final LazyContextData data = new LazyContextData();
+        assertEquals(0, data.size());
+        assertTrue(data.isEmpty());
+        assertNull(data.get("a"));
+        assertFalse(data.containsKey("a"));
+        assertFalse(data.containsValue(1));
+        assertNull(data.remove("a"));
+        assertTrue(data.entrySet().isEmpty());
+        assertFalse(data.entrySet().iterator().hasNext());
+        data.clear();
+        assertEquals(new HashMap<String, Object>(), data);
+        assertEquals(0, data.hashCode());
+    }
+
+    @Test
+    public void testViewsTakenBeforeFirstPut() {
+        final LazyContextData data = new LazyContextData();
+        final Set<Map.Entry<String, Object>> entries = data.entrySet();
+        final Set<String> keys = data.keySet();
+        final Collection<Object> values = data.values();
+
+        data.put("a", 1);
+        assertEquals(1, entries.size());
+        final Iterator<Map.Entry<String, Object>> iterator = entries.iterator();
+        assertTrue(iterator.hasNext());
+        final Map.Entry<String, Object> entry = iterator.next();
+        assertEquals("a", entry.getKey());
+        assertEquals(1, entry.getValue());
+        assertFalse(iterator.hasNext());
+        assertTrue(keys.contains("a"));
+        assertTrue(values.contains(1));
+
+        // the views write through to the map
+        entry.setValue(2);
+        assertEquals(2, data.get("a"));
+        keys.remove("a");
+        assertTrue(data.isEmpty());
+        assertTrue(entries.isEmpty());
+    }
+
+    @Test
+    public void testBehavesLikeHashMap() {
+        final LazyContextData data = new LazyContextData();
+        final Map<String, Object> expected = new HashMap<String, Object>();
+        for (int i = 0; i < 20; i++) {
+            assertEquals(expected.put("key" + i, i), data.put("key" + i, i));
+        }
+        assertEquals(expected.put("key3", "replaced"), data.put("key3", "replaced"));
+        assertEquals(expected.remove("key7"), data.remove("key7"));
+        assertEquals(expected.put("null", null), data.put("null", null));
+
+        assertEquals(expected.size(), data.size());
+        assertEquals(expected, data);
+        assertEquals(data, expected);
+        assertEquals(expected.hashCode(), data.hashCode());
+        assertTrue(data.containsKey("null"));
+        assertTrue(data.containsValue("replaced"));
+        assertFalse(data.containsKey("key7"));
+
+        final Iterator<Map.Entry<String, Object>> iterator = data.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getKey().startsWith("key1")) {
+                iterator.remove();
+            }
+        }
+        expected.keySet().removeAll(Arrays.asList("key1", "key10", "key11", "key12", "key13", "key14", "key15", "key16", "key17", "key18", "key19"));
+        assertEquals(expected, data);
+
+        data.clear();
+        assertTrue(data.isEmpty());
+        data.putAll(expected);
+        assertEquals(expected, data);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+
+/**
+ * Micro benchmark of the allocation per component proxy invocation. The {@link ProxyInvocationHandler}, which starts
+ * every invocation with a {@link LazyContextData}, is compared with the same call path allocating a {@link HashMap}
+ * as the context data of every invocation. The interceptor chain is a single interceptor which doesn't use the context
+ * data, like most invocations.
+ * <p>
+ * Not run as part of the test suite, execute the {@code main} method on a HotSpot VM.
+ */
+public class ProxyInvocationBenchmark {
+
+    private static final int WARMUP = 200000;
+    private static final int ITERATIONS = 1000000;
+
+    public interface Echo {
+        Object echo(Object value);
+    }
+
+    public static void main(final String[] args) throws Exception {
+        // java.lang.reflect.Proxy hands equal, not identical, methods to the handler
+        final Map<Method, Interceptor> interceptors = new HashMap<Method, Interceptor>();
+        interceptors.put(Echo.class.getMethod("echo", Object.class), new Interceptor() {
+            @Override
+            public Object processInvocation(final InterceptorContext context) throws Exception {
+                return context.getParameters()[0];
+            }
+        });
+
+        final Echo lazy = createProxy(new ProxyInvocationHandler(interceptors, null, null, null));
+        final Echo eager = createProxy(new EagerInvocationHandler(interceptors));
+
+        final Object value = new Object();
+        int results = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            results += eager.echo(value) == value ? 1 : 0;
+            results += lazy.echo(value) == value ? 1 : 0;
+        }
+
+        long start = allocatedBytes();
+        long time = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            results += eager.echo(value) == value ? 1 : 0;
+        }
+        report("HashMap context data", start, time);
+
+        start = allocatedBytes();
+        time = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            results += lazy.echo(value) == value ? 1 : 0;
+        }
+        report("LazyContextData", start, time);
+        // use the results, so the invocations can't be optimized away
+        System.out.println(results);
+    }
+
+    static Echo createProxy(final InvocationHandler handler) {
+        return (Echo) Proxy.newProxyInstance(Echo.class.getClassLoader(), new Class<?>[] {Echo.class}, handler);
+    }
+
+    static void report(final String name, final long startBytes, final long startTime) {
+        final long bytes = allocatedBytes() - startBytes;
+        final long time = System.nanoTime() - startTime;
+        System.out.printf("%-30s %,12d bytes/op %,10d ns/op%n", name, bytes / ITERATIONS, time / ITERATIONS);
+    }
+
+    static long allocatedBytes() {
+        final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * The {@link ProxyInvocationHandler} as it was before the context data was allocated lazily.
+     */
+    private static final class EagerInvocationHandler implements InvocationHandler {
+        private final Map<Method, Interceptor> interceptors;
+
+        EagerInvocationHandler(final Map<Method, Interceptor> interceptors) {
+            this.interceptors = interceptors;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final Interceptor interceptor = interceptors.get(method);
+            if (interceptor == null) {
+                throw new NoSuchMethodError(method.toString());
+            }
+            final InterceptorContext context = new InterceptorContext();
+            context.putPrivateData(Object.class, proxy);
+            context.putPrivateData(Component.class, null);
+            context.putPrivateData(ComponentView.class, null);
+            context.putPrivateData(ComponentViewInstance.class, null);
+            context.setParameters(args);
+            context.setMethod(method);
+            context.setContextData(new HashMap<String, Object>());
+            return interceptor.processInvocation(context);
+        }
+    }
+}
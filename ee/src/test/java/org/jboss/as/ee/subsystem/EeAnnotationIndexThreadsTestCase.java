@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.subsystem;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILED;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+
+import org.jboss.as.subsystem.test.AbstractSubsystemBaseTest;
+import org.jboss.as.subsystem.test.KernelServices;
+import org.jboss.dmr.ModelNode;
+import org.junit.Test;
+
+/**
+ * Tests the {@code annotation-index-threads} attribute of the ee subsystem. The inherited test checks that it
+ * survives the parse, marshal and describe round trips.
+ */
+public class EeAnnotationIndexThreadsTestCase extends AbstractSubsystemBaseTest {
+
+    public EeAnnotationIndexThreadsTestCase() {
+        super(EeExtension.SUBSYSTEM_NAME, new EeExtension());
+    }
+
+    @Override
+    protected String getSubsystemXml() throws IOException {
+        return "<subsystem xmlns=\"urn:jboss:domain:ee:1.0\">" +
+                "<annotation-index-threads>4</annotation-index-threads>" +
+                "</subsystem>";
+    }
+
+    @Test
+    public void testParse() throws Exception {
+        final List<ModelNode> operations = parse(getSubsystemXml());
+        Assert.assertEquals(1, operations.size());
+        Assert.assertEquals(4, operations.get(0).get(EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName()).asInt());
+    }
+
+    @Test
+    public void testMarshal() throws Exception {
+        final KernelServices services = installInController(createAdditionalInitialization(), getSubsystemXml());
+        try {
+            Assert.assertEquals(4, readThreads(services).asInt());
+            final String marshalled = services.getPersistedSubsystemXml();
+            Assert.assertTrue(marshalled, marshalled.contains("<annotation-index-threads>4</annotation-index-threads>"));
+        } finally {
+            services.shutdown();
+        }
+    }
+
+    @Test
+    public void testUndefinedByDefault() throws Exception {
+        final KernelServices services = installInController(createAdditionalInitialization(), "<subsystem xmlns=\"urn:jboss:domain:ee:1.0\"/>");
+        try {
+            Assert.assertFalse(readThreads(services).isDefined());
+            Assert.assertFalse(services.getPersistedSubsystemXml().contains("annotation-index-threads"));
+        } finally {
+            services.shutdown();
+        }
+    }
+
+    @Test
+    public void testWriteAttribute() throws Exception {
+        final KernelServices services = installInController(createAdditionalInitialization(), getSubsystemXml());
+        try {
+            ModelNode result = services.executeOperation(createWriteOperation(2));
+            Assert.assertEquals(result.toString(), SUCCESS, result.get(OUTCOME).asString());
+            Assert.assertEquals(2, readThreads(services).asInt());
+
+            // at least one thread is required
+            result = services.executeOperation(createWriteOperation(0));
+            Assert.assertEquals(result.toString(), FAILED, result.get(OUTCOME).asString());
+            Assert.assertEquals(2, readThreads(services).asInt());
+        } finally {
+            services.shutdown();
+        }
+    }
+
+    private static ModelNode createWriteOperation(final int threads) {
+        final ModelNode operation = new ModelNode();
+        operation.get(OP).set(WRITE_ATTRIBUTE_OPERATION);
+        operation.get(OP_ADDR).add(SUBSYSTEM, EeExtension.SUBSYSTEM_NAME);
+        operation.get(NAME).set(EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName());
+        operation.get(VALUE).set(threads);
+        return operation;
+    }
+
+    private static ModelNode readThreads(final KernelServices services) {
+        return services.readWholeModel().get(SUBSYSTEM, EeExtension.SUBSYSTEM_NAME, EeSubsystemRootResource.ANNOTATION_INDEX_THREADS.getName());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache;
+
+import java.security.AccessController;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Runs the expiration of all {@link ExpiringCache} instances on a small set of shared daemon threads.
+ * <p/>
+ * An inactive cache entry is scheduled once for the point in time at which it would expire. When the task fires
+ * the entry is either removed, or scheduled again for its new expiration time if it has been used in between.
+ * The scheduler therefore only ever looks at entries which are about to expire, instead of scanning every cache.
+ * <p/>
+ * The threads are only kept while at least one cache is started. A stopping cache cancels its pending tasks, which
+ * are purged from the executor, so that they don't keep the undeployed component and its class loader reachable.
+ * <p/>
+ * This class also keeps the statistics of all started caches.
+ */
+public final class ExpirationScheduler {
+
+    private static final int THREADS = 2;
+
+    private static final Set<ExpiringCache<?>> caches = Collections.newSetFromMap(new ConcurrentHashMap<ExpiringCache<?>, Boolean>());
+    private static final AtomicLong expiredCount = new AtomicLong();
+
+    private static volatile ScheduledThreadPoolExecutor executor;
+
+    private ExpirationScheduler() {
+    }
+
+    static ScheduledExecutorService getExecutor() {
+        ScheduledThreadPoolExecutor result = executor;
+        if (result == null) {
+            synchronized (ExpirationScheduler.class) {
+                result = executor;
+                if (result == null) {
+                    final ThreadGroup group = new ThreadGroup("EJB3 SFSB expiration threads");
+                    final JBossThreadFactory threadFactory = new JBossThreadFactory(group, Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+                    result = new ScheduledThreadPoolExecutor(THREADS, threadFactory);
+                    // drop the tasks which are still pending once the last cache is stopped
+                    result.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+                    executor = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    static void register(final ExpiringCache<?> cache) {
+        synchronized (ExpirationScheduler.class) {
+            caches.add(cache);
+        }
+    }
+
+    static void unregister(final ExpiringCache<?> cache) {
+        synchronized (ExpirationScheduler.class) {
+            caches.remove(cache);
+            final ScheduledThreadPoolExecutor current = executor;
+            if (current == null) {
+                return;
+            }
+            if (caches.isEmpty()) {
+                current.shutdown();
+                executor = null;
+            } else {
+                // remove the tasks cancelled by the cache from the queue
+                current.purge();
+            }
+        }
+    }
+
+    /**
+     * Hook solely for unit tests to get the number of queued tasks.
+     *
+     * @return the number of queued tasks, or -1 if no executor is running
+     */
+    static int getQueuedTaskCount() {
+        final ScheduledThreadPoolExecutor current = executor;
+        return current == null ? -1 : current.getQueue().size();
+    }
+
+    static void expired() {
+        expiredCount.incrementAndGet();
+    }
+
+    /**
+     * Get the number of stateful bean instances held by all started caches.
+     *
+     * @return the number of cached instances
+     */
+    public static int getCacheSize() {
+        int size = 0;
+        for (ExpiringCache<?> cache : caches) {
+            size += cache.getCacheSize();
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of stateful bean instances which have been removed because they timed out.
+     *
+     * @return the number of expired instances
+     */
+    public static long getExpiredCount() {
+        return expiredCount.get();
+    }
+}
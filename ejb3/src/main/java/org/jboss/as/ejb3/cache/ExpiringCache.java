@@ -24,171 +24,272 @@ package org.jboss.as.ejb3.cache;
 import org.jboss.logging.Logger;
 
 import javax.ejb.NoSuchEJBException;
-import java.util.ArrayList;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Cache that handles EJB expiration. This cache can be wrapped around an existing cache to
  * provide expiration functionality.
+ * <p/>
+ * Released entries are expired by the shared {@link ExpirationScheduler}, so the cost of expiration is proportional
+ * to the number of entries that actually time out rather than to the size of the cache.
+ * <p/>
+ * If the cache is created with a {@link PassivationManager}, at most {@code maxSize} instances are kept in memory.
+ * Once that size is exceeded the least recently used inactive instances are passivated into the passivation
+ * directory, one file per instance, and transparently activated again by {@link #get(byte[])}.
  *
  * @author Stuart Douglas
  */
 public class ExpiringCache<T extends Identifiable> implements Cache<T> {
 
-    private static final long SLEEP_TIME = 500;
-
     private final long millisecondTimeout;
     private final String beanName;
-    private final Map<ArrayKey, Entry> cache;
+    private final ConcurrentMap<ArrayKey, Entry> cache;
+
+    /**
+     * The maximum number of instances kept in memory, only used if there is a passivation manager
+     */
+    private final int maxSize;
+    private final PassivationManager<T> passivationManager;
+    private final File passivationDirectory;
+    /**
+     * The inactive entries in least recently released order. Guarded by itself.
+     */
+    private final Map<ArrayKey, Entry> inactive = new LinkedHashMap<ArrayKey, Entry>();
+    /**
+     * The number of entries which are not passivated
+     */
+    private final AtomicInteger inMemory = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
 
     private volatile StatefulObjectFactory<T> factory;
-    private volatile ExpirationTask expiryThread;
+    private volatile boolean running;
 
     private static final Logger logger = Logger.getLogger(ExpiringCache.class);
 
-    private class ExpirationTask extends Thread {
-
-        private volatile boolean running = true;
-
-        @Override
-        public void run() {
-            while (running) {
-
-                final List<Entry> queue = new ArrayList<Entry>();
-                final long time = System.currentTimeMillis();
-                synchronized (cache) {
-                    Iterator<Map.Entry<ArrayKey, Entry>> iterator = cache.entrySet().iterator();
-                    while (iterator.hasNext()) {
-                        final Map.Entry<ArrayKey, Entry> entry = iterator.next();
-                        if (entry.getValue().isExpired(time)) {
-                            queue.add(entry.getValue());
-                            iterator.remove();
-                        }
-                    }
-                }
-                for (Entry value : queue) {
-                    try {
-                        logger.debugf("Removing stateful bean %s - %s as it has been inactive for %d milliseconds", beanName, value.getKey(), millisecondTimeout);
-                        factory.destroyInstance(value.getValue());
-                    } catch (Exception e) {
-                        logger.error("Exception removing stateful bean " + value.getKey(), e);
-                    }
-                }
-
-                try {
-                    sleep(SLEEP_TIME);
-                } catch (InterruptedException e) {
-                    running = false;
-                    return;
-                }
-            }
-        }
-
-        public void stopTask() {
-            running = false;
-        }
-    }
-
     private enum State {
-        IN_USE, INACTIVE
+        IN_USE, INACTIVE, PASSIVATED, REMOVED
     }
 
-    private final class Entry {
+    /**
+     * A cache entry. The state of an entry is guarded by the entry itself.
+     */
+    private final class Entry implements Runnable {
+        private final ArrayKey key;
+        private final T value;
         private long lastUsed;
         private State state = State.IN_USE;
-        private final T value;
+        /**
+         * the pending expiration task of this entry, if any
+         */
+        private ScheduledFuture<?> expiration;
 
-        public Entry(final T value) {
+        public Entry(final ArrayKey key, final T value) {
+            this.key = key;
             this.value = value;
             this.lastUsed = System.currentTimeMillis();
         }
 
-        public void setLastUsed(final long lastUsed) {
-            this.lastUsed = lastUsed;
-        }
-
         public byte[] getKey() {
             return value.getId();
         }
 
-        public long getLastUsed() {
-            return lastUsed;
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * Schedule the expiration of this entry, unless a task is already pending. Must be called with the
+         * entry lock held.
+         */
+        private void scheduleExpiration(final long delay) {
+            if (expiration == null && running) {
+                try {
+                    expiration = ExpirationScheduler.getExecutor().schedule(this, delay, TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    // the cache has been stopped concurrently
+                }
+            }
         }
 
-        public boolean isExpired(long currentTimeInMillis) {
-            return state == State.INACTIVE && currentTimeInMillis > lastUsed + millisecondTimeout;
+        /**
+         * Cancel the pending expiration task, so that the scheduler doesn't keep a removed entry reachable. Must be
+         * called with the entry lock held.
+         */
+        private void cancelExpiration() {
+            if (expiration != null) {
+                expiration.cancel(false);
+                expiration = null;
+            }
         }
 
-        public T getValue() {
-            return value;
+        @Override
+        public void run() {
+            final State previous;
+            synchronized (this) {
+                expiration = null;
+                if (state != State.INACTIVE && state != State.PASSIVATED) {
+                    // in use entries are scheduled again on release
+                    return;
+                }
+                final long remaining = lastUsed + millisecondTimeout - System.currentTimeMillis();
+                if (remaining >= 0) {
+                    // the entry has been used since the task was scheduled
+                    scheduleExpiration(remaining + 1);
+                    return;
+                }
+                if (!cache.remove(key, this)) {
+                    return;
+                }
+                previous = state;
+                state = State.REMOVED;
+            }
+            removed(this, previous);
+            ExpirationScheduler.expired();
+            try {
+                logger.debugf("Removing stateful bean %s - %s as it has been inactive for %d milliseconds", beanName, key, millisecondTimeout);
+                factory.destroyInstance(value);
+            } catch (Exception e) {
+                logger.error("Exception removing stateful bean " + key, e);
+            }
         }
     }
 
     public ExpiringCache(long value, TimeUnit timeUnit, final String beanName) {
+        this(value, timeUnit, beanName, -1, null, null);
+    }
+
+    /**
+     * Create a passivating cache.
+     *
+     * @param value                the timeout
+     * @param timeUnit             the timeout unit
+     * @param beanName             the bean name
+     * @param maxSize              the maximum number of instances kept in memory
+     * @param passivationManager   the passivation manager, or {@code null} if instances are never passivated
+     * @param passivationDirectory the directory to store passivated instances in, created on demand
+     */
+    public ExpiringCache(long value, TimeUnit timeUnit, final String beanName, final int maxSize,
+                         final PassivationManager<T> passivationManager, final File passivationDirectory) {
         this.beanName = beanName;
         millisecondTimeout = TimeUnit.MILLISECONDS.convert(value, timeUnit);
-        cache = new HashMap<ArrayKey, Entry>();
+        cache = new ConcurrentHashMap<ArrayKey, Entry>();
+        this.maxSize = maxSize;
+        this.passivationManager = passivationManager;
+        this.passivationDirectory = passivationDirectory;
     }
 
     @Override
     public T create() {
         T obj = factory.createInstance();
-        Entry entry = new Entry(obj);
-        synchronized (cache) {
-            cache.put(new ArrayKey(obj.getId()), entry);
+        final ArrayKey key = new ArrayKey(obj.getId());
+        cache.put(key, new Entry(key, obj));
+        if (inMemory.incrementAndGet() > maxSize && passivationManager != null) {
+            scheduleEviction();
         }
         return obj;
     }
 
     @Override
     public void discard(final byte[] key) {
-        synchronized (cache) {
-            cache.remove(new ArrayKey(key));
+        final Entry entry = cache.remove(new ArrayKey(key));
+        if (entry != null) {
+            final State previous;
+            synchronized (entry) {
+                previous = entry.state;
+                entry.state = State.REMOVED;
+                entry.cancelExpiration();
+            }
+            removed(entry, previous);
         }
     }
 
     @Override
     public T get(final byte[] key) throws NoSuchEJBException {
-        synchronized (cache) {
-            Entry val = cache.get(new ArrayKey(key));
-            if (val == null) {
-                throw new NoSuchEJBException("Could not find EJB with id " + key);
+        final Entry val = cache.get(new ArrayKey(key));
+        if (val != null) {
+            synchronized (val) {
+                if (val.state == State.PASSIVATED) {
+                    activate(val);
+                }
+                if (val.state != State.REMOVED) {
+                    val.lastUsed = System.currentTimeMillis();
+                    val.state = State.IN_USE;
+                    if (passivationManager != null) {
+                        synchronized (inactive) {
+                            inactive.remove(val.key);
+                        }
+                    }
+                    return val.getValue();
+                }
             }
-            val.lastUsed = System.currentTimeMillis();
-            val.state = State.IN_USE;
-            return val.getValue();
         }
+        throw new NoSuchEJBException("Could not find EJB with id " + key);
     }
 
     @Override
     public void release(final T obj) {
-        synchronized (cache) {
-            Entry entry = cache.get(new ArrayKey(obj.getId()));
+        final Entry entry = cache.get(new ArrayKey(obj.getId()));
 
-            if (entry == null) {
-                logger.warn("Could not find stateful bean to release " + obj.getId());
+        if (entry == null) {
+            logger.warn("Could not find stateful bean to release " + obj.getId());
+            return;
+        }
+        synchronized (entry) {
+            if (entry.state == State.REMOVED) {
                 return;
             }
-            //this must stay within the synchronized block so the changes are visible to other threads
             entry.lastUsed = System.currentTimeMillis();
             entry.state = State.INACTIVE;
+            if (millisecondTimeout >= 0) {
+                entry.scheduleExpiration(millisecondTimeout + 1);
+            }
+            if (passivationManager != null) {
+                synchronized (inactive) {
+                    inactive.remove(entry.key);
+                    inactive.put(entry.key, entry);
+                }
+            }
+        }
+        if (passivationManager != null && inMemory.get() > maxSize) {
+            scheduleEviction();
         }
     }
 
     @Override
     public void remove(final byte[] key) {
-        Entry object;
-        synchronized (cache) {
-            object = cache.remove(new ArrayKey(key));
-        }
+        final Entry object = cache.remove(new ArrayKey(key));
         // EJBTHREE-1218: throw NoSuchEJBException if the bean can not be found
         if (object == null)
             throw new NoSuchEJBException(String.valueOf(key));
+        final State previous;
+        synchronized (object) {
+            // the instance has to be active to invoke its pre-destroy callbacks
+            if (object.state == State.PASSIVATED) {
+                activate(object);
+            }
+            previous = object.state;
+            object.state = State.REMOVED;
+            object.cancelExpiration();
+        }
+        removed(object, previous);
 
         factory.destroyInstance(object.value);
     }
@@ -200,21 +301,187 @@ public class ExpiringCache<T extends Identifiable> implements Cache<T> {
 
     @Override
     public synchronized void start() {
-        if (millisecondTimeout >= 0) {
-            expiryThread = new ExpirationTask();
-            expiryThread.setDaemon(true);
-            expiryThread.start();
-            expiryThread.setName("Expiry Thread for SFSB " + beanName);
-        }
+        running = true;
+        ExpirationScheduler.register(this);
     }
 
     @Override
     public synchronized void stop() {
-        if(expiryThread != null) {
-            expiryThread.stopTask();
+        running = false;
+        // the pending expiration tasks reference the entries and this cache, and with them the deployment
+        for (Entry entry : cache.values()) {
+            synchronized (entry) {
+                entry.state = State.REMOVED;
+                entry.cancelExpiration();
+            }
+        }
+        cache.clear();
+        ExpirationScheduler.unregister(this);
+        if (passivationManager != null) {
+            synchronized (inactive) {
+                inactive.clear();
+            }
+            PassivationStoreService.deleteDirectory(passivationDirectory);
+        }
+    }
+
+    /**
+     * Get the number of instances in this cache, including passivated instances.
+     *
+     * @return the cache size
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Get the number of passivated instances in this cache.
+     *
+     * @return the number of passivated instances
+     */
+    public int getPassivatedCount() {
+        return passivationManager == null ? 0 : Math.max(0, cache.size() - inMemory.get());
+    }
+
+    /**
+     * Update the bookkeeping for an entry which has been removed from the cache.
+     */
+    private void removed(final Entry entry, final State previous) {
+        if (previous == State.PASSIVATED) {
+            deleteState(entry.key);
+        } else if (previous != State.REMOVED) {
+            inMemory.decrementAndGet();
+            if (passivationManager != null) {
+                synchronized (inactive) {
+                    inactive.remove(entry.key);
+                }
+            }
+        }
+    }
+
+    private final Runnable evictionTask = new Runnable() {
+        @Override
+        public void run() {
+            try {
+                evict();
+            } finally {
+                evicting.set(false);
+            }
+            // an entry might have been released after the last check
+            if (inMemory.get() > maxSize && hasInactiveEntries()) {
+                scheduleEviction();
+            }
+        }
+    };
+
+    private void scheduleEviction() {
+        if (running && evicting.compareAndSet(false, true)) {
+            try {
+                ExpirationScheduler.getExecutor().execute(evictionTask);
+            } catch (RejectedExecutionException e) {
+                // the cache has been stopped concurrently
+                evicting.set(false);
+            }
         }
-        synchronized (cache) {
-            cache.clear();
+    }
+
+    private boolean hasInactiveEntries() {
+        synchronized (inactive) {
+            return !inactive.isEmpty();
+        }
+    }
+
+    /**
+     * Passivate the least recently used inactive entries until no more than {@code maxSize} instances are in memory.
+     */
+    private void evict() {
+        while (running && inMemory.get() > maxSize) {
+            final Entry eldest;
+            synchronized (inactive) {
+                final Iterator<Entry> iterator = inactive.values().iterator();
+                if (!iterator.hasNext()) {
+                    return;
+                }
+                eldest = iterator.next();
+                iterator.remove();
+            }
+            synchronized (eldest) {
+                // the entry might have been used again in the meantime
+                if (eldest.state == State.INACTIVE) {
+                    passivate(eldest);
+                }
+            }
+        }
+    }
+
+    /**
+     * Passivate an entry. Must be called with the entry lock held.
+     */
+    private void passivate(final Entry entry) {
+        final File file = stateFile(entry.key);
+        boolean passivated = false;
+        try {
+            if (!passivationDirectory.exists() && !passivationDirectory.mkdirs()) {
+                throw new IOException("Could not create passivation directory " + passivationDirectory);
+            }
+            final OutputStream output = new BufferedOutputStream(new FileOutputStream(file));
+            try {
+                passivated = passivationManager.passivate(entry.value, output);
+            } finally {
+                output.close();
+            }
+        } catch (Exception e) {
+            logger.error("Could not passivate stateful bean " + beanName + " - " + entry.key, e);
+        }
+        if (passivated) {
+            entry.state = State.PASSIVATED;
+            inMemory.decrementAndGet();
+            logger.tracef("Passivated stateful bean %s - %s", beanName, entry.key);
+        } else {
+            deleteState(entry.key);
+        }
+    }
+
+    /**
+     * Activate a passivated entry. Must be called with the entry lock held.
+     */
+    private void activate(final Entry entry) {
+        final File file = stateFile(entry.key);
+        try {
+            final InputStream input = new BufferedInputStream(new FileInputStream(file));
+            try {
+                passivationManager.activate(entry.value, input);
+            } finally {
+                input.close();
+            }
+        } catch (Exception e) {
+            // the state is lost, there is nothing sensible left to return
+            cache.remove(entry.key, entry);
+            entry.state = State.REMOVED;
+            deleteState(entry.key);
+            throw new NoSuchEJBException("Could not activate stateful bean " + beanName + " - " + entry.key, e);
+        }
+        entry.state = State.INACTIVE;
+        inMemory.incrementAndGet();
+        deleteState(entry.key);
+        logger.tracef("Activated stateful bean %s - %s", beanName, entry.key);
+        if (inMemory.get() > maxSize) {
+            scheduleEviction();
+        }
+    }
+
+    private File stateFile(final ArrayKey key) {
+        final StringBuilder name = new StringBuilder(key.bytes.length * 2 + PassivationStoreService.FILE_SUFFIX.length());
+        for (byte b : key.bytes) {
+            name.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        }
+        return new File(passivationDirectory, name.append(PassivationStoreService.FILE_SUFFIX).toString());
+    }
+
+    private void deleteState(final ArrayKey key) {
+        final File file = stateFile(key);
+        if (file.exists() && !file.delete()) {
+            logger.warn("Could not delete passivated state " + file);
         }
     }
 
@@ -0,0 +1,56 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Moves the state of cached objects out of memory and back.
+ *
+ * @param <T> the type of the cached objects
+ */
+public interface PassivationManager<T extends Identifiable> {
+
+    /**
+     * Passivate an object which is not in use. The implementation invokes the pre-passivate callbacks, writes
+     * the state of the object to the given stream and releases the state from memory.
+     *
+     * @param obj    the object
+     * @param output the stream to write the state to
+     * @return {@code false} if the object cannot be passivated, in which case it is left untouched
+     * @throws IOException if the state could not be written, in which case the object is still usable
+     */
+    boolean passivate(T obj, OutputStream output) throws IOException;
+
+    /**
+     * Activate a passivated object. The implementation restores the state of the object from the given stream and
+     * invokes the post-activate callbacks.
+     *
+     * @param obj   the object
+     * @param input the stream to read the state from
+     * @throws IOException if the state could not be read
+     */
+    void activate(T obj, InputStream input) throws IOException;
+}
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.logging.Logger;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * The configuration of stateful session bean passivation. Stateful components which find this service keep at most
+ * {@link #getMaxSize() max-size} instances in memory and passivate the least recently used inactive instances into
+ * a private directory below the passivation directory.
+ */
+public class PassivationStoreService implements Service<PassivationStoreService> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("ejb3", "passivation-store");
+    public static final ServiceName PATH_SERVICE_NAME = SERVICE_NAME.append("path");
+
+    /**
+     * The extension of the files holding the state of a passivated instance
+     */
+    static final String FILE_SUFFIX = ".passivated";
+
+    private static final Logger logger = Logger.getLogger(PassivationStoreService.class);
+
+    private final int maxSize;
+    private final InjectedValue<String> path = new InjectedValue<String>();
+    private final AtomicInteger directoryCount = new AtomicInteger();
+    private volatile File baseDir;
+
+    public PassivationStoreService(final int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public synchronized void start(final StartContext context) throws StartException {
+        final File dir = new File(path.getValue());
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new StartException("Could not create passivation directory " + dir);
+        }
+        if (!dir.isDirectory()) {
+            throw new StartException("Passivation directory " + dir + " is not a directory");
+        }
+        // passivated instances don't survive a restart, remove the leftovers of a previous run
+        final File[] children = dir.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    deleteDirectory(child);
+                }
+            }
+        }
+        baseDir = dir;
+    }
+
+    @Override
+    public synchronized void stop(final StopContext context) {
+        baseDir = null;
+    }
+
+    @Override
+    public PassivationStoreService getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    /**
+     * Get the maximum number of instances of a stateful component which are kept in memory.
+     *
+     * @return the maximum size
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Get a new directory to store the passivated instances of a component. The directory is created on demand.
+     *
+     * @param name the name of the component
+     * @return the directory
+     */
+    public File createDirectory(final String name) {
+        final File dir = baseDir;
+        if (dir == null) {
+            throw new IllegalStateException("Passivation store is not started");
+        }
+        return new File(dir, name.replace(File.separatorChar, '-') + "-" + directoryCount.incrementAndGet());
+    }
+
+    public InjectedValue<String> getPath() {
+        return path;
+    }
+
+    /**
+     * Delete a directory created by {@link #createDirectory(String)} along with the passivated state it contains.
+     *
+     * @param dir the directory
+     */
+    static void deleteDirectory(final File dir) {
+        final File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.getName().endsWith(FILE_SUFFIX) && !file.delete()) {
+                    logger.warn("Could not delete passivated state " + file);
+                }
+            }
+        }
+        if (dir.exists() && !dir.delete()) {
+            logger.warn("Could not delete passivation directory " + dir);
+        }
+    }
+}
@@ -54,6 +54,7 @@ import javax.transaction.UserTransaction;
 import java.lang.reflect.Method;
 import java.security.Principal;
 import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Map;
 
 /**
@@ -65,6 +66,7 @@ public abstract class EJBComponent extends BasicComponent implements org.jboss.a
     private static final ApplicationExceptionDetails APPLICATION_EXCEPTION = new ApplicationExceptionDetails("java.lang.Exception", true, false);
 
     private final Map<MethodTransactionAttributeKey, TransactionAttributeType> txAttrs;
+    private final Map<Method, TransactionAttributeType> viewTxAttrs;
 
     private final EJBUtilities utilities;
     private final boolean isBeanManagedTransaction;
@@ -96,6 +98,13 @@ public abstract class EJBComponent extends BasicComponent implements org.jboss.a
         } else {
             this.txAttrs = txAttrs;
         }
+        // the invoked method of a view invocation is always one of the view methods, so resolve their
+        // transaction attributes up front instead of building a lookup key on every invocation
+        final Map<Method, TransactionAttributeType> viewTxAttrs = new IdentityHashMap<Method, TransactionAttributeType>();
+        for (Method method : ejbComponentCreateService.getViewMethods()) {
+            viewTxAttrs.put(method, lookupTransactionAttributeType(MethodIntf.BEAN, method));
+        }
+        this.viewTxAttrs = viewTxAttrs;
         isBeanManagedTransaction = TransactionManagementType.BEAN.equals(ejbComponentCreateService.getTransactionManagementType());
 
         // security metadata
@@ -238,6 +247,16 @@ public abstract class EJBComponent extends BasicComponent implements org.jboss.a
     }
 
     public TransactionAttributeType getTransactionAttributeType(MethodIntf methodIntf, Method method) {
+        if (methodIntf == MethodIntf.BEAN) {
+            final TransactionAttributeType txAttr = viewTxAttrs.get(method);
+            if (txAttr != null) {
+                return txAttr;
+            }
+        }
+        return lookupTransactionAttributeType(methodIntf, method);
+    }
+
+    private TransactionAttributeType lookupTransactionAttributeType(MethodIntf methodIntf, Method method) {
         TransactionAttributeType txAttr = txAttrs.get(new MethodTransactionAttributeKey(methodIntf, MethodIdentifier.getIdentifierForMethod(method)));
         if (txAttr == null)
             return TransactionAttributeType.REQUIRED;
@@ -40,6 +40,7 @@ import javax.ejb.TransactionAttributeType;
 import javax.ejb.TransactionManagementType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -66,6 +67,8 @@ public class EJBComponentCreateService extends BasicComponentCreateService {
 
     private final Method timeoutMethod;
 
+    private final List<Method> viewMethods = new ArrayList<Method>();
+
     /**
      * Construct a new instance.
      *
@@ -102,6 +105,7 @@ public class EJBComponentCreateService extends BasicComponentCreateService {
         List<ViewConfiguration> views = componentConfiguration.getViews();
         if (views != null) {
             for (ViewConfiguration view : views) {
+                viewMethods.addAll(view.getProxyFactory().getCachedMethods());
                 //TODO: Get rid of this crap, it should not be here
                 final EJBViewConfiguration ejbView = (EJBViewConfiguration) view;
                 if (ejbView.getMethodIntf() == MethodIntf.LOCAL || ejbView.getMethodIntf() == MethodIntf.REMOTE) {
@@ -155,6 +159,10 @@ public class EJBComponentCreateService extends BasicComponentCreateService {
         return txAttrs;
     }
 
+    List<Method> getViewMethods() {
+        return viewMethods;
+    }
+
     TransactionManagementType getTransactionManagementType() {
         return transactionManagementType;
     }
@@ -25,7 +25,13 @@ package org.jboss.as.ejb3.component.pool;
 import org.jboss.as.ejb3.pool.Pool;
 import org.jboss.as.ejb3.pool.StatelessObjectFactory;
 import org.jboss.as.ejb3.pool.strictmax.StrictMaxPool;
+import org.jboss.as.ejb3.pool.striped.StripedStrictMaxPool;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -46,16 +52,37 @@ public class StrictMaxPoolConfig extends PoolConfig {
 
     private volatile long timeout;
 
+    private volatile boolean striped;
+
+    /**
+     * The pools created from this config, for the pool statistics
+     */
+    private final Set<Pool<?>> pools = Collections.newSetFromMap(new WeakHashMap<Pool<?>, Boolean>());
+
     public StrictMaxPoolConfig(final String poolName, int maxSize, long timeout, TimeUnit timeUnit) {
+        this(poolName, maxSize, timeout, timeUnit, false);
+    }
+
+    public StrictMaxPoolConfig(final String poolName, int maxSize, long timeout, TimeUnit timeUnit, boolean striped) {
         super(poolName);
         this.maxPoolSize = maxSize;
         this.timeout = timeout;
         this.timeoutUnit = timeUnit;
+        this.striped = striped;
     }
 
     @Override
     public Pool<?> createPool(final StatelessObjectFactory statelessObjectFactory) {
-        return new StrictMaxPool(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit);
+        final Pool<?> pool;
+        if (striped) {
+            pool = new StripedStrictMaxPool(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit);
+        } else {
+            pool = new StrictMaxPool(statelessObjectFactory, this.maxPoolSize, this.timeout, this.timeoutUnit);
+        }
+        synchronized (pools) {
+            pools.add(pool);
+        }
+        return pool;
     }
 
     public int getMaxPoolSize() {
@@ -82,6 +109,75 @@ public class StrictMaxPoolConfig extends PoolConfig {
         this.timeout = timeout;
     }
 
+    public boolean isStriped() {
+        return striped;
+    }
+
+    public void setStriped(boolean striped) {
+        this.striped = striped;
+    }
+
+    /**
+     * Get the total number of instances in the pools created from this config.
+     *
+     * @return the current size
+     */
+    public int getCurrentSize() {
+        int size = 0;
+        for (Pool<?> pool : getPools()) {
+            size += pool.getCurrentSize();
+        }
+        return size;
+    }
+
+    /**
+     * Get the total number of instances which can still be acquired from the pools created from this config.
+     *
+     * @return the available count
+     */
+    public int getAvailableCount() {
+        int count = 0;
+        for (Pool<?> pool : getPools()) {
+            count += pool.getAvailableCount();
+        }
+        return count;
+    }
+
+    public int getCreateCount() {
+        int count = 0;
+        for (Pool<?> pool : getPools()) {
+            count += pool.getCreateCount();
+        }
+        return count;
+    }
+
+    public int getRemoveCount() {
+        int count = 0;
+        for (Pool<?> pool : getPools()) {
+            count += pool.getRemoveCount();
+        }
+        return count;
+    }
+
+    /**
+     * Get the accumulated time callers had to wait for an instance of the pools created from this config.
+     *
+     * @return the wait time in milliseconds
+     */
+    public long getWaitTime() {
+        long time = 0;
+        for (Pool<?> pool : getPools()) {
+            time += pool.getWaitTime();
+        }
+        return time;
+    }
+
+    private Collection<Pool<?>> getPools() {
+        synchronized (pools) {
+            return new ArrayList<Pool<?>>(pools);
+        }
+    }
+
     @Override
     public String toString() {
         return "StrictMaxPoolConfig{" +
@@ -89,6 +185,7 @@ public class StrictMaxPoolConfig extends PoolConfig {
                 "maxPoolSize=" + maxPoolSize +
                 ", timeoutUnit=" + timeoutUnit +
                 ", timeout=" + timeout +
+                ", striped=" + striped +
                 '}';
     }
 }
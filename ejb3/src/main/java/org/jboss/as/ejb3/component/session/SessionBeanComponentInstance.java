@@ -76,4 +76,14 @@ public abstract class SessionBeanComponentInstance extends EjbComponentInstance
         }
         return sessionContext;
     }
+
+    /**
+     * Discard the session context, which references the current bean instance. A new context is created
+     * on demand.
+     */
+    protected void resetSessionContext() {
+        synchronized (this) {
+            this.sessionContext = null;
+        }
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.component.stateful;
+
+import org.jboss.as.ee.component.ComponentInstance;
+import org.jboss.invocation.ImmediateInterceptorFactory;
+import org.jboss.invocation.Interceptor;
+import org.jboss.invocation.InterceptorContext;
+import org.jboss.invocation.InterceptorFactory;
+import org.jboss.invocation.Interceptors;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * Invokes a set of lifecycle callback methods, in order, on the bean instance.
+ */
+class InvokeCallbacksOnTargetInterceptor implements Interceptor {
+    private final Method[] methods;
+
+    InvokeCallbacksOnTargetInterceptor(final Method[] methods) {
+        this.methods = methods;
+    }
+
+    static InterceptorFactory factory(final Method[] methods) {
+        return new ImmediateInterceptorFactory(new InvokeCallbacksOnTargetInterceptor(methods));
+    }
+
+    @Override
+    public Object processInvocation(final InterceptorContext context) throws Exception {
+        final Object instance = context.getPrivateData(ComponentInstance.class).getInstance();
+        for (final Method method : methods) {
+            try {
+                method.invoke(instance);
+            } catch (InvocationTargetException e) {
+                throw Interceptors.rethrow(e.getCause());
+            }
+        }
+        return null;
+    }
+}
@@ -28,11 +28,13 @@ import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.ComponentConfigurator;
 import org.jboss.as.ee.component.ComponentDescription;
 import org.jboss.as.ee.component.ComponentInstanceInterceptorFactory;
+import org.jboss.as.ee.component.DependencyConfigurator;
 import org.jboss.as.ee.component.EEApplicationDescription;
 import org.jboss.as.ee.component.ViewConfiguration;
 import org.jboss.as.ee.component.ViewConfigurator;
 import org.jboss.as.ee.component.ViewDescription;
 import org.jboss.as.ee.component.interceptors.InterceptorOrder;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentDescription;
 import org.jboss.as.ejb3.deployment.EjbJarDescription;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
@@ -43,6 +45,8 @@ import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.InterceptorFactoryContext;
 import org.jboss.invocation.proxy.MethodIdentifier;
 import org.jboss.logging.Logger;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceName;
 
 import javax.ejb.TransactionManagementType;
@@ -158,6 +162,15 @@ public class StatefulComponentDescription extends SessionBeanComponentDescriptio
         final ComponentConfiguration statefulComponentConfiguration = new ComponentConfiguration(this, applicationDescription.getClassConfiguration(getComponentClassName()));
         // setup the component create service
         statefulComponentConfiguration.setComponentCreateServiceFactory(new StatefulComponentCreateServiceFactory());
+        // passivation is only enabled if the passivation store is configured
+        statefulComponentConfiguration.getCreateDependencies().add(new DependencyConfigurator<Service<Component>>() {
+            @Override
+            public void configureDependency(final ServiceBuilder<?> serviceBuilder, final Service<Component> service) throws DeploymentUnitProcessingException {
+                final StatefulSessionComponentCreateService statefulSessionComponentService = (StatefulSessionComponentCreateService) service;
+                serviceBuilder.addDependency(ServiceBuilder.DependencyType.OPTIONAL, PassivationStoreService.SERVICE_NAME,
+                        PassivationStoreService.class, statefulSessionComponentService.getPassivationStoreInjector());
+            }
+        });
 
         if (getTransactionManagementType() == TransactionManagementType.BEAN) {
             getConfigurators().add(new ComponentConfigurator() {
@@ -25,6 +25,7 @@ import org.jboss.as.ee.component.BasicComponentInstance;
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ejb3.cache.Cache;
 import org.jboss.as.ejb3.cache.ExpiringCache;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
 import org.jboss.as.ejb3.cache.StatefulObjectFactory;
 import org.jboss.as.ejb3.component.EJBBusinessMethod;
 import org.jboss.as.ejb3.component.session.SessionBeanComponent;
@@ -70,6 +71,8 @@ public class StatefulSessionComponent extends SessionBeanComponent {
     private final InterceptorFactory afterBegin;
     private final InterceptorFactory afterCompletion;
     private final InterceptorFactory beforeCompletion;
+    private final InterceptorFactory prePassivate;
+    private final InterceptorFactory postActivate;
     private final Map<EJBBusinessMethod, AccessTimeoutDetails> methodAccessTimeouts;
 
     /**
@@ -83,13 +86,20 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         this.afterBegin = ejbComponentCreateService.getAfterBegin();
         this.afterCompletion = ejbComponentCreateService.getAfterCompletion();
         this.beforeCompletion = ejbComponentCreateService.getBeforeCompletion();
+        this.prePassivate = ejbComponentCreateService.getPrePassivate();
+        this.postActivate = ejbComponentCreateService.getPostActivate();
         this.methodAccessTimeouts = ejbComponentCreateService.getMethodApplicableAccessTimeouts();
 
         final StatefulTimeoutInfo statefulTimeout = ejbComponentCreateService.getStatefulTimeout();
-        if (statefulTimeout != null) {
-            cache = new ExpiringCache<StatefulSessionComponentInstance>(statefulTimeout.getValue(), statefulTimeout.getTimeUnit(), ejbComponentCreateService.getComponentClass().getName());
+        final long timeout = statefulTimeout != null ? statefulTimeout.getValue() : -1;
+        final TimeUnit timeUnit = statefulTimeout != null ? statefulTimeout.getTimeUnit() : TimeUnit.MILLISECONDS;
+        final String beanName = ejbComponentCreateService.getComponentClass().getName();
+        final PassivationStoreService passivationStore = ejbComponentCreateService.getPassivationStore();
+        if (passivationStore != null) {
+            final StatefulSessionPassivationManager passivationManager = new StatefulSessionPassivationManager(ejbComponentCreateService.getComponentClass());
+            cache = new ExpiringCache<StatefulSessionComponentInstance>(timeout, timeUnit, beanName, passivationStore.getMaxSize(), passivationManager, passivationStore.createDirectory(getComponentName()));
         } else {
-            cache = new ExpiringCache<StatefulSessionComponentInstance>(-1, TimeUnit.MILLISECONDS, ejbComponentCreateService.getComponentClass().getName());
+            cache = new ExpiringCache<StatefulSessionComponentInstance>(timeout, timeUnit, beanName);
         }
         cache.setStatefulObjectFactory(new StatefulObjectFactory<StatefulSessionComponentInstance>() {
             @Override
@@ -237,6 +247,14 @@ public class StatefulSessionComponent extends SessionBeanComponent {
         return beforeCompletion;
     }
 
+    public InterceptorFactory getPrePassivate() {
+        return prePassivate;
+    }
+
+    public InterceptorFactory getPostActivate() {
+        return postActivate;
+    }
+
     /**
  * A {@link javax.transaction.Synchronization} which removes a stateful session in it's {@link javax.transaction.Synchronization#afterCompletion(int)}
  * callback.
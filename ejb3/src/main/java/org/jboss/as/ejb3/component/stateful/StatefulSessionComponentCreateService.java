@@ -26,15 +26,25 @@ import org.jboss.as.ee.component.BasicComponent;
 import org.jboss.as.ee.component.ComponentConfiguration;
 import org.jboss.as.ee.component.TCCLInterceptor;
 import org.jboss.as.ejb3.PrimitiveClassLoaderUtil;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentCreateService;
 import org.jboss.as.ejb3.component.session.SessionInvocationContextInterceptor;
 import org.jboss.as.ejb3.deployment.EjbJarConfiguration;
 import org.jboss.invocation.ImmediateInterceptorFactory;
 import org.jboss.invocation.InterceptorFactory;
 import org.jboss.invocation.Interceptors;
+import org.jboss.msc.value.InjectedValue;
 
+import javax.ejb.PostActivate;
+import javax.ejb.PrePassivate;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 /**
  * @author Stuart Douglas
@@ -43,7 +53,10 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
     private final InterceptorFactory afterBegin;
     private final InterceptorFactory afterCompletion;
     private final InterceptorFactory beforeCompletion;
+    private final InterceptorFactory prePassivate;
+    private final InterceptorFactory postActivate;
     private final StatefulTimeoutInfo statefulTimeout;
+    private final InjectedValue<PassivationStoreService> passivationStore = new InjectedValue<PassivationStoreService>();
 
     /**
      * Construct a new instance.
@@ -60,9 +73,42 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
         this.afterBegin = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getAfterBegin()));
         this.afterCompletion = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getAfterCompletion()));
         this.beforeCompletion = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.FACTORY, invokeMethodOnTarget(beanClass, componentDescription.getBeforeCompletion()));
+        this.prePassivate = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.LIFECYCLE_FACTORY, invokeCallbacksOnTarget(beanClass, PrePassivate.class));
+        this.postActivate = interceptorFactoryChain(tcclInterceptorFactory, namespaceContextInterceptorFactory, SessionInvocationContextInterceptor.LIFECYCLE_FACTORY, invokeCallbacksOnTarget(beanClass, PostActivate.class));
         this.statefulTimeout = componentDescription.getStatefulTimeout();
     }
 
+    private static InterceptorFactory invokeCallbacksOnTarget(final Class<?> beanClass, final Class<? extends Annotation> annotationType) {
+        final List<Method> methods = new ArrayList<Method>();
+        callbacksOfHierarchy(beanClass, annotationType, methods, new HashSet<String>());
+        if (methods.isEmpty())
+            return null;
+        return InvokeCallbacksOnTargetInterceptor.factory(methods.toArray(new Method[methods.size()]));
+    }
+
+    /**
+     * Collects the callback methods of a class hierarchy, superclass methods first. A method which is overridden
+     * by a subclass is not invoked.
+     */
+    private static void callbacksOfHierarchy(final Class<?> cls, final Class<? extends Annotation> annotationType, final List<Method> methods, final Set<String> overridden) {
+        if (cls == null || cls == Object.class)
+            return;
+        final List<Method> declared = new ArrayList<Method>();
+        for (final Method method : cls.getDeclaredMethods()) {
+            if (method.getParameterTypes().length != 0 || method.isBridge())
+                continue;
+            final boolean isPrivate = Modifier.isPrivate(method.getModifiers());
+            if (!isPrivate && !overridden.add(method.getName()))
+                continue;
+            if (method.isAnnotationPresent(annotationType)) {
+                method.setAccessible(true);
+                declared.add(method);
+            }
+        }
+        callbacksOfHierarchy(cls.getSuperclass(), annotationType, methods, overridden);
+        methods.addAll(declared);
+    }
+
     private static InterceptorFactory invokeMethodOnTarget(Class<?> beanClass, MethodDescription methodDescription) {
         final Method method = methodOf(beanClass, methodDescription);
         if (method == null)
@@ -127,7 +173,23 @@ public class StatefulSessionComponentCreateService extends SessionBeanComponentC
         return beforeCompletion;
     }
 
+    public InterceptorFactory getPrePassivate() {
+        return prePassivate;
+    }
+
+    public InterceptorFactory getPostActivate() {
+        return postActivate;
+    }
+
     public StatefulTimeoutInfo getStatefulTimeout() {
         return statefulTimeout;
     }
+
+    public PassivationStoreService getPassivationStore() {
+        return passivationStore.getOptionalValue();
+    }
+
+    public InjectedValue<PassivationStoreService> getPassivationStoreInjector() {
+        return passivationStore;
+    }
 }
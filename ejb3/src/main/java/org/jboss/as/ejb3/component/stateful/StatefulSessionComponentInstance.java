@@ -26,8 +26,10 @@ import org.jboss.as.ee.component.ComponentInstance;
 import org.jboss.as.ejb3.cache.Identifiable;
 import org.jboss.as.ejb3.component.session.SessionBeanComponentInstance;
 import org.jboss.as.naming.ManagedReference;
+import org.jboss.as.naming.ValueManagedReference;
 import org.jboss.invocation.Interceptor;
 import org.jboss.invocation.InterceptorContext;
+import org.jboss.msc.value.ImmediateValue;
 
 import javax.ejb.EJBException;
 import java.lang.reflect.Method;
@@ -43,12 +45,21 @@ import java.util.concurrent.atomic.AtomicReference;
 public class StatefulSessionComponentInstance extends SessionBeanComponentInstance implements Identifiable {
     private final byte[] id;
 
+    private final AtomicReference<ManagedReference> instanceReference;
     private final Interceptor afterBegin;
     private final Interceptor afterCompletion;
     private final Interceptor beforeCompletion;
+    private final Interceptor prePassivate;
+    private final Interceptor postActivate;
 
     private boolean isDiscarded = false;
 
+    private volatile boolean passivated;
+    /**
+     * The references which were kept in memory when the bean instance was passivated
+     */
+    private volatile Object[] passivatedReferences;
+
     /**
      * Construct a new instance.
      *
@@ -56,6 +67,7 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
      */
     protected StatefulSessionComponentInstance(final StatefulSessionComponent component, final AtomicReference<ManagedReference> instanceReference, final Interceptor preDestroyInterceptor, final Map<Method, Interceptor> methodInterceptors) {
         super(component, instanceReference, preDestroyInterceptor, methodInterceptors, Collections.<Method, Interceptor>emptyMap());
+        this.instanceReference = instanceReference;
 
 
         final UUID uuid = UUID.randomUUID();
@@ -67,6 +79,8 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
         this.afterBegin = component.createInterceptor(component.getAfterBegin());
         this.afterCompletion = component.createInterceptor(component.getAfterCompletion());
         this.beforeCompletion = component.createInterceptor(component.getBeforeCompletion());
+        this.prePassivate = component.createInterceptor(component.getPrePassivate());
+        this.postActivate = component.createInterceptor(component.getPostActivate());
     }
 
     protected void afterBegin() {
@@ -81,6 +95,71 @@ public class StatefulSessionComponentInstance extends SessionBeanComponentInstan
         execute(beforeCompletion);
     }
 
+    /**
+     * Invoke the pre-passivate callbacks of the bean instance.
+     */
+    void prePassivate() {
+        execute(prePassivate);
+    }
+
+    /**
+     * Release the passivated bean instance from memory.
+     *
+     * @param retainedReferences the references of the bean instance which could not be passivated
+     */
+    void passivated(final Object[] retainedReferences) {
+        this.passivatedReferences = retainedReferences;
+        this.passivated = true;
+        this.instanceReference.set(null);
+        resetSessionContext();
+    }
+
+    /**
+     * Restore the bean instance and invoke its post-activate callbacks.
+     *
+     * @param instance the activated bean instance
+     */
+    void activated(final Object instance) {
+        this.instanceReference.set(new ValueManagedReference(new ImmediateValue<Object>(instance)));
+        this.passivatedReferences = null;
+        this.passivated = false;
+        postActivate();
+    }
+
+    /**
+     * Invoke the post-activate callbacks of the bean instance.
+     */
+    void postActivate() {
+        execute(postActivate);
+    }
+
+    /**
+     * Get the references which were kept in memory when the bean instance was passivated.
+     *
+     * @return the retained references
+     */
+    Object[] getPassivatedReferences() {
+        return passivatedReferences;
+    }
+
+    boolean isPassivated() {
+        return passivated;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * A passivated instance is removed without invoking its pre-destroy callbacks.
+     */
+    @Override
+    public void destroy() {
+        if (isPassivated()) {
+            passivatedReferences = null;
+            return;
+        }
+        super.destroy();
+    }
+
     protected void discard() {
         if (!isDiscarded) {
             isDiscarded = true;
@@ -0,0 +1,145 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.component.stateful;
+
+import org.jboss.as.ejb3.cache.PassivationManager;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ObjectTable;
+import org.jboss.marshalling.SimpleClassResolver;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Passivates the bean instance of a stateful session bean using JBoss Marshalling.
+ * <p/>
+ * References of the bean instance which are not {@link Serializable}, such as container provided proxies, are not
+ * written to the stream but kept in memory by the component instance until the bean is activated again.
+ */
+class StatefulSessionPassivationManager implements PassivationManager<StatefulSessionComponentInstance> {
+    private static final Logger log = Logger.getLogger(StatefulSessionPassivationManager.class);
+
+    private static final MarshallerFactory marshallerFactory = new RiverMarshallerFactory();
+
+    private final Class<?> beanClass;
+    private final ClassLoader classLoader;
+    private volatile boolean warned;
+
+    StatefulSessionPassivationManager(final Class<?> beanClass) {
+        this.beanClass = beanClass;
+        this.classLoader = beanClass.getClassLoader();
+    }
+
+    @Override
+    public boolean passivate(final StatefulSessionComponentInstance obj, final OutputStream output) throws IOException {
+        if (!Serializable.class.isAssignableFrom(beanClass)) {
+            if (!warned) {
+                warned = true;
+                log.warn("Stateful session bean " + beanClass.getName() + " is not Serializable and will not be passivated");
+            }
+            return false;
+        }
+        obj.prePassivate();
+        final Object instance = obj.getInstance();
+        final List<Object> retained = new ArrayList<Object>();
+        try {
+            final Marshaller marshaller = marshallerFactory.createMarshaller(configuration(retained));
+            marshaller.start(Marshalling.createByteOutput(output));
+            marshaller.writeObject(instance);
+            marshaller.finish();
+        } catch (IOException e) {
+            // the bean instance stays in memory
+            obj.postActivate();
+            throw e;
+        } catch (RuntimeException e) {
+            obj.postActivate();
+            throw e;
+        }
+        obj.passivated(retained.toArray());
+        return true;
+    }
+
+    @Override
+    public void activate(final StatefulSessionComponentInstance obj, final InputStream input) throws IOException {
+        final List<Object> retained = new ArrayList<Object>();
+        for (final Object reference : obj.getPassivatedReferences()) {
+            retained.add(reference);
+        }
+        final Object instance;
+        try {
+            final Unmarshaller unmarshaller = marshallerFactory.createUnmarshaller(configuration(retained));
+            unmarshaller.start(Marshalling.createByteInput(input));
+            instance = unmarshaller.readObject();
+            unmarshaller.finish();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Could not activate stateful session bean " + beanClass.getName() + ": " + e);
+        }
+        obj.activated(instance);
+    }
+
+    private MarshallingConfiguration configuration(final List<Object> retained) {
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(new SimpleClassResolver(classLoader));
+        configuration.setObjectTable(new RetainingObjectTable(retained));
+        return configuration;
+    }
+
+    /**
+     * Replaces every object which is not {@link Serializable} by its index in a list of retained objects.
+     */
+    private static class RetainingObjectTable implements ObjectTable {
+        private final List<Object> retained;
+        private final Writer writer = new Writer() {
+            @Override
+            public void writeObject(final Marshaller marshaller, final Object object) throws IOException {
+                marshaller.writeInt(retained.size());
+                retained.add(object);
+            }
+        };
+
+        RetainingObjectTable(final List<Object> retained) {
+            this.retained = retained;
+        }
+
+        @Override
+        public Writer getObjectWriter(final Object object) throws IOException {
+            return object instanceof Serializable ? null : writer;
+        }
+
+        @Override
+        public Object readObject(final Unmarshaller unmarshaller) throws IOException, ClassNotFoundException {
+            return retained.get(unmarshaller.readInt());
+        }
+    }
+}
@@ -32,8 +32,11 @@ import org.jboss.as.ee.component.interceptors.InterceptorOrder;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.EJBComponentDescription;
 import org.jboss.as.ejb3.component.session.SessionInvocationContextInterceptor;
+import org.jboss.as.ejb3.timerservice.TimeoutSchedulerService;
 import org.jboss.as.ejb3.timerservice.TimerServiceFactoryService;
 import org.jboss.as.ejb3.timerservice.TimerServiceService;
+import org.jboss.as.ejb3.timerservice.mk2.TimeoutScheduler;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistenceType;
 import org.jboss.as.ejb3.timerservice.spi.TimerServiceFactory;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -62,12 +65,14 @@ public class TimerServiceDeploymentProcessor implements DeploymentUnitProcessor
 
     private final int coreThreads;
     private final int maxThreads;
+    private final TimerPersistenceType dataStoreType;
 
     private final boolean enabled;
 
-    public TimerServiceDeploymentProcessor(final int coreThreads, final int maxThreads, boolean enabled) {
+    public TimerServiceDeploymentProcessor(final int coreThreads, final int maxThreads, final TimerPersistenceType dataStoreType, boolean enabled) {
         this.coreThreads = coreThreads;
         this.maxThreads = maxThreads;
+        this.dataStoreType = dataStoreType;
         this.enabled = enabled;
     }
 
@@ -138,11 +143,12 @@ public class TimerServiceDeploymentProcessor implements DeploymentUnitProcessor
             name = deploymentUnit.getParent().getName() + "--" + deploymentUnit.getName();
         }
 
-        final TimerServiceFactoryService factoryService = new TimerServiceFactoryService(coreThreads, maxThreads, name, module);
+        final TimerServiceFactoryService factoryService = new TimerServiceFactoryService(coreThreads, maxThreads, dataStoreType, name, module);
         final ServiceBuilder<TimerServiceFactory> factoryBuilder = serviceTarget.addService(deploymentUnit.getServiceName().append(TimerServiceFactoryService.SERVICE_NAME), factoryService);
         factoryBuilder.addDependency(TransactionManagerService.SERVICE_NAME, TransactionManager.class, factoryService.getTransactionManagerInjectedValue());
         factoryBuilder.addDependency(TransactionSynchronizationRegistryService.SERVICE_NAME, TransactionSynchronizationRegistry.class, factoryService.getTransactionSynchronizationRegistryInjectedValue());
         factoryBuilder.addDependency(ServiceBuilder.DependencyType.OPTIONAL, TimerServiceFactoryService.PATH_SERVICE_NAME, String.class, factoryService.getPath());
+        factoryBuilder.addDependency(TimeoutSchedulerService.SERVICE_NAME, TimeoutScheduler.class, factoryService.getScheduler());
         factoryBuilder.install();
     }
 
@@ -23,7 +23,9 @@ package org.jboss.as.ejb3.pool;
 
 import org.jboss.logging.Logger;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The base of all pool implementations.
@@ -39,6 +41,7 @@ public abstract class AbstractPool<T> implements Pool<T> {
     private final StatelessObjectFactory<T> factory;
     private final AtomicInteger createCount = new AtomicInteger(0);
     private final AtomicInteger removeCount = new AtomicInteger(0);
+    private final AtomicLong waitTime = new AtomicLong(0);
 
     protected AbstractPool(StatelessObjectFactory<T> factory) {
         assert factory != null : "factory is null";
@@ -54,6 +57,10 @@ public abstract class AbstractPool<T> implements Pool<T> {
         return removeCount.get();
     }
 
+    public long getWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(waitTime.get());
+    }
+
     public abstract void setMaxSize(int maxSize);
 
     protected T create() {
@@ -64,6 +71,15 @@ public abstract class AbstractPool<T> implements Pool<T> {
         return bean;
     }
 
+    /**
+     * Track the time a caller had to wait for an object to become available.
+     *
+     * @param nanos the wait time in nanoseconds
+     */
+    protected void recordWaitTime(long nanos) {
+        waitTime.addAndGet(nanos);
+    }
+
     @Deprecated
     protected void remove(T bean) {
         this.doRemove(bean);
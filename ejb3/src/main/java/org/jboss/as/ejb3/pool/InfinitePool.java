@@ -69,6 +69,11 @@ public class InfinitePool<T> implements Pool<T> {
         return 0;
     }
 
+    @Override
+    public long getWaitTime() {
+        return 0;
+    }
+
     @Override
     public void release(final T obj) {
         factory.destroy(obj);
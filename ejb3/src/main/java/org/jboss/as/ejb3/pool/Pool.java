@@ -57,6 +57,13 @@ public interface Pool<T> {
 
     int getRemoveCount();
 
+    /**
+     * Get the accumulated time callers of {@link #get()} had to wait for an object to become available.
+     *
+     * @return the wait time in milliseconds
+     */
+    long getWaitTime();
+
     /**
      * Release the object from use.
      *
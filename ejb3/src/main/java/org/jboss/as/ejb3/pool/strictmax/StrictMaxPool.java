@@ -29,6 +29,7 @@ import javax.ejb.EJBException;
 import java.util.LinkedList;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A pool with a maximum size.
@@ -60,7 +61,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
      */
     private final LinkedList<T> pool = new LinkedList<T>();
 
-    private int inUse = 0;
+    private final AtomicInteger inUse = new AtomicInteger();
 
     public StrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
         super(factory);
@@ -78,7 +79,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
 
         // If we block when maxSize instances are in use, invoke release on strictMaxSize
         semaphore.release();
-        --inUse;
+        inUse.decrementAndGet();
 
         // Let the super do any other remove stuff
         super.doRemove(ctx);
@@ -89,7 +90,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
     }
 
     public int getAvailableCount() {
-        return maxSize - inUse;
+        return maxSize - inUse.get();
     }
 
     public int getMaxSize() {
@@ -107,13 +108,17 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
      * @return Context /w instance
      */
     public T get() {
+        final long start = System.nanoTime();
         try {
             boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
             if (!acquired)
                 throw new EJBException("Failed to acquire a permit within " + timeout + " " + timeUnit);
         } catch (InterruptedException e) {
             throw new EJBException("Acquire semaphore was interrupted");
+        } finally {
+            recordWaitTime(System.nanoTime() - start);
         }
+        inUse.incrementAndGet();
 
         synchronized (pool) {
             if (!pool.isEmpty()) {
@@ -124,11 +129,10 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
         T bean = null;
         try {
             // Pool is empty, create an instance
-            ++inUse;
             bean = create();
         } finally {
             if (bean == null) {
-                --inUse;
+                inUse.decrementAndGet();
                 semaphore.release();
             }
         }
@@ -162,7 +166,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
             destroy(obj);
         // If we block when maxSize instances are in use, invoke release on strictMaxSize
         semaphore.release();
-        --inUse;
+        inUse.decrementAndGet();
     }
 
     @Override
@@ -173,7 +177,7 @@ public class StrictMaxPool<T> extends AbstractPool<T> {
         }
 
         semaphore.release();
-        --inUse;
+        inUse.decrementAndGet();
         // let the super do the other remove stuff
         super.doRemove(ctx);
     }
@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.pool.striped;
+
+import org.jboss.as.ejb3.pool.AbstractPool;
+import org.jboss.as.ejb3.pool.StatelessObjectFactory;
+import org.jboss.logging.Logger;
+
+import javax.ejb.EJBException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool with a maximum size, designed for many concurrent callers.
+ * <p/>
+ * Idle instances are kept in lock free queues, one stripe per processor. A thread returns instances to, and takes
+ * instances from, the stripe selected by its id and only looks at other stripes if its own one is empty. The number
+ * of instances in use is limited by a non-fair semaphore, which doesn't need to park or queue threads as long as
+ * permits are available.
+ */
+public class StripedStrictMaxPool<T> extends AbstractPool<T> {
+    private static final Logger log = Logger.getLogger(StripedStrictMaxPool.class);
+
+    private static final int MAX_STRIPES = 64;
+
+    /**
+     * Only maxSize instances may be in use, any attempt to get an instance will block until an instance is freed.
+     */
+    private final Semaphore semaphore;
+    /**
+     * The maximum number of instances allowed in the pool
+     */
+    private final int maxSize;
+    /**
+     * The time to wait for the semaphore.
+     */
+    private final long timeout;
+    private final TimeUnit timeUnit;
+    /**
+     * The idle instances, the number of stripes is a power of two
+     */
+    private final Queue<T>[] stripes;
+    private final int stripeMask;
+    private final AtomicInteger idle = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    public StripedStrictMaxPool(StatelessObjectFactory<T> factory, int maxSize, long timeout, TimeUnit timeUnit) {
+        super(factory);
+        this.maxSize = maxSize;
+        this.semaphore = new Semaphore(maxSize, false);
+        this.timeout = timeout;
+        this.timeUnit = timeUnit;
+        int stripeCount = 1;
+        final int maxStripes = Math.min(Math.min(Runtime.getRuntime().availableProcessors(), maxSize), MAX_STRIPES);
+        while (stripeCount < maxStripes) {
+            stripeCount <<= 1;
+        }
+        this.stripes = new Queue[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ConcurrentLinkedQueue<T>();
+        }
+        this.stripeMask = stripeCount - 1;
+    }
+
+    public void discard(T ctx) {
+        if (log.isTraceEnabled()) {
+            log.trace("Discard instance:" + this + "#" + ctx);
+        }
+        inUse.decrementAndGet();
+        semaphore.release();
+
+        // Let the super do any other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public int getCurrentSize() {
+        return getCreateCount() - getRemoveCount();
+    }
+
+    public int getAvailableCount() {
+        return maxSize - inUse.get();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        throw new RuntimeException("Not implemented");
+    }
+
+    /**
+     * Get an instance without identity.
+     * Can be used by finders,create-methods, and activation
+     *
+     * @return Context /w instance
+     */
+    public T get() {
+        // only measure the wait time if no permit is available right away
+        if (!semaphore.tryAcquire()) {
+            final long start = System.nanoTime();
+            try {
+                boolean acquired = semaphore.tryAcquire(timeout, timeUnit);
+                if (!acquired)
+                    throw new EJBException("Failed to acquire a permit within " + timeout + " " + timeUnit);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new EJBException("Acquire semaphore was interrupted");
+            } finally {
+                recordWaitTime(System.nanoTime() - start);
+            }
+        }
+        inUse.incrementAndGet();
+
+        final int home = stripe();
+        for (int i = 0; i < stripes.length; i++) {
+            final T bean = stripes[(home + i) & stripeMask].poll();
+            if (bean != null) {
+                idle.decrementAndGet();
+                return bean;
+            }
+        }
+
+        T bean = null;
+        try {
+            // Pool is empty, create an instance
+            bean = create();
+        } finally {
+            if (bean == null) {
+                inUse.decrementAndGet();
+                semaphore.release();
+            }
+        }
+        return bean;
+    }
+
+    /**
+     * Return an instance after invocation.
+     *
+     * @param obj the instance
+     */
+    public void release(T obj) {
+        if (log.isTraceEnabled()) {
+            log.trace(idle.get() + "/" + maxSize + " Free instance:" + this);
+        }
+
+        // Add the unused context back into the pool, unless there are already maxSize idle instances
+        if (idle.incrementAndGet() <= maxSize) {
+            stripes[stripe()].offer(obj);
+        } else {
+            idle.decrementAndGet();
+            destroy(obj);
+        }
+        inUse.decrementAndGet();
+        semaphore.release();
+    }
+
+    @Override
+    public void remove(T ctx) {
+        if (log.isTraceEnabled()) {
+            log.trace("Removing instance:" + this + "#" + ctx);
+        }
+        inUse.decrementAndGet();
+        semaphore.release();
+        // let the super do the other remove stuff
+        super.doRemove(ctx);
+    }
+
+    public void start() {
+    }
+
+    public void stop() {
+        for (Queue<T> stripe : stripes) {
+            T obj;
+            while ((obj = stripe.poll()) != null) {
+                idle.decrementAndGet();
+                destroy(obj);
+            }
+        }
+    }
+
+    private int stripe() {
+        return (int) Thread.currentThread().getId() & stripeMask;
+    }
+}
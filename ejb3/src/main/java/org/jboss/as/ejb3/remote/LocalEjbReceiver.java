@@ -23,7 +23,7 @@ package org.jboss.as.ejb3.remote;
 
 import org.jboss.as.ee.component.Component;
 import org.jboss.as.ee.component.ComponentView;
-import org.jboss.as.ee.utils.DescriptorUtils;
+import org.jboss.as.ee.component.LazyContextData;
 import org.jboss.as.ejb3.component.EJBComponent;
 import org.jboss.as.ejb3.component.stateful.StatefulSessionComponent;
 import org.jboss.as.ejb3.deployment.DeploymentModuleIdentifier;
@@ -36,7 +36,6 @@ import org.jboss.ejb.client.EJBReceiver;
 import org.jboss.ejb.client.EJBReceiverContext;
 import org.jboss.invocation.InterceptorContext;
 import org.jboss.marshalling.cloner.ClonerConfiguration;
-import org.jboss.marshalling.cloner.ObjectCloner;
 import org.jboss.marshalling.cloner.ObjectClonerFactory;
 import org.jboss.marshalling.cloner.ObjectCloners;
 import org.jboss.msc.service.Service;
@@ -48,7 +47,6 @@ import org.jboss.msc.value.InjectedValue;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
@@ -70,7 +68,7 @@ public class LocalEjbReceiver extends EJBReceiver<Void> implements Service<Local
     private final InjectedValue<ServiceModuleLoader> moduleLoader = new InjectedValue<ServiceModuleLoader>();
 
     private final boolean allowPassByReference;
-    private volatile ObjectCloner cloner;
+    private volatile PassByValueCopier copier;
 
     public LocalEjbReceiver(final boolean allowPassByReference) {
         this.allowPassByReference = allowPassByReference;
@@ -96,16 +94,17 @@ public class LocalEjbReceiver extends EJBReceiver<Void> implements Service<Local
         //we really need to setup client interceptors to handle this somehow
 
         final Method invokedMethod = invocation.getInvokedMethod();
-        //TODO: this is not very efficent
-        final Method method = view.getMethod(invokedMethod.getName(), DescriptorUtils.methodDescriptor(invokedMethod));
+        final Method method = view.getMethod(invokedMethod);
 
         final Object[] parameters;
         if(invocation.getParameters() == null) {
             parameters = EMPTY_OBJECT_ARRAY;
         } else {
-        parameters = new Object[invocation.getParameters().length];
+        final Object[] invocationParameters = invocation.getParameters();
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        parameters = new Object[invocationParameters.length];
         for (int i = 0; i < parameters.length; ++i) {
-            parameters[i] = clone(method.getParameterTypes()[i], invocation.getParameters()[i]);
+            parameters[i] = clone(parameterTypes[i], invocationParameters[i]);
         }
         }
 
@@ -114,7 +113,7 @@ public class LocalEjbReceiver extends EJBReceiver<Void> implements Service<Local
         context.setParameters(parameters);
         context.setMethod(method);
         context.setTarget(invocation.getInvokedProxy());
-        context.setContextData(new HashMap<String, Object>());
+        context.setContextData(new LazyContextData());
         context.putPrivateData(Component.class, ejb.getEjbComponent());
         context.putPrivateData(ComponentView.class, view);
         final Object result = view.invoke(context);
@@ -130,7 +129,7 @@ public class LocalEjbReceiver extends EJBReceiver<Void> implements Service<Local
             if (allowPassByReference && target.isAssignableFrom(object.getClass())) {
                 return object;
             }
-            return cloner.clone(object);
+            return copier.copy(object);
         } catch (IOException e) {
             throw new RuntimeException("IOException marshaling EJB parameters", e);
         } catch (ClassNotFoundException e) {
@@ -177,7 +176,7 @@ public class LocalEjbReceiver extends EJBReceiver<Void> implements Service<Local
     public void start(final StartContext context) throws StartException {
         final ObjectClonerFactory factory = ObjectCloners.getSerializingObjectClonerFactory();
         final ClonerConfiguration configuration = new ClonerConfiguration();
-        cloner = factory.createCloner(configuration);
+        copier = new PassByValueCopier(factory.createCloner(configuration));
     }
 
     @Override
@@ -186,7 +185,7 @@ public class LocalEjbReceiver extends EJBReceiver<Void> implements Service<Local
             ctx.close();
         }
         this.contexts.clear();
-        this.cloner = null;
+        this.copier = null;
     }
 
     @Override
@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.jboss.marshalling.cloner.ObjectCloner;
+
+/**
+ * Copies the parameters and return values of local invocations on a remote view, so that the invocation has
+ * pass by value semantics.
+ * <p/>
+ * Values of common JDK types which are loaded by the bootstrap class loader can be copied without marshalling:
+ * immutable values are passed as is, while arrays and collections which only contain immutable values are copied
+ * directly. Any other object graph is copied by the marshalling based {@link ObjectCloner}, which also takes care
+ * of loading the classes of the copy from the right class loader.
+ */
+final class PassByValueCopier {
+
+    private static final Map<Class<?>, Strategy> STRATEGIES;
+
+    static {
+        final Map<Class<?>, Strategy> strategies = new IdentityHashMap<Class<?>, Strategy>();
+        // only exact classes are looked up, so a mutable subclass of e.g. BigDecimal is still marshalled
+        final Class<?>[] immutables = {String.class, Boolean.class, Character.class, Byte.class, Short.class,
+                Integer.class, Long.class, Float.class, Double.class, BigDecimal.class, BigInteger.class, UUID.class,
+                Locale.class};
+        for (Class<?> type : immutables) {
+            strategies.put(type, Strategy.IMMUTABLE);
+        }
+        final Class<?>[] arrays = {boolean[].class, char[].class, byte[].class, short[].class, int[].class,
+                long[].class, float[].class, double[].class, String[].class, Boolean[].class, Character[].class,
+                Byte[].class, Short[].class, Integer[].class, Long[].class, Float[].class, Double[].class};
+        for (Class<?> type : arrays) {
+            strategies.put(type, Strategy.ARRAY);
+        }
+        // a LinkedHashMap is left to the cloner, as a direct copy would not preserve its access order
+        strategies.put(Date.class, Strategy.DATE);
+        strategies.put(ArrayList.class, Strategy.ARRAY_LIST);
+        strategies.put(LinkedList.class, Strategy.LINKED_LIST);
+        strategies.put(HashSet.class, Strategy.HASH_SET);
+        strategies.put(LinkedHashSet.class, Strategy.LINKED_HASH_SET);
+        strategies.put(HashMap.class, Strategy.HASH_MAP);
+        STRATEGIES = strategies;
+    }
+
+    private final ObjectCloner cloner;
+
+    PassByValueCopier(final ObjectCloner cloner) {
+        this.cloner = cloner;
+    }
+
+    /**
+     * Copies the given object.
+     *
+     * @param object the object, may be {@code null}
+     * @return the copy
+     * @throws IOException if the object cannot be marshalled
+     * @throws ClassNotFoundException if a class of the copy cannot be loaded
+     */
+    Object copy(final Object object) throws IOException, ClassNotFoundException {
+        if (object == null) {
+            return null;
+        }
+        final Strategy strategy = STRATEGIES.get(object.getClass());
+        if (strategy != null) {
+            final Object copy = strategy.copy(object);
+            if (copy != null) {
+                return copy;
+            }
+        }
+        return cloner.clone(object);
+    }
+
+    private static boolean isImmutable(final Object object) {
+        return object == null || STRATEGIES.get(object.getClass()) == Strategy.IMMUTABLE;
+    }
+
+    private static boolean containsOnlyImmutables(final Collection<?> collection) {
+        for (Object element : collection) {
+            if (!isImmutable(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsOnlyImmutables(final Map<?, ?> map) {
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (!isImmutable(entry.getKey()) || !isImmutable(entry.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The way to copy objects of a given class. A strategy returns {@code null} if it can't copy the given object,
+     * in which case the object is marshalled instead. Collections are only copied directly if all their elements
+     * are immutable, as copying the elements separately would not preserve shared references within the graph.
+     */
+    private enum Strategy {
+        IMMUTABLE {
+            @Override
+            Object copy(final Object object) {
+                return object;
+            }
+        },
+        ARRAY {
+            @Override
+            Object copy(final Object array) {
+                final int length = Array.getLength(array);
+                final Object copy = Array.newInstance(array.getClass().getComponentType(), length);
+                System.arraycopy(array, 0, copy, 0, length);
+                return copy;
+            }
+        },
+        DATE {
+            @Override
+            Object copy(final Object object) {
+                return new Date(((Date) object).getTime());
+            }
+        },
+        ARRAY_LIST {
+            @Override
+            Object copy(final Object object) {
+                final ArrayList<?> list = (ArrayList<?>) object;
+                return containsOnlyImmutables(list) ? new ArrayList<Object>(list) : null;
+            }
+        },
+        LINKED_LIST {
+            @Override
+            Object copy(final Object object) {
+                final LinkedList<?> list = (LinkedList<?>) object;
+                return containsOnlyImmutables(list) ? new LinkedList<Object>(list) : null;
+            }
+        },
+        HASH_SET {
+            @Override
+            Object copy(final Object object) {
+                final HashSet<?> set = (HashSet<?>) object;
+                return containsOnlyImmutables(set) ? new HashSet<Object>(set) : null;
+            }
+        },
+        LINKED_HASH_SET {
+            @Override
+            Object copy(final Object object) {
+                final LinkedHashSet<?> set = (LinkedHashSet<?>) object;
+                return containsOnlyImmutables(set) ? new LinkedHashSet<Object>(set) : null;
+            }
+        },
+        HASH_MAP {
+            @Override
+            Object copy(final Object object) {
+                final HashMap<?, ?> map = (HashMap<?, ?>) object;
+                return containsOnlyImmutables(map) ? new HashMap<Object, Object>(map) : null;
+            }
+        };
+
+        abstract Object copy(Object object);
+    }
+}
@@ -84,6 +84,9 @@ public class EJB3Extension implements Extension {
         // subsystem=ejb3/timer-service=*
         subsystemRegistration.registerSubModel(TimerServiceResourceDefinition.INSTANCE);
 
+        // subsystem=ejb3/service=passivation-store
+        subsystemRegistration.registerSubModel(PassivationStoreResourceDefinition.INSTANCE);
+
     }
 
     /**
@@ -115,6 +118,13 @@ public class EJB3Extension implements Extension {
         return org.jboss.as.controller.operations.common.Util.getOperation(ADD, address, model);
     }
 
+    private static ModelNode createPassivationStoreOperation(final ModelNode model) {
+        final ModelNode address = new ModelNode();
+        address.add(ModelDescriptionConstants.SUBSYSTEM, SUBSYSTEM_NAME);
+        address.add(EJB3SubsystemModel.SERVICE, EJB3SubsystemModel.PASSIVATION_STORE);
+        return org.jboss.as.controller.operations.common.Util.getOperation(ADD, address, model);
+    }
+
     private static class SubsystemDescribeHandler implements OperationStepHandler, DescriptionProvider {
         static final SubsystemDescribeHandler INSTANCE = new SubsystemDescribeHandler();
 
@@ -129,6 +139,10 @@ public class EJB3Extension implements Extension {
             if (timerService != null) {
                 result.add(createTimerServiceOperation(timerService.getModel()));
             }
+            final Resource passivationStore = root.getChild(EJB3SubsystemModel.PASSIVATION_STORE_PATH);
+            if (passivationStore != null) {
+                result.add(createPassivationStoreOperation(passivationStore.getModel()));
+            }
 
             context.completeStep();
         }
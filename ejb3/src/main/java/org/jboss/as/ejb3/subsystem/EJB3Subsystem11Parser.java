@@ -40,10 +40,12 @@ import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.INSTANCE_ACQUISITIO
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.INSTANCE_ACQUISITION_TIMEOUT_UNIT;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.MAX_POOL_SIZE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.NAME;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PASSIVATION_STORE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.PATH;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.RELATIVE_TO;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.SERVICE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRIPED;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.TIMER_SERVICE;
 
 import java.util.Collections;
@@ -127,6 +129,17 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
             // </timer-service>
             writer.writeEndElement();
         }
+        // passivation-store
+        if (model.hasDefined(SERVICE) && model.get(SERVICE).hasDefined(PASSIVATION_STORE)) {
+            // <passivation-store>
+            writer.writeStartElement(EJB3SubsystemXMLElement.PASSIVATION_STORE.getLocalName());
+            final ModelNode passivationStoreModel = model.get(SERVICE, PASSIVATION_STORE);
+            PassivationStoreResourceDefinition.MAX_SIZE.marshallAsAttribute(passivationStoreModel, writer);
+            PassivationStoreResourceDefinition.PATH.marshallAsAttribute(passivationStoreModel, writer);
+            PassivationStoreResourceDefinition.RELATIVE_TO.marshallAsAttribute(passivationStoreModel, writer);
+            // </passivation-store>
+            writer.writeEndElement();
+        }
 
         // write the subsystem end element
         writer.writeEndElement();
@@ -176,6 +189,10 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
                             parseTimerService(reader, operations);
                             break;
                         }
+                        case PASSIVATION_STORE: {
+                            parsePassivationStore(reader, operations);
+                            break;
+                        }
                         default: {
                             throw unexpectedElement(reader);
                         }
@@ -288,17 +305,20 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.marshallAsAttribute(strictMaxPoolModelNode, writer);
         StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.marshallAsAttribute(strictMaxPoolModelNode, writer);
         StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.marshallAsAttribute(strictMaxPoolModelNode, writer);
+        StrictMaxPoolResourceDefinition.STRIPED.marshallAsAttribute(strictMaxPoolModelNode, writer);
     }
 
     private void writeTimerService(final XMLExtendedStreamWriter writer, final ModelNode timerServiceModel) throws XMLStreamException {
 
         // <thread-pool>
         if (TimerServiceResourceDefinition.CORE_THREADS.isMarshallable(timerServiceModel)
-                || TimerServiceResourceDefinition.MAX_THREADS.isMarshallable(timerServiceModel)) {
+                || TimerServiceResourceDefinition.MAX_THREADS.isMarshallable(timerServiceModel)
+                || TimerServiceResourceDefinition.SCHEDULER_THREADS.isMarshallable(timerServiceModel)) {
 
             writer.writeEmptyElement(EJB3SubsystemXMLElement.THREAD_POOL.getLocalName());
             TimerServiceResourceDefinition.CORE_THREADS.marshallAsAttribute(timerServiceModel, writer);
             TimerServiceResourceDefinition.MAX_THREADS.marshallAsAttribute(timerServiceModel, writer);
+            TimerServiceResourceDefinition.SCHEDULER_THREADS.marshallAsAttribute(timerServiceModel, writer);
         }
 
         // <data-store>
@@ -308,6 +328,7 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
             writer.writeEmptyElement(EJB3SubsystemXMLElement.DATA_STORE.getLocalName());
             TimerServiceResourceDefinition.PATH.marshallAsAttribute(timerServiceModel, writer);
             TimerServiceResourceDefinition.RELATIVE_TO.marshallAsAttribute(timerServiceModel, writer);
+            TimerServiceResourceDefinition.DATA_STORE_TYPE.marshallAsAttribute(timerServiceModel, writer);
         }
 
     }
@@ -421,6 +442,7 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         Integer maxPoolSize = null;
         Long timeout = null;
         String unit = null;
+        Boolean striped = null;
         for (int i = 0; i < count; i++) {
             requireNoNamespaceAttribute(reader, i);
             final String value = reader.getAttributeValue(i);
@@ -438,6 +460,9 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
                 case INSTANCE_AQUISITION_TIMEOUT_UNIT:
                     unit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.parse(value, reader.getLocation()).asString();
                     break;
+                case STRIPED:
+                    striped = StrictMaxPoolResourceDefinition.STRIPED.parse(value, reader.getLocation()).asBoolean();
+                    break;
 
                 default:
                     throw unexpectedAttribute(reader, i);
@@ -448,7 +473,7 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
             throw missingRequired(reader, Collections.singleton(EJB3SubsystemXMLAttribute.NAME.getLocalName()));
         }
         // create and add the operation
-        operations.add(this.createAddStrictMaxBeanInstancePoolOperation(poolName, maxPoolSize, timeout, unit));
+        operations.add(this.createAddStrictMaxBeanInstancePoolOperation(poolName, maxPoolSize, timeout, unit, striped));
     }
 
     private void parseTimerService(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
@@ -464,6 +489,7 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
 
         Integer coreThreads = null;
         Integer maxThreads = null;
+        Integer schedulerThreads = null;
         String dataStorePath = null;
         String dataStorePathRelativeTo = null;
         while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
@@ -488,6 +514,12 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
                                 }
                                 TimerServiceResourceDefinition.MAX_THREADS.parseAndSetParameter(value, timerServiceAdd, location);
                                 break;
+                            case SCHEDULER_THREADS:
+                                if (schedulerThreads != null) {
+                                    throw unexpectedAttribute(reader, i);
+                                }
+                                TimerServiceResourceDefinition.SCHEDULER_THREADS.parseAndSetParameter(value, timerServiceAdd, location);
+                                break;
                             default:
                                 throw unexpectedAttribute(reader, i);
                         }
@@ -515,6 +547,9 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
                                 }
                                 dataStorePathRelativeTo = TimerServiceResourceDefinition.RELATIVE_TO.parse(value, location).asString();
                                 break;
+                            case TYPE:
+                                TimerServiceResourceDefinition.DATA_STORE_TYPE.parseAndSetParameter(value, timerServiceAdd, location);
+                                break;
                             default:
                                 throw unexpectedAttribute(reader, i);
                         }
@@ -537,6 +572,43 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         operations.add(timerServiceAdd);
     }
 
+    private void parsePassivationStore(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+
+        final ModelNode address = new ModelNode();
+        address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
+        address.add(SERVICE, PASSIVATION_STORE);
+        final ModelNode passivationStoreAdd = new ModelNode();
+        passivationStoreAdd.get(OP).set(ADD);
+        passivationStoreAdd.get(OP_ADDR).set(address);
+
+        final EnumSet<EJB3SubsystemXMLAttribute> encountered = EnumSet.noneOf(EJB3SubsystemXMLAttribute.class);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final Location location = reader.getLocation();
+            final String value = reader.getAttributeValue(i);
+            final EJB3SubsystemXMLAttribute attribute = EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i));
+            if (!encountered.add(attribute)) {
+                throw duplicateAttribute(reader, attribute.getLocalName());
+            }
+            switch (attribute) {
+                case MAX_SIZE:
+                    PassivationStoreResourceDefinition.MAX_SIZE.parseAndSetParameter(value, passivationStoreAdd, location);
+                    break;
+                case PATH:
+                    PassivationStoreResourceDefinition.PATH.parseAndSetParameter(value, passivationStoreAdd, location);
+                    break;
+                case RELATIVE_TO:
+                    PassivationStoreResourceDefinition.RELATIVE_TO.parseAndSetParameter(value, passivationStoreAdd, location);
+                    break;
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        requireNoContent(reader);
+        operations.add(passivationStoreAdd);
+    }
+
     /**
      * <p>
      * Parses all attributes from the current element and sets them in the specified {@code ModelNode}.
@@ -597,7 +669,7 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         return setDefaultSLSBPoolOperation;
     }
 
-    private ModelNode createAddStrictMaxBeanInstancePoolOperation(final String name, final Integer maxPoolSize, final Long timeout, final String timeoutUnit) {
+    private ModelNode createAddStrictMaxBeanInstancePoolOperation(final String name, final Integer maxPoolSize, final Long timeout, final String timeoutUnit, final Boolean striped) {
         // create /subsystem=ejb3/strict-max-bean-instance-pool=name:add(...)
         final ModelNode addStrictMaxPoolOperation = new ModelNode();
         addStrictMaxPoolOperation.get(OP).set(ADD);
@@ -614,6 +686,9 @@ public class EJB3Subsystem11Parser implements XMLElementReader<List<ModelNode>>,
         if (timeoutUnit != null) {
             addStrictMaxPoolOperation.get(INSTANCE_ACQUISITION_TIMEOUT_UNIT).set(timeoutUnit);
         }
+        if (striped != null) {
+            addStrictMaxPoolOperation.get(STRIPED).set(striped);
+        }
 
         return addStrictMaxPoolOperation;
     }
@@ -39,17 +39,38 @@ public interface EJB3SubsystemModel {
 
     String MAX_POOL_SIZE = "max-pool-size";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED = "striped";
+
+    String POOL_AVAILABLE_COUNT = "pool-available-count";
+    String POOL_CREATE_COUNT = "pool-create-count";
+    String POOL_CURRENT_SIZE = "pool-current-size";
+    String POOL_REMOVE_COUNT = "pool-remove-count";
+    String POOL_WAIT_TIME = "pool-wait-time";
+
+    String MAX_SIZE = "max-size";
+    String PASSIVATION_STORE = "passivation-store";
+
+    String TIMEOUT_COUNT = "timeout-count";
+    String TIMEOUT_LATENESS_AVERAGE = "timeout-lateness-average";
+    String TIMEOUT_LATENESS_MAX = "timeout-lateness-max";
+    String SCHEDULED_TIMEOUT_COUNT = "scheduled-timeout-count";
+
+    String STATEFUL_CACHE_SIZE = "stateful-cache-size";
+    String STATEFUL_EXPIRED_COUNT = "stateful-expired-count";
 
     String CORE_THREADS = "core-threads";
     String MAX_THREADS = "max-threads";
+    String SCHEDULER_THREADS = "scheduler-threads";
     String RELATIVE_TO = "relative-to";
     String PATH = "path";
+    String DATA_STORE_TYPE = "data-store-type";
 
     String SERVICE = "service";
     String TIMER_SERVICE = "timer-service";
     String DEFAULT = "default";
 
     PathElement TIMER_SERVICE_PATH = PathElement.pathElement(SERVICE, TIMER_SERVICE);
+    PathElement PASSIVATION_STORE_PATH = PathElement.pathElement(SERVICE, PASSIVATION_STORE);
 
 
 }
@@ -58,6 +58,13 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DEFAULT_RESOURCE_ADAPTER_NAME, ModelType.STRING, true)
                     .setAllowExpression(true).build();
 
+    public static final SimpleAttributeDefinition STATEFUL_CACHE_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.STATEFUL_CACHE_SIZE, ModelType.INT, false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+    public static final SimpleAttributeDefinition STATEFUL_EXPIRED_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.STATEFUL_EXPIRED_COUNT, ModelType.LONG, false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME).build();
+
     private EJB3SubsystemRootResourceDefinition() {
         super(PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME),
                 EJB3Extension.getResourceDescriptionResolver(EJB3Extension.SUBSYSTEM_NAME),
@@ -71,5 +78,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         resourceRegistration.registerReadWriteAttribute(DEFAULT_SLSB_INSTANCE_POOL, null, SetDefaultSLSBPool.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(DEFAULT_MDB_INSTANCE_POOL, null, SetDefaultMDBPool.INSTANCE);
         resourceRegistration.registerReadWriteAttribute(DEFAULT_RESOURCE_ADAPTER_NAME, null, SetDefaultResourceAdapterName.INSTANCE);
+        resourceRegistration.registerMetric(STATEFUL_CACHE_SIZE, StatefulCacheMetricsHandler.INSTANCE);
+        resourceRegistration.registerMetric(STATEFUL_EXPIRED_COUNT, StatefulCacheMetricsHandler.INSTANCE);
     }
 }
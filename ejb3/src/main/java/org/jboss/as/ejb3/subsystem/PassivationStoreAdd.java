@@ -0,0 +1,75 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.List;
+
+import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.ServiceVerificationHandler;
+import org.jboss.as.ejb3.cache.PassivationStoreService;
+import org.jboss.as.server.services.path.AbsolutePathService;
+import org.jboss.as.server.services.path.RelativePathService;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceTarget;
+
+/**
+ * Adds the passivation store, which enables the passivation of stateful session beans
+ */
+public class PassivationStoreAdd extends AbstractBoottimeAddStepHandler {
+
+    public static final PassivationStoreAdd INSTANCE = new PassivationStoreAdd();
+
+    @Override
+    protected void populateModel(ModelNode operation, ModelNode model) throws OperationFailedException {
+        for (AttributeDefinition attr : PassivationStoreResourceDefinition.ATTRIBUTES.values()) {
+            attr.validateAndSet(operation, model);
+        }
+    }
+
+    @Override
+    protected void performBoottime(OperationContext context, ModelNode operation, ModelNode model,
+                                   ServiceVerificationHandler verificationHandler, List<ServiceController<?>> newControllers) throws OperationFailedException {
+        final int maxSize = PassivationStoreResourceDefinition.MAX_SIZE.validateResolvedOperation(model).asInt();
+        final String path = PassivationStoreResourceDefinition.PATH.validateResolvedOperation(model).asString();
+        final ModelNode relativeToNode = PassivationStoreResourceDefinition.RELATIVE_TO.validateResolvedOperation(model);
+        final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
+
+        final ServiceTarget serviceTarget = context.getServiceTarget();
+        if (relativeTo != null) {
+            newControllers.add(RelativePathService.addService(PassivationStoreService.PATH_SERVICE_NAME, path, relativeTo, serviceTarget));
+        } else {
+            newControllers.add(AbsolutePathService.addService(PassivationStoreService.PATH_SERVICE_NAME, path, serviceTarget));
+        }
+
+        final PassivationStoreService passivationStore = new PassivationStoreService(maxSize);
+        newControllers.add(serviceTarget.addService(PassivationStoreService.SERVICE_NAME, passivationStore)
+                .addDependency(PassivationStoreService.PATH_SERVICE_NAME, String.class, passivationStore.getPath())
+                .addListener(verificationHandler)
+                .install());
+    }
+}
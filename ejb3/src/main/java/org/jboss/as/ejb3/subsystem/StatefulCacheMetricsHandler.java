@@ -0,0 +1,52 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.cache.ExpirationScheduler;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Handles the {@code read-attribute} operation for the stateful session bean cache metrics of the EJB3 subsystem.
+ */
+public class StatefulCacheMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final StatefulCacheMetricsHandler INSTANCE = new StatefulCacheMetricsHandler();
+
+    private StatefulCacheMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        if (EJB3SubsystemModel.STATEFUL_CACHE_SIZE.equals(attributeName)) {
+            context.getResult().set(ExpirationScheduler.getCacheSize());
+        } else if (EJB3SubsystemModel.STATEFUL_EXPIRED_COUNT.equals(attributeName)) {
+            context.getResult().set(ExpirationScheduler.getExpiredCount());
+        }
+        context.completeStep();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.component.pool.PoolConfigService;
+import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Handles the {@code read-attribute} operation for the runtime metrics of a strict-max-bean-instance-pool resource.
+ * The values are aggregated over all the pools which were created from the pool configuration.
+ */
+public class StrictMaxPoolMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final StrictMaxPoolMetricsHandler INSTANCE = new StrictMaxPoolMetricsHandler();
+
+    private StrictMaxPoolMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        final String poolName = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR)).getLastElement().getValue();
+        final ServiceName serviceName = PoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName);
+        final ServiceController<?> sc = context.getServiceRegistry(false).getService(serviceName);
+        if (sc != null && sc.getState() == ServiceController.State.UP) {
+            final StrictMaxPoolConfig smpc = StrictMaxPoolConfig.class.cast(sc.getValue());
+            final ModelNode result = context.getResult();
+            if (EJB3SubsystemModel.POOL_CURRENT_SIZE.equals(attributeName)) {
+                result.set(smpc.getCurrentSize());
+            } else if (EJB3SubsystemModel.POOL_AVAILABLE_COUNT.equals(attributeName)) {
+                result.set(smpc.getAvailableCount());
+            } else if (EJB3SubsystemModel.POOL_CREATE_COUNT.equals(attributeName)) {
+                result.set(smpc.getCreateCount());
+            } else if (EJB3SubsystemModel.POOL_REMOVE_COUNT.equals(attributeName)) {
+                result.set(smpc.getRemoveCount());
+            } else if (EJB3SubsystemModel.POOL_WAIT_TIME.equals(attributeName)) {
+                result.set(smpc.getWaitTime());
+            }
+        }
+        context.completeStep();
+    }
+}
@@ -33,6 +33,7 @@ import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.TimeUnitValidator;
@@ -75,15 +76,56 @@ public class StrictMaxPoolResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_NONE)
                     .build();
 
+    public static final SimpleAttributeDefinition STRIPED =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.STRIPED, ModelType.BOOLEAN, true)
+                    .setDefaultValue(new ModelNode().set(false))
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_NONE)
+                    .build();
+
+    public static final SimpleAttributeDefinition POOL_CURRENT_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.POOL_CURRENT_SIZE, ModelType.INT, false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+    public static final SimpleAttributeDefinition POOL_AVAILABLE_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.POOL_AVAILABLE_COUNT, ModelType.INT, false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+    public static final SimpleAttributeDefinition POOL_CREATE_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.POOL_CREATE_COUNT, ModelType.INT, false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+    public static final SimpleAttributeDefinition POOL_REMOVE_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.POOL_REMOVE_COUNT, ModelType.INT, false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+    public static final SimpleAttributeDefinition POOL_WAIT_TIME =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.POOL_WAIT_TIME, ModelType.LONG, false)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
+    public static final Map<String, AttributeDefinition> METRICS ;
+
     static {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(MAX_POOL_SIZE.getName(), MAX_POOL_SIZE);
         map.put(INSTANCE_ACQUISITION_TIMEOUT.getName(), INSTANCE_ACQUISITION_TIMEOUT);
         map.put(INSTANCE_ACQUISITION_TIMEOUT_UNIT.getName(), INSTANCE_ACQUISITION_TIMEOUT_UNIT);
+        map.put(STRIPED.getName(), STRIPED);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
+
+        Map<String, AttributeDefinition> metrics = new LinkedHashMap<String, AttributeDefinition>();
+        metrics.put(POOL_CURRENT_SIZE.getName(), POOL_CURRENT_SIZE);
+        metrics.put(POOL_AVAILABLE_COUNT.getName(), POOL_AVAILABLE_COUNT);
+        metrics.put(POOL_CREATE_COUNT.getName(), POOL_CREATE_COUNT);
+        metrics.put(POOL_REMOVE_COUNT.getName(), POOL_REMOVE_COUNT);
+        metrics.put(POOL_WAIT_TIME.getName(), POOL_WAIT_TIME);
+
+        METRICS = Collections.unmodifiableMap(metrics);
     }
 
     private StrictMaxPoolResourceDefinition() {
@@ -98,5 +140,8 @@ public class StrictMaxPoolResourceDefinition extends SimpleResourceDefinition {
         for (AttributeDefinition attr : ATTRIBUTES.values()) {
             resourceRegistration.registerReadWriteAttribute(attr, null, StrictMaxPoolWriteHandler.INSTANCE);
         }
+        for (AttributeDefinition metric : METRICS.values()) {
+            resourceRegistration.registerMetric(metric, StrictMaxPoolMetricsHandler.INSTANCE);
+        }
     }
 }
@@ -66,15 +66,18 @@ public class StrictMaxPoolWriteHandler extends AbstractWriteAttributeHandler<Voi
         ServiceController sc = registry.getService(serviceName);
         if (sc != null) {
             StrictMaxPoolConfig smpc = StrictMaxPoolConfig.class.cast(sc.getValue());
-            if (StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.equals(attributeName)) {
+            if (StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.getName().equals(attributeName)) {
                 int maxPoolSize = StrictMaxPoolResourceDefinition.MAX_POOL_SIZE.validateResolvedOperation(model).asInt();
                 smpc.setMaxPoolSize(maxPoolSize);
-            } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.equals(attributeName)) {
+            } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.getName().equals(attributeName)) {
                 long timeout = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.validateResolvedOperation(model).asLong();
                 smpc.setTimeout(timeout);
-            } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.equals(attributeName)) {
+            } else if (StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.getName().equals(attributeName)) {
                 String timeoutUnit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.validateResolvedOperation(model).asString();
                 smpc.setTimeoutUnit(TimeUnit.valueOf(timeoutUnit));
+            } else if (StrictMaxPoolResourceDefinition.STRIPED.getName().equals(attributeName)) {
+                boolean striped = StrictMaxPoolResourceDefinition.STRIPED.validateResolvedOperation(model).asBoolean();
+                smpc.setStriped(striped);
             }
         }
     }
@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.subsystem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.operations.validation.AllowedValuesValidator;
+import org.jboss.as.controller.operations.validation.ModelTypeValidator;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistenceType;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+
+/**
+ * Validates that a value is the name of a {@link TimerPersistenceType}.
+ */
+public class TimerPersistenceTypeValidator extends ModelTypeValidator implements AllowedValuesValidator {
+
+    public TimerPersistenceTypeValidator(final boolean nullable) {
+        super(ModelType.STRING, nullable, false);
+    }
+
+    @Override
+    public void validateParameter(String parameterName, ModelNode value) throws OperationFailedException {
+        super.validateParameter(parameterName, value);
+        if (value.isDefined()) {
+            final String type = value.asString();
+            try {
+                TimerPersistenceType.valueOf(type.toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                throw new OperationFailedException(new ModelNode().set(String.format("Invalid value %s for %s; legal values are %s",
+                        type, parameterName, getAllowedValues())));
+            }
+        }
+    }
+
+    @Override
+    public List<ModelNode> getAllowedValues() {
+        List<ModelNode> result = new ArrayList<ModelNode>();
+        for (TimerPersistenceType type : TimerPersistenceType.values()) {
+            result.add(new ModelNode().set(type.name()));
+        }
+        return result;
+    }
+}
@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.subsystem;
 
 import java.util.List;
+import java.util.Locale;
 
 import org.jboss.as.controller.AbstractBoottimeAddStepHandler;
 import org.jboss.as.controller.AttributeDefinition;
@@ -35,7 +36,9 @@ import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingPro
 import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
+import org.jboss.as.ejb3.timerservice.TimeoutSchedulerService;
 import org.jboss.as.ejb3.timerservice.TimerServiceFactoryService;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistenceType;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -85,9 +88,16 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
             final String path = pathNode.isDefined() ? pathNode.asString() : null;
             final ModelNode relativeToNode = TimerServiceResourceDefinition.RELATIVE_TO.validateResolvedOperation(model);
             final String relativeTo = relativeToNode.isDefined() ? relativeToNode.asString() : null;
+            final TimerPersistenceType dataStoreType = TimerPersistenceType.valueOf(TimerServiceResourceDefinition.DATA_STORE_TYPE.validateResolvedOperation(model).asString().toUpperCase(Locale.ENGLISH));
 
             final int coreThreadCount = TimerServiceResourceDefinition.CORE_THREADS.validateResolvedOperation(model).asInt();
-            final int maxThreadCount = TimerServiceResourceDefinition.CORE_THREADS.validateResolvedOperation(model).asInt(Runtime.getRuntime().availableProcessors());
+            final int maxThreadCount = TimerServiceResourceDefinition.MAX_THREADS.validateResolvedOperation(model).asInt(Runtime.getRuntime().availableProcessors());
+            final int schedulerThreadCount = TimerServiceResourceDefinition.SCHEDULER_THREADS.validateResolvedOperation(model).asInt();
+
+            // the scheduler shared by the timer services of all deployments
+            newControllers.add(context.getServiceTarget().addService(TimeoutSchedulerService.SERVICE_NAME, new TimeoutSchedulerService(schedulerThreadCount))
+                    .addListener(verificationHandler)
+                    .install());
 
             context.addStep(new AbstractDeploymentChainStep() {
                 protected void execute(DeploymentProcessorTarget processorTarget) {
@@ -108,7 +118,7 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
                     processorTarget.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_TIMEOUT_ANNOTATION, new TimerServiceAnnotationProcessor());
                     processorTarget.addDeploymentProcessor(Phase.PARSE, Phase.PARSE_AROUNDTIMEOUT_ANNOTATION, new AroundTimeoutAnnotationParsingProcessor());
                     processorTarget.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_EJB_TIMER_METADATA_MERGE, new TimerMethodMergingProcessor());
-                    processorTarget.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_EJB_TIMER_SERVICE, new TimerServiceDeploymentProcessor(coreThreadCount, maxThreadCount, true));
+                    processorTarget.addDeploymentProcessor(Phase.POST_MODULE, Phase.POST_MODULE_EJB_TIMER_SERVICE, new TimerServiceDeploymentProcessor(coreThreadCount, maxThreadCount, dataStoreType, true));
                 }
             }, OperationContext.Stage.RUNTIME);
         }
@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.subsystem;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.ejb3.timerservice.TimeoutSchedulerService;
+import org.jboss.as.ejb3.timerservice.mk2.TimeoutScheduler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Handles the {@code read-attribute} operation for the runtime metrics of the timer-service resource. The values
+ * are aggregated over the timers of all deployments.
+ */
+public class TimerServiceMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+    public static final TimerServiceMetricsHandler INSTANCE = new TimerServiceMetricsHandler();
+
+    private TimerServiceMetricsHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+        final ServiceController<?> sc = context.getServiceRegistry(false).getService(TimeoutSchedulerService.SERVICE_NAME);
+        if (sc != null && sc.getState() == ServiceController.State.UP) {
+            final TimeoutScheduler scheduler = TimeoutScheduler.class.cast(sc.getValue());
+            final ModelNode result = context.getResult();
+            if (EJB3SubsystemModel.TIMEOUT_COUNT.equals(attributeName)) {
+                result.set(scheduler.getTimeoutCount());
+            } else if (EJB3SubsystemModel.TIMEOUT_LATENESS_AVERAGE.equals(attributeName)) {
+                result.set(scheduler.getAverageLateness());
+            } else if (EJB3SubsystemModel.TIMEOUT_LATENESS_MAX.equals(attributeName)) {
+                result.set(scheduler.getMaxLateness());
+            } else if (EJB3SubsystemModel.SCHEDULED_TIMEOUT_COUNT.equals(attributeName)) {
+                result.set(scheduler.getScheduledCount());
+            }
+        }
+        context.completeStep();
+    }
+}
@@ -38,6 +38,7 @@ import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistenceType;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 
@@ -62,6 +63,14 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    public static final SimpleAttributeDefinition DATA_STORE_TYPE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.DATA_STORE_TYPE, ModelType.STRING, true)
+                    .setXmlName(EJB3SubsystemXMLAttribute.TYPE.getLocalName())
+                    .setValidator(new TimerPersistenceTypeValidator(true))
+                    .setDefaultValue(new ModelNode().set(TimerPersistenceType.FILE.name()))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
     public static final SimpleAttributeDefinition CORE_THREADS =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.CORE_THREADS, ModelType.INT, true)
                     .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true))
@@ -75,16 +84,55 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    public static final SimpleAttributeDefinition SCHEDULER_THREADS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SCHEDULER_THREADS, ModelType.INT, true)
+                    .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setDefaultValue(new ModelNode().set(1))
+                    .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
+                    .build();
+
+    public static final SimpleAttributeDefinition TIMEOUT_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.TIMEOUT_COUNT, ModelType.LONG, true)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    public static final SimpleAttributeDefinition TIMEOUT_LATENESS_AVERAGE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.TIMEOUT_LATENESS_AVERAGE, ModelType.LONG, true)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    public static final SimpleAttributeDefinition TIMEOUT_LATENESS_MAX =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.TIMEOUT_LATENESS_MAX, ModelType.LONG, true)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    public static final SimpleAttributeDefinition SCHEDULED_TIMEOUT_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.SCHEDULED_TIMEOUT_COUNT, ModelType.INT, true)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
+    public static final Map<String, AttributeDefinition> METRICS ;
+
     static {
         Map<String, AttributeDefinition> map = new LinkedHashMap<String, AttributeDefinition>();
         map.put(PATH.getName(), PATH);
         map.put(RELATIVE_TO.getName(), RELATIVE_TO);
+        map.put(DATA_STORE_TYPE.getName(), DATA_STORE_TYPE);
         map.put(CORE_THREADS.getName(), CORE_THREADS);
         map.put(MAX_THREADS.getName(), MAX_THREADS);
+        map.put(SCHEDULER_THREADS.getName(), SCHEDULER_THREADS);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
+
+        Map<String, AttributeDefinition> metrics = new LinkedHashMap<String, AttributeDefinition>();
+        metrics.put(TIMEOUT_COUNT.getName(), TIMEOUT_COUNT);
+        metrics.put(TIMEOUT_LATENESS_AVERAGE.getName(), TIMEOUT_LATENESS_AVERAGE);
+        metrics.put(TIMEOUT_LATENESS_MAX.getName(), TIMEOUT_LATENESS_MAX);
+        metrics.put(SCHEDULED_TIMEOUT_COUNT.getName(), SCHEDULED_TIMEOUT_COUNT);
+
+        METRICS = Collections.unmodifiableMap(metrics);
     }
 
     private TimerServiceResourceDefinition() {
@@ -99,5 +147,8 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
         for (AttributeDefinition attr : ATTRIBUTES.values()) {
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        for (AttributeDefinition metric : METRICS.values()) {
+            resourceRegistration.registerMetric(metric, TimerServiceMetricsHandler.INSTANCE);
+        }
     }
 }
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.timerservice;
+
+import org.jboss.as.ejb3.timerservice.mk2.TimeoutScheduler;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Service that manages the lifecycle of the {@link TimeoutScheduler} shared by all timer services
+ */
+public class TimeoutSchedulerService implements Service<TimeoutScheduler> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("as", "ejb", "timerServiceFactory", "scheduler");
+
+    private final int threads;
+    private volatile TimeoutScheduler scheduler;
+
+    public TimeoutSchedulerService(final int threads) {
+        this.threads = threads;
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+        scheduler = new TimeoutScheduler(threads);
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        scheduler.shutdown();
+        scheduler = null;
+    }
+
+    @Override
+    public TimeoutScheduler getValue() throws IllegalStateException, IllegalArgumentException {
+        final TimeoutScheduler scheduler = this.scheduler;
+        if (scheduler == null) {
+            throw new IllegalStateException("Timeout scheduler is not started");
+        }
+        return scheduler;
+    }
+}
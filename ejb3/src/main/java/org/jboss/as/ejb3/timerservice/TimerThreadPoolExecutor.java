@@ -0,0 +1,87 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The executor that runs the timeout tasks of a timer service.
+ * <p/>
+ * A {@link ThreadPoolExecutor} with an unbounded queue never starts more than its core threads, so this executor only
+ * queues a task if there is an idle thread to pick it up or if it already runs its maximum number of threads. Otherwise
+ * a new thread is started. Threads above the core threads are stopped after they have been idle for the keep alive
+ * time, and no timeout task is ever rejected while the executor is running.
+ */
+public class TimerThreadPoolExecutor extends ThreadPoolExecutor {
+
+    /**
+     * Creates a {@link TimerThreadPoolExecutor}
+     *
+     * @param coreThreads the number of threads to keep, even if they are idle
+     * @param maxThreads  the maximum number of threads
+     * @param keepAlive   the time after which an idle thread above the core threads is stopped
+     * @param unit        the unit of the keep alive time
+     */
+    public TimerThreadPoolExecutor(final int coreThreads, final int maxThreads, final long keepAlive, final TimeUnit unit) {
+        super(coreThreads, Math.max(coreThreads, maxThreads), keepAlive, unit, new TaskQueue(), new QueueOnRejection());
+        ((TaskQueue) getQueue()).executor = this;
+    }
+
+    private static class TaskQueue extends LinkedBlockingQueue<Runnable> {
+        private static final long serialVersionUID = 1L;
+
+        private volatile ThreadPoolExecutor executor;
+
+        @Override
+        public boolean offer(final Runnable task) {
+            final ThreadPoolExecutor executor = this.executor;
+            // refusing the task makes the executor start a new thread
+            if (executor != null && executor.getPoolSize() < executor.getMaximumPoolSize()
+                    && executor.getActiveCount() >= executor.getPoolSize()) {
+                return false;
+            }
+            return super.offer(task);
+        }
+
+        boolean queue(final Runnable task) {
+            return super.offer(task);
+        }
+    }
+
+    /**
+     * Queues the tasks that were refused by the {@link TaskQueue} when the executor could not start another thread
+     * because it already runs its maximum number of threads.
+     */
+    private static class QueueOnRejection implements RejectedExecutionHandler {
+
+        @Override
+        public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor) {
+            if (executor.isShutdown() || !((TaskQueue) executor.getQueue()).queue(task)) {
+                throw new RejectedExecutionException("Timer service executor has been shut down");
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.timerservice.mk2;
+
+import org.jboss.threads.JBossThreadFactory;
+
+import java.security.AccessController;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Schedules the timeouts of all the timer services of a server.
+ * <p/>
+ * The scheduler threads only hand the timeout tasks over to the executor of the timer service they belong to, so a
+ * slow timeout method never delays the timeouts of other timers. The scheduler also records the lateness of the
+ * timeouts, which is the time between the scheduled expiration of a timer and the start of its timeout task.
+ */
+public class TimeoutScheduler {
+
+    /**
+     * The number of cancelled timeouts after which the cancelled tasks are purged from the scheduler queue
+     */
+    private static final int PURGE_THRESHOLD = 1000;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong totalLateness = new AtomicLong();
+    private final AtomicLong maxLateness = new AtomicLong();
+    private final AtomicLong cancelCount = new AtomicLong();
+
+    /**
+     * Creates a {@link TimeoutScheduler}
+     *
+     * @param threads the number of scheduler threads
+     */
+    public TimeoutScheduler(final int threads) {
+        final ThreadGroup group = new ThreadGroup("EJB timer scheduler threads");
+        final JBossThreadFactory threadFactory = new JBossThreadFactory(group, Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+        this.executor = new ScheduledThreadPoolExecutor(threads, threadFactory);
+    }
+
+    /**
+     * Schedules a single action task
+     *
+     * @param task  the task
+     * @param delay the delay in milliseconds
+     * @return the future of the task
+     */
+    public ScheduledFuture<?> schedule(final Runnable task, final long delay) {
+        return executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Schedules a task at a fixed rate
+     *
+     * @param task     the task
+     * @param delay    the delay of the first execution in milliseconds
+     * @param interval the interval in milliseconds
+     * @return the future of the task
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final long delay, final long interval) {
+        return executor.scheduleAtFixedRate(task, delay, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels a scheduled task. Cancelled tasks are removed from the scheduler queue in batches.
+     *
+     * @param future the future of the task
+     */
+    public void cancel(final ScheduledFuture<?> future) {
+        future.cancel(false);
+        if (cancelCount.incrementAndGet() % PURGE_THRESHOLD == 0) {
+            executor.purge();
+        }
+    }
+
+    /**
+     * Records the start of a timeout task
+     *
+     * @param expiration the time in milliseconds at which the timeout was scheduled to start
+     */
+    public void timeoutStarted(final long expiration) {
+        final long lateness = Math.max(0, System.currentTimeMillis() - expiration);
+        timeoutCount.incrementAndGet();
+        totalLateness.addAndGet(lateness);
+        long max;
+        while (lateness > (max = maxLateness.get())) {
+            if (maxLateness.compareAndSet(max, lateness)) {
+                break;
+            }
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the number of tasks waiting in the scheduler queue
+     */
+    public int getScheduledCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * @return the number of timeout tasks which have been started
+     */
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    /**
+     * @return the average lateness of the timeouts in milliseconds
+     */
+    public long getAverageLateness() {
+        final long count = timeoutCount.get();
+        return count == 0 ? 0 : totalLateness.get() / count;
+    }
+
+    /**
+     * @return the maximum lateness of a timeout in milliseconds
+     */
+    public long getMaxLateness() {
+        return maxLateness.get();
+    }
+}
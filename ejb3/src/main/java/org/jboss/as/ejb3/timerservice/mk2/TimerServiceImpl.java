@@ -63,7 +63,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
 
 
 /**
@@ -100,9 +103,9 @@ public class TimerServiceImpl implements TimerService {
     private final ExecutorService executorService;
 
     /**
-     * The timer
+     * Schedules the timeouts
      */
-    private final java.util.Timer timer;
+    private final TimeoutScheduler scheduler;
 
     /**
      * All non-persistent timers which were created by this {@link TimerService}
@@ -112,20 +115,21 @@ public class TimerServiceImpl implements TimerService {
     private final Map<TimerHandle, TimerImpl> persistentWaitingOnTxCompletionTimers = new ConcurrentHashMap<TimerHandle, TimerImpl>();
 
     /**
-     * Holds the {@link java.util.concurrent.Future} of each of the timer tasks that have been scheduled
+     * Holds the scheduled {@link Task} of each timer
      */
-    private final Map<TimerHandle, java.util.TimerTask> scheduledTimerFutures = new ConcurrentHashMap<TimerHandle, java.util.TimerTask>();
+    private final ConcurrentMap<TimerHandle, Task> scheduledTimerFutures = new ConcurrentHashMap<TimerHandle, Task>();
 
     /**
      * Creates a {@link TimerServiceImpl}
      *
+     * @param scheduler          The scheduler of the timeouts
      * @param invoker            The {@link TimedObjectInvoker} responsible for invoking the timeout method
      * @param timerPersistence   The persistent timer store
      * @param transactionManager Transaction manager responsible for managing the transactional timer service
      * @param executor           Executor service responsible for creating scheduled timer tasks
      * @throws IllegalArgumentException If either of the passed param is null
      */
-    public TimerServiceImpl(final java.util.Timer timer, TimedObjectInvoker invoker, final TimerPersistence timerPersistence, TransactionManager transactionManager,
+    public TimerServiceImpl(final TimeoutScheduler scheduler, TimedObjectInvoker invoker, final TimerPersistence timerPersistence, TransactionManager transactionManager,
                             ExecutorService executor) {
         if (invoker == null) {
             throw new IllegalArgumentException("Invoker cannot be null");
@@ -141,7 +145,7 @@ public class TimerServiceImpl implements TimerService {
         this.timerPersistence = timerPersistence;
         this.transactionManager = transactionManager;
         this.executorService = executor;
-        this.timer = timer;
+        this.scheduler = scheduler;
     }
 
     /**
@@ -728,21 +732,22 @@ public class TimerServiceImpl implements TimerService {
             delay = 0;
         }
         long intervalDuration = timer.getInterval();
+        final Task task = new Task(timer.getTimerHandle(), timerTask, System.currentTimeMillis() + delay, intervalDuration);
+        // maintain it in timerservice for future use (like cancellation)
+        final Task previous = this.scheduledTimerFutures.put(timer.getTimerHandle(), task);
+        if (previous != null) {
+            // a calendar timer reschedules itself while its current task is running, which is not affected
+            previous.cancel();
+        }
         if (intervalDuration > 0) {
             logger.debug("Scheduling timer " + timer + " at fixed rate, starting at " + delay
                     + " milli seconds from now with repeated interval=" + intervalDuration);
             // schedule the task
-            final Task task = new Task(timerTask);
-            this.timer.scheduleAtFixedRate(task, delay, intervalDuration);
-            // maintain it in timerservice for future use (like cancellation)
-            this.scheduledTimerFutures.put(timer.getTimerHandle(), task);
+            task.setFuture(this.scheduler.scheduleAtFixedRate(task, delay, intervalDuration));
         } else {
             logger.debug("Scheduling a single action timer " + timer + " starting at " + delay + " milli seconds from now");
             // schedule the task
-            this.timer.schedule(new Task(timerTask), delay);
-            // maintain it in timerservice for future use (like cancellation)
-            final Task task = new Task(timerTask);
-            this.scheduledTimerFutures.put(timer.getTimerHandle(), task);
+            task.setFuture(this.scheduler.schedule(task, delay));
         }
     }
 
@@ -753,9 +758,9 @@ public class TimerServiceImpl implements TimerService {
      */
     protected void cancelTimeout(TimerImpl timer) {
         TimerHandle handle = timer.getTimerHandle();
-        java.util.TimerTask timerTask = this.scheduledTimerFutures.get(handle);
-        if (timerTask != null) {
-            timerTask.cancel();
+        Task task = this.scheduledTimerFutures.remove(handle);
+        if (task != null) {
+            task.cancel();
         }
 
     }
@@ -1025,17 +1030,70 @@ public class TimerServiceImpl implements TimerService {
 
     }
 
-    private class Task extends java.util.TimerTask {
+    /**
+     * Hands the timer task over to the executor service when the timer expires, so that the scheduler threads
+     * are never blocked by a timeout method.
+     */
+    private class Task implements Runnable {
 
+        private final TimerHandle handle;
         private final Runnable delegate;
+        private final long interval;
+        /**
+         * The next scheduled expiration, only accessed by the scheduler as the runs of a task never overlap
+         */
+        private long expiration;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean cancelled;
 
-        public Task(final Runnable delegate) {
+        public Task(final TimerHandle handle, final Runnable delegate, final long expiration, final long interval) {
+            this.handle = handle;
             this.delegate = delegate;
+            this.expiration = expiration;
+            this.interval = interval;
+        }
+
+        void setFuture(final ScheduledFuture<?> future) {
+            this.future = future;
+            if (cancelled) {
+                scheduler.cancel(future);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            final ScheduledFuture<?> future = this.future;
+            if (future != null) {
+                scheduler.cancel(future);
+            }
         }
 
         @Override
         public void run() {
-            executorService.submit(delegate);
+            if (cancelled) {
+                return;
+            }
+            final long scheduled = expiration;
+            if (interval > 0) {
+                expiration += interval;
+            } else {
+                scheduledTimerFutures.remove(handle, this);
+            }
+            try {
+                executorService.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        scheduler.timeoutStarted(scheduled);
+                        try {
+                            delegate.run();
+                        } catch (RuntimeException e) {
+                            logger.error("Error running timer task for timer " + handle, e);
+                        }
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                logger.warn("Could not run timer task for timer " + handle + ", the timer service is shutting down");
+            }
         }
     }
 
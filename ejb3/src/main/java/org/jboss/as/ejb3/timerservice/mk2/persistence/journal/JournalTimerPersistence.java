@@ -0,0 +1,716 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.timerservice.mk2.persistence.journal;
+
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerEntity;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerPersistence;
+import org.jboss.logging.Logger;
+import org.jboss.marshalling.ClassResolver;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.ModularClassResolver;
+import org.jboss.marshalling.Unmarshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.jboss.modules.ModuleLoader;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.SystemException;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
+
+/**
+ * Persistent timer store based on a segmented, append-only journal.
+ * <p/>
+ * Every change of a timer is appended to the current journal segment as a checksummed record, and the state of
+ * all timers is kept in memory. Concurrent writers are batched, so a single {@code fsync} covers all the records
+ * written in the meantime, and all the timers persisted in a transaction are written as one batch when the
+ * transaction commits.
+ * <p/>
+ * Once the journal mostly consists of obsolete records, it is compacted by writing a snapshot of the live timers
+ * into a new segment and deleting the older segments. On start the journal is replayed in segment order; a
+ * snapshot which was not completed and a torn record at the end of a segment are ignored. If a write fails, its
+ * records are truncated from the segment, or a new segment is started, so later records never follow a torn one.
+ * <p/>
+ * The journal uses the same directory as the {@link org.jboss.as.ejb3.timerservice.mk2.persistence.filestore.FileTimerPersistence file store}. Timers which were persisted
+ * by the file store are imported into the journal on start, and their files are deleted.
+ */
+public class JournalTimerPersistence implements TimerPersistence {
+
+    private static final Logger logger = Logger.getLogger(JournalTimerPersistence.class);
+
+    static final String SEGMENT_PREFIX = "timers-";
+    static final String SEGMENT_SUFFIX = ".journal";
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final byte SNAPSHOT_START = 3;
+    private static final byte SNAPSHOT_END = 4;
+
+    /**
+     * The size of a record header, which consists of the length and the checksum of the record body
+     */
+    private static final int HEADER_SIZE = 8;
+
+    /**
+     * The default size in bytes at which a new segment is started
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * The minimum number of obsolete records before the journal is compacted
+     */
+    private static final int MIN_COMPACTION_RECORDS = 1000;
+
+    private final TransactionManager transactionManager;
+    private final TransactionSynchronizationRegistry transactionSynchronizationRegistry;
+    private final File baseDir;
+    private final boolean createIfNotExists;
+    private final long segmentSize;
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    /**
+     * map of timed object id : timer id : timer. Only modified by the writer of the journal.
+     */
+    private final ConcurrentMap<String, Map<String, TimerEntity>> timers = new ConcurrentHashMap<String, Map<String, TimerEntity>>();
+
+    /**
+     * The key of the batch of the current transaction in the transaction synchronization registry
+     */
+    private final Object transactionBatchKey = new Object();
+
+    private final Queue<Batch> pending = new ConcurrentLinkedQueue<Batch>();
+    /**
+     * Guards the journal files and the fields below
+     */
+    private final Object writeLock = new Object();
+    private FileOutputStream segment;
+    private FileChannel channel;
+    private long segmentId;
+    private long segmentBytes;
+    private int liveRecords;
+    private int totalRecords;
+
+    private volatile boolean started = false;
+
+    public JournalTimerPersistence(final TransactionManager transactionManager, final TransactionSynchronizationRegistry transactionSynchronizationRegistry, final File baseDir, final boolean createIfNotExists, final ModuleLoader moduleLoader) {
+        this(transactionManager, transactionSynchronizationRegistry, baseDir, createIfNotExists, ModularClassResolver.getInstance(moduleLoader), DEFAULT_SEGMENT_SIZE);
+    }
+
+    public JournalTimerPersistence(final TransactionManager transactionManager, final TransactionSynchronizationRegistry transactionSynchronizationRegistry, final File baseDir, final boolean createIfNotExists, final ClassResolver classResolver, final long segmentSize) {
+        this.transactionManager = transactionManager;
+        this.transactionSynchronizationRegistry = transactionSynchronizationRegistry;
+        this.baseDir = baseDir;
+        this.createIfNotExists = createIfNotExists;
+        this.segmentSize = segmentSize;
+        this.factory = new RiverMarshallerFactory();
+        final MarshallingConfiguration configuration = new MarshallingConfiguration();
+        configuration.setClassResolver(classResolver);
+        this.configuration = configuration;
+    }
+
+    @Override
+    public void start() {
+        synchronized (writeLock) {
+            if (!baseDir.exists()) {
+                if (createIfNotExists) {
+                    if (!baseDir.mkdirs()) {
+                        throw new RuntimeException("Could not create timer journal directory " + baseDir);
+                    }
+                } else {
+                    throw new RuntimeException("Timer journal directory " + baseDir + " does not exist");
+                }
+            }
+            if (!baseDir.isDirectory()) {
+                throw new RuntimeException("Timer journal directory " + baseDir + " is not a directory");
+            }
+            final long[] segments = listSegments();
+            for (long id : segments) {
+                replay(id);
+            }
+            // the tail of the last segment might be torn, so never append to an existing segment
+            segmentId = segments.length == 0 ? 0 : segments[segments.length - 1];
+            try {
+                openSegment();
+                importFileStore();
+            } catch (IOException e) {
+                throw new RuntimeException("Could not open timer journal in " + baseDir, e);
+            }
+            started = true;
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (writeLock) {
+            started = false;
+            closeSegment();
+            timers.clear();
+            pending.clear();
+        }
+    }
+
+    @Override
+    public void persistTimer(final TimerEntity timerEntity) {
+        try {
+            final int status = transactionManager.getStatus();
+            if (status == Status.STATUS_NO_TRANSACTION ||
+                    status == Status.STATUS_UNKNOWN) {
+                write(new Batch(Collections.singletonList(timerEntity), null));
+            } else {
+                TransactionBatch batch = (TransactionBatch) transactionSynchronizationRegistry.getResource(transactionBatchKey);
+                if (batch == null) {
+                    batch = new TransactionBatch();
+                    transactionSynchronizationRegistry.putResource(transactionBatchKey, batch);
+                    transactionSynchronizationRegistry.registerInterposedSynchronization(new PersistTransactionSynchronization(batch));
+                }
+                batch.timers.put(timerEntity.getId(), timerEntity);
+            }
+        } catch (SystemException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public TimerEntity loadTimer(final String id, final String timedObjectId) {
+        final Map<String, TimerEntity> map = timers.get(timedObjectId);
+        return map == null ? null : map.get(id);
+    }
+
+    @Override
+    public void removeTimer(final TimerEntity timerEntity) {
+        //remove is not a transactional operation, as it only happens once the timer has expired
+        write(new Batch(null, timerEntity));
+    }
+
+    @Override
+    public List<TimerEntity> loadActiveTimers(final String timedObjectId) {
+        final Map<String, TimerEntity> map = timers.get(timedObjectId);
+        if (map == null) {
+            return new ArrayList<TimerEntity>();
+        }
+        return new ArrayList<TimerEntity>(map.values());
+    }
+
+    /**
+     * Writes a batch to the journal. The thread which gets the write lock first writes all the pending batches and
+     * syncs the journal once for all of them.
+     */
+    private void write(final Batch batch) {
+        try {
+            batch.encode();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not marshal timer", e);
+        }
+        pending.add(batch);
+        synchronized (writeLock) {
+            if (!batch.written) {
+                if (!started) {
+                    pending.remove(batch);
+                    throw new IllegalStateException("Timer journal " + baseDir + " is not started");
+                }
+                final List<Batch> batches = new ArrayList<Batch>();
+                IOException failure = null;
+                long offset = segmentBytes;
+                final int records = totalRecords;
+                try {
+                    if (segment == null) {
+                        // no segment could be opened after an earlier failure
+                        openSegment();
+                        offset = 0;
+                    }
+                    Batch next;
+                    while ((next = pending.poll()) != null) {
+                        batches.add(next);
+                        for (byte[] record : next.records) {
+                            append(record);
+                        }
+                    }
+                    channel.force(false);
+                    for (Batch written : batches) {
+                        written.apply();
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                    discardFailedWrite(offset, records);
+                }
+                for (Batch written : batches) {
+                    written.failure = failure;
+                    written.written = true;
+                }
+                if (failure == null && segmentBytes >= segmentSize) {
+                    rollSegment();
+                }
+            }
+        }
+        if (batch.failure != null) {
+            throw new RuntimeException("Could not write timer journal " + baseDir, batch.failure);
+        }
+    }
+
+    /**
+     * Appends a record to the current segment. Must be called with the write lock held.
+     */
+    private void append(final byte[] body) throws IOException {
+        final CRC32 crc = new CRC32();
+        crc.update(body);
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + body.length);
+        buffer.putInt(body.length);
+        buffer.putInt((int) crc.getValue());
+        buffer.put(body);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        segmentBytes += buffer.limit();
+        totalRecords++;
+    }
+
+    /**
+     * Removes the records of a failed write from the current segment, as they were not applied and a record torn
+     * by the failure would hide all the records appended after it. If the segment can't be truncated, a new segment
+     * is started instead. Must be called with the write lock held.
+     */
+    private void discardFailedWrite(final long offset, final int records) {
+        totalRecords = records;
+        if (segment != null) {
+            try {
+                channel.truncate(offset);
+                channel.force(false);
+                segmentBytes = offset;
+                return;
+            } catch (IOException e) {
+                logger.warn("Could not truncate timer journal segment " + segmentFile(segmentId) + ", starting a new segment", e);
+            }
+            closeSegment();
+        }
+        try {
+            openSegment();
+        } catch (IOException e) {
+            // the next write tries again
+            logger.error("Could not open a new timer journal segment in " + baseDir, e);
+        }
+    }
+
+    /**
+     * Starts a new segment, compacting the journal if most of its records are obsolete. Must be called with the
+     * write lock held.
+     */
+    private void rollSegment() {
+        try {
+            closeSegment();
+            openSegment();
+            if (totalRecords - liveRecords >= Math.max(MIN_COMPACTION_RECORDS, liveRecords)) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not roll timer journal " + baseDir, e);
+        }
+    }
+
+    /**
+     * Writes all live timers into a new segment and deletes the older segments. Must be called with the write
+     * lock held.
+     */
+    private void compact() throws IOException {
+        final long snapshotId = segmentId;
+        totalRecords = 0;
+        append(new byte[]{SNAPSHOT_START});
+        for (Map<String, TimerEntity> map : timers.values()) {
+            for (TimerEntity entity : map.values()) {
+                append(encodePut(entity));
+            }
+        }
+        append(new byte[]{SNAPSHOT_END});
+        channel.force(false);
+        for (long id : listSegments()) {
+            if (id < snapshotId && !segmentFile(id).delete()) {
+                logger.warn("Could not delete compacted timer journal segment " + segmentFile(id));
+            }
+        }
+        logger.debugf("Compacted timer journal %s into segment %d with %d timers", baseDir, snapshotId, liveRecords);
+    }
+
+    private void openSegment() throws IOException {
+        segmentId++;
+        final FileOutputStream segment = new FileOutputStream(segmentFile(segmentId), true);
+        this.segment = segment;
+        channel = segment.getChannel();
+        segmentBytes = 0;
+    }
+
+    private void closeSegment() {
+        if (segment != null) {
+            try {
+                channel.force(false);
+                segment.close();
+            } catch (IOException e) {
+                logger.error("Could not close timer journal segment " + segmentFile(segmentId), e);
+            }
+            segment = null;
+            channel = null;
+        }
+    }
+
+    /**
+     * Applies a change to the in memory state. Must be called with the write lock held.
+     */
+    private static void put(final Map<String, Map<String, TimerEntity>> state, final TimerEntity entity) {
+        Map<String, TimerEntity> map = state.get(entity.getTimedObjectId());
+        if (map == null) {
+            map = new ConcurrentHashMap<String, TimerEntity>();
+            state.put(entity.getTimedObjectId(), map);
+        }
+        map.put(entity.getId(), entity);
+    }
+
+    private static boolean remove(final Map<String, Map<String, TimerEntity>> state, final String timedObjectId, final String id) {
+        final Map<String, TimerEntity> map = state.get(timedObjectId);
+        return map != null && map.remove(id) != null;
+    }
+
+    private void putLive(final TimerEntity entity) {
+        final Map<String, TimerEntity> map = timers.get(entity.getTimedObjectId());
+        if (map == null || !map.containsKey(entity.getId())) {
+            liveRecords++;
+        }
+        put(timers, entity);
+    }
+
+    private void removeLive(final String timedObjectId, final String id) {
+        if (remove(timers, timedObjectId, id)) {
+            liveRecords--;
+        }
+    }
+
+    /**
+     * Replays a segment into the in memory state. Must be called with the write lock held.
+     */
+    private void replay(final long id) {
+        final File file = segmentFile(id);
+        // the records of a snapshot only replace the state once the snapshot is complete
+        Map<String, Map<String, TimerEntity>> snapshot = null;
+        DataInputStream in = null;
+        try {
+            final long size = file.length();
+            long position = 0;
+            in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+            final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+            while (true) {
+                final byte[] body;
+                try {
+                    final int length = in.readInt();
+                    final int checksum = in.readInt();
+                    position += HEADER_SIZE;
+                    if (length <= 0 || length > size - position) {
+                        // a torn header, don't allocate a body larger than the rest of the segment
+                        if (position < size) {
+                            logger.warn("Ignoring corrupt tail of timer journal segment " + file);
+                        }
+                        break;
+                    }
+                    position += length;
+                    body = new byte[length];
+                    in.readFully(body);
+                    final CRC32 crc = new CRC32();
+                    crc.update(body);
+                    if ((int) crc.getValue() != checksum) {
+                        logger.warn("Ignoring corrupt tail of timer journal segment " + file);
+                        break;
+                    }
+                } catch (EOFException e) {
+                    break;
+                }
+                totalRecords++;
+                switch (body[0]) {
+                    case PUT: {
+                        final TimerEntity entity = decodePut(unmarshaller, body);
+                        if (snapshot != null) {
+                            put(snapshot, entity);
+                        } else {
+                            putLive(entity);
+                        }
+                        break;
+                    }
+                    case REMOVE: {
+                        final DataInputStream data = new DataInputStream(new ByteArrayInputStream(body, 1, body.length - 1));
+                        final String timedObjectId = data.readUTF();
+                        final String timerId = data.readUTF();
+                        if (snapshot != null) {
+                            remove(snapshot, timedObjectId, timerId);
+                        } else {
+                            removeLive(timedObjectId, timerId);
+                        }
+                        break;
+                    }
+                    case SNAPSHOT_START:
+                        snapshot = new HashMap<String, Map<String, TimerEntity>>();
+                        break;
+                    case SNAPSHOT_END:
+                        if (snapshot != null) {
+                            timers.clear();
+                            liveRecords = 0;
+                            totalRecords = 0;
+                            for (Map<String, TimerEntity> map : snapshot.values()) {
+                                for (TimerEntity entity : map.values()) {
+                                    putLive(entity);
+                                    totalRecords++;
+                                }
+                            }
+                            snapshot = null;
+                        }
+                        break;
+                    default:
+                        logger.warn("Ignoring unknown record in timer journal segment " + file);
+                }
+            }
+            if (snapshot != null) {
+                logger.warn("Ignoring incomplete snapshot in timer journal segment " + file);
+            }
+        } catch (Exception e) {
+            logger.error("Could not restore timers from " + file, e);
+        } finally {
+            if (in != null) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    logger.error("error closing file ", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Imports the timers persisted by the file store, which keeps every timer in a file named after its id in a
+     * directory named after its timed object, and deletes the files once the timers are in the journal. Must be called
+     * with the write lock held.
+     */
+    private void importFileStore() throws IOException {
+        final File[] directories = baseDir.listFiles();
+        if (directories == null) {
+            return;
+        }
+        final List<File> files = new ArrayList<File>();
+        final List<TimerEntity> entities = new ArrayList<TimerEntity>();
+        final Unmarshaller unmarshaller = factory.createUnmarshaller(configuration);
+        for (File directory : directories) {
+            final File[] timerFiles = directory.listFiles();
+            if (timerFiles == null) {
+                continue;
+            }
+            for (File timerFile : timerFiles) {
+                FileInputStream in = null;
+                try {
+                    in = new FileInputStream(timerFile);
+                    unmarshaller.start(Marshalling.createByteInput(in));
+                    entities.add(unmarshaller.readObject(TimerEntity.class));
+                    unmarshaller.finish();
+                    files.add(timerFile);
+                } catch (Exception e) {
+                    logger.error("Could not import timer from " + timerFile + ", it is not restored", e);
+                } finally {
+                    if (in != null) {
+                        try {
+                            in.close();
+                        } catch (IOException e) {
+                            logger.error("error closing file ", e);
+                        }
+                    }
+                }
+            }
+        }
+        if (entities.isEmpty()) {
+            return;
+        }
+        for (TimerEntity entity : entities) {
+            append(encodePut(entity));
+        }
+        channel.force(false);
+        for (TimerEntity entity : entities) {
+            putLive(entity);
+        }
+        // only delete the files once the timers are safely in the journal
+        for (File file : files) {
+            if (!file.delete()) {
+                logger.warn("Could not delete imported timer file " + file);
+            }
+        }
+        for (File directory : directories) {
+            if (directory.isDirectory()) {
+                directory.delete();
+            }
+        }
+        logger.infof("Imported %d timers from the timer file store in %s", entities.size(), baseDir);
+    }
+
+    private byte[] encodePut(final TimerEntity entity) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(PUT);
+        final Marshaller marshaller = factory.createMarshaller(configuration);
+        marshaller.start(Marshalling.createByteOutput(bytes));
+        marshaller.writeObject(entity);
+        marshaller.finish();
+        return bytes.toByteArray();
+    }
+
+    private static TimerEntity decodePut(final Unmarshaller unmarshaller, final byte[] body) throws IOException, ClassNotFoundException {
+        unmarshaller.start(Marshalling.createByteInput(new ByteArrayInputStream(body, 1, body.length - 1)));
+        try {
+            return unmarshaller.readObject(TimerEntity.class);
+        } finally {
+            unmarshaller.finish();
+        }
+    }
+
+    private static byte[] encodeRemove(final TimerEntity entity) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream data = new DataOutputStream(bytes);
+        data.writeByte(REMOVE);
+        data.writeUTF(entity.getTimedObjectId());
+        data.writeUTF(entity.getId());
+        data.flush();
+        return bytes.toByteArray();
+    }
+
+    private long[] listSegments() {
+        final String[] names = baseDir.list();
+        if (names == null) {
+            return new long[0];
+        }
+        final List<Long> ids = new ArrayList<Long>();
+        for (String name : names) {
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                try {
+                    ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring unexpected file " + name + " in timer journal directory " + baseDir);
+                }
+            }
+        }
+        final long[] result = new long[ids.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ids.get(i);
+        }
+        Arrays.sort(result);
+        return result;
+    }
+
+    private File segmentFile(final long id) {
+        return new File(baseDir, SEGMENT_PREFIX + id + SEGMENT_SUFFIX);
+    }
+
+    /**
+     * A set of changes which is written to the journal as a whole
+     */
+    private final class Batch {
+        private final List<TimerEntity> persisted;
+        private final TimerEntity removed;
+        private byte[][] records;
+        private IOException failure;
+        private volatile boolean written;
+
+        Batch(final List<TimerEntity> persisted, final TimerEntity removed) {
+            this.persisted = persisted;
+            this.removed = removed;
+        }
+
+        void encode() throws IOException {
+            if (removed != null) {
+                records = new byte[][]{encodeRemove(removed)};
+            } else {
+                records = new byte[persisted.size()][];
+                for (int i = 0; i < records.length; i++) {
+                    records[i] = encodePut(persisted.get(i));
+                }
+            }
+        }
+
+        /**
+         * Applies the changes to the in memory state once they have been written
+         */
+        void apply() {
+            if (removed != null) {
+                removeLive(removed.getTimedObjectId(), removed.getId());
+            } else {
+                for (TimerEntity entity : persisted) {
+                    putLive(entity);
+                }
+            }
+        }
+    }
+
+    /**
+     * The timers persisted in a transaction
+     */
+    private static final class TransactionBatch {
+        private final Map<String, TimerEntity> timers = new HashMap<String, TimerEntity>();
+    }
+
+    private final class PersistTransactionSynchronization implements Synchronization {
+
+        private final TransactionBatch batch;
+
+        public PersistTransactionSynchronization(final TransactionBatch batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void beforeCompletion() {
+
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status == Status.STATUS_COMMITTED && !batch.timers.isEmpty()) {
+                write(new Batch(new ArrayList<TimerEntity>(batch.timers.values()), null));
+            }
+        }
+    }
+}
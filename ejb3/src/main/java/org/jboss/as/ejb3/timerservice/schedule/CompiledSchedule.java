@@ -0,0 +1,342 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.timerservice.schedule;
+
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfWeek;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Hour;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.IntegerBasedExpression;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
+
+import java.util.BitSet;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * A compiled representation of a schedule expression.
+ * <p>
+ * The matching seconds, minutes, hours, days of the month, months and days of the week are precomputed as bit
+ * sets, so the next matching time is found with a few bit scans over the calendar fields of the start time. The
+ * time zone is only consulted to split the start time into its fields and to convert the matching fields back.
+ * </p>
+ * <p>
+ * This class is immutable, apart from a cache of the days of the month matched by relative day-of-month values,
+ * and can be shared between threads.
+ * </p>
+ */
+final class CompiledSchedule {
+
+    private static final long HALF_DAY = 12 * 60 * 60 * 1000;
+
+    private static final int[] MONTH_OFFSETS = {0, 3, 2, 5, 0, 3, 5, 1, 4, 6, 2, 4};
+
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    /**
+     * Bit n is set for month n, as in {@link Calendar#MONTH}
+     */
+    private final long months;
+    /**
+     * The matching absolute days of the month, bit n being set for day n
+     */
+    private final long daysOfMonth;
+    /**
+     * For each day of the week of the first day of a month, the days of that month which match the day-of-week
+     * expression. Indexed by {@link Calendar#DAY_OF_WEEK} - 1.
+     */
+    private final long[] daysOfWeekByFirstDay = new long[7];
+    /**
+     * The matching years, null for a wildcard
+     */
+    private final BitSet years;
+
+    private final DayOfMonth dayOfMonth;
+    private final boolean relativeDaysOfMonth;
+    /**
+     * The day of the month and day of the week are combined as specified in the EJB spec: if one of them is
+     * the "*" wildcard only the other one is relevant, otherwise a day matches if either of them matches.
+     */
+    private final boolean daysOfMonthOnly;
+    private final boolean daysOfWeekOnly;
+
+    private final Date end;
+
+    private volatile RelativeDays relativeDaysCache;
+
+    CompiledSchedule(final Second second, final Minute minute, final Hour hour, final DayOfMonth dayOfMonth, final boolean dayOfMonthStar,
+                     final DayOfWeek dayOfWeek, final boolean dayOfWeekStar, final Month month, final Year year,
+                     final Date end) {
+        this.seconds = mask(second, 0, 59, 0);
+        this.minutes = mask(minute, 0, 59, 0);
+        this.hours = mask(hour, 0, 23, 0);
+        this.months = mask(month, 1, 12, -1);
+        this.daysOfMonth = dayOfMonth.isWildcard() ? mask(1, 31) : mask(dayOfMonth, 1, 31, 0);
+        final long daysOfWeek = mask(dayOfWeek, 0, 6, 0);
+        for (int first = 0; first < 7; first++) {
+            long days = 0;
+            for (int day = 1; day <= 31; day++) {
+                if ((daysOfWeek & (1L << ((first + day - 1) % 7))) != 0) {
+                    days |= 1L << day;
+                }
+            }
+            this.daysOfWeekByFirstDay[first] = days;
+        }
+        if (year.isWildcard()) {
+            this.years = null;
+        } else {
+            this.years = new BitSet(Year.MAX_YEAR + 1);
+            for (Integer value : year.getAbsoluteValues()) {
+                this.years.set(value);
+            }
+        }
+        this.dayOfMonth = dayOfMonth;
+        this.relativeDaysOfMonth = dayOfMonth.hasRelativeValues();
+        this.daysOfWeekOnly = dayOfMonthStar;
+        this.daysOfMonthOnly = !dayOfMonthStar && dayOfWeekStar;
+        this.end = end;
+    }
+
+    /**
+     * Returns the first time which matches the schedule and is not before <code>start</code>.
+     *
+     * @param start    The earliest time to consider, in milliseconds since the epoch
+     * @param timezone The time zone in which the schedule is matched
+     * @return the next matching time, or null if there is none
+     */
+    Calendar getNextMatch(final long start, final TimeZone timezone) {
+        final Calendar cal = new GregorianCalendar(timezone);
+        cal.setTimeInMillis(start);
+        int year = cal.get(Calendar.YEAR);
+        int month = cal.get(Calendar.MONTH);
+        int day = cal.get(Calendar.DAY_OF_MONTH);
+        int hour = cal.get(Calendar.HOUR_OF_DAY);
+        int minute = cal.get(Calendar.MINUTE);
+        int second = cal.get(Calendar.SECOND);
+
+        // find the matching fields, from the most to the least significant one. Whenever a field has to be
+        // advanced, all less significant fields restart from their minimum, and an overflow carries into the
+        // next more significant field.
+        while (true) {
+            if (year > Year.MAX_YEAR) {
+                return null;
+            }
+            if (this.years != null) {
+                final int nextYear = this.years.nextSetBit(year);
+                if (nextYear < 0) {
+                    return null;
+                }
+                if (nextYear != year) {
+                    year = nextYear;
+                    month = 0;
+                    day = 1;
+                    hour = minute = second = 0;
+                }
+            }
+            final int nextMonth = next(this.months, month);
+            if (nextMonth < 0) {
+                year++;
+                month = 0;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextMonth != month) {
+                month = nextMonth;
+                day = 1;
+                hour = minute = second = 0;
+            }
+            final int nextDay = next(days(year, month, timezone), day);
+            if (nextDay < 0) {
+                month++;
+                day = 1;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextDay != day) {
+                day = nextDay;
+                hour = minute = second = 0;
+            }
+            final int nextHour = next(this.hours, hour);
+            if (nextHour < 0) {
+                day++;
+                hour = minute = second = 0;
+                continue;
+            }
+            if (nextHour != hour) {
+                hour = nextHour;
+                minute = second = 0;
+            }
+            final int nextMinute = next(this.minutes, minute);
+            if (nextMinute < 0) {
+                hour++;
+                minute = second = 0;
+                continue;
+            }
+            if (nextMinute != minute) {
+                minute = nextMinute;
+                second = 0;
+            }
+            final int nextSecond = next(this.seconds, second);
+            if (nextSecond < 0) {
+                minute++;
+                second = 0;
+                continue;
+            }
+            second = nextSecond;
+            break;
+        }
+
+        cal.set(year, month, day, hour, minute, second);
+        final long time = earliest(cal.getTimeInMillis(), start, timezone);
+        if (this.end != null && time > this.end.getTime()) {
+            return null;
+        }
+        cal.setTimeInMillis(time);
+        return cal;
+    }
+
+    /**
+     * A local time which occurs twice, when the daylight saving time ends, is resolved to its later occurrence by
+     * {@link Calendar}. Returns the earlier occurrence instead, if it is not before <code>start</code>.
+     */
+    private static long earliest(final long time, final long start, final TimeZone timezone) {
+        final long local = time + timezone.getOffset(time);
+        // offsets never change twice within half a day
+        final int earlierOffset = timezone.getOffset(time - HALF_DAY);
+        final long earlier = local - earlierOffset;
+        if (earlier < time && earlier >= start && timezone.getOffset(earlier) == earlierOffset) {
+            return earlier;
+        }
+        return time;
+    }
+
+    /**
+     * Returns the matching days of a month, bit n being set if day n matches
+     */
+    private long days(final int year, final int month, final TimeZone timezone) {
+        final int lastDay = lastDayOfMonth(year, month);
+        final long daysOfMonth = this.relativeDaysOfMonth ? relativeDays(year, month, timezone) : this.daysOfMonth;
+        final long daysOfWeek = this.daysOfWeekByFirstDay[dayOfWeek(year, month, 1)];
+        final long days;
+        if (this.daysOfWeekOnly) {
+            days = daysOfWeek;
+        } else if (this.daysOfMonthOnly) {
+            days = daysOfMonth;
+        } else {
+            days = daysOfMonth | daysOfWeek;
+        }
+        return days & mask(1, lastDay);
+    }
+
+    private long relativeDays(final int year, final int month, final TimeZone timezone) {
+        final RelativeDays cached = this.relativeDaysCache;
+        if (cached != null && cached.year == year && cached.month == month) {
+            return cached.days;
+        }
+        final Calendar cal = new GregorianCalendar(timezone);
+        cal.clear();
+        cal.set(year, month, 1);
+        long days = 0;
+        for (Integer day : this.dayOfMonth.getEligibleDaysOfMonth(cal)) {
+            if (day >= 1 && day <= 31) {
+                days |= 1L << day;
+            }
+        }
+        this.relativeDaysCache = new RelativeDays(year, month, days);
+        return days;
+    }
+
+    /**
+     * Returns the lowest bit set in <code>mask</code> which is not lower than <code>from</code>, or -1.
+     */
+    private static int next(final long mask, final int from) {
+        if (from >= 64) {
+            return -1;
+        }
+        final long remaining = mask & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static long mask(final int from, final int to) {
+        return (-1L << from) & (-1L >>> (63 - to));
+    }
+
+    private static long mask(final IntegerBasedExpression expression, final int min, final int max, final int offset) {
+        if (expression.isWildcard()) {
+            return mask(min + offset, max + offset);
+        }
+        long mask = 0;
+        for (Integer value : expression.getAbsoluteValues()) {
+            if (value >= min && value <= max) {
+                mask |= 1L << (value + offset);
+            }
+        }
+        return mask;
+    }
+
+    private static boolean isLeapYear(final int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int lastDayOfMonth(final int year, final int month) {
+        switch (month) {
+            case Calendar.FEBRUARY:
+                return isLeapYear(year) ? 29 : 28;
+            case Calendar.APRIL:
+            case Calendar.JUNE:
+            case Calendar.SEPTEMBER:
+            case Calendar.NOVEMBER:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * Returns the day of the week of a date in the Gregorian calendar, 0 being Sunday
+     */
+    private static int dayOfWeek(final int year, final int month, final int day) {
+        // Sakamoto's method
+        final int y = month < Calendar.MARCH ? year - 1 : year;
+        return (y + y / 4 - y / 100 + y / 400 + MONTH_OFFSETS[month] + day) % 7;
+    }
+
+    private static final class RelativeDays {
+        private final int year;
+        private final int month;
+        private final long days;
+
+        RelativeDays(final int year, final int month, final long days) {
+            this.year = year;
+            this.month = month;
+            this.days = days;
+        }
+    }
+}
@@ -201,7 +201,14 @@ public class DayOfMonth extends IntegerBasedExpression {
         return true;
     }
 
-    private SortedSet<Integer> getEligibleDaysOfMonth(Calendar cal) {
+    /**
+     * Returns the days of the month of the passed calendar which match this expression, relative values included.
+     * The result may contain days which do not exist in that month.
+     *
+     * @param cal The calendar whose month is used to resolve relative values
+     * @return the eligible days of the month
+     */
+    public SortedSet<Integer> getEligibleDaysOfMonth(Calendar cal) {
         if (this.hasRelativeDayOfMonth() == false) {
             return this.absoluteValues;
         }
@@ -29,6 +29,7 @@ import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleExpressionType;
 import org.jboss.as.ejb3.timerservice.schedule.value.ScheduleValue;
 import org.jboss.as.ejb3.timerservice.schedule.value.SingleValue;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.SortedSet;
@@ -214,4 +215,28 @@ public abstract class IntegerBasedExpression {
 
     public abstract boolean isRelativeValue(String value);
 
+    /**
+     * @return true if this expression is a wildcard, which matches every value
+     */
+    public boolean isWildcard() {
+        return this.scheduleExpressionType == ScheduleExpressionType.WILDCARD;
+    }
+
+    /**
+     * Returns the values of this expression which do not depend on the date they are evaluated for. Wildcards
+     * have no absolute values.
+     *
+     * @return the absolute values, as they were specified in the expression
+     */
+    public SortedSet<Integer> getAbsoluteValues() {
+        return Collections.unmodifiableSortedSet(this.absoluteValues);
+    }
+
+    /**
+     * @return true if this expression contains values which depend on the date they are evaluated for
+     */
+    public boolean hasRelativeValues() {
+        return this.relativeValues.isEmpty() == false;
+    }
+
 }
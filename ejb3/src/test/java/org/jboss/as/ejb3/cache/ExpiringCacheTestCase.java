@@ -0,0 +1,274 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ejb.NoSuchEJBException;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the {@link ExpiringCache}
+ */
+public class ExpiringCacheTestCase {
+
+    private static class Bean implements Identifiable {
+        private final byte[] id;
+        private volatile int state;
+        private volatile boolean passivated;
+
+        Bean(final int id) {
+            this.id = new byte[]{(byte) (id >>> 24), (byte) (id >>> 16), (byte) (id >>> 8), (byte) id};
+        }
+
+        @Override
+        public byte[] getId() {
+            return id;
+        }
+    }
+
+    private static class Factory implements StatefulObjectFactory<Bean> {
+        private final AtomicInteger ids = new AtomicInteger();
+        private final Set<Bean> destroyed = Collections.newSetFromMap(new ConcurrentHashMap<Bean, Boolean>());
+
+        @Override
+        public Bean createInstance() {
+            return new Bean(ids.incrementAndGet());
+        }
+
+        @Override
+        public void destroyInstance(final Bean instance) {
+            destroyed.add(instance);
+        }
+    }
+
+    /**
+     * Passivates the state of a bean, the bean itself stays reachable through the cache entry
+     */
+    private static class Passivator implements PassivationManager<Bean> {
+        @Override
+        public boolean passivate(final Bean obj, final OutputStream output) throws IOException {
+            new DataOutputStream(output).writeInt(obj.state);
+            obj.state = -1;
+            obj.passivated = true;
+            return true;
+        }
+
+        @Override
+        public void activate(final Bean obj, final InputStream input) throws IOException {
+            obj.state = new DataInputStream(input).readInt();
+            obj.passivated = false;
+        }
+    }
+
+    private static ExpiringCache<Bean> createCache(final Factory factory, final long timeout) {
+        final ExpiringCache<Bean> cache = new ExpiringCache<Bean>(timeout, TimeUnit.MILLISECONDS, "test");
+        cache.setStatefulObjectFactory(factory);
+        cache.start();
+        return cache;
+    }
+
+    @Test
+    public void testInactiveEntryExpires() throws Exception {
+        final Factory factory = new Factory();
+        final ExpiringCache<Bean> cache = createCache(factory, 100);
+        try {
+            final Bean bean = cache.create();
+            cache.release(bean);
+            Assert.assertEquals(1, cache.getCacheSize());
+
+            waitForDestruction(factory, bean, 5000);
+            Assert.assertEquals(0, cache.getCacheSize());
+            try {
+                cache.get(bean.getId());
+                Assert.fail("Expired bean was returned");
+            } catch (NoSuchEJBException expected) {
+                // expected
+            }
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void testEntryInUseDoesNotExpire() throws Exception {
+        final Factory factory = new Factory();
+        final ExpiringCache<Bean> cache = createCache(factory, 100);
+        try {
+            final Bean bean = cache.create();
+            cache.release(bean);
+            Assert.assertSame(bean, cache.get(bean.getId()));
+            Thread.sleep(300);
+            Assert.assertTrue(factory.destroyed.isEmpty());
+
+            // once released the entry expires relative to its last use
+            cache.release(bean);
+            waitForDestruction(factory, bean, 5000);
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void testReusedEntryIsRescheduled() throws Exception {
+        final Factory factory = new Factory();
+        final ExpiringCache<Bean> cache = createCache(factory, 200);
+        try {
+            final Bean bean = cache.create();
+            cache.release(bean);
+            for (int i = 0; i < 5; i++) {
+                Thread.sleep(100);
+                Assert.assertSame(bean, cache.get(bean.getId()));
+                cache.release(bean);
+            }
+            Assert.assertTrue(factory.destroyed.isEmpty());
+            waitForDestruction(factory, bean, 5000);
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void testNoTimeout() throws Exception {
+        final Factory factory = new Factory();
+        final ExpiringCache<Bean> cache = createCache(factory, -1);
+        try {
+            final Bean bean = cache.create();
+            cache.release(bean);
+            Thread.sleep(200);
+            Assert.assertSame(bean, cache.get(bean.getId()));
+            cache.remove(bean.getId());
+            Assert.assertTrue(factory.destroyed.contains(bean));
+            Assert.assertEquals(0, cache.getCacheSize());
+        } finally {
+            cache.stop();
+        }
+    }
+
+    @Test
+    public void testRemovedEntryIsUnscheduled() throws Exception {
+        final Factory factory = new Factory();
+        final ExpiringCache<Bean> cache = createCache(factory, TimeUnit.HOURS.toMillis(1));
+        final ExpiringCache<Bean> other = createCache(new Factory(), TimeUnit.HOURS.toMillis(1));
+        try {
+            final Bean bean = cache.create();
+            cache.release(bean);
+            final Bean otherBean = other.create();
+            other.release(otherBean);
+            Assert.assertEquals(2, ExpirationScheduler.getQueuedTaskCount());
+
+            cache.remove(bean.getId());
+            cache.stop();
+            // the stopped cache leaves nothing behind on the shared executor
+            Assert.assertEquals(1, ExpirationScheduler.getQueuedTaskCount());
+        } finally {
+            cache.stop();
+            other.stop();
+        }
+    }
+
+    @Test
+    public void testStopReleasesExecutor() throws Exception {
+        final ExpiringCache<Bean> cache = createCache(new Factory(), TimeUnit.HOURS.toMillis(1));
+        try {
+            for (int i = 0; i < 3; i++) {
+                cache.release(cache.create());
+            }
+            Assert.assertEquals(3, ExpirationScheduler.getQueuedTaskCount());
+        } finally {
+            cache.stop();
+        }
+        Assert.assertEquals(-1, ExpirationScheduler.getQueuedTaskCount());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesArePassivated() throws Exception {
+        final Factory factory = new Factory();
+        final File dir = File.createTempFile("passivation", "");
+        Assert.assertTrue(dir.delete());
+        final ExpiringCache<Bean> cache = new ExpiringCache<Bean>(-1, TimeUnit.MILLISECONDS, "test", 2, new Passivator(), dir);
+        cache.setStatefulObjectFactory(factory);
+        cache.start();
+        try {
+            final Bean[] beans = new Bean[5];
+            for (int i = 0; i < beans.length; i++) {
+                beans[i] = cache.create();
+                beans[i].state = i;
+                cache.release(beans[i]);
+            }
+            waitForPassivation(cache, 3, 5000);
+            Assert.assertEquals(5, cache.getCacheSize());
+            for (int i = 0; i < 3; i++) {
+                Assert.assertTrue(beans[i].passivated);
+            }
+            Assert.assertFalse(beans[3].passivated);
+            Assert.assertFalse(beans[4].passivated);
+            Assert.assertEquals(3, dir.listFiles().length);
+
+            // get activates the instance again
+            Assert.assertSame(beans[0], cache.get(beans[0].getId()));
+            Assert.assertFalse(beans[0].passivated);
+            Assert.assertEquals(0, beans[0].state);
+
+            // a passivated instance is activated before it is removed
+            cache.remove(beans[1].getId());
+            Assert.assertTrue(factory.destroyed.contains(beans[1]));
+            Assert.assertEquals(1, beans[1].state);
+            cache.release(beans[0]);
+        } finally {
+            cache.stop();
+        }
+        Assert.assertFalse(dir.exists());
+    }
+
+    private static void waitForPassivation(final ExpiringCache<Bean> cache, final int count, final long timeout) throws InterruptedException {
+        final long end = System.currentTimeMillis() + timeout;
+        while (cache.getPassivatedCount() < count) {
+            if (System.currentTimeMillis() > end) {
+                Assert.fail("Beans were not passivated within " + timeout + "ms");
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static void waitForDestruction(final Factory factory, final Bean bean, final long timeout) throws InterruptedException {
+        final long end = System.currentTimeMillis() + timeout;
+        while (!factory.destroyed.contains(bean)) {
+            if (System.currentTimeMillis() > end) {
+                Assert.fail("Bean was not expired within " + timeout + "ms");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
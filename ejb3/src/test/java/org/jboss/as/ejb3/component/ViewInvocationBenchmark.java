@@ -0,0 +1,160 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.ejb.TransactionAttributeType;
+
+import org.jboss.as.ee.utils.DescriptorUtils;
+import org.jboss.invocation.proxy.MethodIdentifier;
+
+/**
+ * Micro benchmark of the per-method metadata lookups of a stateless session bean view invocation: resolving the view
+ * method of the invoked method and the transaction attribute of the view method. The name and descriptor keyed lookups
+ * done on every invocation are compared with the tables {@link EJBComponent} and the component view build up front.
+ * <p>
+ * Not run as part of the test suite, execute the {@code main} method on a HotSpot VM.
+ */
+public class ViewInvocationBenchmark {
+
+    private static final int WARMUP = 200000;
+    private static final int ITERATIONS = 1000000;
+
+    public interface Calculator {
+        int add(int a, int b);
+
+        long add(long a, long b);
+
+        int subtract(int a, int b);
+
+        String describe(String name, Object[] values);
+
+        void reset();
+
+        Map<String, Integer> totals(String prefix, boolean includeZero);
+
+        byte[] checksum(byte[] data, int offset, int length);
+
+        double average(double[] values);
+    }
+
+    public static void main(final String[] args) {
+        // the methods of the client proxy are equal to, but not the same objects as the methods of the view
+        final Method[] viewMethods = Calculator.class.getMethods();
+        final Method[] invokedMethods = Calculator.class.getMethods();
+
+        final Map<MethodDescription, Method> methodsByDescription = new HashMap<MethodDescription, Method>();
+        final Map<Method, Method> methods = new HashMap<Method, Method>();
+        final Map<MethodTransactionAttributeKey, TransactionAttributeType> txAttrs = new HashMap<MethodTransactionAttributeKey, TransactionAttributeType>();
+        final Map<Method, TransactionAttributeType> viewTxAttrs = new IdentityHashMap<Method, TransactionAttributeType>();
+        for (Method method : viewMethods) {
+            methodsByDescription.put(new MethodDescription(method.getName(), DescriptorUtils.methodDescriptor(method)), method);
+            methods.put(method, method);
+            final TransactionAttributeType txAttr = method.getName().startsWith("add") ? TransactionAttributeType.SUPPORTS : TransactionAttributeType.REQUIRED;
+            txAttrs.put(new MethodTransactionAttributeKey(MethodIntf.BEAN, MethodIdentifier.getIdentifierForMethod(method)), txAttr);
+            viewTxAttrs.put(method, txAttr);
+        }
+
+        int results = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            results += invokeKeyed(invokedMethods[i % invokedMethods.length], methodsByDescription, txAttrs);
+            results += invokeResolved(invokedMethods[i % invokedMethods.length], methods, viewTxAttrs);
+        }
+
+        long start = allocatedBytes();
+        long time = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            results += invokeKeyed(invokedMethods[i % invokedMethods.length], methodsByDescription, txAttrs);
+        }
+        report("name/descriptor keyed lookup", start, time);
+
+        start = allocatedBytes();
+        time = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            results += invokeResolved(invokedMethods[i % invokedMethods.length], methods, viewTxAttrs);
+        }
+        report("resolved view method tables", start, time);
+        // use the results, so the lookups can't be optimized away
+        System.out.println(results);
+    }
+
+    /**
+     * The lookups as they were done on every invocation before the per-method metadata was resolved up front.
+     */
+    static int invokeKeyed(final Method invokedMethod, final Map<MethodDescription, Method> methods, final Map<MethodTransactionAttributeKey, TransactionAttributeType> txAttrs) {
+        final Method method = methods.get(new MethodDescription(invokedMethod.getName(), DescriptorUtils.methodDescriptor(invokedMethod)));
+        final TransactionAttributeType txAttr = txAttrs.get(new MethodTransactionAttributeKey(MethodIntf.BEAN, MethodIdentifier.getIdentifierForMethod(method)));
+        return txAttr.ordinal();
+    }
+
+    /**
+     * The lookups of {@link org.jboss.as.ee.component.ComponentView#getMethod(Method)} and
+     * {@link EJBComponent#getTransactionAttributeType(MethodIntf, Method)}.
+     */
+    static int invokeResolved(final Method invokedMethod, final Map<Method, Method> methods, final Map<Method, TransactionAttributeType> viewTxAttrs) {
+        final Method method = methods.get(invokedMethod);
+        final TransactionAttributeType txAttr = viewTxAttrs.get(method);
+        return txAttr.ordinal();
+    }
+
+    static void report(final String name, final long startBytes, final long startTime) {
+        final long bytes = allocatedBytes() - startBytes;
+        final long time = System.nanoTime() - startTime;
+        System.out.printf("%-30s %,12d bytes/op %,10d ns/op%n", name, bytes / ITERATIONS, time / ITERATIONS);
+    }
+
+    static long allocatedBytes() {
+        final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * The key of the name and descriptor lookup of the component view.
+     */
+    private static final class MethodDescription {
+        private final String name;
+        private final String descriptor;
+
+        MethodDescription(final String name, final String descriptor) {
+            this.name = name;
+            this.descriptor = descriptor;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            final MethodDescription that = (MethodDescription) o;
+            return descriptor.equals(that.descriptor) && name.equals(that.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + descriptor.hashCode();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.ejb3.remote;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jboss.marshalling.cloner.ClonerConfiguration;
+import org.jboss.marshalling.cloner.ObjectCloners;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link PassByValueCopier}.
+ */
+public class PassByValueCopierTestCase {
+
+    private PassByValueCopier copier;
+
+    @Before
+    public void createCopier() {
+        copier = new PassByValueCopier(ObjectCloners.getSerializingObjectClonerFactory().createCloner(new ClonerConfiguration()));
+    }
+
+    @Test
+    public void testImmutables() throws Exception {
+        assertNull(copier.copy(null));
+        final String string = "value";
+        assertSame(string, copier.copy(string));
+        final Integer integer = 1000;
+        assertSame(integer, copier.copy(integer));
+        final BigDecimal decimal = new BigDecimal("1.5");
+        assertSame(decimal, copier.copy(decimal));
+    }
+
+    @Test
+    public void testArrays() throws Exception {
+        final int[] ints = {1, 2, 3};
+        final int[] intsCopy = (int[]) copier.copy(ints);
+        assertNotSame(ints, intsCopy);
+        assertArrayEquals(ints, intsCopy);
+
+        final String[] strings = {"a", null, "c"};
+        final String[] stringsCopy = (String[]) copier.copy(strings);
+        assertNotSame(strings, stringsCopy);
+        assertArrayEquals(strings, stringsCopy);
+    }
+
+    @Test
+    public void testDate() throws Exception {
+        final Date date = new Date();
+        final Object copy = copier.copy(date);
+        assertNotSame(date, copy);
+        assertEquals(date, copy);
+    }
+
+    @Test
+    public void testCollections() throws Exception {
+        final List<String> list = new ArrayList<String>(Arrays.asList("a", "b"));
+        final Object listCopy = copier.copy(list);
+        assertNotSame(list, listCopy);
+        assertEquals(list, listCopy);
+
+        final Map<String, Long> map = new HashMap<String, Long>();
+        map.put("a", 1L);
+        final Object mapCopy = copier.copy(map);
+        assertNotSame(map, mapCopy);
+        assertEquals(map, mapCopy);
+    }
+
+    @Test
+    public void testMarshalledGraph() throws Exception {
+        final Value value = new Value("value");
+        final Object[] array = {value, value};
+        final Object[] copy = (Object[]) copier.copy(array);
+        assertNotSame(array, copy);
+        assertNotSame(value, copy[0]);
+        assertEquals(value.name, ((Value) copy[0]).name);
+        assertSame(copy[0], copy[1]);
+    }
+
+    private static class Value implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String name;
+
+        Value(final String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.timer;
+
+import org.jboss.as.ejb3.timerservice.mk2.persistence.TimerEntity;
+import org.jboss.as.ejb3.timerservice.mk2.persistence.journal.JournalTimerPersistence;
+import org.jboss.marshalling.SimpleClassResolver;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests {@link JournalTimerPersistence}
+ */
+public class JournalTimerPersistenceTestCase {
+
+    private File baseDir;
+    private Transaction transaction;
+
+    @Before
+    public void createDirectory() throws IOException {
+        baseDir = File.createTempFile("timers", "");
+        baseDir.delete();
+    }
+
+    @After
+    public void deleteDirectory() {
+        final File[] files = baseDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        baseDir.delete();
+    }
+
+    @Test
+    public void testTimersAreRecoveredOnRestart() {
+        JournalTimerPersistence persistence = start(JournalTimerPersistence.DEFAULT_SEGMENT_SIZE);
+        persistence.persistTimer(new Entity("a", "bean"));
+        persistence.persistTimer(new Entity("b", "bean"));
+        persistence.persistTimer(new Entity("c", "other"));
+        persistence.removeTimer(new Entity("b", "bean"));
+        persistence.stop();
+
+        persistence = start(JournalTimerPersistence.DEFAULT_SEGMENT_SIZE);
+        Assert.assertEquals(1, persistence.loadActiveTimers("bean").size());
+        Assert.assertNotNull(persistence.loadTimer("a", "bean"));
+        Assert.assertNull(persistence.loadTimer("b", "bean"));
+        Assert.assertNotNull(persistence.loadTimer("c", "other"));
+        persistence.stop();
+    }
+
+    @Test
+    public void testTransactionalTimersAreWrittenOnCommit() {
+        final JournalTimerPersistence persistence = start(JournalTimerPersistence.DEFAULT_SEGMENT_SIZE);
+        transaction = new Transaction();
+        persistence.persistTimer(new Entity("a", "bean"));
+        persistence.persistTimer(new Entity("b", "bean"));
+        Assert.assertEquals(1, transaction.synchronizations.size());
+        Assert.assertNull(persistence.loadTimer("a", "bean"));
+        transaction.complete(Status.STATUS_COMMITTED);
+        Assert.assertEquals(2, persistence.loadActiveTimers("bean").size());
+
+        transaction = new Transaction();
+        persistence.persistTimer(new Entity("c", "bean"));
+        transaction.complete(Status.STATUS_ROLLEDBACK);
+        Assert.assertNull(persistence.loadTimer("c", "bean"));
+        persistence.stop();
+    }
+
+    @Test
+    public void testJournalIsCompacted() {
+        JournalTimerPersistence persistence = start(1024);
+        for (int i = 0; i < 3000; i++) {
+            persistence.persistTimer(new Entity("timer" + (i % 10), "bean"));
+        }
+        persistence.stop();
+        Assert.assertFalse("journal was not compacted", new File(baseDir, "timers-1.journal").exists());
+
+        persistence = start(1024);
+        Assert.assertEquals(10, persistence.loadActiveTimers("bean").size());
+        persistence.stop();
+    }
+
+    @Test
+    public void testTornRecordIsIgnored() throws IOException {
+        JournalTimerPersistence persistence = start(JournalTimerPersistence.DEFAULT_SEGMENT_SIZE);
+        persistence.persistTimer(new Entity("a", "bean"));
+        persistence.persistTimer(new Entity("b", "bean"));
+        persistence.stop();
+
+        final File segment = new File(baseDir, "timers-1.journal");
+        final RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try {
+            file.setLength(file.length() - 5);
+        } finally {
+            file.close();
+        }
+        final FileOutputStream garbage = new FileOutputStream(new File(baseDir, "timers-2.journal"));
+        try {
+            garbage.write(new byte[]{0, 0, 0, 100, 1, 2, 3, 4, 1});
+        } finally {
+            garbage.close();
+        }
+
+        persistence = start(JournalTimerPersistence.DEFAULT_SEGMENT_SIZE);
+        Assert.assertNotNull(persistence.loadTimer("a", "bean"));
+        Assert.assertNull(persistence.loadTimer("b", "bean"));
+        persistence.persistTimer(new Entity("c", "bean"));
+        persistence.stop();
+
+        persistence = start(JournalTimerPersistence.DEFAULT_SEGMENT_SIZE);
+        Assert.assertEquals(2, persistence.loadActiveTimers("bean").size());
+        persistence.stop();
+    }
+
+    private JournalTimerPersistence start(final long segmentSize) {
+        final TransactionManager transactionManager = proxy(TransactionManager.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if (method.getName().equals("getStatus")) {
+                    return transaction == null ? Status.STATUS_NO_TRANSACTION : Status.STATUS_ACTIVE;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        final TransactionSynchronizationRegistry registry = proxy(TransactionSynchronizationRegistry.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if (method.getName().equals("getResource")) {
+                    return transaction.resources.get(args[0]);
+                } else if (method.getName().equals("putResource")) {
+                    transaction.resources.put(args[0], args[1]);
+                    return null;
+                } else if (method.getName().equals("registerInterposedSynchronization")) {
+                    transaction.synchronizations.add((Synchronization) args[0]);
+                    return null;
+                }
+                throw new UnsupportedOperationException(method.getName());
+            }
+        });
+        final JournalTimerPersistence persistence = new JournalTimerPersistence(transactionManager, registry, baseDir, true, new SimpleClassResolver(getClass().getClassLoader()), segmentSize);
+        persistence.start();
+        return persistence;
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private class Transaction {
+        private final Map<Object, Object> resources = new HashMap<Object, Object>();
+        private final List<Synchronization> synchronizations = new ArrayList<Synchronization>();
+
+        void complete(final int status) {
+            transaction = null;
+            for (Synchronization synchronization : synchronizations) {
+                synchronization.afterCompletion(status);
+            }
+        }
+    }
+
+    private static class Entity extends TimerEntity {
+        Entity(final String id, final String timedObjectId) {
+            this.id = id;
+            this.timedObjectId = timedObjectId;
+        }
+    }
+}
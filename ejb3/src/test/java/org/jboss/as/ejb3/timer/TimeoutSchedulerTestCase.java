@@ -0,0 +1,90 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.timer;
+
+import org.jboss.as.ejb3.timerservice.mk2.TimeoutScheduler;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tests the {@link TimeoutScheduler}
+ */
+public class TimeoutSchedulerTestCase {
+
+    private final TimeoutScheduler scheduler = new TimeoutScheduler(1);
+
+    @After
+    public void shutdown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testLatenessIsRecorded() {
+        final long now = System.currentTimeMillis();
+        scheduler.timeoutStarted(now - 100);
+        scheduler.timeoutStarted(now - 300);
+        // early starts don't count as negative lateness
+        scheduler.timeoutStarted(now + 10000);
+
+        Assert.assertEquals(3, scheduler.getTimeoutCount());
+        Assert.assertTrue(scheduler.getMaxLateness() >= 300);
+        Assert.assertTrue(scheduler.getAverageLateness() >= 133);
+        Assert.assertTrue(scheduler.getAverageLateness() < scheduler.getMaxLateness());
+    }
+
+    @Test
+    public void testCancelledTaskDoesNotRun() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(3);
+        final ScheduledFuture<?> periodic = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+                latch.countDown();
+            }
+        }, 0, 10);
+        final ScheduledFuture<?> single = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        }, 60000);
+        Assert.assertEquals(2, scheduler.getScheduledCount());
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+
+        scheduler.cancel(periodic);
+        scheduler.cancel(single);
+        final int count = runs.get();
+        Thread.sleep(100);
+        Assert.assertEquals(count, runs.get());
+        Assert.assertTrue(periodic.isCancelled());
+        Assert.assertTrue(single.isCancelled());
+    }
+}
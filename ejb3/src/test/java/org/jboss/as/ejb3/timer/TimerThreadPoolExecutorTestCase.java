@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timer;
+
+import org.jboss.as.ejb3.timerservice.TimerThreadPoolExecutor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests the {@link TimerThreadPoolExecutor}
+ */
+public class TimerThreadPoolExecutorTestCase {
+
+    private final TimerThreadPoolExecutor executor = new TimerThreadPoolExecutor(1, 3, 100, TimeUnit.MILLISECONDS);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGrowsToMaxThreadsAndQueuesBeyond() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(3);
+        final CountDownLatch done = new CountDownLatch(5);
+        for (int i = 0; i < 5; i++) {
+            executor.execute(new BlockingTask(started, release, done));
+        }
+        // three tasks run at once, the other two wait in the queue instead of being rejected
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(3, executor.getPoolSize());
+        Assert.assertEquals(2, executor.getQueue().size());
+
+        release.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testIdleThreadsShrinkToCoreThreads() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(3);
+        final CountDownLatch done = new CountDownLatch(3);
+        for (int i = 0; i < 3; i++) {
+            executor.execute(new BlockingTask(started, release, done));
+        }
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        final long end = System.currentTimeMillis() + 5000;
+        while (executor.getPoolSize() > 1 && System.currentTimeMillis() < end) {
+            Thread.sleep(20);
+        }
+        Thread.sleep(300);
+        // the core thread is kept
+        Assert.assertEquals(1, executor.getPoolSize());
+    }
+
+    @Test
+    public void testIdleThreadIsReused() throws Exception {
+        final CountDownLatch done = new CountDownLatch(1);
+        executor.execute(new BlockingTask(new CountDownLatch(1), new CountDownLatch(0), done));
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        final long end = System.currentTimeMillis() + 5000;
+        while (executor.getActiveCount() > 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+
+        final CountDownLatch second = new CountDownLatch(1);
+        executor.execute(new BlockingTask(new CountDownLatch(1), new CountDownLatch(0), second));
+        Assert.assertTrue(second.await(5, TimeUnit.SECONDS));
+        Assert.assertEquals(1, executor.getPoolSize());
+    }
+
+    private static class BlockingTask implements Runnable {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+        private final CountDownLatch done;
+
+        BlockingTask(final CountDownLatch started, final CountDownLatch release, final CountDownLatch done) {
+            this.started = started;
+            this.release = release;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        }
+    }
+}
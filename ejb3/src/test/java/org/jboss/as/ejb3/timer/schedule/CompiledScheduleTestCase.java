@@ -0,0 +1,214 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+
+package org.jboss.as.ejb3.timer.schedule;
+
+import org.jboss.as.ejb3.timerservice.schedule.CalendarBasedTimeout;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfMonth;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.DayOfWeek;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Hour;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Minute;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Month;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Second;
+import org.jboss.as.ejb3.timerservice.schedule.attribute.Year;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.ejb.ScheduleExpression;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Random;
+import java.util.TimeZone;
+
+/**
+ * Compares the timeouts computed by {@link CalendarBasedTimeout} with the ones of the field by field
+ * computation in {@link LegacyCalendarBasedTimeout}, for randomly generated schedule expressions.
+ */
+public class CompiledScheduleTestCase {
+
+    private static final String[] TIMEZONES = {"UTC", "Europe/Berlin", "America/New_York", "Australia/Sydney"};
+
+    private static final String[] DAYS_OF_WEEK = {"Sun", "Mon", "Tue", "Wed", "Thu", "Fri", "Sat"};
+
+    private static final String[] ORDINALS = {"1st", "2nd", "3rd", "4th", "5th", "Last"};
+
+    private static final int EXPRESSIONS = 2000;
+
+    private static final int TIMEOUTS = 20;
+
+    @Test
+    public void testRandomSchedules() {
+        final Random random = new Random(42);
+        for (int i = 0; i < EXPRESSIONS; i++) {
+            final ScheduleExpression schedule = randomSchedule(random);
+            final Calendar current = new GregorianCalendar(TimeZone.getTimeZone(schedule.getTimezone()));
+            current.setTimeInMillis(randomTime(random));
+            assertSameTimeouts(schedule, current);
+        }
+    }
+
+    @Test
+    public void testStartAndEnd() {
+        final Random random = new Random(7);
+        for (int i = 0; i < EXPRESSIONS / 4; i++) {
+            final ScheduleExpression schedule = randomSchedule(random);
+            final long time = randomTime(random);
+            schedule.start(new Date(time + random.nextInt(100) * 3600000L));
+            schedule.end(new Date(time + random.nextInt(1000) * 3600000L));
+            final Calendar current = new GregorianCalendar(TimeZone.getTimeZone(schedule.getTimezone()));
+            current.setTimeInMillis(time);
+            assertSameTimeouts(schedule, current);
+        }
+    }
+
+    private static void assertSameTimeouts(final ScheduleExpression schedule, final Calendar current) {
+        final CalendarBasedTimeout compiled = new CalendarBasedTimeout(schedule);
+        final LegacyCalendarBasedTimeout legacy = new LegacyCalendarBasedTimeout(schedule);
+        final String message = describe(schedule) + " from " + current.getTime();
+        assertTimeout("first timeout of " + message, schedule, legacy.getFirstTimeout(), compiled.getFirstTimeout());
+
+        Calendar cursor = current;
+        for (int i = 0; i < TIMEOUTS && cursor != null; i++) {
+            final Calendar actual = compiled.getNextTimeout(cursor);
+            assertTimeout("timeout " + i + " of " + message, schedule, legacy.getNextTimeout(cursor), actual);
+            cursor = actual;
+        }
+    }
+
+    /**
+     * The field by field computation skips valid timeouts in some cases, for example it doesn't reset the time
+     * when it moves to a relative day-of-month in the next month, and it may return times which don't match the
+     * expression. The compiled schedule has to return the same timeout whenever the legacy one is valid and
+     * not preceded by an earlier match.
+     */
+    private static void assertTimeout(final String message, final ScheduleExpression schedule, final Calendar expected, final Calendar actual) {
+        if (time(expected) == null ? time(actual) == null : time(expected).equals(time(actual))) {
+            return;
+        }
+        Assert.assertNotNull(message + " expected " + time(expected), actual);
+        Assert.assertTrue(message + " " + actual.getTime() + " does not match", matches(schedule, actual));
+        if (expected != null && matches(schedule, expected)) {
+            Assert.assertTrue(message + " " + actual.getTime() + " is after " + expected.getTime(), actual.before(expected));
+        }
+    }
+
+    /**
+     * Checks that all fields of a calendar match a schedule, using the attribute classes
+     */
+    private static boolean matches(final ScheduleExpression schedule, final Calendar calendar) {
+        if (schedule.getEnd() != null && calendar.getTime().after(schedule.getEnd())
+                || schedule.getStart() != null && calendar.getTime().before(schedule.getStart())) {
+            return false;
+        }
+        final boolean dayOfMonth = new DayOfMonth(schedule.getDayOfMonth()).getNextMatch(calendar) == calendar.get(Calendar.DAY_OF_MONTH);
+        final boolean dayOfWeek = new DayOfWeek(schedule.getDayOfWeek()).getNextMatch(calendar) == calendar.get(Calendar.DAY_OF_WEEK);
+        final boolean day;
+        if (schedule.getDayOfMonth().equals("*")) {
+            day = dayOfWeek;
+        } else if (schedule.getDayOfWeek().equals("*")) {
+            day = dayOfMonth;
+        } else {
+            day = dayOfMonth || dayOfWeek;
+        }
+        return day
+                && new Second(schedule.getSecond()).getNextMatch(calendar) == calendar.get(Calendar.SECOND)
+                && new Minute(schedule.getMinute()).getNextMatch(calendar) == calendar.get(Calendar.MINUTE)
+                && new Hour(schedule.getHour()).getNextMatch(calendar) == calendar.get(Calendar.HOUR_OF_DAY)
+                && new Month(schedule.getMonth()).getNextMatch(calendar) == calendar.get(Calendar.MONTH)
+                && new Year(schedule.getYear()).getNextMatch(calendar) == calendar.get(Calendar.YEAR);
+    }
+
+    private static ScheduleExpression randomSchedule(final Random random) {
+        final ScheduleExpression schedule = new ScheduleExpression();
+        schedule.second(randomValue(random, 0, 59, true));
+        schedule.minute(randomValue(random, 0, 59, true));
+        schedule.hour(randomValue(random, 0, 23, true));
+        schedule.dayOfMonth(randomDayOfMonth(random));
+        schedule.dayOfWeek(randomDayOfWeek(random));
+        schedule.month(randomValue(random, 1, 12, false));
+        schedule.year(random.nextInt(4) == 0 ? randomValue(random, 2011, 2016, false) : "*");
+        schedule.timezone(TIMEZONES[random.nextInt(TIMEZONES.length)]);
+        return schedule;
+    }
+
+    /**
+     * Returns a wildcard, single value, range, list or increment between min and max, biased towards wildcards
+     */
+    private static String randomValue(final Random random, final int min, final int max, final boolean increments) {
+        final int range = max - min + 1;
+        switch (random.nextInt(increments ? 6 : 5)) {
+            case 0:
+            case 1:
+                return "*";
+            case 2:
+                return String.valueOf(min + random.nextInt(range));
+            case 3:
+                return (min + random.nextInt(range)) + "-" + (min + random.nextInt(range));
+            case 4:
+                return (min + random.nextInt(range)) + ", " + (min + random.nextInt(range)) + "," + (min + random.nextInt(range));
+            default:
+                return (random.nextBoolean() ? "*" : String.valueOf(min + random.nextInt(range))) + "/" + (1 + random.nextInt(range / 2));
+        }
+    }
+
+    private static String randomDayOfMonth(final Random random) {
+        switch (random.nextInt(8)) {
+            case 0:
+                return "Last";
+            case 1:
+                return String.valueOf(-1 - random.nextInt(7));
+            case 2:
+                return ORDINALS[random.nextInt(ORDINALS.length)] + " " + DAYS_OF_WEEK[random.nextInt(7)];
+            case 3:
+                return (1 + random.nextInt(31)) + "-Last";
+            default:
+                return randomValue(random, 1, 31, false);
+        }
+    }
+
+    private static String randomDayOfWeek(final Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return DAYS_OF_WEEK[random.nextInt(7)] + "-" + DAYS_OF_WEEK[random.nextInt(7)];
+            default:
+                return random.nextBoolean() ? "*" : randomValue(random, 0, 7, false);
+        }
+    }
+
+    private static long randomTime(final Random random) {
+        // between 2010 and 2015
+        return 1262304000000L + (long) (random.nextDouble() * 5 * 365 * 24 * 3600000L);
+    }
+
+    private static Long time(final Calendar calendar) {
+        return calendar == null ? null : calendar.getTimeInMillis();
+    }
+
+    private static String describe(final ScheduleExpression schedule) {
+        return "[second=" + schedule.getSecond() + " minute=" + schedule.getMinute() + " hour=" + schedule.getHour()
+                + " dayOfMonth=" + schedule.getDayOfMonth() + " dayOfWeek=" + schedule.getDayOfWeek()
+                + " month=" + schedule.getMonth() + " year=" + schedule.getYear() + " timezone=" + schedule.getTimezone()
+                + " start=" + schedule.getStart() + " end=" + schedule.getEnd() + "]";
+    }
+}
@@ -29,6 +29,8 @@ import org.jboss.as.controller.parsing.DomainXml;
 import org.jboss.as.controller.parsing.HostXml;
 import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
+import org.jboss.as.controller.persistence.BootOperationCache;
+import org.jboss.as.controller.persistence.CoalescingXmlConfigurationPersister;
 import org.jboss.as.controller.persistence.ConfigurationFile;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.persistence.NullConfigurationPersister;
@@ -44,14 +46,27 @@ public class ConfigurationPersisterFactory {
 
     public static ExtensibleConfigurationPersister createHostXmlConfigurationPersister(final File configDir, final ConfigurationFile file) {
         HostXml hostXml = new HostXml(Module.getBootModuleLoader());
-        BackupXmlConfigurationPersister persister =  new BackupXmlConfigurationPersister(file, new QName(Namespace.CURRENT.getUriString(), "host"), hostXml, hostXml);
+        final QName rootElement = new QName(Namespace.CURRENT.getUriString(), "host");
+        BackupXmlConfigurationPersister persister = CoalescingXmlConfigurationPersister.isEnabled()
+                ? new CoalescingXmlConfigurationPersister(file, rootElement, hostXml, hostXml)
+                : new BackupXmlConfigurationPersister(file, rootElement, hostXml, hostXml);
         persister.registerAdditionalRootElement(new QName(Namespace.DOMAIN_1_1.getUriString(), "host"), hostXml);
+        if (BootOperationCache.isEnabled()) {
+            persister.setBootOperationCache(new BootOperationCache(file, Module.getBootModuleLoader()));
+        }
         return persister;
     }
 
     public static ExtensibleConfigurationPersister createDomainXmlConfigurationPersister(final File configDir, final ConfigurationFile file) {
         DomainXml domainXml = new DomainXml(Module.getBootModuleLoader());
-        return new BackupXmlConfigurationPersister(file, new QName(Namespace.CURRENT.getUriString(), "domain"), domainXml, domainXml);
+        final QName rootElement = new QName(Namespace.CURRENT.getUriString(), "domain");
+        BackupXmlConfigurationPersister persister = CoalescingXmlConfigurationPersister.isEnabled()
+                ? new CoalescingXmlConfigurationPersister(file, rootElement, domainXml, domainXml)
+                : new BackupXmlConfigurationPersister(file, rootElement, domainXml, domainXml);
+        if (BootOperationCache.isEnabled()) {
+            persister.setBootOperationCache(new BootOperationCache(file, Module.getBootModuleLoader()));
+        }
+        return persister;
     }
 
     public static ExtensibleConfigurationPersister createCachedRemoteDomainXmlConfigurationPersister(final File configDir) {
@@ -59,7 +59,6 @@ import javax.management.openmbean.SimpleType;
 import org.jboss.as.controller.CompositeOperationHandler;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
-import org.jboss.as.controller.descriptions.DescriptionProvider;
 import org.jboss.as.controller.operations.global.GlobalOperationHandlers;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.AttributeAccess.AccessType;
@@ -86,8 +85,8 @@ public class MBeanInfoFactory {
     private MBeanInfoFactory(final boolean standalone, final PathAddress address, final ImmutableManagementResourceRegistration resourceRegistration) {
         this.standalone = standalone;
         this.resourceRegistration = resourceRegistration;
-        DescriptionProvider provider = resourceRegistration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        providedDescription = provider != null ? provider.getModelDescription(null) : new ModelNode();
+        final ModelNode description = resourceRegistration.getCachedModelDescription(PathAddress.EMPTY_ADDRESS, null);
+        providedDescription = description != null ? description.clone() : new ModelNode();
         this.pathAddress = address;
     }
 
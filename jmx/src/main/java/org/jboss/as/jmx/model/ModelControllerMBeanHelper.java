@@ -24,10 +24,12 @@ package org.jboss.as.jmx.model;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REPLY_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REQUEST_PROPERTIES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
@@ -55,9 +57,10 @@ import org.jboss.as.controller.ModelController;
 import org.jboss.as.controller.ModelController.OperationTransactionControl;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
-import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ImmutableManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.jmx.model.ChildAddOperationFinder.ChildAddOperationEntry;
 import org.jboss.as.jmx.model.RootResourceIterator.ResourceAction;
 import org.jboss.as.server.operations.RootResourceHack;
@@ -73,6 +76,8 @@ class ModelControllerMBeanHelper {
     static final String CLASS_NAME = ModelController.class.getName();
     private final boolean standalone;
     private final ModelController controller;
+    /** The addresses recently resolved against this controller's model */
+    private final Map<ObjectName, PathAddress> resolvedAddresses = ObjectNameAddressUtil.createResolvedAddressCache();
     private final PathAddress CORE_SERVICE_PLATFORM_MBEAN = PathAddress.pathAddress(PathElement.pathElement("core-service", "platform-mbean"));
 
     ModelControllerMBeanHelper(ModelController controller) {
@@ -108,62 +113,67 @@ class ModelControllerMBeanHelper {
     }
 
     Set<ObjectInstance> queryMBeans(final ObjectName name, final QueryExp query) {
-        return new RootResourceIterator<Set<ObjectInstance>>(getRootResourceAndRegistration().getResource(), new ResourceAction<Set<ObjectInstance>>() {
-            Set<ObjectInstance> set = new HashSet<ObjectInstance>();
-
-            @Override
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
-                }
-                ObjectName resourceName = ObjectNameAddressUtil.createObjectName(address);
-                if (name == null || name.apply(resourceName)) {
-                    //TODO check query
-                    set.add(new ObjectInstance(resourceName, CLASS_NAME));
-                }
-                return true;
-            }
-
-            @Override
-            public Set<ObjectInstance> getResult() {
-                return set;
-            }
-        }).iterate();
+        final Set<ObjectInstance> set = new HashSet<ObjectInstance>();
+        for (ObjectName resourceName : queryNames(name, query)) {
+            set.add(new ObjectInstance(resourceName, CLASS_NAME));
+        }
+        return set;
     }
 
     Set<ObjectName> queryNames(final ObjectName name, final QueryExp query) {
-        return new RootResourceIterator<Set<ObjectName>>(getRootResourceAndRegistration().getResource(), new ResourceAction<Set<ObjectName>>() {
-            Set<ObjectName> set = new HashSet<ObjectName>();
+        //TODO check query
+        final Resource rootResource = getRootResourceAndRegistration().getResource();
+        if (name == null) {
+            return new RootResourceIterator<Set<ObjectName>>(rootResource, new ResourceAction<Set<ObjectName>>() {
+                Set<ObjectName> set = new HashSet<ObjectName>();
+
+                @Override
+                public boolean onResource(PathAddress address) {
+                    if (isExcludeAddress(address)) {
+                        return false;
+                    }
+                    set.add(ObjectNameAddressUtil.createObjectName(address));
+                    return true;
+                }
 
-            @Override
-            public boolean onResource(PathAddress address) {
-                if (isExcludeAddress(address)) {
-                    return false;
+                @Override
+                public Set<ObjectName> getResult() {
+                    return set;
                 }
-                ObjectName resourceName = ObjectNameAddressUtil.createObjectName(address);
-                if (name == null || name.apply(resourceName)) {
-                    //TODO check query
+            }).iterate();
+        }
+
+        final Set<ObjectName> set = new HashSet<ObjectName>();
+        if (!name.isPattern()) {
+            // A plain name addresses a single resource, no need to look at the rest of the model
+            final PathAddress address = resolvePathAddress(rootResource, name);
+            if (address != null && !isExcludedOrChild(address)) {
+                set.add(ObjectNameAddressUtil.createObjectName(address));
+            }
+        } else if (name.isDomainPattern() || ObjectNameAddressUtil.isReservedDomain(name)) {
+            for (PathAddress address : ObjectNameAddressUtil.findPathAddresses(rootResource, name, CORE_SERVICE_PLATFORM_MBEAN)) {
+                final ObjectName resourceName = ObjectNameAddressUtil.createObjectName(address);
+                if (name.apply(resourceName)) {
                     set.add(resourceName);
                 }
-                return true;
             }
-
-            @Override
-            public Set<ObjectName> getResult() {
-                return set;
-            }
-        }).iterate();
+        }
+        return set;
     }
 
 
     PathAddress resolvePathAddress(final ObjectName name) {
-        return ObjectNameAddressUtil.resolvePathAddress(getRootResourceAndRegistration().getResource(), name);
+        return resolvePathAddress(getRootResourceAndRegistration().getResource(), name);
+    }
+
+    private PathAddress resolvePathAddress(final Resource rootResource, final ObjectName name) {
+        return ObjectNameAddressUtil.resolvePathAddress(rootResource, name, resolvedAddresses);
     }
 
 
     MBeanInfo getMBeanInfo(final ObjectName name) throws InstanceNotFoundException {
         ResourceAndRegistration reg = getRootResourceAndRegistration();
-        PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        PathAddress address = resolvePathAddress(reg.getResource(), name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -173,7 +183,7 @@ class ModelControllerMBeanHelper {
 
     Object getAttribute(final ObjectName name, final String attribute)  throws AttributeNotFoundException, InstanceNotFoundException, ReflectionException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg.getResource(), name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -182,29 +192,51 @@ class ModelControllerMBeanHelper {
 
     AttributeList getAttributes(ObjectName name, String[] attributes) throws InstanceNotFoundException, ReflectionException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg.getResource(), name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
-        AttributeList list = new AttributeList();
-        for (String attribute : attributes) {
+        final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
+        final ModelNode description = getModelDescription(registration, address);
+
+        // Resolve all the names first, so that the values can be read by a single read-resource operation
+        final String[] attributeNames = new String[attributes.length];
+        boolean includeRuntime = false;
+        for (int i = 0; i < attributes.length; i++) {
             try {
-                list.add(new Attribute(attribute, getAttribute(reg, address, name, attribute)));
+                attributeNames[i] = findAttributeName(description, attributes[i]);
             } catch (AttributeNotFoundException e) {
                 throw new ReflectionException(e);
             }
+            final AttributeAccess access = registration.getAttributeAccess(PathAddress.EMPTY_ADDRESS, attributeNames[i]);
+            if (access != null && access.getStorageType() == AttributeAccess.Storage.RUNTIME) {
+                includeRuntime = true;
+            }
+        }
+
+        ModelNode op = new ModelNode();
+        op.get(OP).set(READ_RESOURCE_OPERATION);
+        op.get(OP_ADDR).set(address.toModelNode());
+        op.get(INCLUDE_RUNTIME).set(includeRuntime);
+        ModelNode result = execute(op);
+        String error = getFailureDescription(result);
+        if (error != null) {
+            throw new ReflectionException(new AttributeNotFoundException(error));
+        }
+
+        final ModelNode values = result.get(RESULT);
+        AttributeList list = new AttributeList();
+        for (int i = 0; i < attributes.length; i++) {
+            final ModelNode attributeDescription = description.require(ATTRIBUTES).require(attributeNames[i]).clone();
+            list.add(new Attribute(attributes[i], TypeConverter.fromModelNode(attributeDescription, values.get(attributeNames[i]))));
         }
         return list;
     }
 
     private Object getAttribute(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final String attribute)  throws ReflectionException, AttributeNotFoundException, InstanceNotFoundException {
         final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
-        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        if (provider == null) {
-            throw new InstanceNotFoundException("No description provider found for " + address);
-        }
-        final ModelNode description = provider.getModelDescription(null);
-        final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute);
+        final ModelNode description = getModelDescription(registration, address);
+        final String attributeName = findAttributeName(description, attribute);
 
         ModelNode op = new ModelNode();
         op.get(OP).set(READ_ATTRIBUTE_OPERATION);
@@ -216,13 +248,13 @@ class ModelControllerMBeanHelper {
             throw new AttributeNotFoundException(error);
         }
 
-        return TypeConverter.fromModelNode(description.require(ATTRIBUTES).require(attributeName), result.get(RESULT));
+        return TypeConverter.fromModelNode(description.require(ATTRIBUTES).require(attributeName).clone(), result.get(RESULT));
     }
 
 
     void setAttribute(ObjectName name, Attribute attribute) throws InstanceNotFoundException, AttributeNotFoundException, InvalidAttributeValueException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg.getResource(), name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -232,7 +264,7 @@ class ModelControllerMBeanHelper {
 
     AttributeList setAttributes(ObjectName name, AttributeList attributes) throws InstanceNotFoundException, ReflectionException {
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        final PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        final PathAddress address = resolvePathAddress(reg.getResource(), name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -250,12 +282,8 @@ class ModelControllerMBeanHelper {
 
     private void setAttribute(final ResourceAndRegistration reg, final PathAddress address, final ObjectName name, final Attribute attribute)  throws InvalidAttributeValueException, AttributeNotFoundException, InstanceNotFoundException {
         final ImmutableManagementResourceRegistration registration = getMBeanRegistration(address, reg);
-        final DescriptionProvider provider = registration.getModelDescription(PathAddress.EMPTY_ADDRESS);
-        if (provider == null) {
-            throw new InstanceNotFoundException("No description provider found for " + address);
-        }
-        final ModelNode description = provider.getModelDescription(null);
-        final String attributeName = findAttributeName(description.get(ATTRIBUTES), attribute.getName());
+        final ModelNode description = getModelDescription(registration, address);
+        final String attributeName = findAttributeName(description, attribute.getName());
 
         if (!standalone) {
             throw new AttributeNotFoundException("Attribute " + attribute + " is not writable");
@@ -266,7 +294,7 @@ class ModelControllerMBeanHelper {
         op.get(OP_ADDR).set(address.toModelNode());
         op.get(NAME).set(attributeName);
         try {
-            op.get(VALUE).set(TypeConverter.toModelNode(description.require(ATTRIBUTES).require(attributeName), attribute.getValue()));
+            op.get(VALUE).set(TypeConverter.toModelNode(description.require(ATTRIBUTES).require(attributeName).clone(), attribute.getValue()));
         } catch (ClassCastException e) {
             e.printStackTrace();
             throw new InvalidAttributeValueException("Bad type for '" + attribute.getName() + "'");
@@ -300,7 +328,7 @@ class ModelControllerMBeanHelper {
         }
 
         final ResourceAndRegistration reg = getRootResourceAndRegistration();
-        PathAddress address = ObjectNameAddressUtil.resolvePathAddress(reg.getResource(), name);
+        PathAddress address = resolvePathAddress(reg.getResource(), name);
         if (address == null) {
             throw createInstanceNotFoundException(name);
         }
@@ -406,7 +434,20 @@ class ModelControllerMBeanHelper {
         return null;
     }
 
-    private String findAttributeName(ModelNode attributes, String attributeName) throws AttributeNotFoundException{
+    private ModelNode getModelDescription(final ImmutableManagementResourceRegistration registration, final PathAddress address) throws InstanceNotFoundException {
+        // The cached description is protected, callers must copy the parts they hand out for modification
+        final ModelNode description = registration.getCachedModelDescription(PathAddress.EMPTY_ADDRESS, null);
+        if (description == null) {
+            throw new InstanceNotFoundException("No description provider found for " + address);
+        }
+        return description;
+    }
+
+    private String findAttributeName(ModelNode description, String attributeName) throws AttributeNotFoundException{
+        if (!description.has(ATTRIBUTES)) {
+            throw new AttributeNotFoundException("Could not find any attribute matching: " + attributeName);
+        }
+        final ModelNode attributes = description.get(ATTRIBUTES);
         if (attributes.hasDefined(attributeName)) {
             return attributeName;
         }
@@ -421,4 +462,9 @@ class ModelControllerMBeanHelper {
     private boolean isExcludeAddress(PathAddress pathAddress) {
         return pathAddress.equals(CORE_SERVICE_PLATFORM_MBEAN);
     }
+
+    private boolean isExcludedOrChild(PathAddress pathAddress) {
+        return pathAddress.size() >= CORE_SERVICE_PLATFORM_MBEAN.size()
+                && isExcludeAddress(pathAddress.subAddress(0, CORE_SERVICE_PLATFORM_MBEAN.size()));
+    }
 }
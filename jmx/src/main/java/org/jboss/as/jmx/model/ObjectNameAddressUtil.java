@@ -22,10 +22,14 @@
 package org.jboss.as.jmx.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
@@ -33,6 +37,7 @@ import javax.management.ObjectName;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.controller.registry.Resource.ResourceEntry;
 
 /**
  * Utility class to convert between PathAddress and ObjectName
@@ -41,6 +46,9 @@ import org.jboss.as.controller.registry.Resource;
  */
 class ObjectNameAddressUtil {
 
+    /** The maximum number of resolved addresses to keep in a cache created by {@link #createResolvedAddressCache()} */
+    private static final int MAX_RESOLVED_ADDRESSES = 4096;
+
     private static final EscapedCharacter[] ESCAPED_KEY_CHARACTERS;
     private static final EscapedCharacter[] ECAPED_VALUE_CHARACTERS;
     static {
@@ -87,6 +95,23 @@ class ObjectNameAddressUtil {
         }
     }
 
+    /**
+     * Creates a cache of recently resolved addresses for use with {@link #resolvePathAddress(Resource, ObjectName, Map)}.
+     * The cache only remembers the names resolved against one model, so each model controller needs its own.
+     *
+     * @return the cache
+     */
+    static Map<ObjectName, PathAddress> createResolvedAddressCache() {
+        return Collections.synchronizedMap(new LinkedHashMap<ObjectName, PathAddress>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ObjectName, PathAddress> eldest) {
+                return size() > MAX_RESOLVED_ADDRESSES;
+            }
+        });
+    }
+
     /**
      * Converts the ObjectName to a PathAddress.
      *
@@ -94,14 +119,51 @@ class ObjectNameAddressUtil {
      * @return the PathAddress if it exists in the model, {@code false} otherwise
      */
     static PathAddress resolvePathAddress(final Resource rootResource, final ObjectName name) {
+        return resolvePathAddress(rootResource, name, null);
+    }
+
+    /**
+     * Converts the ObjectName to a PathAddress, remembering the result in the passed in cache. The model can change at
+     * any time, so a cached address is checked against the current model before it is used.
+     *
+     * @param name the ObjectName
+     * @param cache the cache created by {@link #createResolvedAddressCache()}, may be {@code null}
+     * @return the PathAddress if it exists in the model, {@code false} otherwise
+     */
+    static PathAddress resolvePathAddress(final Resource rootResource, final ObjectName name, final Map<ObjectName, PathAddress> cache) {
         if (!name.getDomain().equals(Constants.DOMAIN)) {
             return null;
         }
         if (name.equals(Constants.ROOT_MODEL_NAME)) {
             return PathAddress.EMPTY_ADDRESS;
         }
+        // The key properties can be in any order, so searching for the address has to try all the permutations
+        if (cache != null) {
+            final PathAddress cached = cache.get(name);
+            if (cached != null) {
+                if (exists(rootResource, cached)) {
+                    return cached;
+                }
+                cache.remove(name);
+            }
+        }
         Hashtable<String, String> properties = name.getKeyPropertyList();
-        return searchPathAddress(PathAddress.EMPTY_ADDRESS, rootResource, properties);
+        final PathAddress address = searchPathAddress(PathAddress.EMPTY_ADDRESS, rootResource, properties);
+        if (address != null && cache != null) {
+            cache.put(name, address);
+        }
+        return address;
+    }
+
+    private static boolean exists(final Resource rootResource, final PathAddress address) {
+        Resource resource = rootResource;
+        for (PathElement element : address) {
+            resource = resource.getChild(element);
+            if (resource == null) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static PathAddress searchPathAddress(final PathAddress address, final Resource resource, final Map<String, String> properties) {
@@ -125,6 +187,64 @@ class ObjectNameAddressUtil {
         return null;
     }
 
+    /**
+     * Finds the addresses of the resources which might match an ObjectName pattern. The key properties of the pattern
+     * select the children to visit, so only the parts of the model which can contain a match are walked. The caller
+     * still has to apply the pattern to the names of the returned addresses.
+     *
+     * @param rootResource the root resource
+     * @param pattern the pattern
+     * @param excluded an address which is excluded along with its children
+     * @return the candidate addresses
+     */
+    static Set<PathAddress> findPathAddresses(final Resource rootResource, final ObjectName pattern, final PathAddress excluded) {
+        final Set<PathAddress> addresses = new HashSet<PathAddress>();
+        if (pattern.apply(Constants.ROOT_MODEL_NAME)) {
+            addresses.add(PathAddress.EMPTY_ADDRESS);
+        }
+        // The keys of the pattern, with the value for the ones which aren't value patterns
+        final Map<String, String> properties = new HashMap<String, String>();
+        for (Map.Entry<String, String> entry : pattern.getKeyPropertyList().entrySet()) {
+            final String value = pattern.isPropertyValuePattern(entry.getKey()) ? null : replaceEscapedCharacters(entry.getValue());
+            properties.put(replaceEscapedCharacters(entry.getKey()), value);
+        }
+        findPathAddresses(rootResource, PathAddress.EMPTY_ADDRESS, 0, properties, pattern.isPropertyListPattern(), excluded, addresses);
+        return addresses;
+    }
+
+    private static void findPathAddresses(final Resource resource, final PathAddress address, final int matched, final Map<String, String> properties,
+                                          final boolean propertyListPattern, final PathAddress excluded, final Set<PathAddress> addresses) {
+        if (matched == properties.size() && address.size() > 0) {
+            addresses.add(address);
+        }
+        if (!propertyListPattern && address.size() == properties.size()) {
+            // Without a wildcard the name has exactly the keys of the pattern, so no child can match
+            return;
+        }
+        for (String type : resource.getChildTypes()) {
+            final boolean key = properties.containsKey(type);
+            if (!key && !propertyListPattern) {
+                continue;
+            }
+            final String value = properties.get(type);
+            if (value != null) {
+                final PathElement element = PathElement.pathElement(type, value);
+                final Resource child = resource.getChild(element);
+                final PathAddress childAddress = address.append(element);
+                if (child != null && !childAddress.equals(excluded)) {
+                    findPathAddresses(child, childAddress, matched + 1, properties, propertyListPattern, excluded, addresses);
+                }
+            } else if (resource.hasChildren(type)) {
+                for (ResourceEntry entry : resource.getChildren(type)) {
+                    final PathAddress childAddress = address.append(entry.getPathElement());
+                    if (!childAddress.equals(excluded)) {
+                        findPathAddresses(entry, childAddress, key ? matched + 1 : matched, properties, propertyListPattern, excluded, addresses);
+                    }
+                }
+            }
+        }
+    }
+
     static boolean isReservedDomain(ObjectName name) {
         return name.getDomain().equals(Constants.DOMAIN);
     }
@@ -0,0 +1,213 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jmx.model;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ATTRIBUTES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDE_RUNTIME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_ATTRIBUTE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.READ_RESOURCE_OPERATION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.ModelController;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.client.ModelControllerClient;
+import org.jboss.as.controller.client.OperationAttachments;
+import org.jboss.as.controller.client.OperationMessageHandler;
+import org.jboss.as.controller.descriptions.DescriptionProvider;
+import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.server.operations.RootResourceHack;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the operations {@link ModelControllerMBeanHelper} executes against the model controller.
+ */
+public class ModelControllerMBeanHelperUnitTestCase {
+
+    private static final PathElement SUBSYSTEM = PathElement.pathElement("subsystem", "test");
+
+    private CountingController controller;
+
+    @Before
+    public void setup() {
+        final ManagementResourceRegistration rootRegistration = ManagementResourceRegistration.Factory.create(new TestDescriptionProvider());
+        final ManagementResourceRegistration subsystemRegistration = rootRegistration.registerSubModel(SUBSYSTEM, new TestDescriptionProvider("config", "runtime"));
+        subsystemRegistration.registerReadOnlyAttribute("runtime", null, AttributeAccess.Storage.RUNTIME);
+
+        final Resource root = Resource.Factory.create();
+        final Resource subsystem = Resource.Factory.create();
+        subsystem.getModel().get("config").set(1);
+        root.registerChild(SUBSYSTEM, subsystem);
+
+        controller = new CountingController(root, rootRegistration);
+    }
+
+    @Test
+    public void testGetAttributesReadsResourceOnce() throws Exception {
+        final ModelControllerMBeanHelper helper = new ModelControllerMBeanHelper(controller);
+        controller.operations.clear();
+
+        final AttributeList list = helper.getAttributes(ObjectName.getInstance("jboss.model:subsystem=test"), new String[] {"config", "runtime"});
+        assertEquals(2, list.size());
+        assertEquals(1, ((Attribute) list.get(0)).getValue());
+        assertEquals(2, ((Attribute) list.get(1)).getValue());
+
+        final List<ModelNode> reads = controller.getOperations(READ_RESOURCE_OPERATION);
+        assertEquals(1, reads.size());
+        assertEquals(PathAddress.pathAddress(SUBSYSTEM), PathAddress.pathAddress(reads.get(0).get(OP_ADDR)));
+        assertTrue(reads.get(0).get(INCLUDE_RUNTIME).asBoolean());
+        assertEquals(0, controller.getOperations(READ_ATTRIBUTE_OPERATION).size());
+    }
+
+    @Test
+    public void testGetConfigurationAttributesExcludesRuntime() throws Exception {
+        final ModelControllerMBeanHelper helper = new ModelControllerMBeanHelper(controller);
+        controller.operations.clear();
+
+        final AttributeList list = helper.getAttributes(ObjectName.getInstance("jboss.model:subsystem=test"), new String[] {"config"});
+        assertEquals(1, list.size());
+        assertEquals(1, ((Attribute) list.get(0)).getValue());
+
+        final List<ModelNode> reads = controller.getOperations(READ_RESOURCE_OPERATION);
+        assertEquals(1, reads.size());
+        assertEquals(false, reads.get(0).get(INCLUDE_RUNTIME).asBoolean());
+    }
+
+    private static class TestDescriptionProvider implements DescriptionProvider {
+        private final String[] attributes;
+
+        TestDescriptionProvider(String... attributes) {
+            this.attributes = attributes;
+        }
+
+        @Override
+        public ModelNode getModelDescription(Locale locale) {
+            final ModelNode description = new ModelNode();
+            description.get(DESCRIPTION).set("test");
+            for (String attribute : attributes) {
+                description.get(ATTRIBUTES, attribute, DESCRIPTION).set(attribute);
+                description.get(ATTRIBUTES, attribute, TYPE).set(ModelType.INT);
+            }
+            return description;
+        }
+    }
+
+    /**
+     * Records the operations it is asked to execute and answers them from the passed in model.
+     */
+    private static class CountingController implements ModelController {
+        private final Resource root;
+        private final ManagementResourceRegistration registration;
+        private final List<ModelNode> operations = new ArrayList<ModelNode>();
+
+        CountingController(final Resource root, final ManagementResourceRegistration registration) {
+            this.root = root;
+            this.registration = registration;
+        }
+
+        List<ModelNode> getOperations(final String name) {
+            final List<ModelNode> result = new ArrayList<ModelNode>();
+            for (ModelNode operation : operations) {
+                if (operation.get(OP).asString().equals(name)) {
+                    result.add(operation);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public ModelNode execute(ModelNode operation, OperationMessageHandler handler, OperationTransactionControl control, OperationAttachments attachments) {
+            operations.add(operation.clone());
+            final String name = operation.get(OP).asString();
+            final ModelNode response = new ModelNode();
+            response.get(OUTCOME).set(SUCCESS);
+            if (name.equals(RootResourceHack.NAME)) {
+                executeRootResourceHack(operation);
+            } else if (name.equals(READ_ATTRIBUTE_OPERATION) && operation.get(NAME).asString().equals("launch-type")) {
+                response.get(RESULT).set("STANDALONE");
+            } else if (name.equals(READ_RESOURCE_OPERATION)) {
+                final ModelNode result = root.navigate(PathAddress.pathAddress(operation.get(OP_ADDR))).getModel().clone();
+                if (operation.get(INCLUDE_RUNTIME).asBoolean(false)) {
+                    result.get("runtime").set(2);
+                }
+                response.get(RESULT).set(result);
+            } else {
+                throw new IllegalArgumentException("Unexpected operation " + operation);
+            }
+            return response;
+        }
+
+        private void executeRootResourceHack(final ModelNode operation) {
+            final OperationContext context = (OperationContext) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {OperationContext.class}, new InvocationHandler() {
+                @Override
+                public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                    if (method.getName().equals("getRootResource")) {
+                        return root;
+                    } else if (method.getName().equals("getResourceRegistration")) {
+                        return registration;
+                    } else if (method.getName().equals("completeStep")) {
+                        return null;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                }
+            });
+            try {
+                RootResourceHack.INSTANCE.execute(context, operation);
+            } catch (OperationFailedException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        @Override
+        public ModelControllerClient createClient(Executor executor) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
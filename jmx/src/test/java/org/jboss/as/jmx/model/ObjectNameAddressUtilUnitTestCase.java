@@ -0,0 +1,142 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.jmx.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.management.ObjectName;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the pattern queries of {@link ObjectNameAddressUtil#findPathAddresses(Resource, ObjectName, PathAddress)}.
+ */
+public class ObjectNameAddressUtilUnitTestCase {
+
+    private static final PathAddress PLATFORM_MBEAN = PathAddress.pathAddress(PathElement.pathElement("core-service", "platform-mbean"));
+
+    private Resource root;
+
+    @Before
+    public void setup() {
+        root = Resource.Factory.create();
+        final Resource a = register(root, "subsystem", "a");
+        register(register(a, "child", "x1"), "leaf", "l");
+        register(a, "child", "x2");
+        register(a, "child", "y");
+        register(register(root, "subsystem", "b"), "child", "x1");
+        register(root, "core-service", "other");
+        final Resource platform = register(root, "core-service", "platform-mbean");
+        register(platform, "type", "memory");
+        register(platform, "type", "runtime");
+    }
+
+    @Test
+    public void testExactName() throws Exception {
+        assertQuery("jboss.model:subsystem=a,child=x1", "subsystem=a,child=x1");
+        // the order of the keys doesn't matter
+        assertQuery("jboss.model:child=x1,subsystem=a", "subsystem=a,child=x1");
+        assertQuery("jboss.model:subsystem=a,child=z");
+    }
+
+    @Test
+    public void testPropertyListWithoutWildcard() throws Exception {
+        // without ",*" the name must have exactly the given keys, so the children don't match
+        assertQuery("jboss.model:subsystem=a", "subsystem=a");
+        assertQuery("jboss.model:child=x1");
+    }
+
+    @Test
+    public void testPropertyListWildcard() throws Exception {
+        assertQuery("jboss.model:subsystem=a,*", "subsystem=a", "subsystem=a,child=x1", "subsystem=a,child=x1,leaf=l",
+                "subsystem=a,child=x2", "subsystem=a,child=y");
+        assertQuery("jboss.model:child=x1,*", "subsystem=a,child=x1", "subsystem=a,child=x1,leaf=l", "subsystem=b,child=x1");
+    }
+
+    @Test
+    public void testPropertyValuePattern() throws Exception {
+        assertQuery("jboss.model:subsystem=a,child=x*,*", "subsystem=a,child=x1", "subsystem=a,child=x1,leaf=l", "subsystem=a,child=x2");
+        assertQuery("jboss.model:subsystem=a,child=x?", "subsystem=a,child=x1", "subsystem=a,child=x2");
+    }
+
+    @Test
+    public void testPlatformMBeansAreExcluded() throws Exception {
+        assertQuery("jboss.model:core-service=platform-mbean,*");
+        assertQuery("jboss.model:core-service=platform-mbean,type=memory");
+        assertQuery("jboss.model:type=*");
+        assertQuery("jboss.model:core-service=*", "core-service=other");
+    }
+
+    @Test
+    public void testDomainPattern() throws Exception {
+        final Set<String> all = query("*:*");
+        assertEquals(new HashSet<String>(Arrays.asList("management-root=server", "subsystem=a", "subsystem=a,child=x1",
+                "subsystem=a,child=x1,leaf=l", "subsystem=a,child=x2", "subsystem=a,child=y", "subsystem=b",
+                "subsystem=b,child=x1", "core-service=other")), all);
+        assertEquals(all, query("jboss.model:*"));
+    }
+
+    private static Resource register(final Resource parent, final String type, final String name) {
+        final Resource child = Resource.Factory.create();
+        parent.registerChild(PathElement.pathElement(type, name), child);
+        return child;
+    }
+
+    private void assertQuery(final String pattern, final String... expected) throws Exception {
+        assertEquals(new HashSet<String>(Arrays.asList(expected)), query(pattern));
+    }
+
+    /**
+     * Queries the names like {@link ModelControllerMBeanHelper#queryNames}, returning the addresses in
+     * {@code key=value,...} form
+     */
+    private Set<String> query(final String pattern) throws Exception {
+        final ObjectName name = ObjectName.getInstance(pattern);
+        final Set<String> result = new HashSet<String>();
+        for (PathAddress address : ObjectNameAddressUtil.findPathAddresses(root, name, PLATFORM_MBEAN)) {
+            final ObjectName resourceName = ObjectNameAddressUtil.createObjectName(address);
+            if (name.apply(resourceName)) {
+                result.add(address.size() == 0 ? "management-root=server" : toString(address));
+            }
+        }
+        return result;
+    }
+
+    private static String toString(final PathAddress address) {
+        final StringBuilder sb = new StringBuilder();
+        for (PathElement element : address) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(element.getKey()).append('=').append(element.getValue());
+        }
+        return sb.toString();
+    }
+}
@@ -29,6 +29,8 @@ import javax.xml.namespace.QName;
 import org.jboss.as.controller.parsing.Namespace;
 import org.jboss.as.controller.parsing.StandaloneXml;
 import org.jboss.as.controller.persistence.BackupXmlConfigurationPersister;
+import org.jboss.as.controller.persistence.BootOperationCache;
+import org.jboss.as.controller.persistence.CoalescingXmlConfigurationPersister;
 import org.jboss.as.controller.persistence.ExtensibleConfigurationPersister;
 import org.jboss.as.controller.persistence.NullConfigurationPersister;
 import org.jboss.modules.Module;
@@ -137,8 +139,13 @@ public interface Bootstrap {
                 else {
                     QName rootElement = new QName(Namespace.CURRENT.getUriString(), "server");
                     StandaloneXml parser = new StandaloneXml(Module.getBootModuleLoader());
-                    BackupXmlConfigurationPersister persister = new BackupXmlConfigurationPersister(serverEnvironment.getServerConfigurationFile(), rootElement, parser, parser);
+                    BackupXmlConfigurationPersister persister = CoalescingXmlConfigurationPersister.isEnabled()
+                            ? new CoalescingXmlConfigurationPersister(serverEnvironment.getServerConfigurationFile(), rootElement, parser, parser)
+                            : new BackupXmlConfigurationPersister(serverEnvironment.getServerConfigurationFile(), rootElement, parser, parser);
                     persister.registerAdditionalRootElement(new QName(Namespace.DOMAIN_1_1.getUriString(), "server"), parser);
+                    if (BootOperationCache.isEnabled()) {
+                        persister.setBootOperationCache(new BootOperationCache(serverEnvironment.getServerConfigurationFile(), Module.getBootModuleLoader()));
+                    }
                     configurationPersister = persister;
                 }
             }
@@ -70,6 +70,7 @@ import org.jboss.as.controller.ControlledProcessState;
 import org.jboss.as.controller.ExtensionContext;
 import org.jboss.as.controller.ExtensionContextImpl;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SubsystemBootTimes;
 import org.jboss.as.controller.descriptions.common.CommonProviders;
 import org.jboss.as.controller.operations.common.ExtensionRemoveHandler;
 import org.jboss.as.controller.operations.common.NamespaceAddHandler;
@@ -109,6 +110,7 @@ import org.jboss.as.server.deployment.DeploymentUploadBytesHandler;
 import org.jboss.as.server.deployment.DeploymentUploadStreamAttachmentHandler;
 import org.jboss.as.server.deployment.DeploymentUploadURLHandler;
 import org.jboss.as.server.deployment.repository.api.ContentRepository;
+import org.jboss.as.server.operations.AnnotationIndexCacheMetricHandler;
 import org.jboss.as.server.operations.DumpServicesHandler;
 import org.jboss.as.server.operations.HttpManagementAddHandler;
 import org.jboss.as.server.operations.HttpManagementAttributeHandlers;
@@ -122,6 +124,7 @@ import org.jboss.as.server.operations.ServerShutdownHandler;
 import org.jboss.as.server.operations.ServerStateAttributeHandler;
 import org.jboss.as.server.operations.SpecifiedPathAddHandler;
 import org.jboss.as.server.operations.SpecifiedPathRemoveHandler;
+import org.jboss.as.server.operations.SubsystemBootTimesHandler;
 import org.jboss.as.server.services.net.BindingAddHandler;
 import org.jboss.as.server.services.net.BindingFixedPortHandler;
 import org.jboss.as.server.services.net.BindingGroupAddHandler;
@@ -174,6 +177,14 @@ public class
                                       final ExtensibleConfigurationPersister extensibleConfigurationPersister,
                                       final ServerEnvironment serverEnvironment,
                                       final ControlledProcessState processState) {
+        initOperations(root, contentRepository, extensibleConfigurationPersister, serverEnvironment, processState, null);
+    }
+
+    public static void initOperations(final ManagementResourceRegistration root, final ContentRepository contentRepository,
+                                      final ExtensibleConfigurationPersister extensibleConfigurationPersister,
+                                      final ServerEnvironment serverEnvironment,
+                                      final ControlledProcessState processState,
+                                      final SubsystemBootTimes bootTimes) {
         // Build up the core model registry
         root.registerReadWriteAttribute(NAME, null, new StringLengthValidatingHandler(1), AttributeAccess.Storage.CONFIGURATION);
 
@@ -215,6 +226,9 @@ public class
 
         root.registerReadOnlyAttribute(ServerDescriptionConstants.SERVER_STATE, new ServerStateAttributeHandler(processState), Storage.RUNTIME);
         root.registerReadOnlyAttribute(ServerDescriptionConstants.PROCESS_TYPE, ProcessTypeHandler.INSTANCE, Storage.RUNTIME);
+        root.registerReadOnlyAttribute(ServerDescriptionConstants.SUBSYSTEM_BOOT_TIMES, new SubsystemBootTimesHandler(bootTimes), Storage.RUNTIME);
+        root.registerMetric(AnnotationIndexCacheMetricHandler.HITS_ATTRIBUTE, AnnotationIndexCacheMetricHandler.HITS);
+        root.registerMetric(AnnotationIndexCacheMetricHandler.MISSES_ATTRIBUTE, AnnotationIndexCacheMetricHandler.MISSES);
 
         //Hack to be able to access the registry for the jmx facade
         root.registerOperationHandler(RootResourceHack.NAME, RootResourceHack.INSTANCE, RootResourceHack.INSTANCE, false, OperationEntry.EntryType.PRIVATE);
@@ -35,4 +35,10 @@ public final class ServerDescriptionConstants {
     public static final String PROCESS_TYPE = "process-type";
 
     public static final String LAUNCH_TYPE = "launch-type";
+
+    public static final String SUBSYSTEM_BOOT_TIMES = "subsystem-boot-times";
+
+    public static final String ANNOTATION_INDEX_CACHE_HITS = "annotation-index-cache-hits";
+
+    public static final String ANNOTATION_INDEX_CACHE_MISSES = "annotation-index-cache-misses";
 }
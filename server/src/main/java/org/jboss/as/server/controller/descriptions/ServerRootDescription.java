@@ -51,10 +51,14 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUB
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SYSTEM_PROPERTY;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TAIL_COMMENT_ALLOWED;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TYPE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.VALUE_TYPE;
+import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.ANNOTATION_INDEX_CACHE_HITS;
+import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.ANNOTATION_INDEX_CACHE_MISSES;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.LAUNCH_TYPE;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.PROCESS_TYPE;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.PROFILE_NAME;
 import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.SERVER_STATE;
+import static org.jboss.as.server.controller.descriptions.ServerDescriptionConstants.SUBSYSTEM_BOOT_TIMES;
 
 import java.util.Locale;
 import java.util.ResourceBundle;
@@ -119,6 +123,22 @@ public class ServerRootDescription {
         root.get(ATTRIBUTES, LAUNCH_TYPE, ALLOWED).add(ServerEnvironment.LaunchType.STANDALONE.toString());
         root.get(ATTRIBUTES, LAUNCH_TYPE, ALLOWED).add(ServerEnvironment.LaunchType.EMBEDDED.toString());
 
+        root.get(ATTRIBUTES, SUBSYSTEM_BOOT_TIMES, DESCRIPTION).set(bundle.getString("server.subsystem-boot-times"));
+        root.get(ATTRIBUTES, SUBSYSTEM_BOOT_TIMES, TYPE).set(ModelType.OBJECT);
+        root.get(ATTRIBUTES, SUBSYSTEM_BOOT_TIMES, VALUE_TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, SUBSYSTEM_BOOT_TIMES, REQUIRED).set(false);
+        root.get(ATTRIBUTES, SUBSYSTEM_BOOT_TIMES, NILLABLE).set(true);
+
+        root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_HITS, DESCRIPTION).set(bundle.getString("server.annotation-index-cache-hits"));
+        root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_HITS, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_HITS, REQUIRED).set(false);
+        root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_HITS, NILLABLE).set(true);
+
+        root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_MISSES, DESCRIPTION).set(bundle.getString("server.annotation-index-cache-misses"));
+        root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_MISSES, TYPE).set(ModelType.LONG);
+        root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_MISSES, REQUIRED).set(false);
+        root.get(ATTRIBUTES, ANNOTATION_INDEX_CACHE_MISSES, NILLABLE).set(true);
+
         root.get(OPERATIONS);
 
         root.get(CHILDREN, EXTENSION, DESCRIPTION).set(bundle.getString("server.extension"));
@@ -39,6 +39,7 @@ import java.util.List;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.server.deployment.repository.impl.ContentRepositoryImpl;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -96,7 +97,7 @@ abstract class AbstractDeploymentHandler {
             final String urlSpec = operation.get(URL).asString();
             try {
                 message = "Invalid url stream.";
-                in = new URL(urlSpec).openStream();
+                in = ContentRepositoryImpl.openContentStream(new URL(urlSpec));
             } catch (MalformedURLException e) {
                 throw createFailureException(message);
             } catch (IOException e) {
@@ -0,0 +1,257 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.repository.api.ContentRemovalListener;
+import org.jboss.as.server.deployment.repository.api.ContentRepository;
+import org.jboss.as.server.deployment.repository.impl.ContentRepositoryImpl;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.logging.Logger;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.vfs.VFSUtils;
+
+/**
+ * A server wide, persistent cache of the annotation indexes of managed deployment content. Entries are keyed by the
+ * hash of the deployment content in the {@link ContentRepository}, the path of the indexed resource root
+ * within the deployment and the paths which were excluded from the index, so they can be reused across redeployments
+ * and restarts of identical content.
+ * <p>
+ * Entries of content which is removed from the content repository while the cache is running are evicted right away,
+ * entries of content which has been removed while the server was stopped are evicted when the cache is started.
+ */
+public final class AnnotationIndexCache implements Service<AnnotationIndexCache> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("deployment", "annotation-index-cache");
+
+    private static final Logger logger = Logger.getLogger(AnnotationIndexCache.class);
+
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final File cacheRoot;
+    private final ContentRepository contentRepository;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final ContentRemovalListener removalListener = new ContentRemovalListener() {
+        @Override
+        public void contentRemoved(final byte[] hash) {
+            evict(hash);
+        }
+    };
+
+    public AnnotationIndexCache(final File cacheRoot, final ContentRepository contentRepository) {
+        if (cacheRoot == null)
+            throw new IllegalArgumentException("cacheRoot is null");
+        if (contentRepository == null)
+            throw new IllegalArgumentException("contentRepository is null");
+        this.cacheRoot = cacheRoot;
+        this.contentRepository = contentRepository;
+    }
+
+    /**
+     * Get the cached index of a resource root.
+     *
+     * @param deploymentHash the hash of the deployment content
+     * @param path the path of the resource root, relative to the deployment root
+     * @param ignorePaths the paths which are excluded from the index, may be {@code null}
+     * @return the index, or {@code null} if there is no cached index
+     */
+    public Index getIndex(final byte[] deploymentHash, final String path, final Collection<String> ignorePaths) {
+        final File file = getIndexFile(deploymentHash, path, ignorePaths);
+        if (!file.exists() || !contentRepository.hasContent(deploymentHash)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        InputStream in = null;
+        try {
+            in = new BufferedInputStream(new FileInputStream(file));
+            final Index index = new IndexReader(in).read();
+            hits.incrementAndGet();
+            return index;
+        } catch (Exception e) {
+            logger.debugf(e, "Could not read cached index %s", file);
+            misses.incrementAndGet();
+            VFSUtils.safeClose(in);
+            in = null;
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+            return null;
+        } finally {
+            VFSUtils.safeClose(in);
+        }
+    }
+
+    /**
+     * Store the index of a resource root.
+     *
+     * @param deploymentHash the hash of the deployment content
+     * @param path the path of the resource root, relative to the deployment root
+     * @param ignorePaths the paths which were excluded from the index, may be {@code null}
+     * @param index the index
+     */
+    public void putIndex(final byte[] deploymentHash, final String path, final Collection<String> ignorePaths, final Index index) {
+        final File file = getIndexFile(deploymentHash, path, ignorePaths);
+        final File dir = file.getParentFile();
+        if (!dir.exists() && !dir.mkdirs()) {
+            logger.debugf("Cannot create annotation index cache directory %s", dir);
+            return;
+        }
+        OutputStream out = null;
+        File tmp = null;
+        try {
+            // write to a temporary file first, so concurrent readers never see a partial index
+            tmp = File.createTempFile("index", "tmp", dir);
+            out = new BufferedOutputStream(new FileOutputStream(tmp));
+            new IndexWriter(out).write(index);
+            out.close();
+            out = null;
+            if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+                throw new IOException("Cannot rename " + tmp + " to " + file);
+            }
+            tmp = null;
+        } catch (IOException e) {
+            logger.debugf(e, "Could not write cached index %s", file);
+        } finally {
+            VFSUtils.safeClose(out);
+            if (tmp != null && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Remove all cached indexes of a deployment content.
+     *
+     * @param deploymentHash the hash of the deployment content
+     */
+    public void evict(final byte[] deploymentHash) {
+        deleteRecursively(getHashDir(HashUtil.bytesToHexString(deploymentHash)));
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+        if (contentRepository instanceof ContentRepositoryImpl) {
+            ((ContentRepositoryImpl) contentRepository).addContentRemovalListener(removalListener);
+        }
+        final File[] hashDirs = cacheRoot.listFiles();
+        if (hashDirs == null) {
+            return;
+        }
+        for (final File hashDir : hashDirs) {
+            final byte[] hash;
+            try {
+                hash = HashUtil.hexStringToByteArray(hashDir.getName());
+            } catch (Exception e) {
+                deleteRecursively(hashDir);
+                continue;
+            }
+            if (!contentRepository.hasContent(hash)) {
+                logger.debugf("Evicting cached annotation indexes of removed content %s", hashDir.getName());
+                deleteRecursively(hashDir);
+            }
+        }
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        if (contentRepository instanceof ContentRepositoryImpl) {
+            ((ContentRepositoryImpl) contentRepository).removeContentRemovalListener(removalListener);
+        }
+    }
+
+    @Override
+    public AnnotationIndexCache getValue() throws IllegalStateException, IllegalArgumentException {
+        return this;
+    }
+
+    private File getHashDir(final String hash) {
+        return new File(cacheRoot, hash);
+    }
+
+    private File getIndexFile(final byte[] deploymentHash, final String path, final Collection<String> ignorePaths) {
+        final StringBuilder name = new StringBuilder();
+        try {
+            // prefix the encoded path, so the deployment root doesn't map to a hidden file
+            name.append('_').append(URLEncoder.encode(path, "UTF-8"));
+            if (ignorePaths != null && !ignorePaths.isEmpty()) {
+                // the same resource root indexed with other ignored paths has a different index, '!' is always
+                // encoded in the path so the digest can't be confused with a part of it
+                final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+                for (final String ignorePath : new TreeSet<String>(ignorePaths)) {
+                    digest.update(ignorePath.getBytes("UTF-8"));
+                    digest.update((byte) 0);
+                }
+                name.append('!').append(HashUtil.bytesToHexString(digest.digest()));
+            }
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        name.append(INDEX_SUFFIX);
+        return new File(getHashDir(HashUtil.bytesToHexString(deploymentHash)), name.toString());
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        if (file.exists() && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+}
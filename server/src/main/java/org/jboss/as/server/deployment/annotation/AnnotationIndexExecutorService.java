@@ -0,0 +1,111 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.security.AccessController;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.threads.JBossThreadFactory;
+
+/**
+ * Service providing the bounded thread pool used by the {@link AnnotationIndexProcessor} to index the resource roots
+ * of a deployment in parallel. If this service is not installed, resource roots are indexed on the deployment thread.
+ */
+public final class AnnotationIndexExecutorService implements Service<ThreadPoolExecutor> {
+
+    public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("deployment", "annotation-index-executor");
+
+    private static final long KEEP_ALIVE_SECONDS = 30;
+
+    private int maxThreads;
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Create a new service.
+     *
+     * @param maxThreads the maximum number of indexing threads, or a value smaller than 1 to use the number of
+     *                   available processors
+     */
+    public AnnotationIndexExecutorService(final int maxThreads) {
+        this.maxThreads = getEffectiveMaxThreads(maxThreads);
+    }
+
+    @Override
+    public synchronized void start(final StartContext context) throws StartException {
+        final JBossThreadFactory threadFactory = new JBossThreadFactory(new ThreadGroup("AnnotationIndex-threads"), Boolean.TRUE, null, "%G - %t", null, null, AccessController.getContext());
+        executor = new ThreadPoolExecutor(maxThreads, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), threadFactory);
+        // indexing only happens while deploying, so don't keep idle threads around
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    @Override
+    public synchronized void stop(final StopContext context) {
+        executor.shutdown();
+        executor = null;
+    }
+
+    @Override
+    public synchronized ThreadPoolExecutor getValue() throws IllegalStateException, IllegalArgumentException {
+        final ThreadPoolExecutor executor = this.executor;
+        if (executor == null) {
+            throw new IllegalStateException();
+        }
+        return executor;
+    }
+
+    /**
+     * Change the maximum number of indexing threads. Takes effect immediately if the service is running.
+     *
+     * @param maxThreads the maximum number of indexing threads, or a value smaller than 1 to use the number of
+     *                   available processors
+     */
+    public synchronized void setMaxThreads(final int maxThreads) {
+        this.maxThreads = getEffectiveMaxThreads(maxThreads);
+        final ThreadPoolExecutor executor = this.executor;
+        if (executor != null) {
+            // the core size must never exceed the maximum size
+            if (this.maxThreads > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(this.maxThreads);
+                executor.setCorePoolSize(this.maxThreads);
+            } else {
+                executor.setCorePoolSize(this.maxThreads);
+                executor.setMaximumPoolSize(this.maxThreads);
+            }
+        }
+    }
+
+    public synchronized int getMaxThreads() {
+        return maxThreads;
+    }
+
+    private static int getEffectiveMaxThreads(final int maxThreads) {
+        return maxThreads < 1 ? Runtime.getRuntime().availableProcessors() : maxThreads;
+    }
+}
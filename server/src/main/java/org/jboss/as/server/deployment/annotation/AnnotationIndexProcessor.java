@@ -33,21 +33,29 @@ import org.jboss.jandex.Index;
 import org.jboss.jandex.IndexReader;
 import org.jboss.jandex.Indexer;
 import org.jboss.logging.Logger;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.vfs.VFSUtils;
 import org.jboss.vfs.VirtualFile;
 import org.jboss.vfs.VirtualFileFilter;
 import org.jboss.vfs.VisitorAttributes;
 import org.jboss.vfs.util.SuffixMatchFilter;
 
-import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
+ * <p>
+ * If the {@link AnnotationIndexExecutorService} is available, the resource roots of a deployment, and shards of
+ * large resource roots, are indexed in parallel.
  *
  * @author John E. Bailey
  * @author Stuart Douglas
@@ -56,6 +64,26 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
 
     private static final Logger logger = Logger.getLogger(AnnotationIndexProcessor.class);
 
+    /**
+     * The maximum number of class files indexed by a single task, larger resource roots are split into several shards.
+     */
+    private static final int SHARD_SIZE = 500;
+
+    private final AnnotationIndexCache indexCache;
+
+    public AnnotationIndexProcessor() {
+        this(null);
+    }
+
+    /**
+     * Create a new processor.
+     *
+     * @param indexCache the cache for indexes of managed deployment content, may be {@code null}
+     */
+    public AnnotationIndexProcessor(final AnnotationIndexCache indexCache) {
+        this.indexCache = indexCache;
+    }
+
     /**
      * Process this deployment for annotations.  This will use an annotation indexer to create an index of all annotations
      * found in this deployment and attach it to the deployment unit context.
@@ -71,6 +99,16 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
             allResourceRoots.addAll(resourceRoots);
         }
         allResourceRoots.add(phaseContext.getDeploymentUnit().getAttachment(Attachments.DEPLOYMENT_ROOT));
+
+        // Indexes of managed content can be cached, keyed by the content hash of the top level deployment
+        DeploymentUnit topLevelDeployment = phaseContext.getDeploymentUnit();
+        while (topLevelDeployment.getParent() != null) {
+            topLevelDeployment = topLevelDeployment.getParent();
+        }
+        final byte[] deploymentHash = indexCache == null ? null : topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_HASH);
+        final ResourceRoot topLevelRoot = topLevelDeployment.getAttachment(Attachments.DEPLOYMENT_ROOT);
+
+        final List<PendingIndex> pendingIndexes = new ArrayList<PendingIndex>();
         for (ResourceRoot resourceRoot : allResourceRoots) {
             if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
                 continue;
@@ -103,7 +141,16 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
             }
 
             final VirtualFile virtualFile = resourceRoot.getRoot();
-            final Indexer indexer = new Indexer();
+            final String cachePath = deploymentHash == null ? null : getCachePath(virtualFile, topLevelRoot.getRoot());
+            if (cachePath != null) {
+                final Index cached = indexCache.getIndex(deploymentHash, cachePath, indexIgnorePaths);
+                if (cached != null) {
+                    resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, cached);
+                    logger.tracef("Found cached index for archive %s", virtualFile);
+                    continue;
+                }
+            }
+
             try {
                 final VisitorAttributes visitorAttributes = new VisitorAttributes();
                 visitorAttributes.setLeavesOnly(true);
@@ -114,26 +161,144 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
                 });
 
                 final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
-                for (VirtualFile classFile : classChildren) {
-                    InputStream inputStream = null;
-                    try {
-                        inputStream = classFile.openStream();
-                        indexer.index(inputStream);
-                    } catch (Exception e) {
-                        logger.warn("Could not index class " + classFile.getPathNameRelativeTo(virtualFile) + " in archive '" + virtualFile + "'", e);
-                    } finally {
-                        VFSUtils.safeClose(inputStream);
+                pendingIndexes.add(new PendingIndex(resourceRoot, cachePath, indexIgnorePaths, classChildren));
+            } catch (Throwable t) {
+                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
+            }
+        }
+        if (pendingIndexes.isEmpty()) {
+            return;
+        }
+
+        final Executor executor = getExecutor(phaseContext);
+        boolean inline = executor == null || pendingIndexes.size() == 1 && pendingIndexes.get(0).shards.size() == 1;
+        if (!inline) {
+            // Index all shards of all resource roots in parallel, the deployment thread only waits for the results
+            try {
+                for (PendingIndex pendingIndex : pendingIndexes) {
+                    for (IndexTask shard : pendingIndex.shards) {
+                        executor.execute(shard);
                     }
                 }
-                final Index index = indexer.complete();
+            } catch (RejectedExecutionException e) {
+                logger.debugf(e, "Annotation index executor is not accepting tasks, indexing on the deployment thread");
+                inline = true;
+            }
+        }
+        if (inline) {
+            // Running a shard which was already submitted is a no-op if the executor has started it, and indexes
+            // it here if the executor dropped it while shutting down
+            for (PendingIndex pendingIndex : pendingIndexes) {
+                for (IndexTask shard : pendingIndex.shards) {
+                    shard.run();
+                }
+            }
+        }
+
+        for (PendingIndex pendingIndex : pendingIndexes) {
+            final ResourceRoot resourceRoot = pendingIndex.resourceRoot;
+            final VirtualFile virtualFile = resourceRoot.getRoot();
+            try {
+                final List<Index> shardIndexes = new ArrayList<Index>(pendingIndex.shards.size());
+                for (IndexTask shard : pendingIndex.shards) {
+                    shardIndexes.add(shard.get());
+                }
+                final Index index = shardIndexes.size() == 1 ? shardIndexes.get(0) : AnnotationIndexUtils.merge(shardIndexes);
                 resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
+                if (pendingIndex.cachePath != null) {
+                    indexCache.putIndex(deploymentHash, pendingIndex.cachePath, pendingIndex.ignorePaths, index);
+                }
                 logger.tracef("Generated index for archive %s", virtualFile);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(pendingIndexes);
+                throw new DeploymentUnitProcessingException("Interrupted while indexing deployment root for annotations", e);
             } catch (Throwable t) {
-                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t);
+                cancel(pendingIndexes);
+                throw new DeploymentUnitProcessingException("Failed to index deployment root for annotations", t instanceof ExecutionException ? t.getCause() : t);
             }
         }
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    private static String getCachePath(final VirtualFile file, final VirtualFile deploymentRoot) {
+        if (file.equals(deploymentRoot)) {
+            return "";
+        }
+        try {
+            return file.getPathNameRelativeTo(deploymentRoot);
+        } catch (IllegalArgumentException e) {
+            // not part of the deployment content, e.g. an external Class-Path entry
+            return null;
+        }
+    }
+
+    private static Executor getExecutor(final DeploymentPhaseContext phaseContext) {
+        final ServiceController<?> controller = phaseContext.getServiceRegistry().getService(AnnotationIndexExecutorService.SERVICE_NAME);
+        if (controller == null || controller.getState() != ServiceController.State.UP) {
+            return null;
+        }
+        try {
+            return (Executor) controller.getValue();
+        } catch (IllegalStateException e) {
+            // the executor is being stopped
+            return null;
+        }
+    }
+
+    private static void cancel(final List<PendingIndex> pendingIndexes) {
+        for (PendingIndex pendingIndex : pendingIndexes) {
+            for (IndexTask shard : pendingIndex.shards) {
+                shard.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * A resource root which needs to be indexed, split into shards of at most {@link #SHARD_SIZE} class files.
+     */
+    private static final class PendingIndex {
+        private final ResourceRoot resourceRoot;
+        private final String cachePath;
+        private final Set<String> ignorePaths;
+        private final List<IndexTask> shards = new ArrayList<IndexTask>();
+
+        private PendingIndex(final ResourceRoot resourceRoot, final String cachePath, final Set<String> ignorePaths, final List<VirtualFile> classFiles) {
+            this.resourceRoot = resourceRoot;
+            this.cachePath = cachePath;
+            this.ignorePaths = ignorePaths;
+            final VirtualFile root = resourceRoot.getRoot();
+            int start = 0;
+            do {
+                final int end = Math.min(start + SHARD_SIZE, classFiles.size());
+                shards.add(new IndexTask(root, classFiles.subList(start, end)));
+                start = end;
+            } while (start < classFiles.size());
+        }
+    }
+
+    private static final class IndexTask extends FutureTask<Index> {
+
+        private IndexTask(final VirtualFile root, final List<VirtualFile> classFiles) {
+            super(new Callable<Index>() {
+                public Index call() throws Exception {
+                    final Indexer indexer = new Indexer();
+                    for (VirtualFile classFile : classFiles) {
+                        InputStream inputStream = null;
+                        try {
+                            inputStream = classFile.openStream();
+                            indexer.index(inputStream);
+                        } catch (Exception e) {
+                            logger.warn("Could not index class " + classFile.getPathNameRelativeTo(root) + " in archive '" + root + "'", e);
+                        } finally {
+                            VFSUtils.safeClose(inputStream);
+                        }
+                    }
+                    return indexer.complete();
+                }
+            });
+        }
+    }
 }
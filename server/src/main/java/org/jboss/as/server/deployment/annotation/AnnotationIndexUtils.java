@@ -23,6 +23,7 @@
 package org.jboss.as.server.deployment.annotation;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -30,6 +31,9 @@ import java.util.Map;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
 import org.jboss.jandex.Index;
 
 /**
@@ -63,4 +67,45 @@ public class AnnotationIndexUtils {
         return indexes;
     }
 
+    /**
+     * Merge the indexes of disjoint sets of classes, e.g. the shards of a resource root which have been indexed
+     * separately, into a single index.
+     *
+     * @param indexes the indexes to merge
+     * @return the merged index
+     */
+    public static Index merge(final Collection<Index> indexes) {
+        final Map<DotName, List<AnnotationInstance>> annotations = new HashMap<DotName, List<AnnotationInstance>>();
+        final Map<DotName, List<ClassInfo>> subclasses = new HashMap<DotName, List<ClassInfo>>();
+        final Map<DotName, List<ClassInfo>> implementors = new HashMap<DotName, List<ClassInfo>>();
+        final Map<DotName, ClassInfo> classes = new HashMap<DotName, ClassInfo>();
+        for (Index index : indexes) {
+            for (ClassInfo classInfo : index.getKnownClasses()) {
+                classes.put(classInfo.name(), classInfo);
+                if (classInfo.superName() != null) {
+                    addToList(subclasses, classInfo.superName(), classInfo);
+                }
+                for (DotName interfaceName : classInfo.interfaces()) {
+                    addToList(implementors, interfaceName, classInfo);
+                }
+                // the annotations of a class include the ones of its members and parameters
+                for (Map.Entry<DotName, List<AnnotationInstance>> entry : classInfo.annotations().entrySet()) {
+                    for (AnnotationInstance instance : entry.getValue()) {
+                        addToList(annotations, entry.getKey(), instance);
+                    }
+                }
+            }
+        }
+        return Index.create(annotations, subclasses, implementors, classes);
+    }
+
+    private static <T> void addToList(final Map<DotName, List<T>> map, final DotName key, final T value) {
+        List<T> list = map.get(key);
+        if (list == null) {
+            list = new ArrayList<T>();
+            map.put(key, list);
+        }
+        list.add(value);
+    }
+
 }
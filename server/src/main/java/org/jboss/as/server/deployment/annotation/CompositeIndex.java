@@ -31,19 +31,35 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Composite annotation index.  Represents an annotation index for an entire deployment.
+ * <p>
+ * The results of the lookup methods are merged across all indexes and memoized on first use, as the same queries
+ * are issued by many deployment processors. The underlying indexes must therefore not be changed once the
+ * composite index is used. The results are unmodifiable and it is safe to query the index from multiple threads.
  *
  * @author John Bailey
  */
 public class CompositeIndex {
     final Collection<Index> indexes;
 
+    private final ConcurrentMap<DotName, List<AnnotationInstance>> annotations = new ConcurrentHashMap<DotName, List<AnnotationInstance>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directSubclasses = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allSubclasses = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directImplementors = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allImplementors = new ConcurrentHashMap<DotName, Set<ClassInfo>>();
+    private volatile Map<DotName, ClassInfo> classes;
+    private volatile Collection<ClassInfo> knownClasses;
+
     public CompositeIndex(final Collection<Index> indexes) {
         this.indexes = indexes;
     }
@@ -59,28 +75,36 @@ public class CompositeIndex {
      * @see {@link Index#getAnnotations(org.jboss.jandex.DotName)}
      */
     public List<AnnotationInstance> getAnnotations(final DotName annotationName) {
-        final List<AnnotationInstance> allInstances = new ArrayList<AnnotationInstance>();
-        for (Index index : indexes) {
-            final List<AnnotationInstance> list = index.getAnnotations(annotationName);
-            if (list != null) {
-                allInstances.addAll(list);
+        List<AnnotationInstance> result = annotations.get(annotationName);
+        if (result == null) {
+            final List<AnnotationInstance> allInstances = new ArrayList<AnnotationInstance>();
+            for (Index index : indexes) {
+                final List<AnnotationInstance> list = index.getAnnotations(annotationName);
+                if (list != null) {
+                    allInstances.addAll(list);
+                }
             }
+            result = memoize(annotations, annotationName, allInstances.isEmpty() ? Collections.<AnnotationInstance>emptyList() : Collections.unmodifiableList(allInstances));
         }
-        return Collections.unmodifiableList(allInstances);
+        return result;
     }
 
     /**
      * @see {@link Index#getKnownDirectSubclasses(org.jboss.jandex.DotName)}
      */
     public Set<ClassInfo> getKnownDirectSubclasses(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectSubclasses(className);
-            if (list != null) {
-                allKnown.addAll(list);
+        Set<ClassInfo> result = directSubclasses.get(className);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            for (Index index : indexes) {
+                final List<ClassInfo> list = index.getKnownDirectSubclasses(className);
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            result = memoize(directSubclasses, className, unmodifiable(allKnown));
         }
-        return Collections.unmodifiableSet(allKnown);
+        return result;
     }
 
     /**
@@ -91,10 +115,14 @@ public class CompositeIndex {
      * @return All known subclasses
      */
     public Set<ClassInfo> getAllKnownSubclasses(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        final Set<DotName> processedClasses = new HashSet<DotName>();
-        getAllKnownSubClasses(className, allKnown, processedClasses);
-        return allKnown;
+        Set<ClassInfo> result = allSubclasses.get(className);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            final Set<DotName> processedClasses = new HashSet<DotName>();
+            getAllKnownSubClasses(className, allKnown, processedClasses);
+            result = memoize(allSubclasses, className, unmodifiable(allKnown));
+        }
+        return result;
     }
 
     private void getAllKnownSubClasses(DotName className, Set<ClassInfo> allKnown, Set<DotName> processedClasses) {
@@ -105,21 +133,11 @@ public class CompositeIndex {
             DotName name = toProcess.next();
             toProcess.remove();
             processedClasses.add(name);
-            getAllKnownSubClasses(name, allKnown, subClassesToProcess, processedClasses);
-        }
-    }
-
-    private void getAllKnownSubClasses(DotName name, Set<ClassInfo> allKnown, Set<DotName> subClassesToProcess,
-            Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectSubclasses(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        allKnown.add(clazz);
-                        subClassesToProcess.add(className);
-                    }
+            for (final ClassInfo clazz : getKnownDirectSubclasses(name)) {
+                final DotName subClassName = clazz.name();
+                if (!processedClasses.contains(subClassName)) {
+                    allKnown.add(clazz);
+                    subClassesToProcess.add(subClassName);
                 }
             }
         }
@@ -129,14 +147,18 @@ public class CompositeIndex {
      * @see {@link Index#getKnownDirectImplementors(DotName)}
      */
     public Set<ClassInfo> getKnownDirectImplementors(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectImplementors(className);
-            if (list != null) {
-                allKnown.addAll(list);
+        Set<ClassInfo> result = directImplementors.get(className);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            for (Index index : indexes) {
+                final List<ClassInfo> list = index.getKnownDirectImplementors(className);
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            result = memoize(directImplementors, className, unmodifiable(allKnown));
         }
-        return Collections.unmodifiableSet(allKnown);
+        return result;
     }
 
     /**
@@ -150,37 +172,36 @@ public class CompositeIndex {
      * @return All known implementors of the interface
      */
     public Set<ClassInfo> getAllKnownImplementors(final DotName interfaceName) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        final Set<DotName> subInterfacesToProcess = new HashSet<DotName>();
-        final Set<DotName> processedClasses = new HashSet<DotName>();
-        subInterfacesToProcess.add(interfaceName);
-        while (!subInterfacesToProcess.isEmpty()) {
-            final Iterator<DotName> toProcess = subInterfacesToProcess.iterator();
-            DotName name = toProcess.next();
-            toProcess.remove();
-            processedClasses.add(name);
-            getKnownImplementors(name, allKnown, subInterfacesToProcess, processedClasses);
+        Set<ClassInfo> result = allImplementors.get(interfaceName);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            final Set<DotName> subInterfacesToProcess = new HashSet<DotName>();
+            final Set<DotName> processedClasses = new HashSet<DotName>();
+            subInterfacesToProcess.add(interfaceName);
+            while (!subInterfacesToProcess.isEmpty()) {
+                final Iterator<DotName> toProcess = subInterfacesToProcess.iterator();
+                DotName name = toProcess.next();
+                toProcess.remove();
+                processedClasses.add(name);
+                getKnownImplementors(name, allKnown, subInterfacesToProcess, processedClasses);
+            }
+            result = memoize(allImplementors, interfaceName, unmodifiable(allKnown));
         }
-        return allKnown;
+        return result;
     }
 
     private void getKnownImplementors(DotName name, Set<ClassInfo> allKnown, Set<DotName> subInterfacesToProcess,
             Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectImplementors(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        if (Modifier.isInterface(clazz.flags())) {
-                            subInterfacesToProcess.add(className);
-                        } else {
-                            if (!allKnown.contains(clazz)) {
-                                allKnown.add(clazz);
-                                processedClasses.add(className);
-                                getAllKnownSubClasses(className, allKnown, processedClasses);
-                            }
-                        }
+        for (final ClassInfo clazz : getKnownDirectImplementors(name)) {
+            final DotName className = clazz.name();
+            if (!processedClasses.contains(className)) {
+                if (Modifier.isInterface(clazz.flags())) {
+                    subInterfacesToProcess.add(className);
+                } else {
+                    if (!allKnown.contains(clazz)) {
+                        allKnown.add(clazz);
+                        processedClasses.add(className);
+                        allKnown.addAll(getAllKnownSubclasses(className));
                     }
                 }
             }
@@ -191,26 +212,47 @@ public class CompositeIndex {
      * @see {@link Index#getClassByName(org.jboss.jandex.DotName)}
      */
     public ClassInfo getClassByName(final DotName className) {
-        for (Index index : indexes) {
-            final ClassInfo info = index.getClassByName(className);
-            if (info != null) {
-                return info;
+        Map<DotName, ClassInfo> classes = this.classes;
+        if (classes == null) {
+            classes = new HashMap<DotName, ClassInfo>();
+            for (Index index : indexes) {
+                for (ClassInfo info : index.getKnownClasses()) {
+                    // the first index containing a class wins
+                    if (!classes.containsKey(info.name())) {
+                        classes.put(info.name(), info);
+                    }
+                }
             }
+            this.classes = classes;
         }
-        return null;
+        return classes.get(className);
     }
 
     /**
      * @see {@link org.jboss.jandex.Index#getKnownClasses()}
      */
     public Collection<ClassInfo> getKnownClasses() {
-        final List<ClassInfo> allKnown = new ArrayList<ClassInfo>();
-        for (Index index : indexes) {
-            final Collection<ClassInfo> list = index.getKnownClasses();
-            if (list != null) {
-                allKnown.addAll(list);
+        Collection<ClassInfo> knownClasses = this.knownClasses;
+        if (knownClasses == null) {
+            final List<ClassInfo> allKnown = new ArrayList<ClassInfo>();
+            for (Index index : indexes) {
+                final Collection<ClassInfo> list = index.getKnownClasses();
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            knownClasses = Collections.unmodifiableCollection(allKnown);
+            this.knownClasses = knownClasses;
         }
-        return Collections.unmodifiableCollection(allKnown);
+        return knownClasses;
+    }
+
+    private static <T> Set<T> unmodifiable(final Set<T> set) {
+        return set.isEmpty() ? Collections.<T>emptySet() : Collections.unmodifiableSet(set);
+    }
+
+    private static <T> T memoize(final ConcurrentMap<DotName, T> map, final DotName name, final T value) {
+        final T existing = map.putIfAbsent(name, value);
+        return existing == null ? value : existing;
     }
 }
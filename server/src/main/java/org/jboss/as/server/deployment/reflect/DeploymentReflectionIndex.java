@@ -22,17 +22,35 @@
 
 package org.jboss.as.server.deployment.reflect;
 
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
 import java.security.Permission;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.server.moduleservice.ServiceModuleLoader;
+import org.jboss.modules.ModuleClassLoader;
 
 /**
  * A reflection index for a deployment.
+ * <p>
+ * Classes of the deployment are indexed per deployment. The indexes of JDK classes and classes loaded from static
+ * modules are shared by all deployments, so that framework and API classes are only reflected once per server.
  *
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex<?>> classes = new HashMap<Class<?>, ClassReflectionIndex<?>>();
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+
+    /** The shared indexes of the JDK classes. */
+    private static final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> bootClasses = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+    /**
+     * The shared indexes of static module classes, weakly keyed by class loader. The indexes reference their class
+     * loader, so they are only softly reachable in order not to prevent a class loader from being collected.
+     */
+    private static final Map<ClassLoader, Reference<ConcurrentMap<Class<?>, ClassReflectionIndex<?>>>> sharedClasses = new WeakHashMap<ClassLoader, Reference<ConcurrentMap<Class<?>, ClassReflectionIndex<?>>>>();
 
     DeploymentReflectionIndex() {
     }
@@ -59,15 +77,47 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
+    public <T> ClassReflectionIndex<T> getClassIndex(Class<T> clazz) {
         try {
+            final ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = getClasses(clazz);
             ClassReflectionIndex<T> index = (ClassReflectionIndex<T>) classes.get(clazz);
             if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex<T>(clazz, this));
+                index = new ClassReflectionIndex<T>(clazz, this);
+                final ClassReflectionIndex<T> existing = (ClassReflectionIndex<T>) classes.putIfAbsent(clazz, index);
+                if (existing != null) {
+                    index = existing;
+                }
             }
             return index;
         } catch (Throwable e) {
             throw new RuntimeException("Error getting reflective information for " + clazz, e);
         }
     }
+
+    private ConcurrentMap<Class<?>, ClassReflectionIndex<?>> getClasses(final Class<?> clazz) {
+        final ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            return bootClasses;
+        }
+        if (!isStaticModuleClassLoader(classLoader)) {
+            return classes;
+        }
+        synchronized (sharedClasses) {
+            final Reference<ConcurrentMap<Class<?>, ClassReflectionIndex<?>>> ref = sharedClasses.get(classLoader);
+            ConcurrentMap<Class<?>, ClassReflectionIndex<?>> classes = ref == null ? null : ref.get();
+            if (classes == null) {
+                classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex<?>>();
+                sharedClasses.put(classLoader, new SoftReference<ConcurrentMap<Class<?>, ClassReflectionIndex<?>>>(classes));
+            }
+            return classes;
+        }
+    }
+
+    private static boolean isStaticModuleClassLoader(final ClassLoader classLoader) {
+        if (classLoader instanceof ModuleClassLoader) {
+            // deployment modules and the modules created for them use the service module loader prefix
+            return !((ModuleClassLoader) classLoader).getModule().getIdentifier().getName().startsWith(ServiceModuleLoader.MODULE_PREFIX);
+        }
+        return false;
+    }
 }
@@ -0,0 +1,65 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.operations;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.server.controller.descriptions.ServerDescriptionConstants;
+import org.jboss.as.server.deployment.annotation.AnnotationIndexCache;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceController;
+
+/**
+ * Reports the hit and miss counts of the {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheMetricHandler implements OperationStepHandler {
+
+    public static final AnnotationIndexCacheMetricHandler HITS = new AnnotationIndexCacheMetricHandler(true);
+    public static final AnnotationIndexCacheMetricHandler MISSES = new AnnotationIndexCacheMetricHandler(false);
+
+    public static final String HITS_ATTRIBUTE = ServerDescriptionConstants.ANNOTATION_INDEX_CACHE_HITS;
+    public static final String MISSES_ATTRIBUTE = ServerDescriptionConstants.ANNOTATION_INDEX_CACHE_MISSES;
+
+    private final boolean hits;
+
+    private AnnotationIndexCacheMetricHandler(final boolean hits) {
+        this.hits = hits;
+    }
+
+    @Override
+    public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+                final ServiceController<?> controller = context.getServiceRegistry(false).getService(AnnotationIndexCache.SERVICE_NAME);
+                if (controller != null) {
+                    final AnnotationIndexCache cache = AnnotationIndexCache.class.cast(controller.getValue());
+                    context.getResult().set(hits ? cache.getHitCount() : cache.getMissCount());
+                }
+                context.completeStep();
+            }
+        }, OperationContext.Stage.RUNTIME);
+        context.completeStep();
+    }
+}
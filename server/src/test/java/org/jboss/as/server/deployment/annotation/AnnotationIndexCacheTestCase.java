@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.deployment.repository.api.ContentRepository;
+import org.jboss.as.server.deployment.repository.impl.ContentRepositoryImpl;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of the keys and the eviction of the {@link AnnotationIndexCache}.
+ */
+public class AnnotationIndexCacheTestCase {
+
+    private static final byte[] HASH = {0x01, 0x23, 0x45, 0x67};
+
+    private File cacheRoot;
+    private AnnotationIndexCache cache;
+
+    @Before
+    public void setup() throws IOException {
+        cacheRoot = File.createTempFile("index-cache", "");
+        cacheRoot.delete();
+        cacheRoot.mkdirs();
+        cache = new AnnotationIndexCache(cacheRoot, new TestContentRepository());
+    }
+
+    @After
+    public void cleanup() {
+        cache.evict(HASH);
+        cacheRoot.delete();
+    }
+
+    @Test
+    public void testIgnorePathsArePartOfTheKey() throws IOException {
+        cache.putIndex(HASH, "lib/a.jar", Arrays.asList("com/acme/b", "com/acme/a"), createIndex());
+
+        assertNull(cache.getIndex(HASH, "lib/a.jar", null));
+        assertNull(cache.getIndex(HASH, "lib/a.jar", Arrays.asList("com/acme/a")));
+        assertNull(cache.getIndex(HASH, "lib/a.jar", Arrays.asList("com/acme/a", "com/acme/c")));
+        // the order of the ignored paths doesn't matter
+        final Index index = cache.getIndex(HASH, "lib/a.jar", Arrays.asList("com/acme/a", "com/acme/b"));
+        assertNotNull(index);
+        assertEquals(1, index.getKnownClasses().size());
+    }
+
+    @Test
+    public void testNoIgnorePaths() throws IOException {
+        cache.putIndex(HASH, "", null, createIndex());
+
+        // an empty list of ignored paths indexes the same classes as none
+        assertNotNull(cache.getIndex(HASH, "", null));
+        assertNotNull(cache.getIndex(HASH, "", Arrays.<String>asList()));
+        assertNull(cache.getIndex(HASH, "", Arrays.asList("com/acme/a")));
+        assertNull(cache.getIndex(HASH, "lib/a.jar", null));
+    }
+
+    @Test
+    public void testRemovedContentIsEvicted() throws Exception {
+        final File repoRoot = File.createTempFile("content-repository", "");
+        repoRoot.delete();
+        try {
+            final ContentRepositoryImpl contentRepository = new ContentRepositoryImpl(repoRoot) {};
+            final byte[] hash = contentRepository.addContent(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+            final AnnotationIndexCache cache = new AnnotationIndexCache(cacheRoot, contentRepository);
+            final File hashDir = new File(cacheRoot, HashUtil.bytesToHexString(hash));
+
+            cache.start(null);
+            cache.putIndex(hash, "", null, createIndex());
+            assertNotNull(cache.getIndex(hash, "", null));
+            contentRepository.removeContent(hash);
+            assertFalse(hashDir.exists());
+
+            // once the cache is stopped, removals are only picked up by the next start
+            contentRepository.addContent(new ByteArrayInputStream(new byte[] {1, 2, 3}));
+            cache.putIndex(hash, "", null, createIndex());
+            cache.stop(null);
+            contentRepository.removeContent(hash);
+            assertTrue(hashDir.exists());
+            cache.start(null);
+            assertFalse(hashDir.exists());
+            cache.stop(null);
+        } finally {
+            deleteRecursively(repoRoot);
+        }
+    }
+
+    private static void deleteRecursively(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (final File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private Index createIndex() throws IOException {
+        final Indexer indexer = new Indexer();
+        final InputStream in = getClass().getResourceAsStream(getClass().getSimpleName() + ".class");
+        try {
+            indexer.index(in);
+        } finally {
+            in.close();
+        }
+        return indexer.complete();
+    }
+
+    private static class TestContentRepository implements ContentRepository {
+
+        @Override
+        public byte[] addContent(final InputStream stream) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public VirtualFile getContent(final byte[] hash) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean hasContent(final byte[] hash) {
+            return Arrays.equals(HASH, hash);
+        }
+
+        @Override
+        public void removeContent(final byte[] hash) {
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.server.deployment.annotation;
+
+import static org.jboss.as.server.deployment.annotation.CompositeIndexBenchmark.classFile;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.jboss.jandex.AnnotationInstance;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that {@link AnnotationIndexUtils#merge(Collection)} of the shard indexes of a resource root gives the same
+ * index as indexing all classes at once.
+ */
+public class AnnotationIndexUtilsTestCase {
+
+    private static final int CLASSES = 60;
+    private static final int SHARD_SIZE = 7;
+    private static final int BASE_CLASSES = 3;
+    private static final int INTERFACES = 2;
+    private static final int ANNOTATIONS = 2;
+
+    private final List<byte[]> classFiles = new ArrayList<byte[]>();
+    private Index single;
+    private Index merged;
+
+    @Before
+    public void setup() throws IOException {
+        for (int i = 0; i < BASE_CLASSES; i++) {
+            classFiles.add(classFile("test/B" + i, "java/lang/Object", null, "Ltest/A0;", false));
+        }
+        for (int i = 0; i < INTERFACES; i++) {
+            classFiles.add(classFile("test/I" + i, "java/lang/Object", null, null, true));
+        }
+        // chains of subclasses, which end up in different shards than their super classes
+        for (int i = 0; i < CLASSES; i++) {
+            final String superName = i % 10 == 0 ? "test/B" + (i / 10 % BASE_CLASSES) : "test/C" + (i - 1);
+            final String interfaceName = i % 3 == 0 ? "test/I" + (i % INTERFACES) : null;
+            classFiles.add(classFile("test/C" + i, superName, interfaceName, "Ltest/A" + (i % ANNOTATIONS) + ";", false));
+        }
+
+        final Indexer indexer = new Indexer();
+        for (byte[] classFile : classFiles) {
+            indexer.index(new ByteArrayInputStream(classFile));
+        }
+        single = indexer.complete();
+
+        final List<Index> shards = new ArrayList<Index>();
+        for (int start = 0; start < classFiles.size(); start += SHARD_SIZE) {
+            final Indexer shard = new Indexer();
+            for (byte[] classFile : classFiles.subList(start, Math.min(start + SHARD_SIZE, classFiles.size()))) {
+                shard.index(new ByteArrayInputStream(classFile));
+            }
+            shards.add(shard.complete());
+        }
+        merged = AnnotationIndexUtils.merge(shards);
+    }
+
+    @Test
+    public void testKnownClasses() {
+        assertEquals(classFiles.size(), merged.getKnownClasses().size());
+        assertEquals(names(single.getKnownClasses()), names(merged.getKnownClasses()));
+        for (ClassInfo classInfo : single.getKnownClasses()) {
+            assertNotNull(merged.getClassByName(classInfo.name()));
+        }
+    }
+
+    @Test
+    public void testAnnotations() {
+        for (int i = 0; i < ANNOTATIONS; i++) {
+            final DotName annotation = DotName.createSimple("test.A" + i);
+            assertFalse(single.getAnnotations(annotation).isEmpty());
+            assertEquals(targets(single.getAnnotations(annotation)), targets(merged.getAnnotations(annotation)));
+        }
+    }
+
+    @Test
+    public void testSubclasses() {
+        for (ClassInfo classInfo : single.getKnownClasses()) {
+            assertEquals(names(single.getKnownDirectSubclasses(classInfo.name())), names(merged.getKnownDirectSubclasses(classInfo.name())));
+        }
+        final DotName base = DotName.createSimple("test.B0");
+        assertEquals(names(new CompositeIndex(Collections.singleton(single)).getAllKnownSubclasses(base)), names(new CompositeIndex(Collections.singleton(merged)).getAllKnownSubclasses(base)));
+    }
+
+    @Test
+    public void testImplementors() {
+        for (int i = 0; i < INTERFACES; i++) {
+            final DotName name = DotName.createSimple("test.I" + i);
+            assertFalse(single.getKnownDirectImplementors(name).isEmpty());
+            assertEquals(names(single.getKnownDirectImplementors(name)), names(merged.getKnownDirectImplementors(name)));
+            assertEquals(names(new CompositeIndex(Collections.singleton(single)).getAllKnownImplementors(name)), names(new CompositeIndex(Collections.singleton(merged)).getAllKnownImplementors(name)));
+        }
+    }
+
+    private static Set<String> names(final Collection<ClassInfo> classes) {
+        final Set<String> names = new TreeSet<String>();
+        for (ClassInfo classInfo : classes) {
+            names.add(classInfo.name().toString());
+        }
+        return names;
+    }
+
+    private static Set<String> targets(final Collection<AnnotationInstance> instances) {
+        final Set<String> names = new TreeSet<String>();
+        for (AnnotationInstance instance : instances) {
+            names.add(((ClassInfo) instance.target()).name().toString());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2011, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+
+/**
+ * Benchmark of the annotation lookups deployment processors issue against the {@link CompositeIndex} of a synthetic
+ * archive of 10,000 classes spread over 40 library jars. The memoized composite index of one deployment is compared
+ * with scanning all indexes for every query.
+ * <p>
+ * Not run as part of the test suite, execute the {@code main} method.
+ */
+public class CompositeIndexBenchmark {
+
+    private static final int JARS = 40;
+    private static final int CLASSES_PER_JAR = 250;
+    private static final int BASE_CLASSES = 100;
+    private static final int INTERFACES = 20;
+    private static final int ANNOTATIONS = 20;
+    /** The number of deployment processors issuing the same queries. */
+    private static final int PROCESSORS = 30;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 20;
+
+    public static void main(final String[] args) throws IOException {
+        long time = System.nanoTime();
+        final List<Index> indexes = createIndexes();
+        System.out.printf("Indexed %,d classes in %,d ms%n", JARS * CLASSES_PER_JAR, (System.nanoTime() - time) / 1000000);
+
+        for (int i = 0; i < WARMUP; i++) {
+            deployScanning(indexes);
+            deployMemoized(indexes);
+        }
+
+        time = System.nanoTime();
+        int results = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            results += deployScanning(indexes);
+        }
+        report("scanning", time, results);
+
+        time = System.nanoTime();
+        results = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            results += deployMemoized(indexes);
+        }
+        report("memoized", time, results);
+    }
+
+    /**
+     * Every query is answered by scanning all indexes, as if there was no memoization.
+     */
+    static int deployScanning(final List<Index> indexes) {
+        int results = 0;
+        for (int i = 0; i < PROCESSORS; i++) {
+            results += query(null, indexes);
+        }
+        return results;
+    }
+
+    /**
+     * All processors of a deployment share one composite index.
+     */
+    static int deployMemoized(final List<Index> indexes) {
+        final CompositeIndex index = new CompositeIndex(indexes);
+        int results = 0;
+        for (int i = 0; i < PROCESSORS; i++) {
+            results += query(index, indexes);
+        }
+        return results;
+    }
+
+    static int query(final CompositeIndex shared, final List<Index> indexes) {
+        int results = 0;
+        for (int i = 0; i < ANNOTATIONS; i++) {
+            results += compositeIndex(shared, indexes).getAnnotations(annotationName(i)).size();
+        }
+        for (int i = 0; i < INTERFACES; i++) {
+            results += compositeIndex(shared, indexes).getAllKnownImplementors(interfaceName(i)).size();
+        }
+        for (int i = 0; i < BASE_CLASSES; i += 10) {
+            results += compositeIndex(shared, indexes).getAllKnownSubclasses(baseClassName(i)).size();
+            results += compositeIndex(shared, indexes).getKnownDirectSubclasses(baseClassName(i)).size();
+        }
+        return results;
+    }
+
+    private static CompositeIndex compositeIndex(final CompositeIndex shared, final List<Index> indexes) {
+        return shared != null ? shared : new CompositeIndex(indexes);
+    }
+
+    static void report(final String name, final long startTime, final int results) {
+        final long time = System.nanoTime() - startTime;
+        System.out.printf("%-10s %,12d us/deployment (%d results)%n", name, time / ITERATIONS / 1000, results / ITERATIONS);
+    }
+
+    /**
+     * Each jar contains chains of classes, every chain starts at one of the base classes. Every third class implements
+     * one of the interfaces and every class is annotated with one of the annotations.
+     */
+    static List<Index> createIndexes() throws IOException {
+        final List<Index> indexes = new ArrayList<Index>();
+        final Indexer base = new Indexer();
+        for (int i = 0; i < BASE_CLASSES; i++) {
+            base.index(new ByteArrayInputStream(classFile(internalName(baseClassName(i)), "java/lang/Object", null, null, false)));
+        }
+        for (int i = 0; i < INTERFACES; i++) {
+            base.index(new ByteArrayInputStream(classFile(internalName(interfaceName(i)), "java/lang/Object", null, null, true)));
+        }
+        indexes.add(base.complete());
+        int k = 0;
+        for (int jar = 0; jar < JARS; jar++) {
+            final Indexer indexer = new Indexer();
+            for (int j = 0; j < CLASSES_PER_JAR; j++, k++) {
+                final String superName = k % 10 == 0 ? internalName(baseClassName(k / 10 % BASE_CLASSES)) : "bench/C" + (k - 1);
+                final String interfaceName = k % 3 == 0 ? internalName(interfaceName(k % INTERFACES)) : null;
+                indexer.index(new ByteArrayInputStream(classFile("bench/C" + k, superName, interfaceName, "Lbench/A" + (k % ANNOTATIONS) + ";", false)));
+            }
+            indexes.add(indexer.complete());
+        }
+        return indexes;
+    }
+
+    static DotName annotationName(final int i) {
+        return DotName.createSimple("bench.A" + i);
+    }
+
+    static DotName interfaceName(final int i) {
+        return DotName.createSimple("bench.I" + i);
+    }
+
+    static DotName baseClassName(final int i) {
+        return DotName.createSimple("bench.B" + i);
+    }
+
+    private static String internalName(final DotName name) {
+        return name.toString().replace('.', '/');
+    }
+
+    /**
+     * Create a minimal class file without fields and methods.
+     */
+    static byte[] classFile(final String name, final String superName, final String interfaceName, final String annotation, final boolean isInterface) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(50);
+        // constant pool
+        out.writeShort(9);
+        out.writeByte(1);
+        out.writeUTF(name);
+        out.writeByte(7);
+        out.writeShort(1);
+        out.writeByte(1);
+        out.writeUTF(superName);
+        out.writeByte(7);
+        out.writeShort(3);
+        out.writeByte(1);
+        out.writeUTF(interfaceName != null ? interfaceName : "java/io/Serializable");
+        out.writeByte(7);
+        out.writeShort(5);
+        out.writeByte(1);
+        out.writeUTF("RuntimeVisibleAnnotations");
+        out.writeByte(1);
+        out.writeUTF(annotation != null ? annotation : "Ljava/lang/Deprecated;");
+        // access flags, this class, super class
+        out.writeShort(isInterface ? 0x0601 : 0x0021);
+        out.writeShort(2);
+        out.writeShort(4);
+        if (interfaceName != null) {
+            out.writeShort(1);
+            out.writeShort(6);
+        } else {
+            out.writeShort(0);
+        }
+        // fields, methods
+        out.writeShort(0);
+        out.writeShort(0);
+        if (annotation != null) {
+            out.writeShort(1);
+            out.writeShort(7);
+            out.writeInt(6);
+            out.writeShort(1);
+            out.writeShort(8);
+            out.writeShort(0);
+        } else {
+            out.writeShort(0);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+}
@@ -732,6 +732,11 @@ public abstract class AbstractSubsystemTest {
             return null;
         }
 
+        @Override
+        public ModelNode getCachedModelDescription(PathAddress address, Locale locale) {
+            return null;
+        }
+
         @Override
         public Map<String, OperationEntry> getOperationDescriptions(PathAddress address, boolean inherited) {
             return null;